@@ -0,0 +1,100 @@
+package ru.yoomoney.tech.dbqueue.benchmark;
+
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.Task;
+import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.api.TaskPayloadTransformer;
+import ru.yoomoney.tech.dbqueue.api.impl.NoopPayloadTransformer;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Objects shared by benchmarks.
+ *
+ * @since 17.10.2026
+ */
+final class BenchmarkFixtures {
+
+    static final QueueLocation LOCATION = QueueLocation.builder()
+            .withTableName("queue_benchmark")
+            .withQueueId(new QueueId("benchmark")).build();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Create queue table schema with given number of additional fields.
+     *
+     * @param extFieldCount Number of additional fields.
+     * @return Queue table schema.
+     */
+    @Nonnull
+    static QueueTableSchema createTableSchema(int extFieldCount) {
+        List<String> extFields = new ArrayList<>(extFieldCount);
+        for (int i = 0; i < extFieldCount; i++) {
+            extFields.add("ext_field_" + i);
+        }
+        return QueueTableSchema.builder().withExtFields(extFields).build();
+    }
+
+    /**
+     * Create a row of the queue table with given schema.
+     *
+     * @param tableSchema Queue table schema.
+     * @return Values of the row keyed by column name.
+     */
+    @Nonnull
+    static Map<String, Object> createTaskRow(@Nonnull QueueTableSchema tableSchema) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put(tableSchema.getIdField(), 42L);
+        row.put(tableSchema.getPayloadField(), "{\"key\":\"value\"}");
+        row.put(tableSchema.getAttemptField(), 1L);
+        row.put(tableSchema.getReenqueueAttemptField(), 0L);
+        row.put(tableSchema.getTotalAttemptField(), 1L);
+        row.put(tableSchema.getCreatedAtField(), now);
+        row.put(tableSchema.getNextProcessAtField(), now);
+        tableSchema.getExtFields().forEach(field -> row.put(field, field + "_value"));
+        return row;
+    }
+
+    /**
+     * Consumer which finishes every task without doing anything.
+     */
+    static class NoopQueueConsumer implements QueueConsumer<String> {
+
+        private final QueueConfig queueConfig = new QueueConfig(LOCATION, QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ofSeconds(1L))
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .build());
+
+        @Nonnull
+        @Override
+        public TaskExecutionResult execute(@Nonnull Task<String> task) {
+            return TaskExecutionResult.finish();
+        }
+
+        @Nonnull
+        @Override
+        public QueueConfig getQueueConfig() {
+            return queueConfig;
+        }
+
+        @Nonnull
+        @Override
+        public TaskPayloadTransformer<String> getPayloadTransformer() {
+            return NoopPayloadTransformer.getInstance();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.yoomoney.tech.dbqueue.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.dao.PostgresQueueDao;
+import ru.yoomoney.tech.dbqueue.internal.pick.PickTaskSettings;
+import ru.yoomoney.tech.dbqueue.internal.pick.PostgresQueuePickTaskDao;
+import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of PostgreSQL DAO overhead per task: SQL cache lookup, parameters and {@link TaskRecord} mapping.
+ *
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostgresDaoBenchmark {
+
+    @Param({"0", "3"})
+    private int extFieldCount;
+
+    private PostgresQueuePickTaskDao pickTaskDao;
+    private PostgresQueueDao queueDao;
+    private EnqueueParams<String> enqueueParams;
+
+    @Setup
+    public void setUp() {
+        QueueTableSchema tableSchema = BenchmarkFixtures.createTableSchema(extFieldCount);
+        StubDatabase database = new StubDatabase(BenchmarkFixtures.createTaskRow(tableSchema));
+        pickTaskDao = new PostgresQueuePickTaskDao(database, tableSchema,
+                new PickTaskSettings(TaskRetryType.GEOMETRIC_BACKOFF, Duration.ofMinutes(1L)));
+        queueDao = new PostgresQueueDao(database, tableSchema);
+        enqueueParams = EnqueueParams.create("{\"key\":\"value\"}");
+        tableSchema.getExtFields().forEach(field -> enqueueParams.withExtData(field, field + "_value"));
+    }
+
+    @Benchmark
+    public TaskRecord pickTask() {
+        return pickTaskDao.pickTask(BenchmarkFixtures.LOCATION);
+    }
+
+    @Benchmark
+    public List<TaskRecord> pickTasks(BatchState batchState) {
+        return pickTaskDao.pickTasks(BenchmarkFixtures.LOCATION, batchState.batchSize);
+    }
+
+    @Benchmark
+    public long enqueue() {
+        return queueDao.enqueue(BenchmarkFixtures.LOCATION, enqueueParams);
+    }
+
+    @Benchmark
+    public boolean deleteTask() {
+        return queueDao.deleteTask(BenchmarkFixtures.LOCATION, 42L);
+    }
+
+    /**
+     * Batch size of {@link #pickTasks(BatchState)}, separated to not multiply other benchmarks.
+     */
+    @State(Scope.Benchmark)
+    public static class BatchState {
+        @Param({"1", "10"})
+        private int batchSize;
+    }
+}
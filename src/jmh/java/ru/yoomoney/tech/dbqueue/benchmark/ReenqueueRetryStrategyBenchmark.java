@@ -0,0 +1,64 @@
+package ru.yoomoney.tech.dbqueue.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.internal.processing.ReenqueueRetryStrategy;
+import ru.yoomoney.tech.dbqueue.settings.ReenqueueRetrySettings;
+import ru.yoomoney.tech.dbqueue.settings.ReenqueueRetryType;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of re-enqueue delay calculation for every retry strategy.
+ *
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReenqueueRetryStrategyBenchmark {
+
+    @Param({"FIXED", "SEQUENTIAL", "ARITHMETIC", "GEOMETRIC"})
+    private ReenqueueRetryType retryType;
+
+    @Param({"0", "5"})
+    private long reenqueueAttemptsCount;
+
+    private ReenqueueRetryStrategy retryStrategy;
+    private TaskRecord taskRecord;
+
+    @Setup
+    public void setUp() {
+        retryStrategy = ReenqueueRetryStrategy.Factory.create(ReenqueueRetrySettings.builder(retryType)
+                .withFixedDelay(Duration.ofSeconds(10L))
+                .withSequentialPlan(Arrays.asList(Duration.ofSeconds(1L), Duration.ofSeconds(10L),
+                        Duration.ofMinutes(1L)))
+                .withInitialDelay(Duration.ofSeconds(1L))
+                .withArithmeticStep(Duration.ofSeconds(2L))
+                .withGeometricRatio(3L)
+                .build());
+        taskRecord = TaskRecord.builder()
+                .withReenqueueAttemptsCount(reenqueueAttemptsCount)
+                .build();
+    }
+
+    @Benchmark
+    public Duration calculateDelay() {
+        return retryStrategy.calculateDelay(taskRecord);
+    }
+}
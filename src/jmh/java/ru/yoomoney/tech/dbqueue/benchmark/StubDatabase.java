@@ -0,0 +1,145 @@
+package ru.yoomoney.tech.dbqueue.benchmark;
+
+import ru.yoomoney.tech.dbqueue.dao.Database;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-memory database which does not execute queries.
+ * <p>
+ * Every select returns a row of given values, so that SQL building and row mapping
+ * are measured without a real database.
+ *
+ * @since 17.10.2026
+ */
+class StubDatabase implements Database {
+
+    @Nonnull
+    private final ResultSet resultSet;
+
+    /**
+     * Constructor
+     *
+     * @param row Values of the row returned by selects, keyed by column name in the order of selected columns.
+     */
+    StubDatabase(@Nonnull Map<String, Object> row) {
+        this.resultSet = createResultSet(requireNonNull(row));
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Map<String, Object> parameterMap, Class<T> klass) {
+        if (klass == Long.class) {
+            return klass.cast(1L);
+        }
+        return null;
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Map<String, Object> parameterMap, RowMapper<T> rowMapper) {
+        return mapRow(rowMapper);
+    }
+
+    @Override
+    public <T> List<T> selectMany(String selectQuery, Map<String, Object> parameterMap, RowMapper<T> rowMapper) {
+        Object maxBatch = parameterMap.get("maxBatch");
+        int rowCount = maxBatch instanceof Integer ? (Integer) maxBatch : 1;
+        List<T> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(mapRow(rowMapper));
+        }
+        return rows;
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Object[] parameters, Class<T> klass) {
+        return selectOne(selectQuery, Collections.emptyMap(), klass);
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Object[] parameters, RowMapper<T> rowMapper) {
+        return mapRow(rowMapper);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The first {@link Integer} parameter is treated as the limit of rows.
+     */
+    @Override
+    public <T> List<T> selectMany(String selectQuery, Object[] parameters, RowMapper<T> rowMapper) {
+        Object maxBatch = Arrays.stream(parameters).filter(Integer.class::isInstance).findFirst().orElse(1);
+        return selectMany(selectQuery, Collections.singletonMap("maxBatch", maxBatch), rowMapper);
+    }
+
+    @Override
+    public int update(String updateQuery, Object[] parameters) {
+        return 1;
+    }
+
+    @Override
+    public int insertOne(String insertQuery, Map<String, Object> parameterMap) {
+        return 1;
+    }
+
+    @Override
+    public int update(String updateQuery, Map<String, Object> parameterMap) {
+        return 1;
+    }
+
+    @Override
+    public int[] batchUpdate(String updateQuery, List<Map<String, Object>> parameterMaps) {
+        int[] result = new int[parameterMaps.size()];
+        Arrays.fill(result, 1);
+        return result;
+    }
+
+    @Override
+    public <T> T call(String callableQuery, CallableStatementMapper<T> callableStatementMapper) {
+        throw new UnsupportedOperationException("call is not supported");
+    }
+
+    @Override
+    public <T> T transact(Supplier<T> runsWithinTransaction) {
+        return runsWithinTransaction.get();
+    }
+
+    private <T> T mapRow(RowMapper<T> rowMapper) {
+        try {
+            return rowMapper.mapToObject(resultSet);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ResultSet createResultSet(@Nonnull Map<String, Object> row) {
+        Object[] columns = row.values().toArray();
+        return (ResultSet) Proxy.newProxyInstance(StubDatabase.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    Object value = args != null && args.length > 0 ? args[0] instanceof Integer
+                            ? columns[(Integer) args[0] - 1] : row.get((String) args[0]) : null;
+                    switch (method.getName()) {
+                        case "getLong":
+                            return ((Number) value).longValue();
+                        case "getString":
+                            return value == null ? null : value.toString();
+                        case "getTimestamp":
+                            return (Timestamp) value;
+                        case "wasNull":
+                            return false;
+                        default:
+                            throw new UnsupportedOperationException("method is not supported: " + method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,72 @@
+package ru.yoomoney.tech.dbqueue.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.config.QueueShardId;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.config.impl.NoopTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.internal.processing.MillisTimeProvider;
+import ru.yoomoney.tech.dbqueue.internal.processing.ReenqueueRetryStrategy;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskProcessor;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskResultHandler;
+import ru.yoomoney.tech.dbqueue.settings.ReenqueueRetrySettings;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link TaskProcessor#processTask} overhead with a consumer which does nothing.
+ * Includes creation of the task, listener calls and deletion of the finished task.
+ *
+ * @since 17.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskProcessorBenchmark {
+
+    private TaskProcessor taskProcessor;
+    private BenchmarkFixtures.NoopQueueConsumer queueConsumer;
+    private TaskRecord taskRecord;
+
+    @Setup
+    public void setUp() {
+        QueueTableSchema tableSchema = BenchmarkFixtures.createTableSchema(0);
+        QueueShard queueShard = new QueueShard(DatabaseDialect.POSTGRESQL, tableSchema, new QueueShardId("benchmark"),
+                new StubDatabase(BenchmarkFixtures.createTaskRow(tableSchema)));
+        taskProcessor = new TaskProcessor(queueShard, NoopTaskLifecycleListener.getInstance(),
+                new MillisTimeProvider.SystemMillisTimeProvider(),
+                new TaskResultHandler(BenchmarkFixtures.LOCATION, queueShard,
+                        ReenqueueRetryStrategy.Factory.create(ReenqueueRetrySettings.createDefault()),
+                        null, 0, null, null),
+                null);
+        queueConsumer = new BenchmarkFixtures.NoopQueueConsumer();
+        taskRecord = TaskRecord.builder()
+                .withId(42L)
+                .withPayload("{\"key\":\"value\"}")
+                .withAttemptsCount(1L)
+                .withTotalAttemptsCount(1L)
+                .withCreatedAt(ZonedDateTime.now())
+                .withNextProcessAt(ZonedDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public void processTask() {
+        taskProcessor.processTask(queueConsumer, taskRecord);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yoomoney.tech.dbqueue.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yoomoney.tech.dbqueue.internal.processing.LoopPolicy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of wakeup latency of {@link LoopPolicy.WakeupLoopPolicy}.
+ * <p>
+ * {@link #continueThenWait()} measures the uncontended path in a single thread,
+ * the {@code pingPong} group measures wakeup of a waiting queue thread by another thread.
+ *
+ * @since 17.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WakeupLoopPolicyBenchmark {
+
+    private static final Duration WAIT_TIMEOUT = Duration.ofSeconds(1L);
+
+    /**
+     * Policy owned by a single benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadPolicy {
+        private final LoopPolicy.WakeupLoopPolicy loopPolicy = new LoopPolicy.WakeupLoopPolicy();
+    }
+
+    /**
+     * Policy shared by the threads of a benchmark group.
+     */
+    @State(Scope.Group)
+    public static class GroupPolicy {
+        private final LoopPolicy.WakeupLoopPolicy loopPolicy = new LoopPolicy.WakeupLoopPolicy();
+    }
+
+    @Benchmark
+    public void continueThenWait(ThreadPolicy state) {
+        state.loopPolicy.doContinue();
+        state.loopPolicy.doWait(WAIT_TIMEOUT, LoopPolicy.WaitInterrupt.ALLOW);
+    }
+
+    @Benchmark
+    @Group("pingPong")
+    @GroupThreads(1)
+    public void waitForWakeup(GroupPolicy state) {
+        state.loopPolicy.doWait(WAIT_TIMEOUT, LoopPolicy.WaitInterrupt.ALLOW);
+    }
+
+    @Benchmark
+    @Group("pingPong")
+    @GroupThreads(1)
+    public void wakeup(GroupPolicy state) {
+        state.loopPolicy.doContinue();
+    }
+}
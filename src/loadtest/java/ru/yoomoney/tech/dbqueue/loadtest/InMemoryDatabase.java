@@ -0,0 +1,312 @@
+package ru.yoomoney.tech.dbqueue.loadtest;
+
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.dao.Database;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * In-process stand-in for a PostgreSQL queue table.
+ * <p>
+ * Recognizes statements of PostgreSQL queue DAOs with the default {@link QueueTableSchema}
+ * and executes them on in-memory rows. Every statement is atomic, transactions are not isolated.
+ * Picked tasks are postponed by the retry interval regardless of the retry type.
+ * An optional statement latency imitates a network round trip to the database.
+ *
+ * @since 17.10.2026
+ */
+class InMemoryDatabase implements Database {
+
+    /**
+     * Column indexes of the picked row, see RETURNING clause of the pick statement.
+     */
+    private static final int ID_INDEX = 1;
+    private static final int PAYLOAD_INDEX = 2;
+    private static final int ATTEMPT_INDEX = 3;
+    private static final int REENQUEUE_ATTEMPT_INDEX = 4;
+    private static final int TOTAL_ATTEMPT_INDEX = 5;
+    private static final int CREATED_AT_INDEX = 6;
+    private static final Comparator<Row> ROW_ORDER = Comparator.<Row>comparingLong(row -> row.nextProcessAt)
+            .thenComparingLong(row -> row.id);
+
+    /**
+     * Number of parameters per task in the enqueue statement: queue name, payload and execution delay.
+     */
+    private static final int ENQUEUE_PARAM_COUNT = 3;
+
+    private final long statementLatencyNanos;
+    private final Map<Long, Row> rowsById = new HashMap<>();
+    private final Map<String, NavigableSet<Row>> rowsByQueue = new HashMap<>();
+    private long idSequence;
+
+    /**
+     * Constructor
+     *
+     * @param statementLatency Latency added to every statement.
+     */
+    InMemoryDatabase(@Nonnull Duration statementLatency) {
+        this.statementLatencyNanos = requireNonNull(statementLatency, "statementLatency").toNanos();
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Map<String, Object> parameterMap, Class<T> klass) {
+        throw new UnsupportedOperationException("statement is not supported: " + selectQuery);
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Map<String, Object> parameterMap, RowMapper<T> rowMapper) {
+        throw new UnsupportedOperationException("statement is not supported: " + selectQuery);
+    }
+
+    @Override
+    public <T> List<T> selectMany(String selectQuery, Map<String, Object> parameterMap, RowMapper<T> rowMapper) {
+        throw new UnsupportedOperationException("statement is not supported: " + selectQuery);
+    }
+
+    @Override
+    public int insertOne(String insertQuery, Map<String, Object> parameterMap) {
+        throw new UnsupportedOperationException("statement is not supported: " + insertQuery);
+    }
+
+    @Override
+    public int update(String updateQuery, Map<String, Object> parameterMap) {
+        throw new UnsupportedOperationException("statement is not supported: " + updateQuery);
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Object[] parameters, Class<T> klass) {
+        awaitLatency();
+        if (selectQuery.startsWith("INSERT INTO")) {
+            return klass.cast(insert(parameters, 0).id);
+        }
+        if (selectQuery.startsWith("SELECT CAST(EXTRACT")) {
+            return klass.cast(getNextTaskDelayMillis((String) parameters[0]));
+        }
+        throw new UnsupportedOperationException("statement is not supported: " + selectQuery);
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Object[] parameters, RowMapper<T> rowMapper) {
+        if (selectQuery.startsWith("SELECT pg_notify")) {
+            return null;
+        }
+        List<T> rows = selectMany(selectQuery, parameters, rowMapper);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    public <T> List<T> selectMany(String selectQuery, Object[] parameters, RowMapper<T> rowMapper) {
+        awaitLatency();
+        List<Row> rows;
+        if (selectQuery.startsWith("WITH cte AS")) {
+            rows = pick((String) parameters[0], ((Number) parameters[1]).intValue(),
+                    ((Number) parameters[2]).longValue());
+        } else if (selectQuery.startsWith("INSERT INTO")) {
+            rows = new ArrayList<>();
+            for (int offset = 0; offset < parameters.length; offset += ENQUEUE_PARAM_COUNT) {
+                rows.add(insert(parameters, offset));
+            }
+        } else {
+            throw new UnsupportedOperationException("statement is not supported: " + selectQuery);
+        }
+        List<T> result = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            try {
+                result.add(rowMapper.mapToObject(row.toResultSet()));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int update(String updateQuery, Object[] parameters) {
+        awaitLatency();
+        if (updateQuery.startsWith("DELETE FROM") && updateQuery.contains("ANY(")) {
+            String ids = (String) parameters[1];
+            return Arrays.stream(ids.substring(1, ids.length() - 1).split(","))
+                    .mapToInt(id -> delete(Long.parseLong(id)))
+                    .sum();
+        }
+        if (updateQuery.startsWith("DELETE FROM")) {
+            return delete(((Number) parameters[1]).longValue());
+        }
+        if (updateQuery.startsWith("UPDATE")) {
+            return reenqueue(((Number) parameters[1]).longValue(), ((Number) parameters[0]).longValue());
+        }
+        throw new UnsupportedOperationException("statement is not supported: " + updateQuery);
+    }
+
+    @Override
+    public int[] batchUpdate(String updateQuery, List<Map<String, Object>> parameterMaps) {
+        throw new UnsupportedOperationException("statement is not supported: " + updateQuery);
+    }
+
+    @Override
+    public <T> T call(String callableQuery, CallableStatementMapper<T> callableStatementMapper) {
+        throw new UnsupportedOperationException("statement is not supported: " + callableQuery);
+    }
+
+    @Override
+    public <T> T transact(Supplier<T> runsWithinTransaction) {
+        return runsWithinTransaction.get();
+    }
+
+    private synchronized Row insert(@Nonnull Object[] parameters, int offset) {
+        long now = System.currentTimeMillis();
+        Row row = new Row(++idSequence, (String) requireNonNull(parameters[offset], "queueName"),
+                (String) parameters[offset + 1], now,
+                now + Duration.ofSeconds(((Number) parameters[offset + 2]).longValue()).toMillis());
+        rowsById.put(row.id, row);
+        rowsByQueue.computeIfAbsent(row.queueName, ignored -> new TreeSet<>(ROW_ORDER)).add(row);
+        return row.copy();
+    }
+
+    private synchronized List<Row> pick(@Nonnull String queueName, int maxBatch, long retryIntervalSeconds) {
+        NavigableSet<Row> rows = rowsByQueue.get(queueName);
+        if (rows == null || rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long now = System.currentTimeMillis();
+        List<Row> picked = new ArrayList<>(maxBatch);
+        Iterator<Row> iterator = rows.iterator();
+        while (picked.size() < maxBatch && iterator.hasNext()) {
+            Row row = iterator.next();
+            if (row.nextProcessAt > now) {
+                break;
+            }
+            iterator.remove();
+            picked.add(row);
+        }
+        for (Row row : picked) {
+            row.nextProcessAt = now + Duration.ofSeconds(retryIntervalSeconds).toMillis();
+            row.attempt++;
+            row.totalAttempt++;
+            rows.add(row);
+        }
+        List<Row> result = new ArrayList<>(picked.size());
+        picked.forEach(row -> result.add(row.copy()));
+        return result;
+    }
+
+    private synchronized int delete(long id) {
+        Row row = rowsById.remove(id);
+        if (row == null) {
+            return 0;
+        }
+        rowsByQueue.get(row.queueName).remove(row);
+        return 1;
+    }
+
+    private synchronized int reenqueue(long id, long executionDelaySeconds) {
+        Row row = rowsById.get(id);
+        if (row == null) {
+            return 0;
+        }
+        NavigableSet<Row> rows = rowsByQueue.get(row.queueName);
+        rows.remove(row);
+        row.nextProcessAt = System.currentTimeMillis() + Duration.ofSeconds(executionDelaySeconds).toMillis();
+        row.attempt = 0;
+        row.reenqueueAttempt++;
+        rows.add(row);
+        return 1;
+    }
+
+    @Nullable
+    private synchronized Long getNextTaskDelayMillis(@Nonnull String queueName) {
+        NavigableSet<Row> rows = rowsByQueue.get(queueName);
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+        return rows.first().nextProcessAt - System.currentTimeMillis();
+    }
+
+    private void awaitLatency() {
+        if (statementLatencyNanos > 0) {
+            LockSupport.parkNanos(statementLatencyNanos);
+        }
+    }
+
+    /**
+     * Row of the queue table
+     */
+    private static class Row {
+        private final long id;
+        private final String queueName;
+        private final String payload;
+        private final long createdAt;
+        private long nextProcessAt;
+        private long attempt;
+        private long reenqueueAttempt;
+        private long totalAttempt;
+
+        Row(long id, String queueName, String payload, long createdAt, long nextProcessAt) {
+            this.id = id;
+            this.queueName = queueName;
+            this.payload = payload;
+            this.createdAt = createdAt;
+            this.nextProcessAt = nextProcessAt;
+        }
+
+        Row copy() {
+            Row copy = new Row(id, queueName, payload, createdAt, nextProcessAt);
+            copy.attempt = attempt;
+            copy.reenqueueAttempt = reenqueueAttempt;
+            copy.totalAttempt = totalAttempt;
+            return copy;
+        }
+
+        ResultSet toResultSet() {
+            return (ResultSet) Proxy.newProxyInstance(InMemoryDatabase.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getLong":
+                                return getLong((Integer) args[0]);
+                            case "getString":
+                                return PAYLOAD_INDEX == (Integer) args[0] ? payload : null;
+                            case "getTimestamp":
+                                return new Timestamp(CREATED_AT_INDEX == (Integer) args[0] ? createdAt : nextProcessAt);
+                            case "wasNull":
+                                return false;
+                            default:
+                                throw new UnsupportedOperationException("method is not supported: " +
+                                        method.getName());
+                        }
+                    });
+        }
+
+        private long getLong(int columnIndex) {
+            switch (columnIndex) {
+                case ID_INDEX:
+                    return id;
+                case ATTEMPT_INDEX:
+                    return attempt;
+                case REENQUEUE_ATTEMPT_INDEX:
+                    return reenqueueAttempt;
+                case TOTAL_ATTEMPT_INDEX:
+                    return totalAttempt;
+                default:
+                    throw new IllegalArgumentException("unknown column: " + columnIndex);
+            }
+        }
+    }
+}
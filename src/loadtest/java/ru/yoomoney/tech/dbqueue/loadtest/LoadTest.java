@@ -0,0 +1,281 @@
+package ru.yoomoney.tech.dbqueue.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.Task;
+import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.api.TaskPayloadTransformer;
+import ru.yoomoney.tech.dbqueue.api.impl.NoopPayloadTransformer;
+import ru.yoomoney.tech.dbqueue.config.DatabaseDialect;
+import ru.yoomoney.tech.dbqueue.config.QueueService;
+import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.config.QueueShardId;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.config.impl.NoopTaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.config.impl.NoopThreadLifecycleListener;
+import ru.yoomoney.tech.dbqueue.settings.ProcessingMode;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end throughput and latency test of queue processing.
+ * <p>
+ * Runs {@link QueueService} with producers enqueueing tasks on every shard
+ * and a consumer which finishes every task at once. All combinations of given parameters are run
+ * one after another and a report with throughput and enqueue-to-execution latency is printed.
+ * <p>
+ * Options, lists are comma separated:
+ * <pre>
+ * --modes=SEPARATE_TRANSACTIONS,SINGLE_PICKER   processing modes, all modes by default
+ * --shards=1,2                           number of shards
+ * --threads=1,4,16                       thread count of the queue
+ * --between-task-timeouts-ms=0,10        between task timeout
+ * --payload-sizes=16,1024                payload size in characters
+ * --pick-batch-sizes=1                   pick batch size
+ * --statement-latency-us=0               latency of every database statement
+ * --max-backlog=1000                     max number of enqueued but not executed tasks
+ * --warmup-seconds=2                     warmup duration of every run
+ * --duration-seconds=5                   measurement duration of every run
+ * </pre>
+ *
+ * @since 17.10.2026
+ */
+public class LoadTest {
+
+    private static final QueueLocation LOCATION = QueueLocation.builder()
+            .withTableName("queue_loadtest")
+            .withQueueId(new QueueId("loadtest")).build();
+    private static final char PAYLOAD_SEPARATOR = '|';
+
+    private final Map<String, String> options;
+
+    private LoadTest(@Nonnull Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("option must be in --name=value format: option=" + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        List<ProcessingMode> modes = getList("modes", Arrays.stream(ProcessingMode.values())
+                .map(ProcessingMode::name).collect(Collectors.joining(",")), ProcessingMode::valueOf);
+        List<Integer> shardCounts = getList("shards", "1,2", Integer::valueOf);
+        List<Integer> threadCounts = getList("threads", "1,4,16", Integer::valueOf);
+        List<Long> betweenTaskTimeouts = getList("between-task-timeouts-ms", "0,10", Long::valueOf);
+        List<Integer> payloadSizes = getList("payload-sizes", "16,1024", Integer::valueOf);
+        List<Integer> pickBatchSizes = getList("pick-batch-sizes", "1", Integer::valueOf);
+        Duration statementLatency = Duration.ofNanos(
+                TimeUnit.MICROSECONDS.toNanos(getList("statement-latency-us", "0", Long::valueOf).get(0)));
+        long maxBacklog = getList("max-backlog", "1000", Long::valueOf).get(0);
+        Duration warmup = Duration.ofSeconds(getList("warmup-seconds", "2", Long::valueOf).get(0));
+        Duration duration = Duration.ofSeconds(getList("duration-seconds", "5", Long::valueOf).get(0));
+
+        System.out.println(String.format("%-22s %6s %7s %10s %7s %5s %12s %9s %9s %9s %9s",
+                "mode", "shards", "threads", "between_ms", "payload", "batch",
+                "tasks/s", "p50_ms", "p99_ms", "p99.9_ms", "max_ms"));
+        for (ProcessingMode mode : modes) {
+            for (int shardCount : shardCounts) {
+                for (int threadCount : threadCounts) {
+                    for (long betweenTaskTimeout : betweenTaskTimeouts) {
+                        for (int payloadSize : payloadSizes) {
+                            for (int pickBatchSize : pickBatchSizes) {
+                                QueueSettings settings = QueueSettings.builder()
+                                        .withProcessingMode(mode)
+                                        .withThreadCount(threadCount)
+                                        .withBetweenTaskTimeout(Duration.ofMillis(betweenTaskTimeout))
+                                        .withNoTaskTimeout(Duration.ofSeconds(1L))
+                                        .withPickBatchSize(pickBatchSize)
+                                        .build();
+                                Result result = new Run(settings, shardCount, payloadSize, statementLatency,
+                                        maxBacklog).execute(warmup, duration);
+                                System.out.println(String.format(
+                                        "%-22s %6d %7d %10d %7d %5d %12.1f %9.3f %9.3f %9.3f %9.3f",
+                                        mode, shardCount, threadCount, betweenTaskTimeout, payloadSize,
+                                        pickBatchSize, result.getThroughput(),
+                                        result.getLatencyMillis(50.0), result.getLatencyMillis(99.0),
+                                        result.getLatencyMillis(99.9), result.getMaxLatencyMillis()));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private <T> List<T> getList(@Nonnull String name, @Nonnull String defaultValue,
+                                @Nonnull Function<String, T> parser) {
+        return Arrays.stream(options.getOrDefault(name, defaultValue).split(","))
+                .map(String::trim)
+                .map(parser)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Single run of the load test with fixed parameters
+     */
+    private static class Run {
+        private final QueueSettings settings;
+        private final int shardCount;
+        private final String payloadPadding;
+        private final Duration statementLatency;
+        private final long maxBacklog;
+        private final Recorder latencyRecorder = new Recorder(3);
+        private final LongAdder enqueuedCount = new LongAdder();
+        private final LongAdder executedCount = new LongAdder();
+        private final AtomicBoolean producing = new AtomicBoolean(true);
+
+        Run(@Nonnull QueueSettings settings, int shardCount, int payloadSize,
+            @Nonnull Duration statementLatency, long maxBacklog) {
+            this.settings = settings;
+            this.shardCount = shardCount;
+            this.payloadPadding = String.join("", Collections.nCopies(payloadSize, "x"));
+            this.statementLatency = statementLatency;
+            this.maxBacklog = maxBacklog;
+        }
+
+        @Nonnull
+        Result execute(@Nonnull Duration warmup, @Nonnull Duration duration) throws InterruptedException {
+            List<QueueShard> queueShards = new ArrayList<>();
+            for (int i = 0; i < shardCount; i++) {
+                queueShards.add(new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(),
+                        new QueueShardId("shard" + i), new InMemoryDatabase(statementLatency)));
+            }
+            ExecutorService externalExecutor = Executors.newFixedThreadPool(settings.getThreadCount());
+            QueueService queueService = new QueueService(queueShards,
+                    NoopThreadLifecycleListener.getInstance(), NoopTaskLifecycleListener.getInstance());
+            queueService.registerQueue(new LoadTestConsumer(new QueueConfig(LOCATION, settings), externalExecutor));
+            queueService.start();
+            List<Thread> producers = queueShards.stream()
+                    .map(queueShard -> new Thread(() -> produce(queueShard),
+                            "loadtest-producer-" + queueShard.getShardId().asString()))
+                    .collect(Collectors.toList());
+            producers.forEach(Thread::start);
+            try {
+                Thread.sleep(warmup.toMillis());
+                latencyRecorder.reset();
+                long executedBefore = executedCount.sum();
+                long startTime = System.nanoTime();
+                Thread.sleep(duration.toMillis());
+                long executed = executedCount.sum() - executedBefore;
+                long elapsedNanos = System.nanoTime() - startTime;
+                return new Result(executed * 1e9 / elapsedNanos, latencyRecorder.getIntervalHistogram());
+            } finally {
+                producing.set(false);
+                for (Thread producer : producers) {
+                    producer.join();
+                }
+                queueService.shutdown();
+                queueService.awaitTermination(Duration.ofSeconds(10L));
+                externalExecutor.shutdownNow();
+            }
+        }
+
+        private void produce(@Nonnull QueueShard queueShard) {
+            while (producing.get()) {
+                if (enqueuedCount.sum() - executedCount.sum() >= maxBacklog) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50L));
+                    continue;
+                }
+                String payload = System.nanoTime() + String.valueOf(PAYLOAD_SEPARATOR) + payloadPadding;
+                queueShard.transact(() -> queueShard.getQueueDao().enqueue(LOCATION, EnqueueParams.create(payload)));
+                enqueuedCount.increment();
+            }
+        }
+
+        /**
+         * Consumer which records latency from the enqueue till the execution of the task
+         */
+        private class LoadTestConsumer implements QueueConsumer<String> {
+            private final QueueConfig queueConfig;
+            private final Executor externalExecutor;
+
+            LoadTestConsumer(@Nonnull QueueConfig queueConfig, @Nonnull Executor externalExecutor) {
+                this.queueConfig = queueConfig;
+                this.externalExecutor = externalExecutor;
+            }
+
+            @Nonnull
+            @Override
+            public TaskExecutionResult execute(@Nonnull Task<String> task) {
+                String payload = task.getPayloadOrThrow();
+                long enqueueTime = Long.parseLong(payload.substring(0, payload.indexOf(PAYLOAD_SEPARATOR)));
+                latencyRecorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - enqueueTime));
+                executedCount.increment();
+                return TaskExecutionResult.finish();
+            }
+
+            @Nonnull
+            @Override
+            public QueueConfig getQueueConfig() {
+                return queueConfig;
+            }
+
+            @Nonnull
+            @Override
+            public TaskPayloadTransformer<String> getPayloadTransformer() {
+                return NoopPayloadTransformer.getInstance();
+            }
+
+            @Override
+            public Optional<Executor> getExecutor() {
+                return Optional.of(externalExecutor);
+            }
+        }
+    }
+
+    /**
+     * Result of a single run
+     */
+    private static class Result {
+        private final double throughput;
+        private final Histogram latencyMicros;
+
+        Result(double throughput, @Nonnull Histogram latencyMicros) {
+            this.throughput = throughput;
+            this.latencyMicros = latencyMicros;
+        }
+
+        double getThroughput() {
+            return throughput;
+        }
+
+        double getLatencyMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        double getMaxLatencyMillis() {
+            return latencyMicros.getMaxValue() / 1000.0;
+        }
+    }
+}
@@ -22,6 +22,11 @@ public final class EnqueueParams<T> {
     private T payload;
     @Nonnull
     private Duration executionDelay = Duration.ZERO;
+    private int priority;
+    @Nullable
+    private String orderingKey;
+    @Nullable
+    private String deduplicationKey;
     @Nonnull
     private final Map<String, String> extData = new LinkedHashMap<>();
 
@@ -62,6 +67,52 @@ public final class EnqueueParams<T> {
         return this;
     }
 
+    /**
+     * Set the priority of the task.
+     * Tasks with a greater priority are picked before tasks with a lower one.
+     * The priority is saved only when the priority column is set
+     * in {@link ru.yoomoney.tech.dbqueue.config.QueueTableSchema#getPriorityField()}.
+     *
+     * @param priority Task priority, 0 if not set.
+     * @return A reference to the same object with priority set.
+     */
+    @Nonnull
+    public EnqueueParams<T> withPriority(int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Set the ordering key of the task.
+     * Tasks with the same ordering key are processed one by one in order of enqueueing.
+     * The key is saved only when the ordering key column is set
+     * in {@link ru.yoomoney.tech.dbqueue.config.QueueTableSchema#getOrderingKeyField()}.
+     *
+     * @param orderingKey Task ordering key, null if tasks are not ordered.
+     * @return A reference to the same object with ordering key set.
+     */
+    @Nonnull
+    public EnqueueParams<T> withOrderingKey(@Nullable String orderingKey) {
+        this.orderingKey = orderingKey;
+        return this;
+    }
+
+    /**
+     * Set the deduplication key of the task.
+     * The task is not enqueued when a task with the same key is already in the queue table,
+     * id of the existing task is returned instead.
+     * The key is saved only when the deduplication key column is set
+     * in {@link ru.yoomoney.tech.dbqueue.config.QueueTableSchema#getDeduplicationKeyField()}.
+     *
+     * @param deduplicationKey Task deduplication key, null if the task is not deduplicated.
+     * @return A reference to the same object with deduplication key set.
+     */
+    @Nonnull
+    public EnqueueParams<T> withDeduplicationKey(@Nullable String deduplicationKey) {
+        this.deduplicationKey = deduplicationKey;
+        return this;
+    }
+
     /**
      * Add the external user parameter for the task.
      * If the column name is already present in the external user parameters,
@@ -116,6 +167,35 @@ public final class EnqueueParams<T> {
         return executionDelay;
     }
 
+    /**
+     * Get the task priority, 0 is the default one if not set.
+     *
+     * @return Task priority.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Get the task ordering key.
+     *
+     * @return Task ordering key, null if not set.
+     */
+    @Nullable
+    public String getOrderingKey() {
+        return orderingKey;
+    }
+
+    /**
+     * Get the task deduplication key.
+     *
+     * @return Task deduplication key, null if not set.
+     */
+    @Nullable
+    public String getDeduplicationKey() {
+        return deduplicationKey;
+    }
+
     /**
      * Get the <strong>unmodifiable</strong> map of extended user-defined parameters for the task:
      * a map where the key is the name of the user-defined column in tasks table,
@@ -139,18 +219,24 @@ public final class EnqueueParams<T> {
         EnqueueParams<?> that = (EnqueueParams<?>) obj;
         return Objects.equals(payload, that.payload) &&
                 Objects.equals(executionDelay, that.executionDelay) &&
+                priority == that.priority &&
+                Objects.equals(orderingKey, that.orderingKey) &&
+                Objects.equals(deduplicationKey, that.deduplicationKey) &&
                 Objects.equals(extData, that.extData);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(payload, executionDelay, extData);
+        return Objects.hash(payload, executionDelay, priority, orderingKey, deduplicationKey, extData);
     }
 
     @Override
     public String toString() {
         return '{' +
                 "executionDelay=" + executionDelay +
+                (priority != 0 ? ",priority=" + priority : "") +
+                (orderingKey != null ? ",orderingKey=" + orderingKey : "") +
+                (deduplicationKey != null ? ",deduplicationKey=" + deduplicationKey : "") +
                 (payload != null ? ",payload=" + payload : "") +
                 '}';
     }
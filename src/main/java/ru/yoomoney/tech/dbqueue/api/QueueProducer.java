@@ -1,6 +1,9 @@
 package ru.yoomoney.tech.dbqueue.api;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Task producer for the queue, which adds a new task into the queue.
@@ -19,6 +22,23 @@ public interface QueueProducer<T> {
      */
     long enqueue(@Nonnull EnqueueParams<T> enqueueParams);
 
+    /**
+     * Add several new tasks into the queue.
+     * <p>
+     * Default implementation adds tasks one by one,
+     * override it to insert all the tasks with a single database round trip.
+     *
+     * @param enqueueParams Parameters with typed payload to enqueue the tasks
+     * @return Unique (sequence id) identifiers of added tasks in the order of given parameters
+     */
+    @Nonnull
+    default List<Long> enqueueBatch(@Nonnull List<EnqueueParams<T>> enqueueParams) {
+        Objects.requireNonNull(enqueueParams);
+        return enqueueParams.stream()
+                .map(this::enqueue)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Get task payload transformer, which transform the task's payload into the {@linkplain String}
      *
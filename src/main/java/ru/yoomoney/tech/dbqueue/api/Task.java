@@ -194,14 +194,14 @@ public final class Task<T> {
     public static class Builder<T> {
         @Nonnull
         private final QueueShardId shardId;
-        @Nonnull
-        private ZonedDateTime createdAt = ZonedDateTime.now();
+        @Nullable
+        private ZonedDateTime createdAt;
         private T payload;
         private long attemptsCount;
         private long reenqueueAttemptsCount;
         private long totalAttemptsCount;
-        @Nonnull
-        private Map<String, String> extData = new LinkedHashMap<>();
+        @Nullable
+        private Map<String, String> extData;
 
         private Builder(@Nonnull QueueShardId shardId) {
             this.shardId = requireNonNull(shardId, "shardId");
@@ -239,7 +239,8 @@ public final class Task<T> {
 
         public Task<T> build() {
             return new Task<>(shardId, payload, attemptsCount, reenqueueAttemptsCount,
-                    totalAttemptsCount, createdAt, extData);
+                    totalAttemptsCount, createdAt != null ? createdAt : ZonedDateTime.now(),
+                    extData != null ? extData : new LinkedHashMap<>());
         }
     }
 }
@@ -188,12 +188,12 @@ public final class TaskRecord {
         private long attemptsCount;
         private long reenqueueAttemptsCount;
         private long totalAttemptsCount;
-        @Nonnull
-        private ZonedDateTime createdAt = ZonedDateTime.now();
-        @Nonnull
-        private ZonedDateTime nextProcessAt = ZonedDateTime.now();
-        @Nonnull
-        private Map<String, String> extData = new LinkedHashMap<>();
+        @Nullable
+        private ZonedDateTime createdAt;
+        @Nullable
+        private ZonedDateTime nextProcessAt;
+        @Nullable
+        private Map<String, String> extData;
 
         private Builder() {
         }
@@ -239,8 +239,11 @@ public final class TaskRecord {
         }
 
         public TaskRecord build() {
+            ZonedDateTime now = createdAt == null || nextProcessAt == null ? ZonedDateTime.now() : null;
             return new TaskRecord(id, payload, attemptsCount, reenqueueAttemptsCount,
-                    totalAttemptsCount, createdAt, nextProcessAt, extData);
+                    totalAttemptsCount, createdAt != null ? createdAt : now,
+                    nextProcessAt != null ? nextProcessAt : now,
+                    extData != null ? extData : new LinkedHashMap<>());
         }
     }
 }
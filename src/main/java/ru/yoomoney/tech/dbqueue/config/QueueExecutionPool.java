@@ -3,17 +3,38 @@ package ru.yoomoney.tech.dbqueue.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.internal.pick.PickTaskSettings;
+import ru.yoomoney.tech.dbqueue.internal.pick.QueuePickTaskDao;
+import ru.yoomoney.tech.dbqueue.internal.processing.AdaptiveNoTaskTimeoutProvider;
 import ru.yoomoney.tech.dbqueue.internal.processing.LoopPolicy;
 import ru.yoomoney.tech.dbqueue.internal.processing.MillisTimeProvider;
+import ru.yoomoney.tech.dbqueue.internal.processing.NoTaskTimeoutProvider;
 import ru.yoomoney.tech.dbqueue.internal.processing.QueueLoop;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskAckBuffer;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskLeaseHeartbeat;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskRateLimiter;
+import ru.yoomoney.tech.dbqueue.internal.processing.ThreadCountAutoscaler;
 import ru.yoomoney.tech.dbqueue.internal.runner.QueueRunner;
+import ru.yoomoney.tech.dbqueue.settings.ProcessingMode;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfigsReader;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -38,25 +59,89 @@ class QueueExecutionPool {
     private final ExecutorService executor;
     @Nonnull
     private final QueueRunner queueRunner;
+    @Nonnull
+    private final List<TaskAckBuffer> taskAckBuffers;
+    @Nonnull
+    private final List<TaskLeaseHeartbeat> taskLeaseHeartbeats;
+    @Nullable
+    private final ExecutorService workerExecutor;
+    @Nullable
+    private final ThreadCountAutoscaler threadCountAutoscaler;
+    @Nullable
+    private ScheduledExecutorService scheduledExecutor;
 
     private boolean started = false;
+    private int loopCount;
 
     QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
                        @Nonnull QueueShard queueShard,
                        @Nonnull TaskLifecycleListener taskLifecycleListener,
                        @Nonnull ThreadLifecycleListener threadLifecycleListener) {
+        this(queueConsumer, queueShard, taskLifecycleListener, threadLifecycleListener, QueueThreadFactory::new);
+    }
+
+    QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
+                       @Nonnull QueueShard queueShard,
+                       @Nonnull TaskLifecycleListener taskLifecycleListener,
+                       @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                       @Nonnull QueueThreadFactoryProvider threadFactoryProvider) {
+        this(queueConsumer, queueShard, taskLifecycleListener, threadLifecycleListener,
+                threadFactoryProvider.getThreadFactory(
+                        queueConsumer.getQueueConfig().getLocation(), queueShard.getShardId()),
+                createTaskAckBuffer(queueConsumer, queueShard), createTaskLeaseHeartbeat(queueConsumer, queueShard));
+    }
+
+    private QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
+                               @Nonnull QueueShard queueShard,
+                               @Nonnull TaskLifecycleListener taskLifecycleListener,
+                               @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                               @Nonnull ThreadFactory threadFactory,
+                               @Nullable TaskAckBuffer taskAckBuffer,
+                               @Nullable TaskLeaseHeartbeat taskLeaseHeartbeat) {
+        this(queueConsumer, queueShard, taskLifecycleListener, threadLifecycleListener, threadFactory,
+                taskAckBuffer, taskLeaseHeartbeat, createWorkerExecutor(queueConsumer, threadFactory));
+    }
+
+    private QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
+                               @Nonnull QueueShard queueShard,
+                               @Nonnull TaskLifecycleListener taskLifecycleListener,
+                               @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                               @Nonnull ThreadFactory threadFactory,
+                               @Nullable TaskAckBuffer taskAckBuffer,
+                               @Nullable TaskLeaseHeartbeat taskLeaseHeartbeat,
+                               @Nullable ExecutorService workerExecutor) {
+        this(queueConsumer, queueShard, taskLifecycleListener, threadLifecycleListener, threadFactory,
+                taskAckBuffer, taskLeaseHeartbeat, workerExecutor,
+                createThreadCountAutoscaler(queueConsumer, threadLifecycleListener),
+                createRateLimiter(queueConsumer));
+    }
+
+    private QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
+                               @Nonnull QueueShard queueShard,
+                               @Nonnull TaskLifecycleListener taskLifecycleListener,
+                               @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                               @Nonnull ThreadFactory threadFactory,
+                               @Nullable TaskAckBuffer taskAckBuffer,
+                               @Nullable TaskLeaseHeartbeat taskLeaseHeartbeat,
+                               @Nullable ExecutorService workerExecutor,
+                               @Nullable ThreadCountAutoscaler threadCountAutoscaler,
+                               @Nullable TaskRateLimiter rateLimiter) {
         this(queueConsumer, queueShard,
-                new QueueLoop(new LoopPolicy.WakeupLoopPolicy(), threadLifecycleListener,
-                        new MillisTimeProvider.SystemMillisTimeProvider()),
+                new QueueLoop(new LoopPolicy.WakeupLoopPolicy(),
+                        threadCountAutoscaler == null ? threadLifecycleListener : threadCountAutoscaler,
+                        new MillisTimeProvider.SystemMillisTimeProvider(),
+                        createNoTaskTimeoutProvider(queueConsumer, queueShard), rateLimiter),
                 new ThreadPoolExecutor(
-                        queueConsumer.getQueueConfig().getSettings().getThreadCount(),
-                        queueConsumer.getQueueConfig().getSettings().getThreadCount(),
+                        getLoopCount(queueConsumer),
+                        getLoopCount(queueConsumer),
                         0L, TimeUnit.MILLISECONDS,
-                        new ArrayBlockingQueue<>(
-                                queueConsumer.getQueueConfig().getSettings().getThreadCount()),
-                        new QueueThreadFactory(
-                                queueConsumer.getQueueConfig().getLocation(), queueShard.getShardId())),
-                QueueRunner.Factory.create(queueConsumer, queueShard, taskLifecycleListener));
+                        new LinkedBlockingQueue<>(),
+                        threadFactory),
+                QueueRunner.Factory.create(queueConsumer, queueShard, taskLifecycleListener, taskAckBuffer,
+                        workerExecutor, rateLimiter, taskLeaseHeartbeat),
+                taskAckBuffer == null ? Collections.emptyList() : Collections.singletonList(taskAckBuffer),
+                taskLeaseHeartbeat == null ? Collections.emptyList() : Collections.singletonList(taskLeaseHeartbeat),
+                workerExecutor, threadCountAutoscaler);
     }
 
     QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
@@ -64,11 +149,168 @@ class QueueExecutionPool {
                        @Nonnull QueueLoop queueLoop,
                        @Nonnull ExecutorService executor,
                        @Nonnull QueueRunner queueRunner) {
+        this(queueConsumer, queueShard, queueLoop, executor, queueRunner, Collections.emptyList(),
+                Collections.emptyList(), null, null);
+    }
+
+    QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
+                       @Nonnull QueueShard queueShard,
+                       @Nonnull QueueLoop queueLoop,
+                       @Nonnull ExecutorService executor,
+                       @Nonnull QueueRunner queueRunner,
+                       @Nullable TaskAckBuffer taskAckBuffer,
+                       @Nullable ExecutorService workerExecutor) {
+        this(queueConsumer, queueShard, queueLoop, executor, queueRunner,
+                taskAckBuffer == null ? Collections.emptyList() : Collections.singletonList(taskAckBuffer),
+                Collections.emptyList(), workerExecutor, null);
+    }
+
+    private QueueExecutionPool(@Nonnull QueueConsumer<?> queueConsumer,
+                               @Nonnull QueueShard queueShard,
+                               @Nonnull QueueLoop queueLoop,
+                               @Nonnull ExecutorService executor,
+                               @Nonnull QueueRunner queueRunner,
+                               @Nonnull List<TaskAckBuffer> taskAckBuffers,
+                               @Nonnull List<TaskLeaseHeartbeat> taskLeaseHeartbeats,
+                               @Nullable ExecutorService workerExecutor,
+                               @Nullable ThreadCountAutoscaler threadCountAutoscaler) {
         this.queueConsumer = requireNonNull(queueConsumer);
         this.queueShard = requireNonNull(queueShard);
         this.queueLoop = requireNonNull(queueLoop);
         this.executor = requireNonNull(executor);
         this.queueRunner = requireNonNull(queueRunner);
+        this.taskAckBuffers = requireNonNull(taskAckBuffers);
+        this.taskLeaseHeartbeats = requireNonNull(taskLeaseHeartbeats);
+        this.workerExecutor = workerExecutor;
+        this.threadCountAutoscaler = threadCountAutoscaler;
+        this.loopCount = getLoopCount(queueConsumer);
+    }
+
+    /**
+     * Create execution pool of a queue group.
+     * <p>
+     * Tasks of all the queues in the group are picked by a single query
+     * and executed by the consumers of the queues.
+     * Adaptive no task timeout is not applied to the group.
+     *
+     * @param queueGroupConsumer      Queue group.
+     * @param queueShard              Shard where the queues are processed.
+     * @param taskLifecycleListener   Listener of tasks lifecycle.
+     * @param threadLifecycleListener Listener of queue threads lifecycle.
+     * @param threadFactoryProvider   Provider of thread factories.
+     * @return Execution pool of the group.
+     */
+    static QueueExecutionPool createForGroup(@Nonnull QueueGroupConsumer queueGroupConsumer,
+                                             @Nonnull QueueShard queueShard,
+                                             @Nonnull TaskLifecycleListener taskLifecycleListener,
+                                             @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                                             @Nonnull QueueThreadFactoryProvider threadFactoryProvider) {
+        ThreadFactory threadFactory = threadFactoryProvider.getThreadFactory(
+                queueGroupConsumer.getQueueConfig().getLocation(), queueShard.getShardId());
+        Map<QueueLocation, TaskAckBuffer> taskAckBuffers = new LinkedHashMap<>();
+        Map<QueueLocation, TaskLeaseHeartbeat> taskLeaseHeartbeats = new LinkedHashMap<>();
+        queueGroupConsumer.getQueueConsumers().forEach(queueConsumer -> {
+            TaskAckBuffer taskAckBuffer = createTaskAckBuffer(queueConsumer, queueShard);
+            if (taskAckBuffer != null) {
+                taskAckBuffers.put(queueConsumer.getQueueConfig().getLocation(), taskAckBuffer);
+            }
+            TaskLeaseHeartbeat taskLeaseHeartbeat = createTaskLeaseHeartbeat(queueConsumer, queueShard);
+            if (taskLeaseHeartbeat != null) {
+                taskLeaseHeartbeats.put(queueConsumer.getQueueConfig().getLocation(), taskLeaseHeartbeat);
+            }
+        });
+        ExecutorService workerExecutor = createWorkerExecutor(queueGroupConsumer, threadFactory);
+        ThreadCountAutoscaler threadCountAutoscaler = createThreadCountAutoscaler(queueGroupConsumer,
+                threadLifecycleListener);
+        TaskRateLimiter rateLimiter = createRateLimiter(queueGroupConsumer);
+        int loopCount = getLoopCount(queueGroupConsumer);
+        return new QueueExecutionPool(queueGroupConsumer, queueShard,
+                new QueueLoop(new LoopPolicy.WakeupLoopPolicy(),
+                        threadCountAutoscaler == null ? threadLifecycleListener : threadCountAutoscaler,
+                        new MillisTimeProvider.SystemMillisTimeProvider(),
+                        new NoTaskTimeoutProvider.FixedNoTaskTimeoutProvider(), rateLimiter),
+                new ThreadPoolExecutor(loopCount, loopCount,
+                        0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(),
+                        threadFactory),
+                QueueRunner.Factory.createGroup(queueGroupConsumer.getQueueConsumers(), queueShard,
+                        taskLifecycleListener, taskAckBuffers, workerExecutor, rateLimiter, taskLeaseHeartbeats),
+                new ArrayList<>(taskAckBuffers.values()), new ArrayList<>(taskLeaseHeartbeats.values()),
+                workerExecutor, threadCountAutoscaler);
+    }
+
+    private static boolean isSinglePicker(@Nonnull QueueConsumer<?> queueConsumer) {
+        return queueConsumer.getQueueConfig().getSettings().getProcessingMode() == ProcessingMode.SINGLE_PICKER;
+    }
+
+    private static int getLoopCount(@Nonnull QueueConsumer<?> queueConsumer) {
+        return isSinglePicker(queueConsumer) ? 1 : queueConsumer.getQueueConfig().getSettings().getThreadCount();
+    }
+
+    @Nullable
+    private static TaskRateLimiter createRateLimiter(@Nonnull QueueConsumer<?> queueConsumer) {
+        int rateLimit = queueConsumer.getQueueConfig().getSettings().getRateLimit();
+        return rateLimit > 0 ? new TaskRateLimiter(rateLimit, System::nanoTime) : null;
+    }
+
+    @Nonnull
+    private static NoTaskTimeoutProvider createNoTaskTimeoutProvider(@Nonnull QueueConsumer<?> queueConsumer,
+                                                                     @Nonnull QueueShard queueShard) {
+        QueueSettings settings = queueConsumer.getQueueConfig().getSettings();
+        if (!settings.isAdaptiveNoTaskTimeout()) {
+            return new NoTaskTimeoutProvider.FixedNoTaskTimeoutProvider();
+        }
+        return new AdaptiveNoTaskTimeoutProvider(queueShard,
+                QueuePickTaskDao.Factory.create(queueShard.getDatabaseDialect(), queueShard.getQueueTableSchema(),
+                        queueShard.getDatabase(),
+                        new PickTaskSettings(settings.getRetryType(), settings.getRetryInterval())),
+                new MillisTimeProvider.SystemMillisTimeProvider());
+    }
+
+    @Nullable
+    private static ExecutorService createWorkerExecutor(@Nonnull QueueConsumer<?> queueConsumer,
+                                                        @Nonnull ThreadFactory threadFactory) {
+        if (!isSinglePicker(queueConsumer)) {
+            return null;
+        }
+        int threadCount = queueConsumer.getQueueConfig().getSettings().getThreadCount();
+        return new ThreadPoolExecutor(threadCount, threadCount,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threadCount),
+                threadFactory);
+    }
+
+    @Nullable
+    private static ThreadCountAutoscaler createThreadCountAutoscaler(
+            @Nonnull QueueConsumer<?> queueConsumer,
+            @Nonnull ThreadLifecycleListener threadLifecycleListener) {
+        QueueSettings settings = queueConsumer.getQueueConfig().getSettings();
+        if (!settings.isThreadCountAutoscaled()) {
+            return null;
+        }
+        return new ThreadCountAutoscaler(threadLifecycleListener,
+                settings.getMinThreadCount(), settings.getMaxThreadCount());
+    }
+
+    @Nullable
+    private static TaskAckBuffer createTaskAckBuffer(@Nonnull QueueConsumer<?> queueConsumer,
+                                                     @Nonnull QueueShard queueShard) {
+        int ackBatchSize = queueConsumer.getQueueConfig().getSettings().getAckBatchSize();
+        if (ackBatchSize == 1) {
+            return null;
+        }
+        return new TaskAckBuffer(queueConsumer.getQueueConfig().getLocation(), queueShard, ackBatchSize);
+    }
+
+    @Nullable
+    private static TaskLeaseHeartbeat createTaskLeaseHeartbeat(@Nonnull QueueConsumer<?> queueConsumer,
+                                                               @Nonnull QueueShard queueShard) {
+        QueueSettings settings = queueConsumer.getQueueConfig().getSettings();
+        return settings.getLeaseTime()
+                .map(leaseTime -> new TaskLeaseHeartbeat(queueConsumer.getQueueConfig().getLocation(), queueShard,
+                        leaseTime, settings.getRetryType(),
+                        () -> queueConsumer.getQueueConfig().getSettings().getRetryInterval()))
+                .orElse(null);
     }
 
     private QueueId getQueueId() {
@@ -87,11 +329,31 @@ class QueueExecutionPool {
     /**
      * Start task processing in the queue
      */
-    void start() {
+    synchronized void start() {
         if (!started) {
             log.info("starting queue loop: queueId={}, shardId={}", getQueueId(), queueShard.getShardId());
-            for (int i = 0; i < queueConsumer.getQueueConfig().getSettings().getThreadCount(); i++) {
-                executor.execute(() -> queueLoop.start(queueShard.getShardId(), queueConsumer, queueRunner));
+            startLoops(loopCount);
+            if (!taskAckBuffers.isEmpty() || !taskLeaseHeartbeats.isEmpty() || threadCountAutoscaler != null) {
+                scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new QueueThreadFactory(
+                        queueConsumer.getQueueConfig().getLocation(), queueShard.getShardId()));
+            }
+            if (!taskAckBuffers.isEmpty()) {
+                long flushIntervalMillis = queueConsumer.getQueueConfig().getSettings()
+                        .getAckFlushInterval().toMillis();
+                requireNonNull(scheduledExecutor).scheduleWithFixedDelay(this::flushAcks,
+                        flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+            for (TaskLeaseHeartbeat taskLeaseHeartbeat : taskLeaseHeartbeats) {
+                long heartbeatIntervalMillis = taskLeaseHeartbeat.getHeartbeatInterval().toMillis();
+                requireNonNull(scheduledExecutor).scheduleWithFixedDelay(taskLeaseHeartbeat::extendLeases,
+                        heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+            if (threadCountAutoscaler != null) {
+                long autoscaleIntervalMillis = queueConsumer.getQueueConfig().getSettings()
+                        .getAutoscaleInterval().toMillis();
+                requireNonNull(scheduledExecutor).scheduleWithFixedDelay(
+                        () -> autoscaleThreadCount(threadCountAutoscaler),
+                        autoscaleIntervalMillis, autoscaleIntervalMillis, TimeUnit.MILLISECONDS);
             }
             started = true;
         }
@@ -99,12 +361,104 @@ class QueueExecutionPool {
         queueLoop.unpause();
     }
 
+    private void startLoops(int count) {
+        for (int i = 0; i < count; i++) {
+            executor.execute(() -> queueLoop.start(queueShard.getShardId(), queueConsumer, queueRunner));
+        }
+    }
+
     /**
-     * Stop tasks processing, semantic is the same as for {@link ExecutorService#shutdownNow()}
+     * Change number of threads which pick and process tasks of the queue.
+     * <p>
+     * New threads are started at once if the queue is started.
+     * Excess threads finish their current tasks and stop before the next pick,
+     * so a thread waiting for {@link QueueConfigsReader#SETTING_NO_TASK_TIMEOUT} stops after the wait.
+     * Not supported for {@link ProcessingMode#SINGLE_PICKER}.
+     *
+     * @param threadCount New number of threads.
+     */
+    synchronized void setThreadCount(int threadCount) {
+        if (threadCount <= 0) {
+            throw new IllegalArgumentException("threadCount must be positive: threadCount=" + threadCount);
+        }
+        if (isSinglePicker(queueConsumer)) {
+            throw new IllegalArgumentException("thread count cannot be changed in processing mode " +
+                    ProcessingMode.SINGLE_PICKER + ": queueId=" + getQueueId());
+        }
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("thread count cannot be changed, queue is shut down: " +
+                    "queueId=" + getQueueId() + ", shardId=" + queueShard.getShardId());
+        }
+        if (threadCount == loopCount) {
+            return;
+        }
+        log.info("changing thread count: queueId={}, shardId={}, threadCount={}, newThreadCount={}",
+                getQueueId(), queueShard.getShardId(), loopCount, threadCount);
+        int delta = threadCount - loopCount;
+        loopCount = threadCount;
+        resizeExecutor(threadCount);
+        if (!started) {
+            return;
+        }
+        if (delta > 0) {
+            startLoops(delta - queueLoop.cancelStop(delta));
+        } else {
+            queueLoop.stop(-delta);
+        }
+    }
+
+    private void resizeExecutor(int threadCount) {
+        if (!(executor instanceof ThreadPoolExecutor)) {
+            return;
+        }
+        ThreadPoolExecutor threadPoolExecutor = (ThreadPoolExecutor) executor;
+        if (threadCount > threadPoolExecutor.getMaximumPoolSize()) {
+            threadPoolExecutor.setMaximumPoolSize(threadCount);
+            threadPoolExecutor.setCorePoolSize(threadCount);
+        } else {
+            threadPoolExecutor.setCorePoolSize(threadCount);
+            threadPoolExecutor.setMaximumPoolSize(threadCount);
+        }
+    }
+
+    /**
+     * Adjust number of threads to the load observed since the previous adjustment.
+     * Load of a paused queue is not taken into account.
+     */
+    synchronized void autoscaleThreadCount(@Nonnull ThreadCountAutoscaler threadCountAutoscaler) {
+        if (queueLoop.isPaused() || executor.isShutdown()) {
+            threadCountAutoscaler.reset();
+            return;
+        }
+        try {
+            int threadCount = threadCountAutoscaler.getThreadCount(loopCount);
+            if (threadCount != loopCount) {
+                setThreadCount(threadCount);
+            }
+        } catch (RuntimeException exc) {
+            log.warn("cannot autoscale thread count: queueId={}, shardId={}",
+                    getQueueId(), queueShard.getShardId(), exc);
+        }
+    }
+
+    /**
+     * Stop tasks processing, semantic is the same as for {@link ExecutorService#shutdownNow()}.
+     * Finished tasks which are waiting for acknowledgement are deleted from the queue.
      */
     void shutdown() {
         log.info("shutting down queue: queueId={}, shardId={}", getQueueId(), queueShard.getShardId());
         executor.shutdownNow();
+        if (workerExecutor != null) {
+            workerExecutor.shutdownNow();
+        }
+        if (scheduledExecutor != null) {
+            scheduledExecutor.shutdownNow();
+        }
+        flushAcks();
+    }
+
+    private void flushAcks() {
+        taskAckBuffers.forEach(TaskAckBuffer::flush);
     }
 
     /**
@@ -132,7 +486,7 @@ class QueueExecutionPool {
      * @return true if the tasks processing was stopped.
      */
     boolean isShutdown() {
-        return executor.isShutdown();
+        return executor.isShutdown() && (workerExecutor == null || workerExecutor.isShutdown());
     }
 
     /**
@@ -142,7 +496,7 @@ class QueueExecutionPool {
      * @return true if all the threads were successfully terminated.
      */
     boolean isTerminated() {
-        return executor.isTerminated();
+        return executor.isTerminated() && (workerExecutor == null || workerExecutor.isTerminated());
     }
 
     /**
@@ -157,7 +511,16 @@ class QueueExecutionPool {
         log.info("awaiting queue termination: queueId={}, shardId={}, timeout={}",
                 getQueueId(), queueShard.getShardId(), timeout);
         try {
-            return executor.awaitTermination(timeout.getSeconds(), TimeUnit.SECONDS);
+            long deadlineMillis = System.currentTimeMillis() + timeout.toMillis();
+            boolean terminated = executor.awaitTermination(timeout.getSeconds(), TimeUnit.SECONDS);
+            if (terminated && workerExecutor != null) {
+                terminated = workerExecutor.awaitTermination(
+                        Math.max(0L, deadlineMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+            if (terminated) {
+                flushAcks();
+            }
+            return terminated;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             return false;
@@ -0,0 +1,119 @@
+package ru.yoomoney.tech.dbqueue.config;
+
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.Task;
+import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.api.TaskPayloadTransformer;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Group of queues in the same table, which are processed by a single set of threads.
+ * <p>
+ * Acts as a consumer of the queue loop of the group: its location is the given group identifier
+ * in the table of the queues and its settings are the settings of the queues.
+ * Tasks are executed by the consumers of the queues.
+ *
+ * @since 17.10.2026
+ */
+final class QueueGroupConsumer implements QueueConsumer<Object> {
+
+    @Nonnull
+    private final List<QueueConsumer<?>> queueConsumers;
+    @Nonnull
+    private final QueueConfig queueConfig;
+
+    /**
+     * Constructor
+     *
+     * @param groupId        Identifier of the group.
+     * @param queueConsumers Consumers of the queues in the group.
+     */
+    QueueGroupConsumer(@Nonnull QueueId groupId, @Nonnull List<QueueConsumer<?>> queueConsumers) {
+        requireNonNull(groupId, "groupId");
+        requireNonNull(queueConsumers, "queueConsumers");
+        if (queueConsumers.isEmpty()) {
+            throw new IllegalArgumentException("queue group must not be empty: groupId=" + groupId);
+        }
+        QueueConfig firstQueueConfig = queueConsumers.get(0).getQueueConfig();
+        String tableName = firstQueueConfig.getLocation().getTableName();
+        List<Object> groupSettings = getGroupSettings(firstQueueConfig.getSettings());
+        Set<QueueId> queueIds = new HashSet<>();
+        for (QueueConsumer<?> queueConsumer : queueConsumers) {
+            QueueLocation location = queueConsumer.getQueueConfig().getLocation();
+            if (!queueIds.add(location.getQueueId())) {
+                throw new IllegalArgumentException("queue is duplicated in the group: groupId=" + groupId +
+                        ", queueId=" + location.getQueueId());
+            }
+            if (!tableName.equals(location.getTableName())) {
+                throw new IllegalArgumentException("queues of a group must be in the same table: " +
+                        "groupId=" + groupId + ", tableName=" + tableName + ", location=" + location);
+            }
+            if (!groupSettings.equals(getGroupSettings(queueConsumer.getQueueConfig().getSettings()))) {
+                throw new IllegalArgumentException("queues of a group must have equal settings: " +
+                        "groupId=" + groupId + ", queueId=" + location.getQueueId());
+            }
+        }
+        this.queueConsumers = Collections.unmodifiableList(new ArrayList<>(queueConsumers));
+        this.queueConfig = new QueueConfig(QueueLocation.builder()
+                .withTableName(tableName)
+                .withQueueId(groupId)
+                .build(), firstQueueConfig.getSettings());
+    }
+
+    /**
+     * Settings which are shared by all the queues of a group.
+     * Reenqueue retry settings and additional settings are applied per queue.
+     */
+    @Nonnull
+    private static List<Object> getGroupSettings(@Nonnull QueueSettings settings) {
+        return Arrays.asList(settings.getThreadCount(), settings.getMinThreadCount(),
+                settings.getMaxThreadCount(), settings.getAutoscaleInterval(), settings.getPickBatchSize(),
+                settings.getNoTaskTimeout(), settings.getInitialNoTaskTimeout(), settings.getBetweenTaskTimeout(),
+                settings.getFatalCrashTimeout(), settings.getRetryType(), settings.getRetryInterval(),
+                settings.getProcessingMode(), settings.getAckBatchSize(), settings.getAckFlushInterval(),
+                settings.getMaxInFlight(), settings.getRateLimit(), settings.getLeaseTime());
+    }
+
+    /**
+     * Get consumers of the queues in the group.
+     *
+     * @return Queue consumers.
+     */
+    @Nonnull
+    List<QueueConsumer<?>> getQueueConsumers() {
+        return queueConsumers;
+    }
+
+    @Nonnull
+    @Override
+    public TaskExecutionResult execute(@Nonnull Task<Object> task) {
+        throw new IllegalStateException("tasks of a queue group are executed by consumers of the queues: " +
+                "location=" + queueConfig.getLocation());
+    }
+
+    @Nonnull
+    @Override
+    public QueueConfig getQueueConfig() {
+        return queueConfig;
+    }
+
+    @Nonnull
+    @Override
+    public TaskPayloadTransformer<Object> getPayloadTransformer() {
+        throw new IllegalStateException("tasks of a queue group are transformed by consumers of the queues: " +
+                "location=" + queueConfig.getLocation());
+    }
+}
@@ -0,0 +1,140 @@
+package ru.yoomoney.tech.dbqueue.config;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.dao.PostgresQueueDao;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Listener of PostgreSQL notifications about enqueued tasks on a single shard.
+ * <p>
+ * Holds one dedicated connection, subscribes to notification channels with LISTEN
+ * and wakes up the queue which name is received in the notification payload.
+ *
+ * @since 17.10.2026
+ */
+class QueueNotificationListener {
+    private static final Logger log = LoggerFactory.getLogger(QueueNotificationListener.class);
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5L);
+
+    @Nonnull
+    private final QueueShardId shardId;
+    @Nonnull
+    private final DataSource dataSource;
+    @Nonnull
+    private final Consumer<QueueId> wakeupAction;
+    @Nonnull
+    private final Runnable wakeupAllAction;
+    @Nullable
+    private Thread listenerThread;
+
+    /**
+     * Constructor
+     *
+     * @param shardId         Shard identifier.
+     * @param dataSource      Data source of the shard, a connection is held for the whole life of the listener.
+     * @param wakeupAction    Action to wake up queue by its identifier.
+     * @param wakeupAllAction Action to wake up all queues on the shard,
+     *                        invoked after (re)connection since notifications might be lost.
+     */
+    QueueNotificationListener(@Nonnull QueueShardId shardId,
+                              @Nonnull DataSource dataSource,
+                              @Nonnull Consumer<QueueId> wakeupAction,
+                              @Nonnull Runnable wakeupAllAction) {
+        this.shardId = requireNonNull(shardId, "shardId");
+        this.dataSource = requireNonNull(dataSource, "dataSource");
+        this.wakeupAction = requireNonNull(wakeupAction, "wakeupAction");
+        this.wakeupAllAction = requireNonNull(wakeupAllAction, "wakeupAllAction");
+    }
+
+    /**
+     * Start listening to given channels in a separate daemon thread.
+     * Does nothing if the listener is already started.
+     *
+     * @param channels Names of notification channels.
+     */
+    synchronized void start(@Nonnull Collection<String> channels) {
+        requireNonNull(channels, "channels");
+        if (listenerThread != null) {
+            return;
+        }
+        List<String> listenChannels = new ArrayList<>(channels);
+        log.info("starting notification listener: shardId={}, channels={}", shardId, listenChannels);
+        listenerThread = new Thread(() -> listen(listenChannels), "queue-notification-listener-" + shardId.asString());
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Stop listening to notifications.
+     */
+    synchronized void shutdown() {
+        if (listenerThread == null) {
+            return;
+        }
+        log.info("shutting down notification listener: shardId={}", shardId);
+        listenerThread.interrupt();
+        listenerThread = null;
+    }
+
+    private void listen(@Nonnull List<String> channels) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                connection.setAutoCommit(true);
+                for (String channel : channels) {
+                    statement.execute(createListenSql(channel));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                wakeupAllAction.run();
+                while (!Thread.currentThread().isInterrupted()) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        wakeupAction.accept(new QueueId(notification.getParameter()));
+                    }
+                }
+            } catch (SQLException | RuntimeException exc) {
+                log.warn("notification listener failed, reconnecting: shardId={}", shardId, exc);
+                try {
+                    Thread.sleep(RECONNECT_DELAY.toMillis());
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        log.info("notification listener stopped: shardId={}", shardId);
+    }
+
+    /**
+     * Create LISTEN statement with the quoted channel name,
+     * so the name is matched exactly as it is passed to pg_notify.
+     *
+     * @param channel Notification channel name, see {@link PostgresQueueDao#getNotificationChannel}.
+     * @return LISTEN statement.
+     */
+    @Nonnull
+    static String createListenSql(@Nonnull String channel) {
+        return "LISTEN \"" + channel.replace("\"", "\"\"") + "\"";
+    }
+}
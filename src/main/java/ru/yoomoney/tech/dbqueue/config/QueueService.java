@@ -3,25 +3,42 @@ package ru.yoomoney.tech.dbqueue.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.dao.Database;
+import ru.yoomoney.tech.dbqueue.dao.PostgresQueueDao;
 import ru.yoomoney.tech.dbqueue.internal.processing.MillisTimeProvider;
 import ru.yoomoney.tech.dbqueue.internal.processing.TimeLimiter;
+import ru.yoomoney.tech.dbqueue.settings.ProcessingMode;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfigsReader;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfigsWatcher;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
+import javax.sql.DataSource;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * A service for managing start, pause and shutdown of task processors.
+ * <p>
+ * The service is thread-safe: methods which register queues or change their state are serialized.
  *
  * @author Oleg Kandaurov
  * @since 14.07.2017
@@ -29,36 +46,81 @@ import static java.util.Objects.requireNonNull;
 public class QueueService {
     private static final Logger log = LoggerFactory.getLogger(QueueService.class);
 
+    /**
+     * Registered queues are read by producer and notification listener threads to wake up queues,
+     * so the map is synchronized and iterated over snapshots, see {@link #getRegisteredQueueIds()}.
+     */
+    @Nonnull
+    private final Map<QueueId, Map<QueueShardId, QueueExecutionPool>> registeredQueues =
+            Collections.synchronizedMap(new LinkedHashMap<>());
     @Nonnull
-    private final Map<QueueId, Map<QueueShardId, QueueExecutionPool>> registeredQueues = new LinkedHashMap<>();
+    private final Map<QueueId, QueueLocation> registeredLocations = new LinkedHashMap<>();
+    @Nonnull
+    private final Map<QueueId, ReloadableQueueConsumer<?>> reloadableConsumers = new LinkedHashMap<>();
     @Nonnull
     private final List<QueueShard> queueShards;
     @Nonnull
     private final BiFunction<QueueShard, QueueConsumer<?>, QueueExecutionPool> queueExecutionPoolFactory;
+    @Nonnull
+    private final BiFunction<QueueShard, QueueGroupConsumer, QueueExecutionPool> queueGroupExecutionPoolFactory;
+    @Nonnull
+    private final Map<QueueShardId, QueueNotificationListener> notificationListeners = new LinkedHashMap<>();
+    @Nonnull
+    private final Map<QueueShard, Consumer<QueueId>> enqueueListeners = new LinkedHashMap<>();
 
     public QueueService(@Nonnull List<QueueShard> queueShards,
                         @Nonnull ThreadLifecycleListener threadLifecycleListener,
                         @Nonnull TaskLifecycleListener taskLifecycleListener) {
         this(queueShards,
                 (shard, consumer) -> new QueueExecutionPool(consumer, shard,
-                        taskLifecycleListener, threadLifecycleListener));
+                        taskLifecycleListener, threadLifecycleListener),
+                (shard, groupConsumer) -> QueueExecutionPool.createForGroup(groupConsumer, shard,
+                        taskLifecycleListener, threadLifecycleListener, QueueThreadFactory::new));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param queueShards             Shards where the queues are processed.
+     * @param threadLifecycleListener Listener of queue threads lifecycle.
+     * @param taskLifecycleListener   Listener of tasks lifecycle.
+     * @param threadFactoryProvider   Provider of thread factories for the threads
+     *                                which pick and process tasks, e.g. virtual threads.
+     */
+    public QueueService(@Nonnull List<QueueShard> queueShards,
+                        @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                        @Nonnull TaskLifecycleListener taskLifecycleListener,
+                        @Nonnull QueueThreadFactoryProvider threadFactoryProvider) {
+        this(queueShards,
+                (shard, consumer) -> new QueueExecutionPool(consumer, shard,
+                        taskLifecycleListener, threadLifecycleListener, threadFactoryProvider),
+                (shard, groupConsumer) -> QueueExecutionPool.createForGroup(groupConsumer, shard,
+                        taskLifecycleListener, threadLifecycleListener, threadFactoryProvider));
+        requireNonNull(threadFactoryProvider, "threadFactoryProvider");
     }
 
     QueueService(@Nonnull List<QueueShard> queueShards,
-                 @Nonnull BiFunction<QueueShard, QueueConsumer<?>, QueueExecutionPool> queueExecutionPoolFactory) {
+                 @Nonnull BiFunction<QueueShard, QueueConsumer<?>, QueueExecutionPool> queueExecutionPoolFactory,
+                 @Nonnull BiFunction<QueueShard, QueueGroupConsumer, QueueExecutionPool>
+                         queueGroupExecutionPoolFactory) {
         this.queueShards = requireNonNull(queueShards, "queueShards");
         this.queueExecutionPoolFactory = requireNonNull(queueExecutionPoolFactory, "queueExecutionPoolFactory");
+        this.queueGroupExecutionPoolFactory = requireNonNull(queueGroupExecutionPoolFactory,
+                "queueGroupExecutionPoolFactory");
+        queueShards.forEach(shard -> enqueueListeners.put(shard,
+                queueId -> wakeupIfRegistered(queueId, shard.getShardId())));
     }
 
     private Map<QueueShardId, QueueExecutionPool> getQueuePools(@Nonnull QueueId queueId,
                                                                 @Nonnull String method) {
         requireNonNull(queueId, "queueId");
         requireNonNull(method, "method");
-        if (!registeredQueues.containsKey(queueId)) {
+        Map<QueueShardId, QueueExecutionPool> queuePools = registeredQueues.get(queueId);
+        if (queuePools == null) {
             throw new IllegalArgumentException("cannot invoke " + method +
                     ", queue is not registered: queueId=" + queueId);
         }
-        return registeredQueues.get(queueId);
+        return queuePools;
     }
 
     /**
@@ -68,7 +130,7 @@ public class QueueService {
      * @param <T>      Type of the processor (type of the payload in the task).
      * @return Attribute of successful task processor registration.
      */
-    public <T> boolean registerQueue(@Nonnull QueueConsumer<T> consumer) {
+    public synchronized <T> boolean registerQueue(@Nonnull QueueConsumer<T> consumer) {
         requireNonNull(consumer);
         QueueId queueId = consumer.getQueueConfig().getLocation().getQueueId();
         if (registeredQueues.containsKey(queueId)) {
@@ -82,19 +144,134 @@ public class QueueService {
             return false;
         }
 
+        ReloadableQueueConsumer<T> reloadableConsumer = new ReloadableQueueConsumer<>(consumer);
         Map<QueueShardId, QueueExecutionPool> queueShardPools = new LinkedHashMap<>();
         queueShards.forEach(shard -> queueShardPools.put(shard.getShardId(),
-                queueExecutionPoolFactory.apply(shard, consumer)));
+                queueExecutionPoolFactory.apply(shard, reloadableConsumer)));
         registeredQueues.put(queueId, queueShardPools);
+        registeredLocations.put(queueId, consumer.getQueueConfig().getLocation());
+        reloadableConsumers.put(queueId, reloadableConsumer);
+        return true;
+    }
+
+    /**
+     * Register several queues of the same table as a queue group.
+     * <p>
+     * Tasks of all the queues in the group are picked by a single query and every task is passed
+     * to the consumer of its queue, so the group needs a single set of threads and pick queries
+     * on every shard instead of a set per queue. It suits many low-volume queues in a single table.
+     * <p>
+     * All the queues must have equal settings, except reenqueue retry settings and additional settings.
+     * {@link QueueConfigsReader#SETTING_ADAPTIVE_NO_TASK_TIMEOUT} is not applied to a group.
+     * The group is started, paused and shut down as a whole, by any identifier of its queues.
+     * Thread lifecycle events are reported with the given group identifier in the table of the queues.
+     * PostgreSQL and MSSQL pick tasks of the group with a single query,
+     * Oracle picks tasks of the group queue by queue.
+     *
+     * @param groupId   Identifier of the group, used in thread lifecycle events.
+     * @param consumers Task processors of the queues.
+     * @return Attribute of successful registration.
+     */
+    public synchronized boolean registerQueueGroup(@Nonnull QueueId groupId,
+                                                   @Nonnull List<QueueConsumer<?>> consumers) {
+        requireNonNull(groupId, "groupId");
+        requireNonNull(consumers, "consumers");
+        QueueGroupConsumer groupConsumer = new QueueGroupConsumer(groupId, consumers);
+        for (QueueConsumer<?> consumer : consumers) {
+            QueueId queueId = consumer.getQueueConfig().getLocation().getQueueId();
+            if (registeredQueues.containsKey(queueId)) {
+                log.info("queue is already registered: groupId={}, queueId={}", groupId, queueId);
+                return false;
+            }
+        }
+
+        int threadCount = groupConsumer.getQueueConfig().getSettings().getThreadCount();
+        if (threadCount <= 0) {
+            log.info("queue group is turned off, skipping registration: groupId={}", groupId);
+            return false;
+        }
+
+        Map<QueueShardId, QueueExecutionPool> queueShardPools = new LinkedHashMap<>();
+        queueShards.forEach(shard -> queueShardPools.put(shard.getShardId(),
+                queueGroupExecutionPoolFactory.apply(shard, groupConsumer)));
+        for (QueueConsumer<?> consumer : consumers) {
+            QueueId queueId = consumer.getQueueConfig().getLocation().getQueueId();
+            registeredQueues.put(queueId, queueShardPools);
+            registeredLocations.put(queueId, consumer.getQueueConfig().getLocation());
+        }
         return true;
     }
 
+    /**
+     * Wake up queues on the given shard right after new tasks are enqueued there.
+     * <p>
+     * Enqueuing side must use {@link QueueShard} with notifications enabled, see
+     * {@link QueueShard#QueueShard(DatabaseDialect, QueueTableSchema, QueueShardId, Database, boolean)}.
+     * A single connection of given data source is held to LISTEN notification channels of all the tables
+     * of registered queues. The listener is started with {@link #start()} and stopped with {@link #shutdown()},
+     * so this method should be called after all the queues are registered.
+     * <p>
+     * With notifications the {@link QueueConfigsReader#SETTING_NO_TASK_TIMEOUT} can be increased significantly,
+     * it is only needed to pick up delayed tasks and as a safety net for lost notifications.
+     * Supported only for PostgreSQL.
+     *
+     * @param queueShardId Shard identifier.
+     * @param dataSource   Data source of the shard.
+     */
+    public synchronized void listenNotifications(@Nonnull QueueShardId queueShardId, @Nonnull DataSource dataSource) {
+        requireNonNull(queueShardId, "queueShardId");
+        requireNonNull(dataSource, "dataSource");
+        QueueShard queueShard = queueShards.stream()
+                .filter(shard -> shard.getShardId().equals(queueShardId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("cannot listen notifications, unknown shard: " +
+                        "shardId=" + queueShardId));
+        if (queueShard.getDatabaseDialect() != DatabaseDialect.POSTGRESQL) {
+            throw new IllegalArgumentException("notifications are not supported: shardId=" + queueShardId +
+                    ", databaseDialect=" + queueShard.getDatabaseDialect());
+        }
+        if (notificationListeners.containsKey(queueShardId)) {
+            log.info("notification listener is already registered: shardId={}", queueShardId);
+            return;
+        }
+        notificationListeners.put(queueShardId, new QueueNotificationListener(queueShardId, dataSource,
+                queueId -> wakeupIfRegistered(queueId, queueShardId),
+                () -> getRegisteredQueueIds().forEach(queueId -> wakeupIfRegistered(queueId, queueShardId))));
+    }
+
+    @Nonnull
+    private List<QueueId> getRegisteredQueueIds() {
+        return new ArrayList<>(registeredQueues.keySet());
+    }
+
+    private void wakeupIfRegistered(@Nonnull QueueId queueId, @Nonnull QueueShardId queueShardId) {
+        Map<QueueShardId, QueueExecutionPool> queuePools = registeredQueues.get(queueId);
+        if (queuePools == null) {
+            return;
+        }
+        QueueExecutionPool queueExecutionPool = queuePools.get(queueShardId);
+        if (queueExecutionPool != null) {
+            queueExecutionPool.wakeup();
+        }
+    }
+
     /**
      * Start tasks processing in all queues registered in the service.
+     * <p>
+     * Queues are woken up right after a task without execution delay is enqueued
+     * in the same JVM via {@link QueueShard#getQueueDao()} and the enqueue transaction is committed.
      */
-    public void start() {
+    public synchronized void start() {
         log.info("starting all queues");
-        registeredQueues.keySet().forEach(this::start);
+        getRegisteredQueueIds().forEach(this::start);
+        enqueueListeners.forEach(QueueShard::addEnqueueListener);
+        if (!notificationListeners.isEmpty()) {
+            Set<String> channels = getRegisteredQueueIds().stream()
+                    .map(registeredLocations::get)
+                    .map(PostgresQueueDao::getNotificationChannel)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            notificationListeners.values().forEach(listener -> listener.start(channels));
+        }
     }
 
     /**
@@ -102,7 +279,7 @@ public class QueueService {
      *
      * @param queueId Queue identifier.
      */
-    public void start(@Nonnull QueueId queueId) {
+    public synchronized void start(@Nonnull QueueId queueId) {
         requireNonNull(queueId, "queueId");
         log.info("starting queue: queueId={}", queueId);
         getQueuePools(queueId, "start").values().forEach(QueueExecutionPool::start);
@@ -112,9 +289,11 @@ public class QueueService {
      * Stop tasks processing in all queues registered in the service,
      * semantic is the same as for {@link ExecutorService#shutdownNow()}.
      */
-    public void shutdown() {
+    public synchronized void shutdown() {
         log.info("shutting down all queues");
-        registeredQueues.keySet().forEach(this::shutdown);
+        notificationListeners.values().forEach(QueueNotificationListener::shutdown);
+        enqueueListeners.forEach(QueueShard::removeEnqueueListener);
+        getRegisteredQueueIds().forEach(this::shutdown);
     }
 
     /**
@@ -123,7 +302,7 @@ public class QueueService {
      *
      * @param queueId Queue identifier.
      */
-    public void shutdown(@Nonnull QueueId queueId) {
+    public synchronized void shutdown(@Nonnull QueueId queueId) {
         requireNonNull(queueId, "queueId");
         log.info("shutting down queue: queueId={}", queueId);
         getQueuePools(queueId, "shutdown").values().forEach(QueueExecutionPool::shutdown);
@@ -151,7 +330,7 @@ public class QueueService {
      * @return true if the tasks processing was stopped.
      */
     public boolean isShutdown() {
-        return registeredQueues.keySet().stream().allMatch(this::isShutdown);
+        return getRegisteredQueueIds().stream().allMatch(this::isShutdown);
     }
 
     /**
@@ -173,7 +352,7 @@ public class QueueService {
      * @return true if all task threads in all queues were terminated.
      */
     public boolean isTerminated() {
-        return registeredQueues.keySet().stream().allMatch(this::isTerminated);
+        return getRegisteredQueueIds().stream().allMatch(this::isTerminated);
     }
 
     /**
@@ -182,7 +361,7 @@ public class QueueService {
      *
      * @param queueId Queue identifier.
      */
-    public void pause(@Nonnull QueueId queueId) {
+    public synchronized void pause(@Nonnull QueueId queueId) {
         requireNonNull(queueId, "queueId");
         log.info("pausing queue: queueId={}", queueId);
         getQueuePools(queueId, "pause").values().forEach(QueueExecutionPool::pause);
@@ -192,9 +371,9 @@ public class QueueService {
      * Pause task processing in all queues.
      * To start the processing again, use {@link QueueService#start()} method.
      */
-    public void pause() {
+    public synchronized void pause() {
         log.info("pausing all queues");
-        registeredQueues.keySet().forEach(this::pause);
+        getRegisteredQueueIds().forEach(this::pause);
     }
 
     /**
@@ -203,7 +382,7 @@ public class QueueService {
      * @return true if queues were paused.
      */
     public boolean isPaused() {
-        return registeredQueues.keySet().stream().allMatch(this::isPaused);
+        return getRegisteredQueueIds().stream().allMatch(this::isPaused);
     }
 
     /**
@@ -229,9 +408,9 @@ public class QueueService {
         requireNonNull(timeout, "timeout");
         log.info("awaiting all queues termination: timeout={}", timeout);
         TimeLimiter timeLimiter = new TimeLimiter(new MillisTimeProvider.SystemMillisTimeProvider(), timeout);
-        registeredQueues.keySet().forEach(queueId ->
+        getRegisteredQueueIds().forEach(queueId ->
                 timeLimiter.execute(remainingTimeout -> awaitTermination(queueId, remainingTimeout)));
-        return registeredQueues.keySet().stream().filter(queueId -> !isTerminated(queueId)).collect(Collectors.toList());
+        return getRegisteredQueueIds().stream().filter(queueId -> !isTerminated(queueId)).collect(Collectors.toList());
     }
 
     /**
@@ -255,6 +434,138 @@ public class QueueService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Change number of threads of the specified queue on all shards without restart.
+     * <p>
+     * New threads are started at once if the queue is started.
+     * Excess threads finish their current tasks and stop before the next pick,
+     * so a thread waiting for {@link QueueConfigsReader#SETTING_NO_TASK_TIMEOUT} stops after the wait.
+     * For a queue group the number of threads of the whole group is changed.
+     * Not supported for {@link ProcessingMode#SINGLE_PICKER}.
+     *
+     * @param queueId     Queue identifier.
+     * @param threadCount New number of threads, must be positive.
+     */
+    public synchronized void setThreadCount(@Nonnull QueueId queueId, int threadCount) {
+        requireNonNull(queueId, "queueId");
+        log.info("changing thread count: queueId={}, threadCount={}", queueId, threadCount);
+        getQueuePools(queueId, "setThreadCount").values()
+                .forEach(queueExecutionPool -> queueExecutionPool.setThreadCount(threadCount));
+    }
+
+    /**
+     * Change number of threads of the specified queue on the given shard without restart.
+     * Semantic is the same as for {@link #setThreadCount(QueueId, int)}.
+     *
+     * @param queueId      Queue identifier.
+     * @param queueShardId Shard identifier.
+     * @param threadCount  New number of threads, must be positive.
+     */
+    public synchronized void setThreadCount(@Nonnull QueueId queueId, @Nonnull QueueShardId queueShardId,
+                                            int threadCount) {
+        requireNonNull(queueId, "queueId");
+        requireNonNull(queueShardId, "queueShardId");
+        QueueExecutionPool queueExecutionPool = getQueuePools(queueId, "setThreadCount").get(queueShardId);
+        if (queueExecutionPool == null) {
+            throw new IllegalArgumentException("cannot set thread count, unknown shard: " +
+                    "queueId=" + queueId + ", shardId=" + queueShardId);
+        }
+        log.info("changing thread count: queueId={}, shardId={}, threadCount={}", queueId, queueShardId, threadCount);
+        queueExecutionPool.setThreadCount(threadCount);
+    }
+
+    /**
+     * Apply new configuration to the registered queues without restart.
+     * <p>
+     * Only the following settings can be changed:
+     * {@link QueueConfigsReader#SETTING_NO_TASK_TIMEOUT}, {@link QueueConfigsReader#SETTING_INITIAL_NO_TASK_TIMEOUT},
+     * {@link QueueConfigsReader#SETTING_BETWEEN_TASK_TIMEOUT},
+     * {@link QueueConfigsReader#SETTING_FATAL_CRASH_TIMEOUT}, {@link QueueConfigsReader#SETTING_RETRY_INTERVAL}
+     * and {@link QueueConfigsReader#SETTING_THREAD_COUNT} of a queue without thread count autoscaling.
+     * Queue threads pick up new timeouts on their next iteration, tasks in progress are not interrupted.
+     * Thread count is changed as in {@link #setThreadCount(QueueId, int)}.
+     * Other settings require a restart of the queue, queue groups do not support reloading.
+     * <p>
+     * Configurations are validated before any of them is applied,
+     * so either all configurations are applied or none of them.
+     * Configurations of queues which are not registered are ignored.
+     * Intended to be used as a listener of {@link QueueConfigsWatcher}.
+     *
+     * @param queueConfigs New queue configurations.
+     * @throws IllegalArgumentException if a configuration changes settings which cannot be reloaded.
+     */
+    public synchronized void updateQueueConfigs(@Nonnull Collection<QueueConfig> queueConfigs) {
+        requireNonNull(queueConfigs, "queueConfigs");
+        Map<QueueId, QueueConfig> changedConfigs = new LinkedHashMap<>();
+        for (QueueConfig queueConfig : queueConfigs) {
+            QueueId queueId = queueConfig.getLocation().getQueueId();
+            if (!registeredQueues.containsKey(queueId)) {
+                log.info("queue is not registered, skipping config update: queueId={}", queueId);
+                continue;
+            }
+            ReloadableQueueConsumer<?> reloadableConsumer = reloadableConsumers.get(queueId);
+            if (reloadableConsumer == null) {
+                throw new IllegalArgumentException("cannot update config of a queue group: queueId=" + queueId);
+            }
+            QueueConfig currentConfig = reloadableConsumer.getQueueConfig();
+            if (currentConfig.equals(queueConfig)) {
+                continue;
+            }
+            checkReloadable(currentConfig, queueConfig);
+            changedConfigs.put(queueId, queueConfig);
+        }
+        changedConfigs.forEach((queueId, queueConfig) -> {
+            ReloadableQueueConsumer<?> reloadableConsumer = reloadableConsumers.get(queueId);
+            int currentThreadCount = reloadableConsumer.getQueueConfig().getSettings().getThreadCount();
+            log.info("updating queue config: queueId={}, settings={}", queueId, queueConfig.getSettings());
+            reloadableConsumer.setQueueConfig(queueConfig);
+            int threadCount = queueConfig.getSettings().getThreadCount();
+            if (threadCount != currentThreadCount) {
+                setThreadCount(queueId, threadCount);
+            }
+        });
+    }
+
+    private static void checkReloadable(@Nonnull QueueConfig currentConfig, @Nonnull QueueConfig newConfig) {
+        if (!currentConfig.getLocation().equals(newConfig.getLocation())) {
+            throw new IllegalArgumentException("queue location cannot be changed without restart: " +
+                    "location=" + currentConfig.getLocation() + ", newLocation=" + newConfig.getLocation());
+        }
+        QueueSettings currentSettings = currentConfig.getSettings();
+        QueueSettings newSettings = newConfig.getSettings();
+        if (!getRestartSettings(currentSettings).equals(getRestartSettings(newSettings))) {
+            throw new IllegalArgumentException("only timeouts, retry interval and thread count " +
+                    "can be changed without restart: location=" + currentConfig.getLocation() +
+                    ", settings=" + currentSettings + ", newSettings=" + newSettings);
+        }
+        if (newSettings.getThreadCount() <= 0) {
+            throw new IllegalArgumentException("queue cannot be turned off without restart: " +
+                    "location=" + currentConfig.getLocation());
+        }
+        if (newSettings.getThreadCount() != currentSettings.getThreadCount()
+                && currentSettings.getProcessingMode() == ProcessingMode.SINGLE_PICKER) {
+            throw new IllegalArgumentException("thread count cannot be changed without restart " +
+                    "in ProcessingMode#SINGLE_PICKER: location=" + currentConfig.getLocation());
+        }
+    }
+
+    /**
+     * Settings which cannot be changed without restart of the queue.
+     * Thread count of a queue with thread count autoscaling is managed by the queue itself.
+     */
+    @Nonnull
+    private static List<Object> getRestartSettings(@Nonnull QueueSettings settings) {
+        return Arrays.asList(settings.getRetryType(), settings.getReenqueueRetrySettings(),
+                settings.getProcessingMode(), settings.getPickBatchSize(), settings.getAckBatchSize(),
+                settings.getAckFlushInterval(), settings.getMaxInFlight(), settings.isAdaptiveNoTaskTimeout(),
+                settings.getMaxAttempts(), settings.getDeadLetterQueueId(), settings.getRateLimit(),
+                settings.getLeaseTime(), settings.getAdditionalSettings(), settings.isThreadCountAutoscaled(),
+                settings.isThreadCountAutoscaled() ? settings.getThreadCount() : null,
+                settings.isThreadCountAutoscaled() ? settings.getMinThreadCount() : null,
+                settings.isThreadCountAutoscaled() ? settings.getMaxThreadCount() : null,
+                settings.isThreadCountAutoscaled() ? settings.getAutoscaleInterval() : null);
+    }
+
     /**
      * Force continue task processing in specified queue by given shard identifier.
      * <p>
@@ -266,6 +577,8 @@ public class QueueService {
      * Applies right after a task enqueue,
      * therefore should be called only after successful task insertion transaction.
      * Applies also to tests to improve the speed of test execution.
+     * Tasks enqueued in the same JVM via {@link QueueShard#getQueueDao()} wake up the queue automatically
+     * after the service is started.
      *
      * @param queueId      Queue identifier.
      * @param queueShardId Shard identifier.
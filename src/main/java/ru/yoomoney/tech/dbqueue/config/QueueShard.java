@@ -2,10 +2,14 @@ package ru.yoomoney.tech.dbqueue.config;
 
 import ru.yoomoney.tech.dbqueue.dao.Database;
 import ru.yoomoney.tech.dbqueue.dao.QueueDao;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
 
 import javax.annotation.Nonnull;
 import javax.sql.DataSource;
 
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
@@ -28,6 +32,9 @@ public class QueueShard {
     private final QueueTableSchema queueTableSchema;
     @Nonnull
     private final QueueDao queueDao;
+    private final boolean notifyOnEnqueue;
+    @Nonnull
+    private final Collection<Consumer<QueueId>> enqueueListeners = new CopyOnWriteArraySet<>();
 
     /**
      * Constructor
@@ -41,11 +48,32 @@ public class QueueShard {
                       @Nonnull QueueTableSchema queueTableSchema,
                       @Nonnull QueueShardId shardId,
                       @Nonnull Database database) {
+        this(databaseDialect, queueTableSchema, shardId, database, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param databaseDialect  Database type (dialect)
+     * @param queueTableSchema Queue table scheme.
+     * @param shardId          Shard identifier.
+     * @param database         Reference to JDBC data source
+     * @param notifyOnEnqueue  Notify listeners about every enqueued task, supported only for PostgreSQL.
+     *                         See {@link QueueService#listenNotifications(QueueShardId, DataSource)}.
+     */
+    public QueueShard(@Nonnull DatabaseDialect databaseDialect,
+                      @Nonnull QueueTableSchema queueTableSchema,
+                      @Nonnull QueueShardId shardId,
+                      @Nonnull Database database,
+                      boolean notifyOnEnqueue) {
         this.databaseDialect = requireNonNull(databaseDialect);
         this.shardId = requireNonNull(shardId);
         this.database = requireNonNull(database);
         this.queueTableSchema = requireNonNull(queueTableSchema);
-        this.queueDao = QueueDao.Factory.create(databaseDialect, database, queueTableSchema);
+        this.notifyOnEnqueue = notifyOnEnqueue;
+        this.queueDao = new WakeupOnCommitQueueDao(
+                QueueDao.Factory.create(databaseDialect, database, queueTableSchema, notifyOnEnqueue),
+                database, enqueueListeners);
     }
 
     /**
@@ -98,6 +126,33 @@ public class QueueShard {
         return queueTableSchema;
     }
 
+    /**
+     * Get attribute that listeners are notified about every enqueued task on that shard.
+     *
+     * @return true if notifications are enabled.
+     */
+    public boolean isNotifyOnEnqueue() {
+        return notifyOnEnqueue;
+    }
+
+    /**
+     * Add listener of tasks enqueued on that shard without execution delay.
+     * Listener is invoked after the enqueue transaction is committed.
+     *
+     * @param enqueueListener Listener which receives identifier of the queue.
+     */
+    void addEnqueueListener(@Nonnull Consumer<QueueId> enqueueListener) {
+        enqueueListeners.add(requireNonNull(enqueueListener));
+    }
+
+    /**
+     * Remove listener of enqueued tasks.
+     *
+     * @param enqueueListener Listener which was added with {@link #addEnqueueListener(Consumer)}.
+     */
+    void removeEnqueueListener(@Nonnull Consumer<QueueId> enqueueListener) {
+        enqueueListeners.remove(requireNonNull(enqueueListener));
+    }
 
     public <T> T transact(Supplier<T> runWithinTransaction) {
         return database.transact(runWithinTransaction);
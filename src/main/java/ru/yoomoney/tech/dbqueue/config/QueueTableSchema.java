@@ -3,8 +3,10 @@ package ru.yoomoney.tech.dbqueue.config;
 import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -39,6 +41,12 @@ public class QueueTableSchema {
     private final String createdAtField;
     @Nonnull
     private final String nextProcessAtField;
+    @Nullable
+    private final String priorityField;
+    @Nullable
+    private final String orderingKeyField;
+    @Nullable
+    private final String deduplicationKeyField;
     @Nonnull
     private final List<String> extFields;
 
@@ -50,6 +58,9 @@ public class QueueTableSchema {
                              @Nonnull String totalAttemptField,
                              @Nonnull String createdAtField,
                              @Nonnull String nextProcessAtField,
+                             @Nullable String priorityField,
+                             @Nullable String orderingKeyField,
+                             @Nullable String deduplicationKeyField,
                              @Nonnull List<String> extFields) {
         this.idField = removeSpecialChars(requireNonNull(idField));
         this.queueNameField = removeSpecialChars(requireNonNull(queueNameField));
@@ -59,6 +70,9 @@ public class QueueTableSchema {
         this.totalAttemptField = removeSpecialChars(requireNonNull(totalAttemptField));
         this.createdAtField = removeSpecialChars(requireNonNull(createdAtField));
         this.nextProcessAtField = removeSpecialChars(requireNonNull(nextProcessAtField));
+        this.priorityField = priorityField != null ? removeSpecialChars(priorityField) : null;
+        this.orderingKeyField = orderingKeyField != null ? removeSpecialChars(orderingKeyField) : null;
+        this.deduplicationKeyField = deduplicationKeyField != null ? removeSpecialChars(deduplicationKeyField) : null;
         this.extFields = requireNonNull(extFields).stream().map(QueueTableSchema::removeSpecialChars)
                 .collect(Collectors.toList());
     }
@@ -158,6 +172,54 @@ public class QueueTableSchema {
         return idField;
     }
 
+    /**
+     * Field with a column name for the task priority ({@code INTEGER} type).
+     * Tasks with a greater priority are picked first, tasks with the same priority are picked
+     * in order of the processing time.
+     * Value is set through {@link ru.yoomoney.tech.dbqueue.api.EnqueueParams#withPriority(int)}.
+     *
+     * @return Column name or empty if priority is not supported by the table.
+     */
+    @Nonnull
+    public Optional<String> getPriorityField() {
+        return Optional.ofNullable(priorityField);
+    }
+
+    /**
+     * Field with a column name for the ordering key of the task.
+     * Tasks of the same queue with the same ordering key are processed one by one in order of their ids:
+     * a task is picked only when there are no older tasks with that key in the queue,
+     * tasks with different keys are processed in parallel. Tasks without a key are not ordered.
+     * Value is set through {@link ru.yoomoney.tech.dbqueue.api.EnqueueParams#withOrderingKey(String)}.
+     * <p>
+     * A finished task blocks its key until it is deleted, so with asynchronous acknowledgement,
+     * see {@link ru.yoomoney.tech.dbqueue.settings.QueueSettings#getAckBatchSize()},
+     * at most one task of a key is processed per
+     * {@link ru.yoomoney.tech.dbqueue.settings.QueueSettings#getAckFlushInterval()}.
+     *
+     * @return Column name or empty if ordering keys are not supported by the table.
+     */
+    @Nonnull
+    public Optional<String> getOrderingKeyField() {
+        return Optional.ofNullable(orderingKeyField);
+    }
+
+    /**
+     * Field with a column name for the deduplication key of the task.
+     * Keys are unique within a queue, the column must have a unique index on the queue name and the key,
+     * which ignores null keys.
+     * A task with the key of a task which is already in the queue is not enqueued,
+     * id of the existing task is returned instead.
+     * Tasks are deduplicated only while they are in the table, a key of a finished task can be used again.
+     * Value is set through {@link ru.yoomoney.tech.dbqueue.api.EnqueueParams#withDeduplicationKey(String)}.
+     *
+     * @return Column name or empty if deduplication keys are not supported by the table.
+     */
+    @Nonnull
+    public Optional<String> getDeduplicationKeyField() {
+        return Optional.ofNullable(deduplicationKeyField);
+    }
+
     /**
      * Additional list of column names ({@code TEXT} type),
      * which are mapping onto {@link TaskRecord#getExtData()}.
@@ -185,6 +247,12 @@ public class QueueTableSchema {
         private String totalAttemptField = "total_attempt";
         private String createdAtField = "created_at";
         private String nextProcessAtField = "next_process_at";
+        @Nullable
+        private String priorityField;
+        @Nullable
+        private String orderingKeyField;
+        @Nullable
+        private String deduplicationKeyField;
         private List<String> extFields = new ArrayList<>();
 
         private Builder() {
@@ -230,6 +298,21 @@ public class QueueTableSchema {
             return this;
         }
 
+        public Builder withPriorityField(@Nullable String priorityField) {
+            this.priorityField = priorityField;
+            return this;
+        }
+
+        public Builder withOrderingKeyField(@Nullable String orderingKeyField) {
+            this.orderingKeyField = orderingKeyField;
+            return this;
+        }
+
+        public Builder withDeduplicationKeyField(@Nullable String deduplicationKeyField) {
+            this.deduplicationKeyField = deduplicationKeyField;
+            return this;
+        }
+
         public Builder withExtFields(List<String> extFields) {
             this.extFields = extFields;
             return this;
@@ -237,7 +320,8 @@ public class QueueTableSchema {
 
         public QueueTableSchema build() {
             return new QueueTableSchema(idField, queueNameField, payloadField, attemptField, reenqueueAttemptField,
-                    totalAttemptField, createdAtField, nextProcessAtField, extFields);
+                    totalAttemptField, createdAtField, nextProcessAtField, priorityField, orderingKeyField,
+                    deduplicationKeyField, extFields);
         }
     }
 }
@@ -0,0 +1,32 @@
+package ru.yoomoney.tech.dbqueue.config;
+
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provider of thread factories for the threads which pick and process tasks.
+ * <p>
+ * By default, the queues are processed on platform threads.
+ * For I/O-bound consumers on Java 21+ the queues can be processed on virtual threads:
+ * <pre>{@code
+ * QueueThreadFactoryProvider provider = (location, shardId) ->
+ *         Thread.ofVirtual().name("queue-" + location.getQueueId().asString() + "-", 0).factory();
+ * }</pre>
+ *
+ * @since 17.10.2026
+ */
+@FunctionalInterface
+public interface QueueThreadFactoryProvider {
+
+    /**
+     * Get thread factory for the given queue on the given shard.
+     *
+     * @param location Queue location.
+     * @param shardId  Shard identifier.
+     * @return Thread factory.
+     */
+    @Nonnull
+    ThreadFactory getThreadFactory(@Nonnull QueueLocation location, @Nonnull QueueShardId shardId);
+}
@@ -0,0 +1,73 @@
+package ru.yoomoney.tech.dbqueue.config;
+
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.Task;
+import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
+import ru.yoomoney.tech.dbqueue.api.TaskPayloadTransformer;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Queue consumer which configuration can be replaced while the queue is running.
+ * <p>
+ * Queue threads read the configuration of the consumer on every iteration,
+ * so the new configuration is applied on the next iteration of every thread.
+ * Task execution is delegated to the consumer of the queue.
+ *
+ * @param <T> The type of the payload in the task
+ * @since 17.10.2026
+ */
+final class ReloadableQueueConsumer<T> implements QueueConsumer<T> {
+
+    @Nonnull
+    private final QueueConsumer<T> queueConsumer;
+    @Nonnull
+    private volatile QueueConfig queueConfig;
+
+    /**
+     * Constructor
+     *
+     * @param queueConsumer Consumer of the queue.
+     */
+    ReloadableQueueConsumer(@Nonnull QueueConsumer<T> queueConsumer) {
+        this.queueConsumer = requireNonNull(queueConsumer, "queueConsumer");
+        this.queueConfig = requireNonNull(queueConsumer.getQueueConfig(), "queueConfig");
+    }
+
+    /**
+     * Replace configuration of the queue.
+     *
+     * @param queueConfig New queue configuration.
+     */
+    void setQueueConfig(@Nonnull QueueConfig queueConfig) {
+        this.queueConfig = requireNonNull(queueConfig, "queueConfig");
+    }
+
+    @Nonnull
+    @Override
+    public TaskExecutionResult execute(@Nonnull Task<T> task) {
+        return queueConsumer.execute(task);
+    }
+
+    @Nonnull
+    @Override
+    public QueueConfig getQueueConfig() {
+        return queueConfig;
+    }
+
+    @Nonnull
+    @Override
+    public TaskPayloadTransformer<T> getPayloadTransformer() {
+        return queueConsumer.getPayloadTransformer();
+    }
+
+    @Override
+    public Optional<Executor> getExecutor() {
+        return queueConsumer.getExecutor();
+    }
+}
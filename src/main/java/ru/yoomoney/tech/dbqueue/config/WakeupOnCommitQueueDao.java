@@ -0,0 +1,114 @@
+package ru.yoomoney.tech.dbqueue.config;
+
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.dao.Database;
+import ru.yoomoney.tech.dbqueue.dao.QueueDao;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Queue DAO which notifies in-process listeners about tasks ready for immediate processing.
+ * <p>
+ * Listeners are invoked after the enqueue transaction is committed,
+ * see {@link Database#afterCommit(Runnable)}, so that the woken up queue is able to pick the task.
+ * If the database does not support after commit actions, listeners are not invoked
+ * and the queue picks the task after {@link ru.yoomoney.tech.dbqueue.settings.QueueSettings#getNoTaskTimeout()}.
+ * Tasks with execution delay are not reported.
+ *
+ * @since 17.10.2026
+ */
+class WakeupOnCommitQueueDao implements QueueDao {
+
+    @Nonnull
+    private final QueueDao queueDao;
+    @Nonnull
+    private final Database database;
+    @Nonnull
+    private final Collection<Consumer<QueueId>> enqueueListeners;
+
+    /**
+     * Constructor
+     *
+     * @param queueDao         Queue DAO to delegate to.
+     * @param database         Database of the shard.
+     * @param enqueueListeners Listeners of enqueued tasks, the collection is read on every enqueue.
+     */
+    WakeupOnCommitQueueDao(@Nonnull QueueDao queueDao,
+                           @Nonnull Database database,
+                           @Nonnull Collection<Consumer<QueueId>> enqueueListeners) {
+        this.queueDao = requireNonNull(queueDao, "queueDao");
+        this.database = requireNonNull(database, "database");
+        this.enqueueListeners = requireNonNull(enqueueListeners, "enqueueListeners");
+    }
+
+    @Override
+    public long enqueue(@Nonnull QueueLocation location, @Nonnull EnqueueParams<String> enqueueParams) {
+        long taskId = queueDao.enqueue(location, enqueueParams);
+        if (isReady(enqueueParams)) {
+            notifyAfterCommit(location);
+        }
+        return taskId;
+    }
+
+    @Nonnull
+    @Override
+    public List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                   @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        List<Long> taskIds = queueDao.enqueueBatch(location, enqueueParams);
+        if (enqueueParams.stream().anyMatch(WakeupOnCommitQueueDao::isReady)) {
+            notifyAfterCommit(location);
+        }
+        return taskIds;
+    }
+
+    @Override
+    public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
+        return queueDao.deleteTask(location, taskId);
+    }
+
+    @Override
+    public int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        return queueDao.deleteTasks(location, taskIds);
+    }
+
+    @Override
+    public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
+        return queueDao.reenqueue(location, taskId, executionDelay);
+    }
+
+    @Override
+    public boolean postponeTask(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
+        return queueDao.postponeTask(location, taskId, executionDelay);
+    }
+
+    @Override
+    public int postponeTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds,
+                             @Nonnull Duration executionDelay) {
+        return queueDao.postponeTasks(location, taskIds, executionDelay);
+    }
+
+    @Override
+    public boolean moveTask(@Nonnull QueueLocation location, long taskId, @Nonnull QueueId targetQueueId) {
+        return queueDao.moveTask(location, taskId, targetQueueId);
+    }
+
+    private void notifyAfterCommit(@Nonnull QueueLocation location) {
+        if (enqueueListeners.isEmpty()) {
+            return;
+        }
+        database.afterCommit(() -> enqueueListeners.forEach(listener -> listener.accept(location.getQueueId())));
+    }
+
+    private static boolean isReady(@Nonnull EnqueueParams<String> enqueueParams) {
+        Duration executionDelay = enqueueParams.getExecutionDelay();
+        return executionDelay.isZero() || executionDelay.isNegative();
+    }
+}
@@ -1,5 +1,6 @@
 package ru.yoomoney.tech.dbqueue.dao;
 
+import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.util.Collections;
 import java.util.List;
@@ -11,6 +12,22 @@ public interface Database {
         T mapToObject(ResultSet rs) throws Exception;
     }
 
+    interface CallableStatementMapper<T> {
+        T mapToObject(CallableStatement cs) throws Exception;
+    }
+
+    /**
+     * Select a single value.
+     * <p>
+     * All {@code selectOne} methods return null when no rows are selected
+     * and fail when more than one row is selected.
+     *
+     * @param selectQuery  SQL statement with named parameters.
+     * @param parameterMap Values of named parameters.
+     * @param klass        Type of the value.
+     * @param <T>          Type of the value.
+     * @return Selected value or null when no rows are selected.
+     */
     <T> T selectOne(String selectQuery,
                     Map<String, Object> parameterMap,
                     Class<T> klass);
@@ -48,6 +65,110 @@ public interface Database {
         return update(updateQuery, Collections.emptyMap());
     }
 
+    /**
+     * Execute an update for every parameter map.
+     * <p>
+     * Default implementation executes updates one by one,
+     * implementations should override it to execute them within a single batch.
+     *
+     * @param updateQuery   SQL statement with named parameters.
+     * @param parameterMaps Values of named parameters of every update.
+     * @return Number of updated rows of every update.
+     */
+    default int[] batchUpdate(String updateQuery,
+                              List<Map<String, Object>> parameterMaps) {
+        int[] updatedRows = new int[parameterMaps.size()];
+        for (int i = 0; i < parameterMaps.size(); i++) {
+            updatedRows[i] = update(updateQuery, parameterMaps.get(i));
+        }
+        return updatedRows;
+    }
+
+    /**
+     * Select a single value, parameters are bound to {@code ?} placeholders in the order of occurrence.
+     * <p>
+     * Default implementation converts placeholders into named parameters,
+     * implementations should override it to avoid the conversion.
+     *
+     * @param selectQuery SQL statement with positional placeholders.
+     * @param parameters  Parameter values in the order of placeholders.
+     * @param klass       Type of the value.
+     * @param <T>         Type of the value.
+     * @return Selected value or null when no rows are selected.
+     * @see #selectOne(String, Map, Class)
+     */
+    default <T> T selectOne(String selectQuery,
+                            Object[] parameters,
+                            Class<T> klass) {
+        ParsedSql parsedSql = ParsedSql.parsePositional(selectQuery);
+        return selectOne(parsedSql.getNamedSql(), parsedSql.toParameterMap(parameters), klass);
+    }
+
+    /**
+     * Select a single row, parameters are bound to {@code ?} placeholders in the order of occurrence.
+     *
+     * @param selectQuery SQL statement with positional placeholders.
+     * @param parameters  Parameter values in the order of placeholders.
+     * @param rowMapper   Mapper of the row.
+     * @param <T>         Type of the row.
+     * @return Mapped row or null when no rows are selected.
+     * @see #selectOne(String, Map, Class)
+     */
+    default <T> T selectOne(String selectQuery,
+                            Object[] parameters,
+                            RowMapper<T> rowMapper) {
+        ParsedSql parsedSql = ParsedSql.parsePositional(selectQuery);
+        return selectOne(parsedSql.getNamedSql(), parsedSql.toParameterMap(parameters), rowMapper);
+    }
+
+    /**
+     * Select rows, parameters are bound to {@code ?} placeholders in the order of occurrence.
+     *
+     * @param selectQuery SQL statement with positional placeholders.
+     * @param parameters  Parameter values in the order of placeholders.
+     * @param rowMapper   Mapper of a row.
+     * @param <T>         Type of a row.
+     * @return Mapped rows.
+     * @see #selectOne(String, Object[], Class)
+     */
+    default <T> List<T> selectMany(String selectQuery,
+                                   Object[] parameters,
+                                   RowMapper<T> rowMapper) {
+        ParsedSql parsedSql = ParsedSql.parsePositional(selectQuery);
+        return selectMany(parsedSql.getNamedSql(), parsedSql.toParameterMap(parameters), rowMapper);
+    }
+
+    /**
+     * Execute an update, parameters are bound to {@code ?} placeholders in the order of occurrence.
+     *
+     * @param updateQuery SQL statement with positional placeholders.
+     * @param parameters  Parameter values in the order of placeholders.
+     * @return Number of updated rows.
+     * @see #selectOne(String, Object[], Class)
+     */
+    default int update(String updateQuery,
+                       Object[] parameters) {
+        ParsedSql parsedSql = ParsedSql.parsePositional(updateQuery);
+        return update(parsedSql.getNamedSql(), parsedSql.toParameterMap(parameters));
+    }
+
+    /**
+     * Execute a callable statement, e.g. an anonymous PL/SQL block.
+     * <p>
+     * Used by {@link ru.yoomoney.tech.dbqueue.config.DatabaseDialect#ORACLE_11G} only,
+     * default implementation fails, implementations should override it to support Oracle.
+     *
+     * @param callableQuery           Callable SQL statement.
+     * @param callableStatementMapper Mapper of the executed statement.
+     * @param <T>                     Type of the result.
+     * @return Mapped result.
+     */
+    default <T> T call(String callableQuery,
+                       CallableStatementMapper<T> callableStatementMapper) {
+        throw new UnsupportedOperationException("callable statements are not supported: database=" +
+                getClass().getName());
+    }
+
     <T> T transact(Supplier<T> runsWithinTransaction);
 
     default void transact(Runnable runsWithinTransaction) {
@@ -57,5 +178,18 @@ public interface Database {
         });
     }
 
+    /**
+     * Run the action after the current transaction is successfully committed.
+     * The action is not run if the transaction is rolled back.
+     * <p>
+     * Default implementation is not aware of transactions and never runs the action,
+     * since running it before the commit would expose uncommitted changes to the action.
+     * Implementations should override it to register the action in the transaction synchronization.
+     *
+     * @param action Action to run after commit.
+     */
+    default void afterCommit(Runnable action) {
+    }
+
     ;
 }
@@ -1,16 +1,22 @@
 package ru.yoomoney.tech.dbqueue.dao;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Objects.requireNonNull;
 
@@ -23,14 +29,36 @@ import static java.util.Objects.requireNonNull;
  */
 public class MssqlQueueDao implements QueueDao {
 
+    /**
+     * Maximum number of ids in a single delete or update statement,
+     * stays within the SQL Server limit of 2100 parameters per request.
+     */
+    private static final int MAX_IDS_BATCH_SIZE = 1000;
+    /**
+     * Maximum number of rows in a table value constructor of the insert statement.
+     */
+    private static final int MAX_ENQUEUE_BATCH_SIZE = 1000;
+    /**
+     * Maximum number of bind parameters in a statement, SQL Server supports up to 2100.
+     */
+    private static final int MAX_STATEMENT_PARAMETERS = 2000;
+
     private final Map<QueueLocation, String> enqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> enqueueBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> deleteSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> deleteBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> reenqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> postponeSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> postponeBatchSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> moveSqlCache = new ConcurrentHashMap<>();
 
     @Nonnull
     private final Database database;
     @Nonnull
     private final QueueTableSchema queueTableSchema;
+    @Nonnull
+    private final TaskDeduplicator taskDeduplicator;
+    private final int enqueueBatchSize;
 
     /**
      * Constructor
@@ -41,62 +69,243 @@ public class MssqlQueueDao implements QueueDao {
     public MssqlQueueDao(Database database, QueueTableSchema queueTableSchema) {
         this.database = database;
         this.queueTableSchema = requireNonNull(queueTableSchema);
+        this.taskDeduplicator = new TaskDeduplicator(database, queueTableSchema);
+        this.enqueueBatchSize = Math.min(MAX_ENQUEUE_BATCH_SIZE,
+                MAX_STATEMENT_PARAMETERS / getEnqueueParamCount());
     }
 
     @Override
-    @SuppressFBWarnings("NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE")
     public long enqueue(@Nonnull QueueLocation location, @Nonnull EnqueueParams<String> enqueueParams) {
         requireNonNull(location);
         requireNonNull(enqueueParams);
 
-        Map<String, Object> params = new HashMap<String, Object>() {
-            {
-                put("queueName", location.getQueueId().asString());
-                put("payload", enqueueParams.getPayload());
-                put("executionDelay", enqueueParams.getExecutionDelay().getSeconds());
+        Object[] params = new Object[getEnqueueParamCount()];
+        putEnqueueParams(params, 0, location, enqueueParams);
+
+        String enqueueSql = enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql);
+        for (int attempt = 0; attempt < TaskDeduplicator.MAX_ENQUEUE_ATTEMPTS; attempt++) {
+            Long id = database.selectOne(enqueueSql, params, Long.class);
+            if (id == null) {
+                id = taskDeduplicator.findTaskId(location, enqueueParams.getDeduplicationKey());
+            }
+            if (id != null) {
+                return id;
+            }
+        }
+        throw new IllegalStateException("task is not enqueued: location=" + location +
+                ", deduplicationKey=" + enqueueParams.getDeduplicationKey());
+    }
+
+    @Nonnull
+    @Override
+    public List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                   @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+
+        List<Long> ids = new ArrayList<>(enqueueParams.size());
+        for (int from = 0; from < enqueueParams.size(); from += enqueueBatchSize) {
+            List<EnqueueParams<String>> batch = enqueueParams.subList(from,
+                    Math.min(from + enqueueBatchSize, enqueueParams.size()));
+            if (queueTableSchema.getDeduplicationKeyField().isPresent()) {
+                List<Map.Entry<String, Long>> insertedTasks = insertBatch(location,
+                        TaskDeduplicator.distinctByKey(batch),
+                        rs -> TaskDeduplicator.insertedTask(rs.getString(2), rs.getLong(1)), Map.Entry::getValue);
+                ids.addAll(taskDeduplicator.resolveIds(location, batch, insertedTasks,
+                        task -> enqueue(location, task)));
+            } else {
+                ids.addAll(insertBatch(location, batch, rs -> rs.getLong(1), Long::longValue));
             }
-        };
+        }
+        return ids;
+    }
 
-        queueTableSchema.getExtFields().forEach(paramName -> params.put(paramName, null));
-        params.putAll(enqueueParams.getExtData());
-        return requireNonNull(database.insertOne(
-                enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql), params));
+    /**
+     * Insert tasks with a single statement.
+     * Returned rows are not guaranteed to follow the order of values,
+     * so they are sorted by ids which are generated in the order of values.
+     */
+    private <T> List<T> insertBatch(@Nonnull QueueLocation location,
+                                    @Nonnull List<EnqueueParams<String>> batch,
+                                    @Nonnull Database.RowMapper<T> rowMapper,
+                                    @Nonnull ToLongFunction<T> idGetter) {
+        if (batch.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Object[] params = new Object[batch.size() * getEnqueueParamCount()];
+        int offset = 0;
+        for (EnqueueParams<String> taskParams : batch) {
+            offset = putEnqueueParams(params, offset, location, taskParams);
+        }
+        String enqueueBatchSql = batch.size() == enqueueBatchSize
+                ? enqueueBatchSqlCache.computeIfAbsent(location,
+                ignored -> createEnqueueBatchSql(location, enqueueBatchSize))
+                : createEnqueueBatchSql(location, batch.size());
+        List<T> insertedRows = new ArrayList<>(database.selectMany(enqueueBatchSql, params, rowMapper));
+        insertedRows.sort(Comparator.comparingLong(idGetter));
+        return insertedRows;
     }
 
+    private int getEnqueueParamCount() {
+        return 3 + (queueTableSchema.getPriorityField().isPresent() ? 1 : 0) +
+                (queueTableSchema.getOrderingKeyField().isPresent() ? 1 : 0) +
+                (queueTableSchema.getDeduplicationKeyField().isPresent() ? 1 : 0) +
+                queueTableSchema.getExtFields().size();
+    }
+
+    private int putEnqueueParams(@Nonnull Object[] params, int offset,
+                                 @Nonnull QueueLocation location,
+                                 @Nonnull EnqueueParams<String> enqueueParams) {
+        params[offset++] = location.getQueueId().asString();
+        params[offset++] = enqueueParams.getPayload();
+        params[offset++] = enqueueParams.getExecutionDelay().getSeconds();
+        if (queueTableSchema.getPriorityField().isPresent()) {
+            params[offset++] = enqueueParams.getPriority();
+        }
+        if (queueTableSchema.getOrderingKeyField().isPresent()) {
+            params[offset++] = enqueueParams.getOrderingKey();
+        }
+        if (queueTableSchema.getDeduplicationKeyField().isPresent()) {
+            params[offset++] = enqueueParams.getDeduplicationKey();
+        }
+        Map<String, String> extData = enqueueParams.getExtData();
+        for (String field : queueTableSchema.getExtFields()) {
+            params[offset++] = extData.get(field);
+        }
+        return offset;
+    }
 
     @Override
     public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
         requireNonNull(location);
 
-        final Map<String, Object> params = new HashMap<String, Object>() {
-            {
-                put("id", taskId);
-                put("queueName", location.getQueueId().asString());
-            }
-        };
-
         int updatedRows = database.update(deleteSqlCache.computeIfAbsent(location, this::createDeleteSql),
-                params);
+                new Object[]{location.getQueueId().asString(), taskId});
         return updatedRows != 0;
     }
 
+    @Override
+    public int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        List<Long> ids = new ArrayList<>(taskIds);
+        int deletedRows = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_BATCH_SIZE) {
+            List<Long> idsChunk = ids.subList(from, Math.min(from + MAX_IDS_BATCH_SIZE, ids.size()));
+            Object[] params = new Object[1 + idsChunk.size()];
+            params[0] = location.getQueueId().asString();
+            for (int i = 0; i < idsChunk.size(); i++) {
+                params[i + 1] = idsChunk.get(i);
+            }
+            String deleteBatchSql = idsChunk.size() == MAX_IDS_BATCH_SIZE
+                    ? deleteBatchSqlCache.computeIfAbsent(location,
+                    ignored -> createDeleteBatchSql(location, MAX_IDS_BATCH_SIZE))
+                    : createDeleteBatchSql(location, idsChunk.size());
+            deletedRows += database.update(deleteBatchSql, params);
+        }
+        return deletedRows;
+    }
+
     @Override
     public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
         requireNonNull(location);
         requireNonNull(executionDelay);
-        final Map<String, Object> params = new HashMap<String, Object>() {
-            {
-                put("id", taskId);
-                put("queueName", location.getQueueId().asString());
-                put("executionDelay", executionDelay.getSeconds());
-            }
-        };
         int updatedRows = database.update(reenqueueSqlCache.computeIfAbsent(location, this::createReenqueueSql),
-                params);
+                new Object[]{executionDelay.getSeconds(), taskId, location.getQueueId().asString()});
+        return updatedRows != 0;
+    }
+
+    @Override
+    public boolean postponeTask(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
+        requireNonNull(location);
+        requireNonNull(executionDelay);
+        int updatedRows = database.update(postponeSqlCache.computeIfAbsent(location, this::createPostponeSql),
+                new Object[]{executionDelay.getSeconds(), taskId, location.getQueueId().asString()});
+        return updatedRows != 0;
+    }
+
+    @Override
+    public int postponeTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds,
+                             @Nonnull Duration executionDelay) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        requireNonNull(executionDelay);
+        List<Long> ids = new ArrayList<>(taskIds);
+        int updatedRows = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_BATCH_SIZE) {
+            List<Long> idsChunk = ids.subList(from, Math.min(from + MAX_IDS_BATCH_SIZE, ids.size()));
+            Object[] params = new Object[3 + idsChunk.size()];
+            params[0] = executionDelay.getSeconds();
+            params[1] = location.getQueueId().asString();
+            for (int i = 0; i < idsChunk.size(); i++) {
+                params[i + 2] = idsChunk.get(i);
+            }
+            params[params.length - 1] = executionDelay.getSeconds();
+            String postponeBatchSql = idsChunk.size() == MAX_IDS_BATCH_SIZE
+                    ? postponeBatchSqlCache.computeIfAbsent(location,
+                    ignored -> createPostponeBatchSql(location, MAX_IDS_BATCH_SIZE))
+                    : createPostponeBatchSql(location, idsChunk.size());
+            updatedRows += database.update(postponeBatchSql, params);
+        }
+        return updatedRows;
+    }
+
+    @Override
+    public boolean moveTask(@Nonnull QueueLocation location, long taskId, @Nonnull QueueId targetQueueId) {
+        requireNonNull(location);
+        requireNonNull(targetQueueId);
+
+        int updatedRows = database.update(moveSqlCache.computeIfAbsent(location, this::createMoveSql),
+                new Object[]{targetQueueId.asString(), taskId, location.getQueueId().asString()});
         return updatedRows != 0;
     }
 
     private String createEnqueueSql(@Nonnull QueueLocation location) {
+        return queueTableSchema.getDeduplicationKeyField()
+                .map(field -> createDeduplicatingEnqueueSql(location, 1, field, false))
+                .orElseGet(() -> createEnqueueInsertSql(location) + " OUTPUT inserted." +
+                        queueTableSchema.getIdField() + " VALUES " + createEnqueueValuesSql(location));
+    }
+
+    private String createEnqueueBatchSql(@Nonnull QueueLocation location, int batchSize) {
+        return queueTableSchema.getDeduplicationKeyField()
+                .map(field -> createDeduplicatingEnqueueSql(location, batchSize, field, true))
+                .orElseGet(() -> createEnqueueInsertSql(location) + " OUTPUT inserted." +
+                        queueTableSchema.getIdField() + " VALUES " + IntStream.range(0, batchSize)
+                        .mapToObj(i -> createEnqueueValuesSql(location))
+                        .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Insert statement which skips tasks with a deduplication key of an existing task.
+     * MERGE statement does not allow NEXT VALUE FOR, so the insert selects rows which have no conflicting task,
+     * the lock hints keep the key range locked until the end of the transaction.
+     */
+    private String createDeduplicatingEnqueueSql(@Nonnull QueueLocation location, int batchSize,
+                                                 @Nonnull String deduplicationKeyField, boolean outputKey) {
+        List<String> valueFields = new ArrayList<>();
+        queueTableSchema.getPriorityField().ifPresent(valueFields::add);
+        queueTableSchema.getOrderingKeyField().ifPresent(valueFields::add);
+        valueFields.add(deduplicationKeyField);
+        valueFields.addAll(queueTableSchema.getExtFields());
+        String valuesSql = "(?, ?, ?" + valueFields.stream().map(field -> ", ?").collect(Collectors.joining()) + ")";
+        return createEnqueueInsertSql(location) +
+                " OUTPUT inserted." + queueTableSchema.getIdField() +
+                (outputKey ? ", inserted." + deduplicationKeyField : "") +
+                " SELECT " + location.getIdSequence().map(seq -> "NEXT VALUE FOR " + seq + ", ").orElse("") +
+                "s." + queueTableSchema.getQueueNameField() + ", s." + queueTableSchema.getPayloadField() +
+                ", dateadd(ss, s." + queueTableSchema.getNextProcessAtField() + ", SYSDATETIMEOFFSET()), 0, 0" +
+                valueFields.stream().map(field -> ", s." + field).collect(Collectors.joining()) +
+                " FROM (VALUES " + String.join(", ", Collections.nCopies(batchSize, valuesSql)) + ") AS s(" +
+                queueTableSchema.getQueueNameField() + ", " + queueTableSchema.getPayloadField() + ", " +
+                queueTableSchema.getNextProcessAtField() +
+                valueFields.stream().map(field -> ", " + field).collect(Collectors.joining()) + ")" +
+                " WHERE NOT EXISTS (SELECT 1 FROM " + location.getTableName() + " o WITH (UPDLOCK, HOLDLOCK)" +
+                " WHERE o." + queueTableSchema.getQueueNameField() + " = s." + queueTableSchema.getQueueNameField() +
+                " AND o." + deduplicationKeyField + " = s." + deduplicationKeyField + ")";
+    }
+
+    private String createEnqueueInsertSql(@Nonnull QueueLocation location) {
         return "INSERT INTO " + location.getTableName() + "(" +
                 (location.getIdSequence().map(ignored -> queueTableSchema.getIdField() + ",").orElse("")) +
                 queueTableSchema.getQueueNameField() + "," +
@@ -104,29 +313,67 @@ public class MssqlQueueDao implements QueueDao {
                 queueTableSchema.getNextProcessAtField() + "," +
                 queueTableSchema.getReenqueueAttemptField() + "," +
                 queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getDeduplicationKeyField().map(field -> "," + field).orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" :
                         queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
-                ") OUTPUT inserted." + queueTableSchema.getIdField() + " VALUES " +
-                "(" + location.getIdSequence().map(seq -> "NEXT VALUE FOR " + seq + ", ").orElse("") +
-                ":queueName, :payload, dateadd(ss, :executionDelay, SYSDATETIMEOFFSET()), 0, 0" +
+                ")";
+    }
+
+    private String createEnqueueValuesSql(@Nonnull QueueLocation location) {
+        return "(" + location.getIdSequence().map(seq -> "NEXT VALUE FOR " + seq + ", ").orElse("") +
+                "?, ?, dateadd(ss, ?, SYSDATETIMEOFFSET()), 0, 0" +
+                queueTableSchema.getPriorityField().map(ignored -> ", ?").orElse("") +
+                queueTableSchema.getOrderingKeyField().map(ignored -> ", ?").orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
-                        .map(field -> ":" + field).collect(Collectors.joining(", ", ", ", ""))) +
+                        .map(field -> "?").collect(Collectors.joining(", ", ", ", ""))) +
                 ")";
     }
 
     private String createDeleteSql(@Nonnull QueueLocation location) {
         return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
-                " = :queueName AND " + queueTableSchema.getIdField() + " = :id";
+                " = ? AND " + queueTableSchema.getIdField() + " = ?";
+    }
+
+    private String createDeleteBatchSql(@Nonnull QueueLocation location, int batchSize) {
+        return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
+                " = ? AND " + queueTableSchema.getIdField() + " IN (" +
+                IntStream.range(0, batchSize).mapToObj(i -> "?").collect(Collectors.joining(", ")) + ")";
     }
 
     private String createReenqueueSql(@Nonnull QueueLocation location) {
         return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
-                " = dateadd(ss, :executionDelay, SYSDATETIMEOFFSET()), " +
+                " = dateadd(ss, ?, SYSDATETIMEOFFSET()), " +
                 queueTableSchema.getAttemptField() + " = 0, " +
                 queueTableSchema.getReenqueueAttemptField() +
                 " = " + queueTableSchema.getReenqueueAttemptField() + " + 1 " +
-                "WHERE " + queueTableSchema.getIdField() + " = :id AND " +
-                queueTableSchema.getQueueNameField() + " = :queueName";
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
+    }
+
+    private String createPostponeSql(@Nonnull QueueLocation location) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = dateadd(ss, ?, SYSDATETIMEOFFSET()) " +
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
+    }
+
+    private String createPostponeBatchSql(@Nonnull QueueLocation location, int batchSize) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = dateadd(ss, ?, SYSDATETIMEOFFSET()) " +
+                "WHERE " + queueTableSchema.getQueueNameField() + " = ? AND " +
+                queueTableSchema.getIdField() + " IN (" +
+                IntStream.range(0, batchSize).mapToObj(i -> "?").collect(Collectors.joining(", ")) + ") AND " +
+                queueTableSchema.getNextProcessAtField() + " < dateadd(ss, ?, SYSDATETIMEOFFSET())";
+    }
+
+    private String createMoveSql(@Nonnull QueueLocation location) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getQueueNameField() + " = ?, " +
+                queueTableSchema.getNextProcessAtField() + " = SYSDATETIMEOFFSET(), " +
+                queueTableSchema.getAttemptField() + " = 0 " +
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
     }
 
 }
@@ -1,18 +1,24 @@
 package ru.yoomoney.tech.dbqueue.dao;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
+import java.sql.SQLException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Objects.requireNonNull;
 
@@ -24,15 +30,37 @@ import static java.util.Objects.requireNonNull;
  */
 public class Oracle11QueueDao implements QueueDao {
 
+    /**
+     * Maximum number of ids in a single delete or update statement,
+     * stays within the Oracle limit of 1000 expressions in IN list.
+     */
+    private static final int MAX_IDS_BATCH_SIZE = 1000;
+    /**
+     * Maximum number of tasks inserted within a single JDBC batch.
+     */
+    private static final int MAX_ENQUEUE_BATCH_SIZE = 1000;
+    /**
+     * Error code of ORA-00001: unique constraint violated.
+     */
+    private static final int UNIQUE_CONSTRAINT_VIOLATION_ERROR_CODE = 1;
+
     private final Map<QueueLocation, String> enqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> enqueueBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> deleteSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> deleteBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> reenqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> postponeSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> postponeBatchSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> moveSqlCache = new ConcurrentHashMap<>();
     private final Map<String, String> nextSequenceSqlCache = new ConcurrentHashMap<>();
+    private final Map<String, String> nextSequenceBatchSqlCache = new ConcurrentHashMap<>();
 
     @Nonnull
     private final Database database;
     @Nonnull
     private final QueueTableSchema queueTableSchema;
+    @Nonnull
+    private final TaskDeduplicator taskDeduplicator;
 
     /**
      * Constructor
@@ -43,6 +71,7 @@ public class Oracle11QueueDao implements QueueDao {
     public Oracle11QueueDao(Database database, QueueTableSchema queueTableSchema) {
         this.database = database;
         this.queueTableSchema = requireNonNull(queueTableSchema);
+        this.taskDeduplicator = new TaskDeduplicator(database, queueTableSchema);
     }
 
     @Override
@@ -57,88 +86,325 @@ public class Oracle11QueueDao implements QueueDao {
         Long generatedId = Objects.requireNonNull(database.selectOne(
                 nextSequenceSqlCache.computeIfAbsent(idSequence, this::createNextSequenceSql), Long.class));
 
-        Map<String, Object> params = new HashMap<String, Object>() {
-            {
-                put("queueName", location.getQueueId().asString());
-                put("payload", enqueueParams.getPayload());
-                put("executionDelay", enqueueParams.getExecutionDelay().getSeconds());
-                put("id", generatedId);
+        boolean deduplicated = queueTableSchema.getDeduplicationKeyField().isPresent();
+        Object[] params = new Object[4 + (deduplicated ? 2 : 0) +
+                (queueTableSchema.getPriorityField().isPresent() ? 1 : 0) +
+                (queueTableSchema.getOrderingKeyField().isPresent() ? 1 : 0) + queueTableSchema.getExtFields().size()];
+        int index = 0;
+        if (deduplicated) {
+            params[index++] = location.getQueueId().asString();
+            params[index++] = enqueueParams.getDeduplicationKey();
+        }
+        params[index++] = generatedId;
+        params[index++] = location.getQueueId().asString();
+        params[index++] = enqueueParams.getPayload();
+        params[index++] = enqueueParams.getExecutionDelay().getSeconds();
+        if (queueTableSchema.getPriorityField().isPresent()) {
+            params[index++] = enqueueParams.getPriority();
+        }
+        if (queueTableSchema.getOrderingKeyField().isPresent()) {
+            params[index++] = enqueueParams.getOrderingKey();
+        }
+        Map<String, String> extData = enqueueParams.getExtData();
+        for (String field : queueTableSchema.getExtFields()) {
+            params[index++] = extData.get(field);
+        }
+
+        String enqueueSql = enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql);
+        for (int attempt = 0; attempt < TaskDeduplicator.MAX_ENQUEUE_ATTEMPTS; attempt++) {
+            try {
+                if (database.update(enqueueSql, params) != 0) {
+                    return generatedId;
+                }
+            } catch (RuntimeException e) {
+                if (!isUniqueConstraintViolation(e)) {
+                    throw e;
+                }
             }
-        };
+            Long existingId = taskDeduplicator.findTaskId(location, enqueueParams.getDeduplicationKey());
+            if (existingId != null) {
+                return existingId;
+            }
+        }
+        throw new IllegalStateException("task is not enqueued: location=" + location +
+                ", deduplicationKey=" + enqueueParams.getDeduplicationKey());
+    }
+
 
-        queueTableSchema.getExtFields().forEach(paramName -> params.put(paramName, null));
-        params.putAll(enqueueParams.getExtData());
+    @Nonnull
+    @Override
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    public List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                   @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+
+        String idSequence = location.getIdSequence()
+                .orElseThrow(() -> new IllegalStateException("id sequence must be specified for oracle 11g database"));
 
-        database.update(enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql), params);
-        return generatedId;
+        List<Long> ids = new ArrayList<>(enqueueParams.size());
+        for (int from = 0; from < enqueueParams.size(); from += MAX_ENQUEUE_BATCH_SIZE) {
+            List<EnqueueParams<String>> batch = enqueueParams.subList(from,
+                    Math.min(from + MAX_ENQUEUE_BATCH_SIZE, enqueueParams.size()));
+            if (queueTableSchema.getDeduplicationKeyField().isPresent()) {
+                List<EnqueueParams<String>> tasksWithoutKey = new ArrayList<>();
+                List<EnqueueParams<String>> tasksWithKey = new ArrayList<>();
+                for (EnqueueParams<String> task : TaskDeduplicator.distinctByKey(batch)) {
+                    (task.getDeduplicationKey() == null ? tasksWithoutKey : tasksWithKey).add(task);
+                }
+                List<Map.Entry<String, Long>> insertedTasks = new ArrayList<>();
+                if (!tasksWithoutKey.isEmpty()) {
+                    for (Long id : insertBatch(location, idSequence, tasksWithoutKey)) {
+                        insertedTasks.add(TaskDeduplicator.insertedTask(null, id));
+                    }
+                }
+                if (!tasksWithKey.isEmpty()) {
+                    // tasks with keys are resolved by their keys, so a batch interrupted
+                    // by a concurrently inserted key is completed task by task
+                    try {
+                        insertBatch(location, idSequence, tasksWithKey);
+                    } catch (RuntimeException e) {
+                        if (!isUniqueConstraintViolation(e)) {
+                            throw e;
+                        }
+                    }
+                }
+                ids.addAll(taskDeduplicator.resolveIds(location, batch, insertedTasks,
+                        task -> enqueue(location, task)));
+            } else {
+                ids.addAll(insertBatch(location, idSequence, batch));
+            }
+        }
+        return ids;
     }
 
+    private List<Long> insertBatch(@Nonnull QueueLocation location,
+                                   @Nonnull String idSequence,
+                                   @Nonnull List<EnqueueParams<String>> batch) {
+        List<Long> generatedIds = database.selectMany(
+                nextSequenceBatchSqlCache.computeIfAbsent(idSequence, this::createNextSequenceBatchSql),
+                new Object[]{batch.size()}, rs -> rs.getLong(1));
+        List<Map<String, Object>> batchParams = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            EnqueueParams<String> taskParams = batch.get(i);
+            Map<String, Object> params = new HashMap<>(7 + queueTableSchema.getExtFields().size());
+            params.put("queueName", location.getQueueId().asString());
+            params.put("payload", taskParams.getPayload());
+            params.put("executionDelay", taskParams.getExecutionDelay().getSeconds());
+            params.put("id", generatedIds.get(i));
+            params.put("priority", taskParams.getPriority());
+            params.put("orderingKey", taskParams.getOrderingKey());
+            params.put("deduplicationKey", taskParams.getDeduplicationKey());
+            queueTableSchema.getExtFields().forEach(paramName -> params.put(paramName, null));
+            params.putAll(taskParams.getExtData());
+            batchParams.add(params);
+        }
+        database.batchUpdate(enqueueBatchSqlCache.computeIfAbsent(location, this::createEnqueueBatchSql),
+                batchParams);
+        return generatedIds;
+    }
 
     @Override
     public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
         requireNonNull(location);
 
-        final Map<String, Object> mapSqlParameterSource = new HashMap<String, Object>() {
-            {
-                put("id", taskId);
-                put("queueName", location.getQueueId().asString());
-            }
-        };
         int updatedRows = database.update(deleteSqlCache.computeIfAbsent(location, this::createDeleteSql),
-                mapSqlParameterSource);
+                new Object[]{location.getQueueId().asString(), taskId});
         return updatedRows != 0;
     }
 
+    @Override
+    public int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        List<Long> ids = new ArrayList<>(taskIds);
+        int deletedRows = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_BATCH_SIZE) {
+            List<Long> idsChunk = ids.subList(from, Math.min(from + MAX_IDS_BATCH_SIZE, ids.size()));
+            Object[] params = new Object[1 + idsChunk.size()];
+            params[0] = location.getQueueId().asString();
+            for (int i = 0; i < idsChunk.size(); i++) {
+                params[i + 1] = idsChunk.get(i);
+            }
+            String deleteBatchSql = idsChunk.size() == MAX_IDS_BATCH_SIZE
+                    ? deleteBatchSqlCache.computeIfAbsent(location,
+                    ignored -> createDeleteBatchSql(location, MAX_IDS_BATCH_SIZE))
+                    : createDeleteBatchSql(location, idsChunk.size());
+            deletedRows += database.update(deleteBatchSql, params);
+        }
+        return deletedRows;
+    }
+
     @Override
     public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
         requireNonNull(location);
         requireNonNull(executionDelay);
-        final Map<String, Object> mapSqlParameterSource = new HashMap<String, Object>() {
-            {
-                put("id", taskId);
-                put("queueName", location.getQueueId().asString());
-                put("executionDelay", executionDelay.getSeconds());
-            }
-        };
         int updatedRows = database.update(reenqueueSqlCache.computeIfAbsent(location, this::createReenqueueSql),
-                mapSqlParameterSource);
+                new Object[]{executionDelay.getSeconds(), taskId, location.getQueueId().asString()});
+        return updatedRows != 0;
+    }
+
+    @Override
+    public boolean postponeTask(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
+        requireNonNull(location);
+        requireNonNull(executionDelay);
+        int updatedRows = database.update(postponeSqlCache.computeIfAbsent(location, this::createPostponeSql),
+                new Object[]{executionDelay.getSeconds(), taskId, location.getQueueId().asString()});
+        return updatedRows != 0;
+    }
+
+    @Override
+    public int postponeTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds,
+                             @Nonnull Duration executionDelay) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        requireNonNull(executionDelay);
+        List<Long> ids = new ArrayList<>(taskIds);
+        int updatedRows = 0;
+        for (int from = 0; from < ids.size(); from += MAX_IDS_BATCH_SIZE) {
+            List<Long> idsChunk = ids.subList(from, Math.min(from + MAX_IDS_BATCH_SIZE, ids.size()));
+            Object[] params = new Object[3 + idsChunk.size()];
+            params[0] = executionDelay.getSeconds();
+            params[1] = location.getQueueId().asString();
+            for (int i = 0; i < idsChunk.size(); i++) {
+                params[i + 2] = idsChunk.get(i);
+            }
+            params[params.length - 1] = executionDelay.getSeconds();
+            String postponeBatchSql = idsChunk.size() == MAX_IDS_BATCH_SIZE
+                    ? postponeBatchSqlCache.computeIfAbsent(location,
+                    ignored -> createPostponeBatchSql(location, MAX_IDS_BATCH_SIZE))
+                    : createPostponeBatchSql(location, idsChunk.size());
+            updatedRows += database.update(postponeBatchSql, params);
+        }
+        return updatedRows;
+    }
+
+    @Override
+    public boolean moveTask(@Nonnull QueueLocation location, long taskId, @Nonnull QueueId targetQueueId) {
+        requireNonNull(location);
+        requireNonNull(targetQueueId);
+
+        int updatedRows = database.update(moveSqlCache.computeIfAbsent(location, this::createMoveSql),
+                new Object[]{targetQueueId.asString(), taskId, location.getQueueId().asString()});
         return updatedRows != 0;
     }
 
     private String createDeleteSql(@Nonnull QueueLocation location) {
         return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
-                " = :queueName AND " + queueTableSchema.getIdField() + " = :id";
+                " = ? AND " + queueTableSchema.getIdField() + " = ?";
+    }
+
+    private String createDeleteBatchSql(@Nonnull QueueLocation location, int batchSize) {
+        return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
+                " = ? AND " + queueTableSchema.getIdField() + " IN (" +
+                IntStream.range(0, batchSize).mapToObj(i -> "?").collect(Collectors.joining(", ")) + ")";
     }
 
     private String createEnqueueSql(@Nonnull QueueLocation location) {
-        return "INSERT INTO " + location.getTableName() + "(" +
+        return createEnqueueSql(location, name -> "?");
+    }
+
+    /**
+     * Check whether the statement failed because a concurrent transaction inserted a task with the same key.
+     * Oracle rolls back only the failed statement, so the transaction can go on.
+     */
+    private static boolean isUniqueConstraintViolation(@Nonnull Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException &&
+                    ((SQLException) cause).getErrorCode() == UNIQUE_CONSTRAINT_VIOLATION_ERROR_CODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Enqueue statement with named parameters for {@link Database#batchUpdate(String, List)}.
+     */
+    private String createEnqueueBatchSql(@Nonnull QueueLocation location) {
+        return createEnqueueSql(location, name -> ":" + name);
+    }
+
+    /**
+     * Insert statement, with a deduplication key it is a merge statement,
+     * which skips tasks with a key of an existing task.
+     * Concurrent merge of the same key fails with a unique constraint violation,
+     * the enqueue methods then look up the task by its key.
+     */
+    private String createEnqueueSql(@Nonnull QueueLocation location, @Nonnull UnaryOperator<String> placeholder) {
+        String columnsSql = "(" +
                 queueTableSchema.getIdField() + "," +
                 queueTableSchema.getQueueNameField() + "," +
                 queueTableSchema.getPayloadField() + "," +
                 queueTableSchema.getNextProcessAtField() + "," +
                 queueTableSchema.getReenqueueAttemptField() + "," +
                 queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getDeduplicationKeyField().map(field -> "," + field).orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" :
                         queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
                 ") VALUES " +
-                "(:id, :queueName, :payload, CURRENT_TIMESTAMP + :executionDelay * INTERVAL '1' SECOND, 0, 0" +
+                "(" + placeholder.apply("id") + ", " + placeholder.apply("queueName") + ", " +
+                placeholder.apply("payload") + ", CURRENT_TIMESTAMP + " + placeholder.apply("executionDelay") +
+                " * INTERVAL '1' SECOND, 0, 0" +
+                queueTableSchema.getPriorityField().map(ignored -> ", " + placeholder.apply("priority")).orElse("") +
+                queueTableSchema.getOrderingKeyField()
+                        .map(ignored -> ", " + placeholder.apply("orderingKey")).orElse("") +
+                queueTableSchema.getDeduplicationKeyField().map(field -> ", s." + field).orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
-                        .map(field -> ":" + field).collect(Collectors.joining(", ", ", ", ""))) +
+                        .map(placeholder).collect(Collectors.joining(", ", ", ", ""))) +
                 ")";
+        return queueTableSchema.getDeduplicationKeyField()
+                .map(field -> "MERGE INTO " + location.getTableName() + " t USING (SELECT " +
+                        placeholder.apply("queueName") + " AS " + queueTableSchema.getQueueNameField() + ", " +
+                        placeholder.apply("deduplicationKey") + " AS " + field + " FROM dual) s" +
+                        " ON (t." + queueTableSchema.getQueueNameField() + " = s." +
+                        queueTableSchema.getQueueNameField() + " AND t." + field + " = s." + field + ")" +
+                        " WHEN NOT MATCHED THEN INSERT " + columnsSql)
+                .orElseGet(() -> "INSERT INTO " + location.getTableName() + columnsSql);
     }
 
     private String createReenqueueSql(@Nonnull QueueLocation location) {
         return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
-                " = CURRENT_TIMESTAMP + :executionDelay * INTERVAL '1' SECOND, " +
+                " = CURRENT_TIMESTAMP + ? * INTERVAL '1' SECOND, " +
                 queueTableSchema.getAttemptField() + " = 0, " +
                 queueTableSchema.getReenqueueAttemptField() +
                 " = " + queueTableSchema.getReenqueueAttemptField() + " + 1 " +
-                "WHERE " + queueTableSchema.getIdField() + " = :id AND " +
-                queueTableSchema.getQueueNameField() + " = :queueName";
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
+    }
+
+    private String createPostponeSql(@Nonnull QueueLocation location) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = CURRENT_TIMESTAMP + ? * INTERVAL '1' SECOND " +
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
+    }
+
+    private String createPostponeBatchSql(@Nonnull QueueLocation location, int batchSize) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = CURRENT_TIMESTAMP + ? * INTERVAL '1' SECOND " +
+                "WHERE " + queueTableSchema.getQueueNameField() + " = ? AND " +
+                queueTableSchema.getIdField() + " IN (" +
+                IntStream.range(0, batchSize).mapToObj(i -> "?").collect(Collectors.joining(", ")) + ") AND " +
+                queueTableSchema.getNextProcessAtField() + " < CURRENT_TIMESTAMP + ? * INTERVAL '1' SECOND";
+    }
+
+    private String createMoveSql(@Nonnull QueueLocation location) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getQueueNameField() + " = ?, " +
+                queueTableSchema.getNextProcessAtField() + " = CURRENT_TIMESTAMP, " +
+                queueTableSchema.getAttemptField() + " = 0 " +
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
     }
 
     private String createNextSequenceSql(String idSequence) {
         return "SELECT " + idSequence + ".nextval FROM dual";
     }
 
+    private String createNextSequenceBatchSql(String idSequence) {
+        return "SELECT " + idSequence + ".nextval FROM dual CONNECT BY level <= ?";
+    }
+
 }
@@ -0,0 +1,205 @@
+package ru.yoomoney.tech.dbqueue.dao;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * SQL statement split into text fragments and parameters.
+ * <p>
+ * Named parameters are written as {@code :name}, positional ones as {@code ?}.
+ * Quoted literals and identifiers, comments and PostgreSQL casts ({@code ::type}) are left as is.
+ * Shared by positional methods of {@link Database} and by {@code JdbcDatabase},
+ * which converts parameters between the two forms.
+ *
+ * @since 17.10.2026
+ */
+public final class ParsedSql {
+
+    private static final String POSITIONAL_PARAMETER_PREFIX = "p";
+
+    @Nonnull
+    private final List<String> sqlFragments;
+    @Nonnull
+    private final List<String> parameterNames;
+    @Nonnull
+    private final String[] distinctParameterNames;
+    @Nonnull
+    private final String positionalSql;
+
+    private ParsedSql(@Nonnull List<String> sqlFragments, @Nonnull List<String> parameterNames) {
+        this.sqlFragments = sqlFragments;
+        this.parameterNames = parameterNames;
+        this.distinctParameterNames = new LinkedHashSet<>(parameterNames).toArray(new String[0]);
+        this.positionalSql = String.join("?", sqlFragments);
+    }
+
+    /**
+     * Parse SQL statement with named parameters.
+     *
+     * @param sql SQL statement.
+     * @return Parsed statement.
+     */
+    @Nonnull
+    public static ParsedSql parseNamed(@Nonnull String sql) {
+        return parse(sql, false);
+    }
+
+    /**
+     * Parse SQL statement with positional placeholders.
+     * Placeholders are named {@code p0}, {@code p1} and so on in the order of occurrence.
+     *
+     * @param sql SQL statement.
+     * @return Parsed statement.
+     */
+    @Nonnull
+    public static ParsedSql parsePositional(@Nonnull String sql) {
+        return parse(sql, true);
+    }
+
+    @Nonnull
+    private static ParsedSql parse(@Nonnull String sql, boolean positional) {
+        requireNonNull(sql, "sql");
+        List<String> sqlFragments = new ArrayList<>();
+        List<String> parameterNames = new ArrayList<>();
+        StringBuilder fragment = new StringBuilder(sql.length());
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            int end;
+            if (c == '\'' || c == '"') {
+                end = sql.indexOf(c, i + 1);
+                end = end < 0 ? sql.length() : end + 1;
+            } else if (sql.startsWith("--", i)) {
+                end = sql.indexOf('\n', i);
+                end = end < 0 ? sql.length() : end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? sql.length() : end + 2;
+            } else if (sql.startsWith("::", i)) {
+                end = i + 2;
+            } else if (positional && c == '?') {
+                sqlFragments.add(fragment.toString());
+                fragment.setLength(0);
+                parameterNames.add(POSITIONAL_PARAMETER_PREFIX + parameterNames.size());
+                i++;
+                continue;
+            } else if (!positional && c == ':' && i + 1 < sql.length() && isParameterStart(sql.charAt(i + 1))) {
+                end = i + 2;
+                while (end < sql.length() && isParameterPart(sql.charAt(end))) {
+                    end++;
+                }
+                sqlFragments.add(fragment.toString());
+                fragment.setLength(0);
+                parameterNames.add(sql.substring(i + 1, end));
+                i = end;
+                continue;
+            } else {
+                end = i + 1;
+            }
+            fragment.append(sql, i, end);
+            i = end;
+        }
+        sqlFragments.add(fragment.toString());
+        return new ParsedSql(Collections.unmodifiableList(sqlFragments), Collections.unmodifiableList(parameterNames));
+    }
+
+    /**
+     * Get names of parameters in the order of their occurrence.
+     *
+     * @return Parameter names, a name is repeated if the parameter occurs several times.
+     */
+    @Nonnull
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Get SQL statement with named parameters.
+     *
+     * @return SQL statement with {@code :name} parameters.
+     */
+    @Nonnull
+    public String getNamedSql() {
+        StringBuilder sql = new StringBuilder(positionalSql.length() + parameterNames.size() * 4);
+        for (int i = 0; i < parameterNames.size(); i++) {
+            sql.append(sqlFragments.get(i)).append(':').append(parameterNames.get(i));
+        }
+        return sql.append(sqlFragments.get(sqlFragments.size() - 1)).toString();
+    }
+
+    /**
+     * Get SQL statement with positional placeholders for given parameter values.
+     * A parameter with a {@link Collection} value is expanded into a list of placeholders,
+     * e.g. {@code IN (:ids)} becomes {@code IN (?, ?, ?)}.
+     *
+     * @param parameterMap Parameter values by name.
+     * @return SQL statement with {@code ?} placeholders.
+     */
+    @Nonnull
+    public String getPositionalSql(@Nonnull Map<String, Object> parameterMap) {
+        requireNonNull(parameterMap, "parameterMap");
+        if (!hasCollectionParameter(parameterMap)) {
+            return positionalSql;
+        }
+        StringBuilder sql = new StringBuilder(positionalSql.length() + 32);
+        for (int i = 0; i < parameterNames.size(); i++) {
+            sql.append(sqlFragments.get(i));
+            Object value = parameterMap.get(parameterNames.get(i));
+            int placeholderCount = value instanceof Collection ? ((Collection<?>) value).size() : 1;
+            if (placeholderCount == 0) {
+                throw new IllegalArgumentException("collection parameter must not be empty: " +
+                        "name=" + parameterNames.get(i));
+            }
+            for (int j = 0; j < placeholderCount; j++) {
+                sql.append(j == 0 ? "?" : ", ?");
+            }
+        }
+        sql.append(sqlFragments.get(sqlFragments.size() - 1));
+        return sql.toString();
+    }
+
+    /**
+     * Convert positional parameter values into named ones.
+     *
+     * @param parameters Parameter values in the order of placeholders.
+     * @return Parameter values by name.
+     */
+    @Nonnull
+    public Map<String, Object> toParameterMap(@Nonnull Object[] parameters) {
+        requireNonNull(parameters, "parameters");
+        if (parameters.length != parameterNames.size()) {
+            throw new IllegalArgumentException("invalid parameter count: expected=" + parameterNames.size() +
+                    ", actual=" + parameters.length);
+        }
+        Map<String, Object> parameterMap = new HashMap<>();
+        for (int i = 0; i < parameters.length; i++) {
+            parameterMap.put(parameterNames.get(i), parameters[i]);
+        }
+        return parameterMap;
+    }
+
+    private boolean hasCollectionParameter(@Nonnull Map<String, Object> parameterMap) {
+        for (String name : distinctParameterNames) {
+            if (parameterMap.get(name) instanceof Collection) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isParameterStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isParameterPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
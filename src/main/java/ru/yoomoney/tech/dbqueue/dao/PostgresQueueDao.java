@@ -1,16 +1,24 @@
 package ru.yoomoney.tech.dbqueue.dao;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Objects.requireNonNull;
 
@@ -22,14 +30,45 @@ import static java.util.Objects.requireNonNull;
  */
 public class PostgresQueueDao implements QueueDao {
 
+    /**
+     * Maximum number of tasks inserted within a single statement.
+     */
+    private static final int MAX_ENQUEUE_BATCH_SIZE = 1000;
+    /**
+     * Maximum number of bind parameters in a statement, PostgreSQL JDBC driver supports up to 32767.
+     */
+    private static final int MAX_STATEMENT_PARAMETERS = 30000;
+    /**
+     * Prefix of the notification channel name, see {@link #getNotificationChannel(QueueLocation)}.
+     */
+    private static final String NOTIFICATION_CHANNEL_PREFIX = "dbqueue_";
+    /**
+     * Maximum length of an identifier in bytes, longer LISTEN channel names are truncated
+     * while pg_notify rejects them.
+     */
+    private static final int MAX_IDENTIFIER_BYTES = 63;
+    /**
+     * Number of hex digits of the table name hash in a shortened notification channel name.
+     */
+    private static final int CHANNEL_HASH_LENGTH = 32;
+
     private final Map<QueueLocation, String> enqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> enqueueBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> deleteSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> deleteBatchSqlCache = new ConcurrentHashMap<>();
     private final Map<QueueLocation, String> reenqueueSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> postponeSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> postponeBatchSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> moveSqlCache = new ConcurrentHashMap<>();
 
     @Nonnull
     private final Database database;
     @Nonnull
     private final QueueTableSchema queueTableSchema;
+    @Nonnull
+    private final TaskDeduplicator taskDeduplicator;
+    private final int enqueueBatchSize;
+    private final boolean notifyOnEnqueue;
 
     /**
      * Constructor
@@ -38,61 +77,266 @@ public class PostgresQueueDao implements QueueDao {
      * @param queueTableSchema Queue table scheme.
      */
     public PostgresQueueDao(@Nonnull Database database, @Nonnull QueueTableSchema queueTableSchema) {
+        this(database, queueTableSchema, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param database         Reference to JDBC database for the queue.
+     * @param queueTableSchema Queue table scheme.
+     * @param notifyOnEnqueue  Send notification with pg_notify on every enqueue,
+     *                         see {@link #getNotificationChannel(QueueLocation)}.
+     */
+    public PostgresQueueDao(@Nonnull Database database, @Nonnull QueueTableSchema queueTableSchema,
+                            boolean notifyOnEnqueue) {
         this.database = requireNonNull(database);
         this.queueTableSchema = requireNonNull(queueTableSchema);
+        this.taskDeduplicator = new TaskDeduplicator(database, queueTableSchema);
+        this.enqueueBatchSize = Math.min(MAX_ENQUEUE_BATCH_SIZE,
+                MAX_STATEMENT_PARAMETERS / getEnqueueParamCount());
+        this.notifyOnEnqueue = notifyOnEnqueue;
+    }
+
+    /**
+     * Get name of the notification channel, which receives names of the queues
+     * where new tasks were enqueued. There is a single channel per queue table.
+     * <p>
+     * The name is used as is: pg_notify takes it as a string and LISTEN takes it as a quoted identifier.
+     * When the name exceeds the PostgreSQL limit of 63 bytes,
+     * the table name is replaced with its SHA-256 hash, so the channel is still unique per table.
+     *
+     * @param location Queue location.
+     * @return Notification channel name.
+     */
+    @Nonnull
+    public static String getNotificationChannel(@Nonnull QueueLocation location) {
+        String tableName = requireNonNull(location).getTableName();
+        String channel = NOTIFICATION_CHANNEL_PREFIX + tableName;
+        if (channel.getBytes(StandardCharsets.UTF_8).length <= MAX_IDENTIFIER_BYTES) {
+            return channel;
+        }
+        return NOTIFICATION_CHANNEL_PREFIX + sha256Hex(tableName).substring(0, CHANNEL_HASH_LENGTH);
+    }
+
+    @Nonnull
+    private static String sha256Hex(@Nonnull String value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
     }
 
     @Override
-    @SuppressFBWarnings("NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE")
     public long enqueue(@Nonnull QueueLocation location, @Nonnull EnqueueParams<String> enqueueParams) {
         requireNonNull(location);
         requireNonNull(enqueueParams);
 
-        Map<String, Object> params = new HashMap<String, Object>() {
-            {
-                put("queueName", location.getQueueId().asString());
-                put("payload", enqueueParams.getPayload());
-                put("executionDelay", enqueueParams.getExecutionDelay().getSeconds());
+        Object[] params = new Object[getEnqueueParamCount()];
+        putEnqueueParams(params, 0, location, enqueueParams);
+
+        String enqueueSql = enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql);
+        for (int attempt = 0; attempt < TaskDeduplicator.MAX_ENQUEUE_ATTEMPTS; attempt++) {
+            Long id = database.selectOne(enqueueSql, params, Long.class);
+            if (id != null) {
+                notifyEnqueued(location);
+                return id;
+            }
+            Long existingId = taskDeduplicator.findTaskId(location, enqueueParams.getDeduplicationKey());
+            if (existingId != null) {
+                return existingId;
+            }
+        }
+        throw new IllegalStateException("task is not enqueued: location=" + location +
+                ", deduplicationKey=" + enqueueParams.getDeduplicationKey());
+    }
+
+    @Nonnull
+    @Override
+    public List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                   @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(location);
+        requireNonNull(enqueueParams);
+
+        List<Long> ids = new ArrayList<>(enqueueParams.size());
+        for (int from = 0; from < enqueueParams.size(); from += enqueueBatchSize) {
+            List<EnqueueParams<String>> batch = enqueueParams.subList(from,
+                    Math.min(from + enqueueBatchSize, enqueueParams.size()));
+            if (queueTableSchema.getDeduplicationKeyField().isPresent()) {
+                List<Map.Entry<String, Long>> insertedTasks = insertBatch(location,
+                        TaskDeduplicator.distinctByKey(batch),
+                        rs -> TaskDeduplicator.insertedTask(rs.getString(2), rs.getLong(1)), Map.Entry::getValue);
+                ids.addAll(taskDeduplicator.resolveIds(location, batch, insertedTasks,
+                        task -> enqueue(location, task)));
+            } else {
+                ids.addAll(insertBatch(location, batch, rs -> rs.getLong(1), Long::longValue));
             }
-        };
+        }
+        if (!ids.isEmpty()) {
+            notifyEnqueued(location);
+        }
+        return ids;
+    }
+
+    /**
+     * Insert tasks with a single statement.
+     * Returned rows are not guaranteed to follow the order of values,
+     * so they are sorted by ids which are generated in the order of values.
+     */
+    private <T> List<T> insertBatch(@Nonnull QueueLocation location,
+                                    @Nonnull List<EnqueueParams<String>> batch,
+                                    @Nonnull Database.RowMapper<T> rowMapper,
+                                    @Nonnull ToLongFunction<T> idGetter) {
+        if (batch.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Object[] params = new Object[batch.size() * getEnqueueParamCount()];
+        int offset = 0;
+        for (EnqueueParams<String> taskParams : batch) {
+            offset = putEnqueueParams(params, offset, location, taskParams);
+        }
+        String enqueueBatchSql = batch.size() == enqueueBatchSize
+                ? enqueueBatchSqlCache.computeIfAbsent(location,
+                ignored -> createEnqueueBatchSql(location, enqueueBatchSize))
+                : createEnqueueBatchSql(location, batch.size());
+        List<T> insertedRows = new ArrayList<>(database.selectMany(enqueueBatchSql, params, rowMapper));
+        insertedRows.sort(Comparator.comparingLong(idGetter));
+        return insertedRows;
+    }
 
-        queueTableSchema.getExtFields().forEach(paramName -> params.put(paramName, null));
-        params.putAll(enqueueParams.getExtData());
+    private void notifyEnqueued(@Nonnull QueueLocation location) {
+        if (!notifyOnEnqueue) {
+            return;
+        }
+        database.selectOne("SELECT pg_notify(?, ?)",
+                new Object[]{getNotificationChannel(location), location.getQueueId().asString()},
+                rs -> Boolean.TRUE);
+    }
 
-        return requireNonNull(database.insertOne(
-                enqueueSqlCache.computeIfAbsent(location, this::createEnqueueSql), params));
+    private int getEnqueueParamCount() {
+        return 3 + (queueTableSchema.getPriorityField().isPresent() ? 1 : 0) +
+                (queueTableSchema.getOrderingKeyField().isPresent() ? 1 : 0) +
+                (queueTableSchema.getDeduplicationKeyField().isPresent() ? 1 : 0) +
+                queueTableSchema.getExtFields().size();
     }
 
+    private int putEnqueueParams(@Nonnull Object[] params, int offset,
+                                 @Nonnull QueueLocation location,
+                                 @Nonnull EnqueueParams<String> enqueueParams) {
+        params[offset++] = location.getQueueId().asString();
+        params[offset++] = enqueueParams.getPayload();
+        params[offset++] = enqueueParams.getExecutionDelay().getSeconds();
+        if (queueTableSchema.getPriorityField().isPresent()) {
+            params[offset++] = enqueueParams.getPriority();
+        }
+        if (queueTableSchema.getOrderingKeyField().isPresent()) {
+            params[offset++] = enqueueParams.getOrderingKey();
+        }
+        if (queueTableSchema.getDeduplicationKeyField().isPresent()) {
+            params[offset++] = enqueueParams.getDeduplicationKey();
+        }
+        Map<String, String> extData = enqueueParams.getExtData();
+        for (String field : queueTableSchema.getExtFields()) {
+            params[offset++] = extData.get(field);
+        }
+        return offset;
+    }
 
     @Override
     public boolean deleteTask(@Nonnull QueueLocation location, long taskId) {
         requireNonNull(location);
 
-        final Map<String, Object> params = new HashMap<String, Object>() {{
-            put("id", taskId);
-            put("queueName", location.getQueueId().asString());
-        }};
-
-        int updatedRows = database.update(deleteSqlCache.computeIfAbsent(location, this::createDeleteSql), params);
+        int updatedRows = database.update(deleteSqlCache.computeIfAbsent(location, this::createDeleteSql),
+                new Object[]{location.getQueueId().asString(), taskId});
         return updatedRows > 0L;
     }
 
+    @Override
+    public int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+
+        return database.update(deleteBatchSqlCache.computeIfAbsent(location, this::createDeleteBatchSql),
+                new Object[]{location.getQueueId().asString(),
+                        taskIds.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"))});
+    }
+
     @Override
     public boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
         requireNonNull(location);
         requireNonNull(executionDelay);
 
-        final Map<String, Object> params = new HashMap<String, Object>() {{
-            put("id", taskId);
-            put("queueName", location.getQueueId().asString());
-            put("executionDelay", executionDelay.getSeconds());
-        }};
+        int updatedRows = database.update(reenqueueSqlCache.computeIfAbsent(location, this::createReenqueueSql),
+                new Object[]{executionDelay.getSeconds(), taskId, location.getQueueId().asString()});
+        return updatedRows > 0L;
+    }
+
+    @Override
+    public boolean postponeTask(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
+        requireNonNull(location);
+        requireNonNull(executionDelay);
+        int updatedRows = database.update(postponeSqlCache.computeIfAbsent(location, this::createPostponeSql),
+                new Object[]{executionDelay.getSeconds(), taskId, location.getQueueId().asString()});
+        return updatedRows > 0L;
+    }
+
+    @Override
+    public int postponeTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds,
+                             @Nonnull Duration executionDelay) {
+        requireNonNull(location);
+        requireNonNull(taskIds);
+        requireNonNull(executionDelay);
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+
+        return database.update(postponeBatchSqlCache.computeIfAbsent(location, this::createPostponeBatchSql),
+                new Object[]{executionDelay.getSeconds(), location.getQueueId().asString(),
+                        taskIds.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}")),
+                        executionDelay.getSeconds()});
+    }
+
+    @Override
+    public boolean moveTask(@Nonnull QueueLocation location, long taskId, @Nonnull QueueId targetQueueId) {
+        requireNonNull(location);
+        requireNonNull(targetQueueId);
 
-        int updatedRows = database.update(reenqueueSqlCache.computeIfAbsent(location, this::createReenqueueSql), params);
+        int updatedRows = database.update(moveSqlCache.computeIfAbsent(location, this::createMoveSql),
+                new Object[]{targetQueueId.asString(), taskId, location.getQueueId().asString()});
         return updatedRows > 0L;
     }
 
     private String createEnqueueSql(@Nonnull QueueLocation location) {
+        return createEnqueueInsertSql(location) + createEnqueueValuesSql(location) +
+                createEnqueueConflictSql() + " RETURNING " + queueTableSchema.getIdField();
+    }
+
+    private String createEnqueueBatchSql(@Nonnull QueueLocation location, int batchSize) {
+        return createEnqueueInsertSql(location) + IntStream.range(0, batchSize)
+                .mapToObj(i -> createEnqueueValuesSql(location))
+                .collect(Collectors.joining(", ")) +
+                createEnqueueConflictSql() + " RETURNING " + queueTableSchema.getIdField() +
+                queueTableSchema.getDeduplicationKeyField().map(field -> ", " + field).orElse("");
+    }
+
+    private String createEnqueueConflictSql() {
+        return queueTableSchema.getDeduplicationKeyField()
+                .map(field -> " ON CONFLICT (" + queueTableSchema.getQueueNameField() + ", " + field + ")" +
+                        " DO NOTHING")
+                .orElse("");
+    }
+
+    private String createEnqueueInsertSql(@Nonnull QueueLocation location) {
         return "INSERT INTO " + location.getTableName() + "(" +
                 (location.getIdSequence().map(ignored -> queueTableSchema.getIdField() + ",").orElse("")) +
                 queueTableSchema.getQueueNameField() + "," +
@@ -100,29 +344,66 @@ public class PostgresQueueDao implements QueueDao {
                 queueTableSchema.getNextProcessAtField() + "," +
                 queueTableSchema.getReenqueueAttemptField() + "," +
                 queueTableSchema.getTotalAttemptField() +
+                queueTableSchema.getPriorityField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getOrderingKeyField().map(field -> "," + field).orElse("") +
+                queueTableSchema.getDeduplicationKeyField().map(field -> "," + field).orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" :
                         queueTableSchema.getExtFields().stream().collect(Collectors.joining(", ", ", ", ""))) +
-                ") VALUES " +
-                "(" + location.getIdSequence().map(seq -> "nextval('" + seq + "'), ").orElse("") +
-                ":queueName, :payload, now() + :executionDelay * INTERVAL '1 SECOND', 0, 0" +
+                ") VALUES ";
+    }
+
+    private String createEnqueueValuesSql(@Nonnull QueueLocation location) {
+        return "(" + location.getIdSequence().map(seq -> "nextval('" + seq + "'), ").orElse("") +
+                "?, ?, now() + ? * INTERVAL '1 SECOND', 0, 0" +
+                queueTableSchema.getPriorityField().map(ignored -> ", ?").orElse("") +
+                queueTableSchema.getOrderingKeyField().map(ignored -> ", ?").orElse("") +
+                queueTableSchema.getDeduplicationKeyField().map(ignored -> ", ?").orElse("") +
                 (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
-                        .map(field -> ":" + field).collect(Collectors.joining(", ", ", ", ""))) +
-                ") RETURNING " + queueTableSchema.getIdField();
+                        .map(field -> "?").collect(Collectors.joining(", ", ", ", ""))) +
+                ")";
     }
 
     private String createDeleteSql(@Nonnull QueueLocation location) {
         return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
-                " = :queueName AND " + queueTableSchema.getIdField() + " = :id";
+                " = ? AND " + queueTableSchema.getIdField() + " = ?";
+    }
+
+    private String createDeleteBatchSql(@Nonnull QueueLocation location) {
+        return "DELETE FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() +
+                " = ? AND " + queueTableSchema.getIdField() + " = ANY(CAST(? AS BIGINT[]))";
     }
 
     private String createReenqueueSql(@Nonnull QueueLocation location) {
         return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
-                " = now() + :executionDelay * INTERVAL '1 SECOND', " +
+                " = now() + ? * INTERVAL '1 SECOND', " +
                 queueTableSchema.getAttemptField() + " = 0, " +
                 queueTableSchema.getReenqueueAttemptField() +
                 " = " + queueTableSchema.getReenqueueAttemptField() + " + 1 " +
-                "WHERE " + queueTableSchema.getIdField() + " = :id AND " +
-                queueTableSchema.getQueueNameField() + " = :queueName";
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
+    }
+
+    private String createPostponeSql(@Nonnull QueueLocation location) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = now() + ? * INTERVAL '1 SECOND' " +
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
+    }
+
+    private String createPostponeBatchSql(@Nonnull QueueLocation location) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getNextProcessAtField() +
+                " = now() + ? * INTERVAL '1 SECOND' " +
+                "WHERE " + queueTableSchema.getQueueNameField() + " = ? AND " +
+                queueTableSchema.getIdField() + " = ANY(CAST(? AS BIGINT[])) AND " +
+                queueTableSchema.getNextProcessAtField() + " < now() + ? * INTERVAL '1 SECOND'";
+    }
+
+    private String createMoveSql(@Nonnull QueueLocation location) {
+        return "UPDATE " + location.getTableName() + " SET " + queueTableSchema.getQueueNameField() + " = ?, " +
+                queueTableSchema.getNextProcessAtField() + " = now(), " +
+                queueTableSchema.getAttemptField() + " = 0 " +
+                "WHERE " + queueTableSchema.getIdField() + " = ? AND " +
+                queueTableSchema.getQueueNameField() + " = ?";
     }
 
 }
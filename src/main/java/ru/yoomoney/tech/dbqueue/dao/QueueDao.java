@@ -3,10 +3,15 @@ package ru.yoomoney.tech.dbqueue.dao;
 import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
 import ru.yoomoney.tech.dbqueue.config.DatabaseDialect;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import static java.util.Objects.requireNonNull;
 
@@ -26,6 +31,28 @@ public interface QueueDao {
      */
     long enqueue(@Nonnull QueueLocation location, @Nonnull EnqueueParams<String> enqueueParams);
 
+    /**
+     * Add several new tasks in the queue for processing with minimal number of database round trips.
+     * <p>
+     * Identifiers of inserted tasks are generated in the order of given parameters,
+     * so returned ids are matched with parameters by sorting them regardless of the order of returned rows.
+     * <p>
+     * Default implementation enqueues tasks one by one.
+     *
+     * @param location      Queue location.
+     * @param enqueueParams Parameters of the tasks.
+     * @return Identifiers (sequence ids) of new inserted tasks in the order of given parameters.
+     */
+    @Nonnull
+    default List<Long> enqueueBatch(@Nonnull QueueLocation location,
+                                    @Nonnull List<EnqueueParams<String>> enqueueParams) {
+        List<Long> taskIds = new ArrayList<>(enqueueParams.size());
+        for (EnqueueParams<String> params : enqueueParams) {
+            taskIds.add(enqueue(location, params));
+        }
+        return taskIds;
+    }
+
     /**
      * Remove (delete) task from the queue.
      *
@@ -35,6 +62,25 @@ public interface QueueDao {
      */
     boolean deleteTask(@Nonnull QueueLocation location, long taskId);
 
+    /**
+     * Remove (delete) several tasks from the queue within a single statement.
+     * <p>
+     * Default implementation deletes tasks one by one.
+     *
+     * @param location Queue location.
+     * @param taskIds  Identifiers (sequence ids) of the tasks.
+     * @return Number of deleted tasks.
+     */
+    default int deleteTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds) {
+        int deletedCount = 0;
+        for (Long taskId : taskIds) {
+            if (deleteTask(location, taskId)) {
+                deletedCount++;
+            }
+        }
+        return deletedCount;
+    }
+
     /**
      * Postpone task processing for given time period (current date and time plus execution delay).
      *
@@ -45,6 +91,59 @@ public interface QueueDao {
      */
     boolean reenqueue(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay);
 
+    /**
+     * Postpone processing of the task until current date and time plus execution delay,
+     * even if the task is already scheduled later.
+     * <p>
+     * Unlike {@link #reenqueue(QueueLocation, long, Duration)}, attempts counts are kept.
+     * Used to schedule a retry of a failed task with a lease, see {@link QueueSettings#getLeaseTime()}.
+     * Default implementation fails, implementations should override it to support leases.
+     *
+     * @param location       Queue location.
+     * @param taskId         Identifier (sequence id) of the task.
+     * @param executionDelay Task execution delay.
+     * @return true, if task was successfully postponed, false, when task was not found.
+     */
+    default boolean postponeTask(@Nonnull QueueLocation location, long taskId, @Nonnull Duration executionDelay) {
+        throw new UnsupportedOperationException("task leases are not supported: queueDao=" + getClass().getName());
+    }
+
+    /**
+     * Postpone processing of several tasks within a single statement
+     * until at least current date and time plus execution delay.
+     * <p>
+     * Tasks which are already scheduled later are not changed, attempts counts are kept.
+     * Used to extend leases of the tasks in processing, see {@link QueueSettings#getLeaseTime()}.
+     * Default implementation fails, implementations should override it to support leases.
+     *
+     * @param location       Queue location.
+     * @param taskIds        Identifiers (sequence ids) of the tasks.
+     * @param executionDelay Task execution delay.
+     * @return Number of postponed tasks.
+     */
+    default int postponeTasks(@Nonnull QueueLocation location, @Nonnull Collection<Long> taskIds,
+                              @Nonnull Duration executionDelay) {
+        throw new UnsupportedOperationException("task leases are not supported: queueDao=" + getClass().getName());
+    }
+
+    /**
+     * Move task to another queue in the same table, e.g. to a dead letter queue.
+     * <p>
+     * The task is ready for processing in the target queue at once,
+     * its attempts count is reset, total attempts count and reenqueue attempts count are kept.
+     * Used to move a task which exhausted {@link QueueSettings#getMaxAttempts()} to a dead letter queue,
+     * default implementation fails, implementations should override it to support dead letter queues.
+     *
+     * @param location      Queue location.
+     * @param taskId        Identifier (sequence id) of the task.
+     * @param targetQueueId Identifier of the target queue in the table of the queue location.
+     * @return true, if task was moved, false, when task was not found.
+     */
+    default boolean moveTask(@Nonnull QueueLocation location, long taskId, @Nonnull QueueId targetQueueId) {
+        throw new UnsupportedOperationException("dead letter queues are not supported: queueDao=" +
+                getClass().getName());
+    }
+
     /**
      * Factory for establishment of database-specific DAO to work with queue table.
      */
@@ -61,12 +160,33 @@ public interface QueueDao {
         public static QueueDao create(@Nonnull DatabaseDialect databaseDialect,
                                       @Nonnull Database database,
                                       @Nonnull QueueTableSchema queueTableSchema) {
+            return create(databaseDialect, database, queueTableSchema, false);
+        }
+
+        /**
+         * Create a new instance of database-specific DAO based on database type (dialect).
+         *
+         * @param databaseDialect  Database type (dialect).
+         * @param database         Reference to the abstraction of a database
+         * @param queueTableSchema Queue table scheme.
+         * @param notifyOnEnqueue  Send notification on every enqueue, supported only for PostgreSQL,
+         *                         see {@link PostgresQueueDao#getNotificationChannel(QueueLocation)}.
+         * @return New database-specific DAO instance.
+         */
+        public static QueueDao create(@Nonnull DatabaseDialect databaseDialect,
+                                      @Nonnull Database database,
+                                      @Nonnull QueueTableSchema queueTableSchema,
+                                      boolean notifyOnEnqueue) {
             requireNonNull(databaseDialect);
             requireNonNull(database);
             requireNonNull(queueTableSchema);
+            if (notifyOnEnqueue && databaseDialect != DatabaseDialect.POSTGRESQL) {
+                throw new IllegalArgumentException("notifications are not supported: databaseDialect=" +
+                        databaseDialect);
+            }
             switch (databaseDialect) {
                 case POSTGRESQL:
-                    return new PostgresQueueDao(database, queueTableSchema);
+                    return new PostgresQueueDao(database, queueTableSchema, notifyOnEnqueue);
                 case MSSQL:
                     return new MssqlQueueDao(database, queueTableSchema);
                 case ORACLE_11G:
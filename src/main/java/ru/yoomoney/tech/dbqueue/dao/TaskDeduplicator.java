@@ -0,0 +1,167 @@
+package ru.yoomoney.tech.dbqueue.dao;
+
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Resolves ids of tasks enqueued with a deduplication key, see {@link QueueTableSchema#getDeduplicationKeyField()}.
+ * <p>
+ * Keys are unique within a queue, the unique index must cover the queue name and the key columns.
+ * Database access objects insert tasks skipping conflicting keys,
+ * ids of the skipped tasks are selected from the queue table by their keys.
+ * The statements are the same for all supported databases.
+ *
+ * @since 17.10.2026
+ */
+final class TaskDeduplicator {
+
+    /**
+     * Maximum number of keys in a single select statement,
+     * stays within the Oracle limit of 1000 expressions in IN list.
+     */
+    private static final int MAX_SELECT_BATCH_SIZE = 1000;
+    /**
+     * Maximum number of attempts to enqueue a task, another attempt is made
+     * when the conflicting task is deleted before its id is selected.
+     */
+    static final int MAX_ENQUEUE_ATTEMPTS = 3;
+
+    @Nonnull
+    private final Database database;
+    @Nonnull
+    private final QueueTableSchema queueTableSchema;
+
+    TaskDeduplicator(@Nonnull Database database, @Nonnull QueueTableSchema queueTableSchema) {
+        this.database = requireNonNull(database);
+        this.queueTableSchema = requireNonNull(queueTableSchema);
+    }
+
+    /**
+     * Exclude tasks with a deduplication key which is already used by a preceding task of the batch.
+     *
+     * @param batch Tasks to enqueue.
+     * @return Tasks to insert.
+     */
+    @Nonnull
+    static List<EnqueueParams<String>> distinctByKey(@Nonnull List<EnqueueParams<String>> batch) {
+        Set<String> keys = new HashSet<>();
+        return batch.stream()
+                .filter(task -> task.getDeduplicationKey() == null || keys.add(task.getDeduplicationKey()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Find id of the task with the given deduplication key.
+     *
+     * @param location         Queue location.
+     * @param deduplicationKey Deduplication key of the task.
+     * @return Task id or null if the key is not set or there is no such task.
+     */
+    @Nullable
+    Long findTaskId(@Nonnull QueueLocation location, @Nullable String deduplicationKey) {
+        if (deduplicationKey == null) {
+            return null;
+        }
+        return findTaskIds(location, new Object[]{deduplicationKey}).get(deduplicationKey);
+    }
+
+    /**
+     * Get ids of the enqueued batch in the order of tasks.
+     *
+     * @param location        Queue location.
+     * @param batch           Enqueued tasks.
+     * @param insertedTasks   Deduplication keys and ids of inserted tasks in the order of insertion,
+     *                        the key is null for tasks without a key.
+     * @param enqueueFunction Enqueue function for tasks which were neither inserted nor found.
+     * @return Ids of the tasks.
+     */
+    @Nonnull
+    List<Long> resolveIds(@Nonnull QueueLocation location,
+                          @Nonnull List<EnqueueParams<String>> batch,
+                          @Nonnull List<Map.Entry<String, Long>> insertedTasks,
+                          @Nonnull ToLongFunction<EnqueueParams<String>> enqueueFunction) {
+        Deque<Long> idsWithoutKey = new ArrayDeque<>();
+        Map<String, Long> idsByKey = new HashMap<>();
+        for (Map.Entry<String, Long> insertedTask : insertedTasks) {
+            if (insertedTask.getKey() == null) {
+                idsWithoutKey.add(insertedTask.getValue());
+            } else {
+                idsByKey.put(insertedTask.getKey(), insertedTask.getValue());
+            }
+        }
+        List<String> skippedKeys = batch.stream()
+                .map(EnqueueParams::getDeduplicationKey)
+                .filter(key -> key != null && !idsByKey.containsKey(key))
+                .distinct()
+                .collect(Collectors.toList());
+        for (int from = 0; from < skippedKeys.size(); from += MAX_SELECT_BATCH_SIZE) {
+            idsByKey.putAll(findTaskIds(location,
+                    skippedKeys.subList(from, Math.min(from + MAX_SELECT_BATCH_SIZE, skippedKeys.size())).toArray()));
+        }
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (EnqueueParams<String> task : batch) {
+            String key = task.getDeduplicationKey();
+            if (key == null) {
+                Long id = idsWithoutKey.poll();
+                if (id == null) {
+                    throw new IllegalStateException("task without deduplication key is not inserted: location=" +
+                            location);
+                }
+                ids.add(id);
+            } else {
+                ids.add(idsByKey.computeIfAbsent(key, ignored -> enqueueFunction.applyAsLong(task)));
+            }
+        }
+        return ids;
+    }
+
+    @Nonnull
+    private Map<String, Long> findTaskIds(@Nonnull QueueLocation location, @Nonnull Object[] deduplicationKeys) {
+        Object[] params = new Object[deduplicationKeys.length + 1];
+        params[0] = location.getQueueId().asString();
+        System.arraycopy(deduplicationKeys, 0, params, 1, deduplicationKeys.length);
+        return database.selectMany(createSelectSql(location, deduplicationKeys.length), params,
+                        rs -> insertedTask(rs.getString(2), rs.getLong(1))).stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private String createSelectSql(@Nonnull QueueLocation location, int keyCount) {
+        String deduplicationKeyField = queueTableSchema.getDeduplicationKeyField()
+                .orElseThrow(() -> new IllegalStateException("deduplication key field is not set"));
+        return "SELECT " + queueTableSchema.getIdField() + ", " + deduplicationKeyField +
+                " FROM " + location.getTableName() + " WHERE " + queueTableSchema.getQueueNameField() + " = ?" +
+                " AND " + deduplicationKeyField + " IN (" +
+                String.join(", ", Collections.nCopies(keyCount, "?")) + ")";
+    }
+
+    /**
+     * Create an entry of a task for {@link #resolveIds(QueueLocation, List, List, ToLongFunction)}.
+     *
+     * @param deduplicationKey Deduplication key of the task, null if not set.
+     * @param id               Task id.
+     * @return Entry of the task.
+     */
+    @Nonnull
+    static Map.Entry<String, Long> insertedTask(@Nullable String deduplicationKey, long id) {
+        return new AbstractMap.SimpleImmutableEntry<>(deduplicationKey, id);
+    }
+}
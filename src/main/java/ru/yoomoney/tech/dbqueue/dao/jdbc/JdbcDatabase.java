@@ -0,0 +1,454 @@
+package ru.yoomoney.tech.dbqueue.dao.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.dao.Database;
+import ru.yoomoney.tech.dbqueue.dao.ParsedSql;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link Database} implementation on top of plain JDBC.
+ * <p>
+ * Every SQL statement with named parameters is parsed into positional form only once and parameters
+ * are bound directly from the given map. Statements with positional parameters are executed as is.
+ * Transactions are bound to the current thread, nested {@link #transact(Supplier)}
+ * calls join the outer transaction. Within a transaction prepared statements are reused
+ * for repeated SQL statements. Statements outside of a transaction are executed in auto-commit mode.
+ * <p>
+ * Unlike {@code SpringJdbcBasedDatabase} it does not require Spring on the classpath.
+ *
+ * @since 17.10.2026
+ */
+public class JdbcDatabase implements Database {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcDatabase.class);
+
+    @Nonnull
+    private final DataSource dataSource;
+    private final int isolationLevel;
+    @Nonnull
+    private final Map<String, ParsedSql> parsedSqlCache = new ConcurrentHashMap<>();
+    @Nonnull
+    private final ThreadLocal<Transaction> currentTransaction = new ThreadLocal<>();
+    @Nullable
+    private volatile Boolean setObjectForNull;
+
+    /**
+     * Constructor with {@link Connection#TRANSACTION_READ_COMMITTED} isolation level.
+     *
+     * @param dataSource Data source of the database.
+     */
+    public JdbcDatabase(@Nonnull DataSource dataSource) {
+        this(dataSource, Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param dataSource     Data source of the database.
+     * @param isolationLevel Isolation level of transactions, one of {@link Connection} constants.
+     */
+    public JdbcDatabase(@Nonnull DataSource dataSource, int isolationLevel) {
+        this.dataSource = requireNonNull(dataSource, "dataSource");
+        this.isolationLevel = isolationLevel;
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Map<String, Object> parameterMap, Class<T> klass) {
+        requireNonNull(klass, "klass");
+        return selectOne(selectQuery, parameterMap, rs -> getColumnValue(rs, klass));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Mapped row or null when no rows are selected.
+     */
+    @Override
+    public <T> T selectOne(String selectQuery, Map<String, Object> parameterMap, RowMapper<T> rowMapper) {
+        return singleRow(selectQuery, selectMany(selectQuery, parameterMap, rowMapper));
+    }
+
+    @Override
+    public <T> List<T> selectMany(String selectQuery, Map<String, Object> parameterMap, RowMapper<T> rowMapper) {
+        requireNonNull(rowMapper, "rowMapper");
+        return execute(selectQuery, parameterMap, statement -> mapRows(statement, rowMapper));
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Object[] parameters, Class<T> klass) {
+        requireNonNull(klass, "klass");
+        return selectOne(selectQuery, parameters, rs -> getColumnValue(rs, klass));
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Object[] parameters, RowMapper<T> rowMapper) {
+        return singleRow(selectQuery, selectMany(selectQuery, parameters, rowMapper));
+    }
+
+    @Override
+    public <T> List<T> selectMany(String selectQuery, Object[] parameters, RowMapper<T> rowMapper) {
+        requireNonNull(rowMapper, "rowMapper");
+        return execute(selectQuery, parameters, statement -> mapRows(statement, rowMapper));
+    }
+
+    @Override
+    public int update(String updateQuery, Object[] parameters) {
+        return execute(updateQuery, parameters, PreparedStatement::executeUpdate);
+    }
+
+    @Override
+    public int insertOne(String insertQuery, Map<String, Object> parameterMap) {
+        return update(insertQuery, parameterMap);
+    }
+
+    @Override
+    public int update(String updateQuery, Map<String, Object> parameterMap) {
+        return execute(updateQuery, parameterMap, PreparedStatement::executeUpdate);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Collection parameters are expanded for every parameter map,
+     * consecutive maps with the same expanded statement are executed as a single JDBC batch.
+     */
+    @Override
+    public int[] batchUpdate(String updateQuery, List<Map<String, Object>> parameterMaps) {
+        requireNonNull(parameterMaps, "parameterMaps");
+        if (parameterMaps.isEmpty()) {
+            return new int[0];
+        }
+        ParsedSql parsedSql = getParsedSql(updateQuery);
+        return withConnection(connection -> {
+            int[] updateCounts = new int[parameterMaps.size()];
+            int from = 0;
+            while (from < parameterMaps.size()) {
+                String positionalSql = parsedSql.getPositionalSql(parameterMaps.get(from));
+                int to = from + 1;
+                while (to < parameterMaps.size()
+                        && positionalSql.equals(parsedSql.getPositionalSql(parameterMaps.get(to)))) {
+                    to++;
+                }
+                try (PreparedStatement statement = connection.prepareStatement(positionalSql)) {
+                    for (Map<String, Object> parameterMap : parameterMaps.subList(from, to)) {
+                        bindParameters(connection, statement, parsedSql, parameterMap);
+                        statement.addBatch();
+                    }
+                    int[] batchUpdateCounts = statement.executeBatch();
+                    System.arraycopy(batchUpdateCounts, 0, updateCounts, from, batchUpdateCounts.length);
+                }
+                from = to;
+            }
+            return updateCounts;
+        });
+    }
+
+    @Override
+    public <T> T call(String callableQuery, CallableStatementMapper<T> callableStatementMapper) {
+        requireNonNull(callableQuery, "callableQuery");
+        requireNonNull(callableStatementMapper, "callableStatementMapper");
+        return withConnection(connection -> {
+            try (CallableStatement statement = connection.prepareCall(callableQuery)) {
+                return callableStatementMapper.mapToObject(statement);
+            }
+        });
+    }
+
+    @Override
+    public <T> T transact(Supplier<T> runsWithinTransaction) {
+        requireNonNull(runsWithinTransaction, "runsWithinTransaction");
+        if (currentTransaction.get() != null) {
+            return runsWithinTransaction.get();
+        }
+        Transaction transaction;
+        try {
+            transaction = new Transaction(dataSource.getConnection(), isolationLevel);
+        } catch (SQLException e) {
+            throw new IllegalStateException("cannot begin transaction", e);
+        }
+        currentTransaction.set(transaction);
+        T result;
+        try {
+            result = runsWithinTransaction.get();
+            transaction.commit();
+        } catch (RuntimeException | Error e) {
+            transaction.rollback();
+            throw e;
+        } finally {
+            currentTransaction.remove();
+            transaction.close();
+        }
+        transaction.afterCommitActions.forEach(Runnable::run);
+        return result;
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+        requireNonNull(action, "action");
+        Transaction transaction = currentTransaction.get();
+        if (transaction == null) {
+            action.run();
+            return;
+        }
+        transaction.afterCommitActions.add(action);
+    }
+
+    private <T> T execute(@Nonnull String sql, @Nonnull Map<String, Object> parameterMap,
+                          @Nonnull StatementCallback<PreparedStatement, T> callback) {
+        requireNonNull(parameterMap, "parameterMap");
+        ParsedSql parsedSql = getParsedSql(sql);
+        return execute(sql, parsedSql.getPositionalSql(parameterMap),
+                (connection, statement) -> bindParameters(connection, statement, parsedSql, parameterMap),
+                callback);
+    }
+
+    private <T> T execute(@Nonnull String sql, @Nonnull Object[] parameters,
+                          @Nonnull StatementCallback<PreparedStatement, T> callback) {
+        requireNonNull(sql, "sql");
+        requireNonNull(parameters, "parameters");
+        return execute(sql, sql, (connection, statement) -> {
+            for (int i = 0; i < parameters.length; i++) {
+                bindParameter(connection, statement, i + 1, parameters[i]);
+            }
+        }, callback);
+    }
+
+    private <T> T execute(@Nonnull String sql, @Nonnull String positionalSql, @Nonnull ParameterBinder binder,
+                          @Nonnull StatementCallback<PreparedStatement, T> callback) {
+        Transaction transaction = currentTransaction.get();
+        try {
+            if (transaction != null) {
+                PreparedStatement statement = transaction.prepareStatement(positionalSql);
+                binder.bind(transaction.connection, statement);
+                return callback.execute(statement);
+            }
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(positionalSql)) {
+                binder.bind(connection, statement);
+                return callback.execute(statement);
+            }
+        } catch (Exception e) {
+            throw toRuntimeException(sql, e);
+        }
+    }
+
+    @Nonnull
+    private static <T> List<T> mapRows(@Nonnull PreparedStatement statement,
+                                       @Nonnull RowMapper<T> rowMapper) throws Exception {
+        try (ResultSet rs = statement.executeQuery()) {
+            List<T> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(rowMapper.mapToObject(rs));
+            }
+            return rows;
+        }
+    }
+
+    @Nullable
+    private static <T> T singleRow(@Nonnull String sql, @Nonnull List<T> rows) {
+        if (rows.size() > 1) {
+            throw new IllegalStateException("expected single row: rowCount=" + rows.size() + ", sql=" + sql);
+        }
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private <T> T withConnection(@Nonnull StatementCallback<Connection, T> callback) {
+        Transaction transaction = currentTransaction.get();
+        try {
+            if (transaction != null) {
+                return callback.execute(transaction.connection);
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                return callback.execute(connection);
+            }
+        } catch (Exception e) {
+            throw toRuntimeException(null, e);
+        }
+    }
+
+    @Nonnull
+    private ParsedSql getParsedSql(@Nonnull String sql) {
+        requireNonNull(sql, "sql");
+        return parsedSqlCache.computeIfAbsent(sql, ParsedSql::parseNamed);
+    }
+
+    private void bindParameters(@Nonnull Connection connection,
+                                @Nonnull PreparedStatement statement,
+                                @Nonnull ParsedSql parsedSql,
+                                @Nonnull Map<String, Object> parameterMap) throws SQLException {
+        int index = 1;
+        for (String name : parsedSql.getParameterNames()) {
+            if (!parameterMap.containsKey(name)) {
+                throw new IllegalArgumentException("no value for parameter: name=" + name);
+            }
+            Object value = parameterMap.get(name);
+            if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    bindParameter(connection, statement, index++, element);
+                }
+            } else {
+                bindParameter(connection, statement, index++, value);
+            }
+        }
+    }
+
+    private void bindParameter(@Nonnull Connection connection, @Nonnull PreparedStatement statement,
+                               int index, @Nullable Object value) throws SQLException {
+        if (value != null) {
+            statement.setObject(index, value);
+        } else if (isSetObjectForNull(connection)) {
+            statement.setObject(index, null);
+        } else {
+            statement.setNull(index, Types.NULL);
+        }
+    }
+
+    private boolean isSetObjectForNull(@Nonnull Connection connection) throws SQLException {
+        Boolean result = setObjectForNull;
+        if (result == null) {
+            String productName = connection.getMetaData().getDatabaseProductName();
+            result = productName.startsWith("Microsoft SQL Server") || productName.startsWith("Informix");
+            setObjectForNull = result;
+        }
+        return result;
+    }
+
+    @Nullable
+    private static <T> T getColumnValue(@Nonnull ResultSet rs, @Nonnull Class<T> klass) throws SQLException {
+        Object value;
+        if (klass == Long.class) {
+            value = rs.getLong(1);
+        } else if (klass == Integer.class) {
+            value = rs.getInt(1);
+        } else if (klass == Boolean.class) {
+            value = rs.getBoolean(1);
+        } else if (klass == String.class) {
+            value = rs.getString(1);
+        } else {
+            value = rs.getObject(1, klass);
+        }
+        return rs.wasNull() ? null : klass.cast(value);
+    }
+
+    @Nonnull
+    private static RuntimeException toRuntimeException(@Nullable String sql, @Nonnull Exception e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new IllegalStateException("cannot execute statement: sql=" + sql, e);
+    }
+
+    /**
+     * Callback which works with JDBC resource
+     *
+     * @param <R> type of the resource
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    private interface StatementCallback<R, T> {
+        T execute(R resource) throws Exception;
+    }
+
+    /**
+     * Binder of parameters to the prepared statement
+     */
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(Connection connection, PreparedStatement statement) throws SQLException;
+    }
+
+    /**
+     * Transaction bound to the current thread
+     */
+    private static class Transaction {
+        private final Connection connection;
+        private final boolean initialAutoCommit;
+        private final int initialIsolationLevel;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        private final List<Runnable> afterCommitActions = new ArrayList<>();
+
+        Transaction(@Nonnull Connection connection, int isolationLevel) throws SQLException {
+            this.connection = connection;
+            try {
+                this.initialAutoCommit = connection.getAutoCommit();
+                this.initialIsolationLevel = connection.getTransactionIsolation();
+                if (initialIsolationLevel != isolationLevel) {
+                    connection.setTransactionIsolation(isolationLevel);
+                }
+                if (initialAutoCommit) {
+                    connection.setAutoCommit(false);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        @Nonnull
+        PreparedStatement prepareStatement(@Nonnull String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+
+        void commit() {
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                throw new IllegalStateException("cannot commit transaction", e);
+            }
+        }
+
+        void rollback() {
+            try {
+                connection.rollback();
+            } catch (SQLException | RuntimeException e) {
+                log.warn("cannot rollback transaction", e);
+            }
+        }
+
+        void close() {
+            try {
+                for (PreparedStatement statement : statements.values()) {
+                    statement.close();
+                }
+                if (initialAutoCommit) {
+                    connection.setAutoCommit(true);
+                }
+                if (initialIsolationLevel != connection.getTransactionIsolation()) {
+                    connection.setTransactionIsolation(initialIsolationLevel);
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.warn("cannot reset connection", e);
+            } finally {
+                try {
+                    connection.close();
+                } catch (SQLException | RuntimeException e) {
+                    log.warn("cannot close connection", e);
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package ru.yoomoney.tech.dbqueue.dao.spring;
 
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.CallableStatementCallback;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import ru.yoomoney.tech.dbqueue.dao.Database;
@@ -28,15 +33,21 @@ public class SpringJdbcBasedDatabase implements Database {
 
     @Override
     public <T> T selectOne(String selectQuery, Map<String, Object> parameterMap, Class<T> klass) {
-        return jdbcTemplate.queryForObject(selectQuery, parameterMap, klass);
+        return DataAccessUtils.singleResult(jdbcTemplate.queryForList(selectQuery, parameterMap, klass));
     }
 
     @Override
     public <T> T selectOne(String selectQuery,
                            Map<String, Object> parameterMap,
                            RowMapper<T> rowMapper) {
+        return DataAccessUtils.singleResult(selectMany(selectQuery, parameterMap, rowMapper));
+    }
 
-        return jdbcTemplate.queryForObject(selectQuery, parameterMap, (rs, rowNum) -> {
+    @Override
+    public <T> List<T> selectMany(String selectQuery,
+                                  Map<String, Object> parameterMap,
+                                  RowMapper<T> rowMapper) {
+        return jdbcTemplate.query(selectQuery, parameterMap, (rs, rowNum) -> {
             try {
                 return rowMapper.mapToObject(rs);
             }
@@ -47,17 +58,31 @@ public class SpringJdbcBasedDatabase implements Database {
     }
 
     @Override
-    public <T> List<T> selectMany(String selectQuery,
-                                  Map<String, Object> parameterMap,
-                                  RowMapper<T> rowMapper) {
-        return jdbcTemplate.query(selectQuery, parameterMap, (rs, rowNum) -> {
+    public <T> T selectOne(String selectQuery, Object[] parameters, Class<T> klass) {
+        return DataAccessUtils.singleResult(
+                jdbcTemplate.getJdbcOperations().queryForList(selectQuery, klass, parameters));
+    }
+
+    @Override
+    public <T> T selectOne(String selectQuery, Object[] parameters, RowMapper<T> rowMapper) {
+        return DataAccessUtils.singleResult(selectMany(selectQuery, parameters, rowMapper));
+    }
+
+    @Override
+    public <T> List<T> selectMany(String selectQuery, Object[] parameters, RowMapper<T> rowMapper) {
+        return jdbcTemplate.getJdbcOperations().query(selectQuery, (rs, rowNum) -> {
             try {
                 return rowMapper.mapToObject(rs);
             }
             catch (Exception e) {
                 throw new RuntimeException(e);
             }
-        });
+        }, parameters);
+    }
+
+    @Override
+    public int update(String updateQuery, Object[] parameters) {
+        return jdbcTemplate.getJdbcOperations().update(updateQuery, parameters);
     }
 
     @Override
@@ -71,8 +96,40 @@ public class SpringJdbcBasedDatabase implements Database {
         return jdbcTemplate.update(updateQuery, parameterMap);
     }
 
+    @Override
+    public int[] batchUpdate(String updateQuery, List<Map<String, Object>> parameterMaps) {
+        return jdbcTemplate.batchUpdate(updateQuery, SqlParameterSourceUtils.createBatch(parameterMaps));
+    }
+
+    @Override
+    public <T> T call(String callableQuery,
+                      CallableStatementMapper<T> callableStatementMapper) {
+        return jdbcTemplate.getJdbcOperations().execute(callableQuery, (CallableStatementCallback<T>) cs -> {
+            try {
+                return callableStatementMapper.mapToObject(cs);
+            }
+            catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
     @Override
     public <T> T transact(Supplier<T> runsWithinTransaction) {
         return transactionTemplate.execute((status) -> runsWithinTransaction.get());
     }
+
+    @Override
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -8,12 +8,8 @@ import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,64 +27,92 @@ import static java.util.Objects.requireNonNull;
 public class MssqlQueuePickTaskDao implements QueuePickTaskDao {
 
     private final Map<QueueLocation, String> pickTaskSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> nextTaskDelaySqlCache = new ConcurrentHashMap<>();
+    private final Map<List<QueueLocation>, String> pickGroupTasksSqlCache = new ConcurrentHashMap<>();
 
     private final Database database;
     private final QueueTableSchema queueTableSchema;
     private final PickTaskSettings pickTaskSettings;
+    private final TaskRecordRowMapper taskRecordRowMapper;
 
     public MssqlQueuePickTaskDao(@Nonnull Database database, @Nonnull QueueTableSchema queueTableSchema, @Nonnull PickTaskSettings pickTaskSettings) {
         this.database = requireNonNull(database);
         this.queueTableSchema = requireNonNull(queueTableSchema);
         this.pickTaskSettings = requireNonNull(pickTaskSettings);
+        this.taskRecordRowMapper = new TaskRecordRowMapper(queueTableSchema);
     }
 
     @Override
     @Nullable
     public TaskRecord pickTask(@Nonnull QueueLocation location) {
         requireNonNull(location);
-        Map<String, Object> placeholders = new HashMap<String, Object>() {
-            {
-                put("queueName", location.getQueueId().asString());
-                put("retryInterval", pickTaskSettings.getRetryInterval().getSeconds());
-            }
-        };
-
-        final Database.RowMapper<TaskRecord> rowMapper = rs -> {
-            Map<String, String> additionalData = new LinkedHashMap<>();
-            queueTableSchema.getExtFields().forEach(key -> {
-                try {
-                    additionalData.put(key, rs.getString(key));
-                }
-                catch (SQLException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-            return TaskRecord.builder()
-                    .withId(rs.getLong(queueTableSchema.getIdField()))
-                    .withCreatedAt(getZonedDateTime(rs, queueTableSchema.getCreatedAtField()))
-                    .withNextProcessAt(getZonedDateTime(rs, queueTableSchema.getNextProcessAtField()))
-                    .withPayload(rs.getString(queueTableSchema.getPayloadField()))
-                    .withAttemptsCount(rs.getLong(queueTableSchema.getAttemptField()))
-                    .withReenqueueAttemptsCount(rs.getLong(queueTableSchema.getReenqueueAttemptField()))
-                    .withTotalAttemptsCount(rs.getLong(queueTableSchema.getTotalAttemptField()))
-                    .withExtData(additionalData).build();
-        };
-
-        final String queryString = pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql);
-        return database.selectOne(queryString, placeholders, rowMapper);
+        return database.selectOne(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql),
+                createParams(location, 1),
+                taskRecordRowMapper);
     }
 
+    @Override
+    @Nonnull
+    public List<TaskRecord> pickTasks(@Nonnull QueueLocation location, int maxBatch) {
+        requireNonNull(location);
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive: maxBatch=" + maxBatch);
+        }
+        return database.selectMany(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql),
+                createParams(location, maxBatch),
+                taskRecordRowMapper);
+    }
+
+    @Override
+    @Nonnull
+    public Map<QueueLocation, List<TaskRecord>> pickGroupTasks(@Nonnull List<QueueLocation> locations, int maxBatch) {
+        String tableName = QueueGroupTasks.getTableName(locations, maxBatch);
+        Object[] params = new Object[locations.size() + 2];
+        for (int i = 0; i < locations.size(); i++) {
+            params[i] = locations.get(i).getQueueId().asString();
+        }
+        params[locations.size()] = maxBatch;
+        params[locations.size() + 1] = pickTaskSettings.getRetryInterval().getSeconds();
+        return QueueGroupTasks.pickTasks(database,
+                pickGroupTasksSqlCache.computeIfAbsent(locations, ignored -> createPickTaskSql(tableName,
+                        locations.stream().map(location -> "?").collect(Collectors.joining(", ", " IN (", ") ")),
+                        ", inserted." + queueTableSchema.getQueueNameField())),
+                params, locations, taskRecordRowMapper);
+    }
+
+    @Override
+    @Nullable
+    public Duration getNextTaskDelay(@Nonnull QueueLocation location) {
+        requireNonNull(location);
+        Long delayMillis = database.selectOne(
+                nextTaskDelaySqlCache.computeIfAbsent(location, this::createNextTaskDelaySql),
+                new Object[]{location.getQueueId().asString()},
+                Long.class);
+        return delayMillis == null ? null : Duration.ofMillis(delayMillis);
+    }
+
+    private Object[] createParams(@Nonnull QueueLocation location, int maxBatch) {
+        return new Object[]{location.getQueueId().asString(), maxBatch,
+                pickTaskSettings.getRetryInterval().getSeconds()};
+    }
 
     private String createPickTaskSql(@Nonnull QueueLocation location) {
+        return createPickTaskSql(location.getTableName(), " = ? ", "");
+    }
+
+    private String createPickTaskSql(@Nonnull String tableName, @Nonnull String queueNameCondition,
+                                     @Nonnull String outputSuffix) {
         return "WITH cte AS (" +
                 "SELECT " + queueTableSchema.getIdField() + " " +
-                "FROM " + location.getTableName() + " with (readpast, updlock) " +
-                "WHERE " + queueTableSchema.getQueueNameField() + " = :queueName " +
+                "FROM " + tableName + " t with (readpast, updlock) " +
+                "WHERE " + queueTableSchema.getQueueNameField() + queueNameCondition +
                 "  AND " + queueTableSchema.getNextProcessAtField() + " <= SYSDATETIMEOFFSET() " +
-                " ORDER BY " + queueTableSchema.getNextProcessAtField() + " ASC " +
-                "offset 0 rows fetch next 1 rows only " +
+                OrderingKeySql.createCondition(queueTableSchema, tableName) +
+                " ORDER BY " + queueTableSchema.getPriorityField().map(field -> field + " DESC, ").orElse("") +
+                queueTableSchema.getNextProcessAtField() + " ASC " +
+                "offset 0 rows fetch next ? rows only " +
                 ") " +
-                "UPDATE " + location.getTableName() + " " +
+                "UPDATE " + tableName + " " +
                 "SET " +
                 "  " + queueTableSchema.getNextProcessAtField() + " = " +
                 getNextProcessTimeSql(pickTaskSettings.getRetryType(), queueTableSchema) + ", " +
@@ -102,28 +126,30 @@ public class MssqlQueuePickTaskDao implements QueuePickTaskDao {
                 "inserted." + queueTableSchema.getCreatedAtField() + ", " +
                 "inserted." + queueTableSchema.getNextProcessAtField() +
                 (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
-                        .map(field -> "inserted." + field).collect(Collectors.joining(", ", ", ", ""))) + " " +
+                        .map(field -> "inserted." + field).collect(Collectors.joining(", ", ", ", ""))) +
+                outputSuffix + " " +
                 "FROM cte " +
-                "WHERE " + location.getTableName() + "." + queueTableSchema.getIdField() + " = cte." + queueTableSchema.getIdField();
-    }
-
-    private ZonedDateTime getZonedDateTime(ResultSet rs, String time) throws SQLException {
-        return ZonedDateTime.ofInstant(rs.getTimestamp(time).toInstant(), ZoneId.systemDefault());
+                "WHERE " + tableName + "." + queueTableSchema.getIdField() + " = cte." + queueTableSchema.getIdField();
     }
 
-
     @Nonnull
     private String getNextProcessTimeSql(@Nonnull TaskRetryType taskRetryType, QueueTableSchema queueTableSchema) {
         Objects.requireNonNull(taskRetryType);
         switch (taskRetryType) {
             case GEOMETRIC_BACKOFF:
-                return "dateadd(ss, power(2, " + queueTableSchema.getAttemptField() + ") * :retryInterval, SYSDATETIMEOFFSET())";
+                return "dateadd(ss, power(2, " + queueTableSchema.getAttemptField() + ") * ?, SYSDATETIMEOFFSET())";
             case ARITHMETIC_BACKOFF:
-                return "dateadd(ss, (1 + (" + queueTableSchema.getAttemptField() + " * 2)) * :retryInterval, SYSDATETIMEOFFSET())";
+                return "dateadd(ss, (1 + (" + queueTableSchema.getAttemptField() + " * 2)) * ?, SYSDATETIMEOFFSET())";
             case LINEAR_BACKOFF:
-                return "dateadd(ss, :retryInterval, SYSDATETIMEOFFSET())";
+                return "dateadd(ss, ?, SYSDATETIMEOFFSET())";
             default:
                 throw new IllegalStateException("unknown retry type: " + taskRetryType);
         }
     }
+
+    private String createNextTaskDelaySql(@Nonnull QueueLocation location) {
+        return "SELECT DATEDIFF_BIG(ms, SYSDATETIMEOFFSET(), MIN(" + queueTableSchema.getNextProcessAtField() + ")) " +
+                "FROM " + location.getTableName() + " with (readpast) " +
+                "WHERE " + queueTableSchema.getQueueNameField() + " = ?";
+    }
 }
@@ -1,10 +1,6 @@
 package ru.yoomoney.tech.dbqueue.internal.pick;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import org.springframework.dao.DataAccessException;
-import org.springframework.jdbc.core.CallableStatementCallback;
-import org.springframework.jdbc.core.JdbcOperations;
-import org.springframework.jdbc.core.JdbcTemplate;
 import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
 import ru.yoomoney.tech.dbqueue.dao.Database;
@@ -13,14 +9,17 @@ import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.sql.DataSource;
 import java.sql.CallableStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -36,18 +35,23 @@ import java.util.concurrent.ConcurrentHashMap;
 public class Oracle11QueuePickTaskDao implements QueuePickTaskDao {
 
     private final Map<QueueLocation, String> pickTaskSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> pickTasksSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> nextTaskDelaySqlCache = new ConcurrentHashMap<>();
 
     @Nonnull
-    private final Database dataSource;
+    private final Database database;
     @Nonnull
     private final QueueTableSchema queueTableSchema;
     @Nonnull
     private final PickTaskSettings pickTaskSettings;
+    @Nonnull
+    private final TaskRecordRowMapper taskRecordRowMapper;
 
-    public Oracle11QueuePickTaskDao(@Nonnull Database dataSource, @Nonnull QueueTableSchema queueTableSchema, @Nonnull PickTaskSettings pickTaskSettings) {
-        this.dataSource = dataSource;
+    public Oracle11QueuePickTaskDao(@Nonnull Database database, @Nonnull QueueTableSchema queueTableSchema, @Nonnull PickTaskSettings pickTaskSettings) {
+        this.database = database;
         this.queueTableSchema = queueTableSchema;
         this.pickTaskSettings = pickTaskSettings;
+        this.taskRecordRowMapper = new TaskRecordRowMapper(queueTableSchema);
     }
 
     @Nullable
@@ -56,11 +60,36 @@ public class Oracle11QueuePickTaskDao implements QueuePickTaskDao {
     public TaskRecord pickTask(@Nonnull QueueLocation location) {
         PickTaskCallableStatement pickTaskStatement = new PickTaskCallableStatement(queueTableSchema, location, pickTaskSettings);
 
-        return jdbcTemplate.execute(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql), pickTaskStatement);
+        return database.call(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql), pickTaskStatement);
+    }
+
+    @Nonnull
+    @Override
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    public List<TaskRecord> pickTasks(@Nonnull QueueLocation location, int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive: maxBatch=" + maxBatch);
+        }
+        PickTasksCallableStatement pickTasksStatement = new PickTasksCallableStatement(taskRecordRowMapper, location,
+                pickTaskSettings, maxBatch);
+
+        return database.call(pickTasksSqlCache.computeIfAbsent(location, this::createPickTasksSql), pickTasksStatement);
     }
 
+    @Override
+    @Nullable
+    @SuppressFBWarnings("SQL_INJECTION_SPRING_JDBC")
+    public Duration getNextTaskDelay(@Nonnull QueueLocation location) {
+        Objects.requireNonNull(location);
+        Long delayMillis = database.selectOne(
+                nextTaskDelaySqlCache.computeIfAbsent(location, this::createNextTaskDelaySql),
+                new Object[]{location.getQueueId().asString()},
+                Long.class);
+        return delayMillis == null ? null : Duration.ofMillis(delayMillis);
+    }
 
-    private static class PickTaskCallableStatement implements CallableStatementCallback<TaskRecord> {
+
+    private static class PickTaskCallableStatement implements Database.CallableStatementMapper<TaskRecord> {
 
         private final QueueLocation queueLocation;
         private final PickTaskSettings pickTaskSettings;
@@ -75,7 +104,7 @@ public class Oracle11QueuePickTaskDao implements QueuePickTaskDao {
         }
 
         @Override
-        public TaskRecord doInCallableStatement(CallableStatement cs) throws SQLException, DataAccessException {
+        public TaskRecord mapToObject(CallableStatement cs) throws SQLException {
             int inputIndex = 1;
             cs.setString(inputIndex++, queueLocation.getQueueId().asString());
             cs.setLong(inputIndex++, pickTaskSettings.getRetryInterval().getSeconds());
@@ -119,15 +148,53 @@ public class Oracle11QueuePickTaskDao implements QueuePickTaskDao {
         }
     }
 
+    private static class PickTasksCallableStatement implements Database.CallableStatementMapper<List<TaskRecord>> {
+
+        private final QueueLocation queueLocation;
+        private final PickTaskSettings pickTaskSettings;
+        private final TaskRecordRowMapper taskRecordRowMapper;
+        private final int maxBatch;
+
+        PickTasksCallableStatement(TaskRecordRowMapper taskRecordRowMapper,
+                                   QueueLocation queueLocation,
+                                   PickTaskSettings pickTaskSettings,
+                                   int maxBatch) {
+            this.queueLocation = queueLocation;
+            this.pickTaskSettings = pickTaskSettings;
+            this.taskRecordRowMapper = taskRecordRowMapper;
+            this.maxBatch = maxBatch;
+        }
+
+        @Override
+        public List<TaskRecord> mapToObject(CallableStatement cs) throws SQLException {
+            int inputIndex = 1;
+            cs.setString(inputIndex++, queueLocation.getQueueId().asString());
+            cs.setInt(inputIndex++, maxBatch);
+            cs.setLong(inputIndex++, pickTaskSettings.getRetryInterval().getSeconds());
+            int cursorIndex = inputIndex;
+            cs.registerOutParameter(cursorIndex, Types.REF_CURSOR);
+
+            cs.execute();
+
+            List<TaskRecord> taskRecords = new ArrayList<>(maxBatch);
+            try (ResultSet rs = cs.getObject(cursorIndex, ResultSet.class)) {
+                while (rs.next()) {
+                    taskRecords.add(taskRecordRowMapper.mapToObject(rs));
+                }
+            }
+            return taskRecords;
+        }
+    }
+
 
     @Nonnull
-    private String getNextProcessTimeSql(@Nonnull TaskRetryType taskRetryType) {
+    private String getNextProcessTimeSql(@Nonnull TaskRetryType taskRetryType, @Nonnull String attempt) {
         Objects.requireNonNull(taskRetryType);
         switch (taskRetryType) {
             case GEOMETRIC_BACKOFF:
-                return "CURRENT_TIMESTAMP + power(2, " + "rattempt) * ? * (INTERVAL '1' SECOND)";
+                return "CURRENT_TIMESTAMP + power(2, " + attempt + ") * ? * (INTERVAL '1' SECOND)";
             case ARITHMETIC_BACKOFF:
-                return "CURRENT_TIMESTAMP + (1 + (" + "rattempt * 2)) * ? * (INTERVAL '1' SECOND)";
+                return "CURRENT_TIMESTAMP + (1 + (" + attempt + " * 2)) * ? * (INTERVAL '1' SECOND)";
             case LINEAR_BACKOFF:
                 return "CURRENT_TIMESTAMP + ? * (INTERVAL '1' SECOND)";
             default:
@@ -161,9 +228,11 @@ public class Oracle11QueuePickTaskDao implements QueuePickTaskDao {
         );
         cursorSelect.append(queueTableSchema.getNextProcessAtField()).append(" ");
 
-        final String fetchCursor = " FROM " + queueLocation.getTableName() + " "
+        final String fetchCursor = " FROM " + queueLocation.getTableName() + " t "
                 + " WHERE " + queueTableSchema.getQueueNameField() + " = ? AND "
                 + queueTableSchema.getNextProcessAtField() + " <= CURRENT_TIMESTAMP"
+                + OrderingKeySql.createCondition(queueTableSchema, queueLocation.getTableName())
+                + createOrderBySql()
                 + " FOR UPDATE SKIP LOCKED;"
                 + " BEGIN \n"
                 + " OPEN c; \n"
@@ -183,7 +252,7 @@ public class Oracle11QueuePickTaskDao implements QueuePickTaskDao {
                 + " END IF\n;"
                 + " CLOSE c;\n"
                 + " IF (rid > 0) THEN \n"
-                + " rnext_process_at := " + getNextProcessTimeSql(pickTaskSettings.getRetryType()) + ";\n"
+                + " rnext_process_at := " + getNextProcessTimeSql(pickTaskSettings.getRetryType(), "rattempt") + ";\n"
                 + " rattempt := rattempt + 1;\n"
                 + " rtotal_attempt := rtotal_attempt + 1;\n"
                 + "   UPDATE " + queueLocation.getTableName() + " SET " +
@@ -205,4 +274,53 @@ public class Oracle11QueuePickTaskDao implements QueuePickTaskDao {
         return declaration.toString() + cursorSelect + fetchCursor + fetchParams + updateSql + returnParams;
     }
 
+    private String createPickTasksSql(QueueLocation queueLocation) {
+        StringBuilder selectFields = new StringBuilder(
+                queueTableSchema.getIdField() + ", " +
+                        queueTableSchema.getPayloadField() + ", " +
+                        queueTableSchema.getAttemptField() + ", " +
+                        queueTableSchema.getReenqueueAttemptField() + ", " +
+                        queueTableSchema.getTotalAttemptField() + ", " +
+                        queueTableSchema.getCreatedAtField() + ", " +
+                        queueTableSchema.getNextProcessAtField());
+        queueTableSchema.getExtFields().forEach(field -> selectFields.append(", ").append(field));
+
+        return "DECLARE\n"
+                + " rids sys.odcinumberlist;\n"
+                + " CURSOR c IS SELECT " + queueTableSchema.getIdField()
+                + " FROM " + queueLocation.getTableName() + " t "
+                + " WHERE " + queueTableSchema.getQueueNameField() + " = ? AND "
+                + queueTableSchema.getNextProcessAtField() + " <= CURRENT_TIMESTAMP"
+                + OrderingKeySql.createCondition(queueTableSchema, queueLocation.getTableName())
+                + createOrderBySql()
+                + " FOR UPDATE SKIP LOCKED;\n"
+                + " BEGIN \n"
+                + " OPEN c; \n"
+                + " FETCH c BULK COLLECT INTO rids LIMIT ?;\n"
+                + " CLOSE c;\n"
+                + " FORALL i IN 1 .. rids.COUNT \n"
+                + "   UPDATE " + queueLocation.getTableName() + " SET " +
+                queueTableSchema.getNextProcessAtField() + " = " +
+                getNextProcessTimeSql(pickTaskSettings.getRetryType(), queueTableSchema.getAttemptField()) + ", " +
+                queueTableSchema.getAttemptField() + " = " + queueTableSchema.getAttemptField() + " + 1, " +
+                queueTableSchema.getTotalAttemptField() + " = " + queueTableSchema.getTotalAttemptField() + " + 1" +
+                " WHERE " + queueTableSchema.getIdField() + " = rids(i);\n"
+                + " OPEN ? FOR SELECT " + selectFields + " FROM " + queueLocation.getTableName()
+                + " WHERE " + queueTableSchema.getIdField() + " IN (SELECT column_value FROM TABLE(rids));\n"
+                + " END; ";
+    }
+
+    private String createOrderBySql() {
+        return queueTableSchema.getPriorityField()
+                .map(field -> " ORDER BY " + field + " DESC, " + queueTableSchema.getNextProcessAtField())
+                .orElse("");
+    }
+
+    private String createNextTaskDelaySql(@Nonnull QueueLocation location) {
+        return "SELECT EXTRACT(DAY FROM d) * 86400000 + EXTRACT(HOUR FROM d) * 3600000 + " +
+                "EXTRACT(MINUTE FROM d) * 60000 + ROUND(EXTRACT(SECOND FROM d) * 1000) " +
+                "FROM (SELECT MIN(" + queueTableSchema.getNextProcessAtField() + ") - CURRENT_TIMESTAMP d " +
+                "FROM " + location.getTableName() + " " +
+                "WHERE " + queueTableSchema.getQueueNameField() + " = ?)";
+    }
 }
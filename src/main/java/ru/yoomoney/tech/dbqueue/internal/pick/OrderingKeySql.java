@@ -0,0 +1,44 @@
+package ru.yoomoney.tech.dbqueue.internal.pick;
+
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+
+import javax.annotation.Nonnull;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Условие выборки задач с ключом упорядочивания, общее для всех баз данных
+ *
+ * @since 17.10.2026
+ */
+final class OrderingKeySql {
+
+    private OrderingKeySql() {
+    }
+
+    /**
+     * Создать условие выборки только самой старой задачи ключа упорядочивания.
+     * Более старые задачи ключа остаются в таблице, пока обрабатываются,
+     * поэтому задачи с одним ключом никогда не выбираются одновременно.
+     * Завершенная задача также блокирует ключ до удаления, при асинхронном подтверждении
+     * следующая задача ключа выбирается только после сброса буфера подтверждений.
+     * Выбираемая задача должна быть доступна по псевдониму {@code t}.
+     *
+     * @param queueTableSchema схема таблицы очередей
+     * @param tableName        имя таблицы очередей
+     * @return условие, начинающееся с {@code AND}, или пустая строка, если ключ упорядочивания не задан
+     */
+    @Nonnull
+    static String createCondition(@Nonnull QueueTableSchema queueTableSchema, @Nonnull String tableName) {
+        requireNonNull(queueTableSchema);
+        requireNonNull(tableName);
+        String queueNameField = queueTableSchema.getQueueNameField();
+        String idField = queueTableSchema.getIdField();
+        return queueTableSchema.getOrderingKeyField()
+                .map(field -> " AND NOT EXISTS (SELECT 1 FROM " + tableName + " o " +
+                        "WHERE o." + queueNameField + " = t." + queueNameField +
+                        " AND o." + field + " = t." + field +
+                        " AND o." + idField + " < t." + idField + ")")
+                .orElse("");
+    }
+}
@@ -4,7 +4,9 @@ import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.time.Duration;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
@@ -18,31 +20,66 @@ public class PickTaskSettings {
     @Nonnull
     private final TaskRetryType retryType;
     @Nonnull
-    private final Duration retryInterval;
+    private final Supplier<Duration> retryInterval;
+    @Nullable
+    private final Duration leaseTime;
 
     public PickTaskSettings(@Nonnull TaskRetryType retryType,
                             @Nonnull Duration retryInterval) {
+        requireNonNull(retryInterval);
+        this.retryType = requireNonNull(retryType);
+        this.retryInterval = () -> retryInterval;
+        this.leaseTime = null;
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param retryType     стратегия повтора задачи
+     * @param retryInterval поставщик интервала повтора задачи,
+     *                      значение запрашивается при каждой выборке и может меняться без перезапуска очереди
+     */
+    public PickTaskSettings(@Nonnull TaskRetryType retryType,
+                            @Nonnull Supplier<Duration> retryInterval) {
+        this(retryType, retryInterval, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param retryType     стратегия повтора задачи
+     * @param retryInterval поставщик интервала повтора задачи,
+     *                      значение запрашивается при каждой выборке и может меняться без перезапуска очереди
+     * @param leaseTime     настройка {@link QueueSettings#getLeaseTime()},
+     *                      если задана, то выбранная задача откладывается на время аренды
+     */
+    public PickTaskSettings(@Nonnull TaskRetryType retryType,
+                            @Nonnull Supplier<Duration> retryInterval,
+                            @Nullable Duration leaseTime) {
         this.retryType = requireNonNull(retryType);
         this.retryInterval = requireNonNull(retryInterval);
+        this.leaseTime = leaseTime;
     }
 
     /**
-     * Настройка {@link QueueSettings#getRetryType()}
+     * Стратегия откладывания выбранной задачи: настройка {@link QueueSettings#getRetryType()},
+     * либо линейная стратегия, если задано время аренды
      *
-     * @return значение настройки
+     * @return стратегия откладывания
      */
     @Nonnull
     TaskRetryType getRetryType() {
-        return retryType;
+        return leaseTime == null ? retryType : TaskRetryType.LINEAR_BACKOFF;
     }
 
     /**
-     * Настройка {@link QueueSettings#getRetryInterval()}
+     * Интервал откладывания выбранной задачи: настройка {@link QueueSettings#getRetryInterval()},
+     * либо время аренды, если оно задано
      *
-     * @return значение настройки
+     * @return интервал откладывания
      */
     @Nonnull
     Duration getRetryInterval() {
-        return retryInterval;
+        return leaseTime == null ? requireNonNull(retryInterval.get()) : leaseTime;
     }
 }
@@ -1,6 +1,5 @@
 package ru.yoomoney.tech.dbqueue.internal.pick;
 
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
 import ru.yoomoney.tech.dbqueue.dao.Database;
@@ -9,12 +8,8 @@ import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,9 +26,12 @@ import static java.util.Objects.requireNonNull;
 public class PostgresQueuePickTaskDao implements QueuePickTaskDao {
 
     private final Map<QueueLocation, String> pickTaskSqlCache = new ConcurrentHashMap<>();
+    private final Map<QueueLocation, String> nextTaskDelaySqlCache = new ConcurrentHashMap<>();
+    private final Map<String, String> pickGroupTasksSqlCache = new ConcurrentHashMap<>();
 
     private final QueueTableSchema queueTableSchema;
     private final PickTaskSettings pickTaskSettings;
+    private final TaskRecordRowMapper taskRecordRowMapper;
     private final Database database;
 
     /**
@@ -47,54 +45,84 @@ public class PostgresQueuePickTaskDao implements QueuePickTaskDao {
         this.database = database;
         this.queueTableSchema = requireNonNull(queueTableSchema);
         this.pickTaskSettings = requireNonNull(pickTaskSettings);
+        this.taskRecordRowMapper = new TaskRecordRowMapper(queueTableSchema);
     }
 
     @Override
     @Nullable
     public TaskRecord pickTask(@Nonnull QueueLocation location) {
         requireNonNull(location);
-        Map<String, Object> placeholders = new HashMap<String, Object>() {
-            {
-                put("queueName", location.getQueueId().asString());
-                put("retryInterval", pickTaskSettings.getRetryInterval().getSeconds());
-            }
-        };
-
         return database.selectOne(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql),
-                placeholders,
-                rs -> {
-                    Map<String, String> additionalData = new LinkedHashMap<>();
-                    queueTableSchema.getExtFields().forEach(key -> {
-                        try {
-                            additionalData.put(key, rs.getString(key));
-                        }
-                        catch (SQLException e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
-                    return TaskRecord.builder()
-                            .withId(rs.getLong(queueTableSchema.getIdField()))
-                            .withCreatedAt(getZonedDateTime(rs, queueTableSchema.getCreatedAtField()))
-                            .withNextProcessAt(getZonedDateTime(rs, queueTableSchema.getNextProcessAtField()))
-                            .withPayload(rs.getString(queueTableSchema.getPayloadField()))
-                            .withAttemptsCount(rs.getLong(queueTableSchema.getAttemptField()))
-                            .withReenqueueAttemptsCount(rs.getLong(queueTableSchema.getReenqueueAttemptField()))
-                            .withTotalAttemptsCount(rs.getLong(queueTableSchema.getTotalAttemptField()))
-                            .withExtData(additionalData).build();
-                }
-        );
+                createParams(location, 1),
+                taskRecordRowMapper);
+    }
+
+    @Override
+    @Nonnull
+    public List<TaskRecord> pickTasks(@Nonnull QueueLocation location, int maxBatch) {
+        requireNonNull(location);
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive: maxBatch=" + maxBatch);
+        }
+        return database.selectMany(pickTaskSqlCache.computeIfAbsent(location, this::createPickTaskSql),
+                createParams(location, maxBatch),
+                taskRecordRowMapper);
+    }
+
+    @Override
+    @Nonnull
+    public Map<QueueLocation, List<TaskRecord>> pickGroupTasks(@Nonnull List<QueueLocation> locations, int maxBatch) {
+        String tableName = QueueGroupTasks.getTableName(locations, maxBatch);
+        return QueueGroupTasks.pickTasks(database,
+                pickGroupTasksSqlCache.computeIfAbsent(tableName, this::createPickGroupTasksSql),
+                new Object[]{toTextArray(locations), maxBatch, pickTaskSettings.getRetryInterval().getSeconds()},
+                locations, taskRecordRowMapper);
+    }
+
+    @Override
+    @Nullable
+    public Duration getNextTaskDelay(@Nonnull QueueLocation location) {
+        requireNonNull(location);
+        Long delayMillis = database.selectOne(
+                nextTaskDelaySqlCache.computeIfAbsent(location, this::createNextTaskDelaySql),
+                new Object[]{location.getQueueId().asString()},
+                Long.class);
+        return delayMillis == null ? null : Duration.ofMillis(delayMillis);
+    }
+
+    private Object[] createParams(@Nonnull QueueLocation location, int maxBatch) {
+        return new Object[]{location.getQueueId().asString(), maxBatch,
+                pickTaskSettings.getRetryInterval().getSeconds()};
+    }
+
+    @Nonnull
+    private static String toTextArray(@Nonnull List<QueueLocation> locations) {
+        return locations.stream()
+                .map(location -> location.getQueueId().asString().replace("\\", "\\\\").replace("\"", "\\\""))
+                .collect(Collectors.joining("\",\"", "{\"", "\"}"));
     }
 
     private String createPickTaskSql(@Nonnull QueueLocation location) {
+        return createPickTaskSql(location.getTableName(), " = ? ", "");
+    }
+
+    private String createPickGroupTasksSql(@Nonnull String tableName) {
+        return createPickTaskSql(tableName, " = ANY(?::text[]) ", ", q." + queueTableSchema.getQueueNameField());
+    }
+
+    private String createPickTaskSql(@Nonnull String tableName, @Nonnull String queueNameCondition,
+                                     @Nonnull String returningSuffix) {
         return "WITH cte AS (" +
                 "SELECT " + queueTableSchema.getIdField() + " " +
-                "FROM " + location.getTableName() + " " +
-                "WHERE " + queueTableSchema.getQueueNameField() + " = :queueName " +
+                "FROM " + tableName + " t " +
+                "WHERE " + queueTableSchema.getQueueNameField() + queueNameCondition +
                 "  AND " + queueTableSchema.getNextProcessAtField() + " <= now() " +
-                " ORDER BY " + queueTableSchema.getNextProcessAtField() + " ASC " +
-                "LIMIT 1 " +
+                OrderingKeySql.createCondition(queueTableSchema, tableName) +
+                " ORDER BY " + queueTableSchema.getPriorityField().map(field -> field + " DESC, ").orElse("") +
+                queueTableSchema.getNextProcessAtField() + " ASC " +
+                "LIMIT ? " +
                 "FOR UPDATE SKIP LOCKED) " +
-                "UPDATE " + location.getTableName() + " q " +
+                "UPDATE " + tableName + " q " +
                 "SET " +
                 "  " + queueTableSchema.getNextProcessAtField() + " = " +
                 getNextProcessTimeSql(pickTaskSettings.getRetryType(), queueTableSchema) + ", " +
@@ -110,26 +138,29 @@ public class PostgresQueuePickTaskDao implements QueuePickTaskDao {
                 "q." + queueTableSchema.getCreatedAtField() + ", " +
                 "q." + queueTableSchema.getNextProcessAtField() +
                 (queueTableSchema.getExtFields().isEmpty() ? "" : queueTableSchema.getExtFields().stream()
-                        .map(field -> "q." + field).collect(Collectors.joining(", ", ", ", "")));
-    }
-
-    private ZonedDateTime getZonedDateTime(ResultSet rs, String time) throws SQLException {
-        return ZonedDateTime.ofInstant(rs.getTimestamp(time).toInstant(), ZoneId.systemDefault());
+                        .map(field -> "q." + field).collect(Collectors.joining(", ", ", ", ""))) +
+                returningSuffix;
     }
 
-
     @Nonnull
     private String getNextProcessTimeSql(@Nonnull TaskRetryType taskRetryType, QueueTableSchema queueTableSchema) {
         Objects.requireNonNull(taskRetryType);
         switch (taskRetryType) {
             case GEOMETRIC_BACKOFF:
-                return "now() + power(2, " + queueTableSchema.getAttemptField() + ") * :retryInterval * INTERVAL '1 SECOND'";
+                return "now() + power(2, " + queueTableSchema.getAttemptField() + ") * ? * INTERVAL '1 SECOND'";
             case ARITHMETIC_BACKOFF:
-                return "now() + (1 + (" + queueTableSchema.getAttemptField() + " * 2)) * :retryInterval * INTERVAL '1 SECOND'";
+                return "now() + (1 + (" + queueTableSchema.getAttemptField() + " * 2)) * ? * INTERVAL '1 SECOND'";
             case LINEAR_BACKOFF:
-                return "now() + :retryInterval * INTERVAL '1 SECOND'";
+                return "now() + ? * INTERVAL '1 SECOND'";
             default:
                 throw new IllegalStateException("unknown retry type: " + taskRetryType);
         }
     }
+
+    private String createNextTaskDelaySql(@Nonnull QueueLocation location) {
+        return "SELECT CAST(EXTRACT(EPOCH FROM MIN(" + queueTableSchema.getNextProcessAtField() + ") - now()) * 1000 " +
+                "AS BIGINT) " +
+                "FROM " + location.getTableName() + " " +
+                "WHERE " + queueTableSchema.getQueueNameField() + " = ?";
+    }
 }
@@ -0,0 +1,80 @@
+package ru.yoomoney.tech.dbqueue.internal.pick;
+
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.dao.Database;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Вспомогательные методы выборки задач группы очередей одной таблицы
+ *
+ * @since 17.10.2026
+ */
+final class QueueGroupTasks {
+
+    private QueueGroupTasks() {
+    }
+
+    /**
+     * Проверить параметры выборки и получить таблицу очередей группы
+     *
+     * @param locations местоположения очередей группы
+     * @param maxBatch  максимальное количество выбираемых задач
+     * @return имя таблицы очередей
+     */
+    @Nonnull
+    static String getTableName(@Nonnull List<QueueLocation> locations, int maxBatch) {
+        requireNonNull(locations);
+        if (locations.isEmpty()) {
+            throw new IllegalArgumentException("locations must not be empty");
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("maxBatch must be positive: maxBatch=" + maxBatch);
+        }
+        String tableName = locations.get(0).getTableName();
+        for (QueueLocation location : locations) {
+            if (!tableName.equals(location.getTableName())) {
+                throw new IllegalArgumentException("queues of a group must be in the same table: " +
+                        "tableName=" + tableName + ", location=" + location);
+            }
+        }
+        return tableName;
+    }
+
+    /**
+     * Выбрать задачи группы очередей и разложить их по очередям
+     *
+     * @param database            база данных очередей
+     * @param sql                 запрос выборки, возвращающий имя очереди после дополнительных полей
+     * @param params              параметры запроса
+     * @param locations           местоположения очередей группы
+     * @param taskRecordRowMapper преобразование строки в задачу
+     * @return выбранные задачи по местоположению очереди
+     */
+    @Nonnull
+    static Map<QueueLocation, List<TaskRecord>> pickTasks(@Nonnull Database database,
+                                                          @Nonnull String sql,
+                                                          @Nonnull Object[] params,
+                                                          @Nonnull List<QueueLocation> locations,
+                                                          @Nonnull TaskRecordRowMapper taskRecordRowMapper) {
+        Map<String, QueueLocation> locationsByName = new HashMap<>();
+        locations.forEach(location -> locationsByName.put(location.getQueueId().asString(), location));
+        List<Map.Entry<QueueLocation, TaskRecord>> rows = database.selectMany(sql, params,
+                rs -> new AbstractMap.SimpleImmutableEntry<>(
+                        locationsByName.get(taskRecordRowMapper.mapQueueName(rs)),
+                        taskRecordRowMapper.mapToObject(rs)));
+        Map<QueueLocation, List<TaskRecord>> taskRecords = new LinkedHashMap<>();
+        rows.forEach(row -> taskRecords.computeIfAbsent(row.getKey(), location -> new ArrayList<>())
+                .add(row.getValue()));
+        return taskRecords;
+    }
+}
@@ -8,7 +8,11 @@ import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
@@ -29,6 +33,73 @@ public interface QueuePickTaskDao {
     @Nullable
     TaskRecord pickTask(@Nonnull QueueLocation location);
 
+    /**
+     * Select up to given number of tasks from the queue within a single query.
+     * <p>
+     * Default implementation selects tasks one by one until the queue has no ready tasks,
+     * database-specific DAOs select all the tasks within a single query.
+     *
+     * @param location queue location
+     * @param maxBatch maximum number of tasks to select
+     * @return tasks to process or empty list if none were found
+     */
+    @Nonnull
+    default List<TaskRecord> pickTasks(@Nonnull QueueLocation location, int maxBatch) {
+        List<TaskRecord> taskRecords = new ArrayList<>();
+        while (taskRecords.size() < maxBatch) {
+            TaskRecord taskRecord = pickTask(location);
+            if (taskRecord == null) {
+                break;
+            }
+            taskRecords.add(taskRecord);
+        }
+        return taskRecords;
+    }
+
+    /**
+     * Select up to given number of tasks from several queues of the same table.
+     * <p>
+     * Default implementation selects tasks from the queues one by one,
+     * database-specific DAOs select tasks of all the queues within a single query.
+     *
+     * @param locations locations of the queues, all the queues must be in the same table
+     * @param maxBatch  maximum number of tasks to select
+     * @return tasks to process by queue location, queues without tasks are absent
+     */
+    @Nonnull
+    default Map<QueueLocation, List<TaskRecord>> pickGroupTasks(@Nonnull List<QueueLocation> locations,
+                                                                int maxBatch) {
+        QueueGroupTasks.getTableName(locations, maxBatch);
+        Map<QueueLocation, List<TaskRecord>> taskRecords = new LinkedHashMap<>();
+        int remaining = maxBatch;
+        for (QueueLocation location : locations) {
+            List<TaskRecord> locationTaskRecords = pickTasks(location, remaining);
+            if (!locationTaskRecords.isEmpty()) {
+                taskRecords.put(location, locationTaskRecords);
+                remaining -= locationTaskRecords.size();
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return taskRecords;
+    }
+
+    /**
+     * Get time left until the earliest task in the queue is ready for processing.
+     * Time is measured by the database clock.
+     * <p>
+     * Default implementation does not query the database and returns null,
+     * so the queue waits for the whole no task timeout as without adaptive timeout.
+     *
+     * @param location queue location
+     * @return delay until the next task, zero or negative if there are ready tasks, or null if the queue is empty
+     */
+    @Nullable
+    default Duration getNextTaskDelay(@Nonnull QueueLocation location) {
+        return null;
+    }
+
     /**
      * Factory for creating database-specific DAOs for fetching queues
      */
@@ -0,0 +1,99 @@
+package ru.yoomoney.tech.dbqueue.internal.pick;
+
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.dao.Database;
+
+import javax.annotation.Nonnull;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Преобразование выбранной строки таблицы очереди в {@link TaskRecord} по номерам колонок.
+ * <p>
+ * Порядок колонок задаётся запросами выборки задач:
+ * id, payload, attempt, reenqueue_attempt, total_attempt, created_at, next_process_at
+ * и затем дополнительные поля в порядке {@link QueueTableSchema#getExtFields()}.
+ *
+ * @since 17.10.2026
+ */
+final class TaskRecordRowMapper implements Database.RowMapper<TaskRecord> {
+
+    private static final int ID_INDEX = 1;
+    private static final int PAYLOAD_INDEX = 2;
+    private static final int ATTEMPT_INDEX = 3;
+    private static final int REENQUEUE_ATTEMPT_INDEX = 4;
+    private static final int TOTAL_ATTEMPT_INDEX = 5;
+    private static final int CREATED_AT_INDEX = 6;
+    private static final int NEXT_PROCESS_AT_INDEX = 7;
+    private static final int FIRST_EXT_FIELD_INDEX = 8;
+
+    @Nonnull
+    private final String[] extFields;
+    private final int extDataCapacity;
+
+    /**
+     * Конструктор
+     *
+     * @param queueTableSchema схема таблицы очереди
+     */
+    TaskRecordRowMapper(@Nonnull QueueTableSchema queueTableSchema) {
+        this.extFields = requireNonNull(queueTableSchema).getExtFields().toArray(new String[0]);
+        this.extDataCapacity = (int) (extFields.length / 0.75f) + 1;
+    }
+
+    @Override
+    public TaskRecord mapToObject(ResultSet rs) throws SQLException {
+        ZoneId zoneId = ZoneId.systemDefault();
+        return TaskRecord.builder()
+                .withId(rs.getLong(ID_INDEX))
+                .withPayload(rs.getString(PAYLOAD_INDEX))
+                .withAttemptsCount(rs.getLong(ATTEMPT_INDEX))
+                .withReenqueueAttemptsCount(rs.getLong(REENQUEUE_ATTEMPT_INDEX))
+                .withTotalAttemptsCount(rs.getLong(TOTAL_ATTEMPT_INDEX))
+                .withCreatedAt(toZonedDateTime(rs.getTimestamp(CREATED_AT_INDEX), zoneId))
+                .withNextProcessAt(toZonedDateTime(rs.getTimestamp(NEXT_PROCESS_AT_INDEX), zoneId))
+                .withExtData(getExtData(rs))
+                .build();
+    }
+
+    /**
+     * Получить имя очереди выбранной задачи.
+     * <p>
+     * Используется при выборке задач группы очередей,
+     * имя очереди выбирается колонкой, следующей за дополнительными полями.
+     *
+     * @param rs строка выборки
+     * @return имя очереди
+     * @throws SQLException ошибка чтения колонки
+     */
+    @Nonnull
+    String mapQueueName(@Nonnull ResultSet rs) throws SQLException {
+        return rs.getString(FIRST_EXT_FIELD_INDEX + extFields.length);
+    }
+
+    @Nonnull
+    private Map<String, String> getExtData(@Nonnull ResultSet rs) throws SQLException {
+        if (extFields.length == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> extData = new LinkedHashMap<>(extDataCapacity);
+        for (int i = 0; i < extFields.length; i++) {
+            extData.put(extFields[i], rs.getString(FIRST_EXT_FIELD_INDEX + i));
+        }
+        return extData;
+    }
+
+    @Nonnull
+    private static ZonedDateTime toZonedDateTime(@Nonnull Timestamp timestamp, @Nonnull ZoneId zoneId) {
+        return ZonedDateTime.ofInstant(timestamp.toInstant(), zoneId);
+    }
+}
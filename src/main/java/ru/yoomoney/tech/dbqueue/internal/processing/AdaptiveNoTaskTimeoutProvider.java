@@ -0,0 +1,111 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.internal.pick.QueuePickTaskDao;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Поставщик времени ожидания, подстраивающийся под время готовности ближайшей задачи в очереди.
+ * <p>
+ * Время ожидания ограничено сверху {@link QueueSettings#getNoTaskTimeout()}.
+ * Вычисленное время пробуждения разделяется между всеми потоками очереди на шарде,
+ * поэтому запрос в БД выполняется не чаще одного раза за период ожидания.
+ * Время пробуждения сбрасывается при {@link #reset()}, чтобы разбуженный поток
+ * не засыпал повторно до устаревшего срока.
+ * Если в очереди есть готовые, но заблокированные другими транзакциями задачи,
+ * то используется {@link QueueSettings#getNoTaskTimeout()}.
+ *
+ * @since 17.10.2026
+ */
+@SuppressWarnings("rawtypes")
+public class AdaptiveNoTaskTimeoutProvider implements NoTaskTimeoutProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveNoTaskTimeoutProvider.class);
+
+    @Nonnull
+    private final QueueShard queueShard;
+    @Nonnull
+    private final QueuePickTaskDao pickTaskDao;
+    @Nonnull
+    private final MillisTimeProvider millisTimeProvider;
+
+    private volatile long wakeupTime = Long.MIN_VALUE;
+    private long resetCount;
+
+    /**
+     * Конструктор
+     *
+     * @param queueShard         шард, на котором происходит обработка задач
+     * @param pickTaskDao        dao для выборки задач
+     * @param millisTimeProvider поставщик текущего времени
+     */
+    public AdaptiveNoTaskTimeoutProvider(@Nonnull QueueShard queueShard,
+                                         @Nonnull QueuePickTaskDao pickTaskDao,
+                                         @Nonnull MillisTimeProvider millisTimeProvider) {
+        this.queueShard = requireNonNull(queueShard);
+        this.pickTaskDao = requireNonNull(pickTaskDao);
+        this.millisTimeProvider = requireNonNull(millisTimeProvider);
+    }
+
+    @Nonnull
+    @Override
+    public Duration getNoTaskTimeout(@Nonnull QueueConsumer queueConsumer) {
+        requireNonNull(queueConsumer);
+        long now = millisTimeProvider.getMillis();
+        long cachedWakeupTime = wakeupTime;
+        if (now < cachedWakeupTime) {
+            return Duration.ofMillis(cachedWakeupTime - now);
+        }
+        long observedResetCount = getResetCount();
+        Duration noTaskTimeout = queueConsumer.getQueueConfig().getSettings().getNoTaskTimeout();
+        Duration timeout = getNextTaskDelay(queueConsumer, noTaskTimeout);
+        updateWakeupTime(observedResetCount, now + timeout.toMillis());
+        return timeout;
+    }
+
+    @Override
+    public synchronized void reset() {
+        resetCount++;
+        wakeupTime = Long.MIN_VALUE;
+    }
+
+    private synchronized long getResetCount() {
+        return resetCount;
+    }
+
+    /**
+     * Сохранить время пробуждения, если после запроса в БД не было сброса,
+     * иначе вычисленное время могло устареть
+     */
+    private synchronized void updateWakeupTime(long observedResetCount, long newWakeupTime) {
+        if (observedResetCount == resetCount) {
+            wakeupTime = newWakeupTime;
+        }
+    }
+
+    @Nonnull
+    private Duration getNextTaskDelay(@Nonnull QueueConsumer queueConsumer, @Nonnull Duration noTaskTimeout) {
+        Duration nextTaskDelay;
+        try {
+            nextTaskDelay = queueShard.transact(() ->
+                    pickTaskDao.getNextTaskDelay(queueConsumer.getQueueConfig().getLocation()));
+        } catch (RuntimeException exc) {
+            log.warn("cannot get next task delay: location={}, shardId={}",
+                    queueConsumer.getQueueConfig().getLocation(), queueShard.getShardId(), exc);
+            return noTaskTimeout;
+        }
+        if (nextTaskDelay == null || nextTaskDelay.isNegative() || nextTaskDelay.isZero()
+                || nextTaskDelay.compareTo(noTaskTimeout) > 0) {
+            return noTaskTimeout;
+        }
+        return nextTaskDelay;
+    }
+}
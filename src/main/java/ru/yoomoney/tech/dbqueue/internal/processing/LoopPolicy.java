@@ -5,6 +5,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Вспомогательный класс, для задания стратегии
@@ -53,12 +57,17 @@ public interface LoopPolicy {
 
     /**
      * Cтратегия выполнения задачи в потоке
+     * <p>
+     * Использует {@link ReentrantLock} вместо монитора объекта,
+     * чтобы ожидание в виртуальных потоках не блокировало поток-носитель.
      */
     @SuppressFBWarnings("LO_SUSPECT_LOG_CLASS")
     class WakeupLoopPolicy implements LoopPolicy {
         private static final Logger log = LoggerFactory.getLogger(LoopPolicy.class);
 
-        private final Object monitor = new Object();
+        private final Lock lock = new ReentrantLock();
+        private final Condition wakeupCondition = lock.newCondition();
+        private final Condition unpauseCondition = lock.newCondition();
         private volatile boolean isWakedUp = false;
         private volatile boolean isPaused = true;
 
@@ -66,10 +75,13 @@ public interface LoopPolicy {
         public void doRun(Runnable runnable) {
             while (!Thread.currentThread().isInterrupted()) {
                 try {
-                    synchronized (monitor) {
+                    lock.lockInterruptibly();
+                    try {
                         while (isPaused) {
-                            monitor.wait();
+                            unpauseCondition.await();
                         }
+                    } finally {
+                        lock.unlock();
                     }
                     runnable.run();
                 } catch (InterruptedException ignored) {
@@ -82,21 +94,25 @@ public interface LoopPolicy {
 
         @Override
         public void doContinue() {
-            synchronized (monitor) {
+            lock.lock();
+            try {
                 isWakedUp = true;
-                monitor.notify();
+                wakeupCondition.signal();
+            } finally {
+                lock.unlock();
             }
         }
 
         @Override
         public void doWait(Duration timeout, WaitInterrupt waitInterrupt) {
             try {
-                synchronized (monitor) {
+                lock.lockInterruptibly();
+                try {
                     long plannedWakeupTime = System.currentTimeMillis() + timeout.toMillis();
                     long timeToSleep = plannedWakeupTime - System.currentTimeMillis();
                     while (timeToSleep > 1L) {
                         if (!isWakedUp) {
-                            monitor.wait(timeToSleep);
+                            wakeupCondition.await(timeToSleep, TimeUnit.MILLISECONDS);
                         }
                         if (isWakedUp && waitInterrupt == WaitInterrupt.ALLOW) {
                             break;
@@ -107,6 +123,8 @@ public interface LoopPolicy {
                         timeToSleep = plannedWakeupTime - System.currentTimeMillis();
                     }
                     isWakedUp = false;
+                } finally {
+                    lock.unlock();
                 }
             } catch (InterruptedException ignored) {
                 log.info("sleep interrupted: threadName={}", Thread.currentThread().getName());
@@ -126,9 +144,12 @@ public interface LoopPolicy {
 
         @Override
         public void unpause() {
-            synchronized (monitor) {
+            lock.lock();
+            try {
                 isPaused = false;
-                monitor.notifyAll();
+                unpauseCondition.signalAll();
+            } finally {
+                lock.unlock();
             }
         }
     }
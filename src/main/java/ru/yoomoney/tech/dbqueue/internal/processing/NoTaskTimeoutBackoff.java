@@ -0,0 +1,67 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.function.DoubleSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Экспоненциальное увеличение времени ожидания при отсутствии задач в очереди.
+ * <p>
+ * Время ожидания после первой пустой выборки равно {@link QueueSettings#getInitialNoTaskTimeout()},
+ * удваивается после каждой следующей пустой выборки до максимального времени ожидания
+ * и сбрасывается после выборки задачи.
+ * Время ожидания случайно уменьшается не более чем в два раза,
+ * чтобы одновременно запущенные потоки очереди не обращались к базе данных в одни и те же моменты.
+ * <p>
+ * Хранит состояние одного потока, не является потокобезопасным.
+ *
+ * @since 17.10.2026
+ */
+class NoTaskTimeoutBackoff {
+
+    @Nonnull
+    private final DoubleSupplier randomSupplier;
+    @Nullable
+    private Duration currentTimeout;
+
+    /**
+     * Конструктор
+     *
+     * @param randomSupplier поставщик случайных чисел в диапазоне [0, 1)
+     */
+    NoTaskTimeoutBackoff(@Nonnull DoubleSupplier randomSupplier) {
+        this.randomSupplier = requireNonNull(randomSupplier);
+    }
+
+    /**
+     * Получить время ожидания после очередной пустой выборки
+     *
+     * @param initialTimeout начальное время ожидания
+     * @param maxTimeout     максимальное время ожидания
+     * @return время ожидания
+     */
+    @Nonnull
+    Duration nextTimeout(@Nonnull Duration initialTimeout, @Nonnull Duration maxTimeout) {
+        Duration timeout = currentTimeout == null ? initialTimeout : currentTimeout.multipliedBy(2L);
+        if (timeout.compareTo(maxTimeout) > 0) {
+            timeout = maxTimeout;
+        }
+        currentTimeout = timeout;
+        long timeoutMillis = timeout.toMillis();
+        long jitterMillis = timeoutMillis / 2;
+        return Duration.ofMillis(timeoutMillis - jitterMillis +
+                (long) (jitterMillis * randomSupplier.getAsDouble()));
+    }
+
+    /**
+     * Сбросить время ожидания до начального после выборки задачи
+     */
+    void reset() {
+        currentTimeout = null;
+    }
+}
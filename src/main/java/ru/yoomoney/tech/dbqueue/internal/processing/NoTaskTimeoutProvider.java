@@ -0,0 +1,45 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+
+/**
+ * Поставщик времени ожидания перед следующей выборкой, когда в очереди нет задач для обработки.
+ *
+ * @since 17.10.2026
+ */
+@FunctionalInterface
+@SuppressWarnings("rawtypes")
+public interface NoTaskTimeoutProvider {
+
+    /**
+     * Получить время ожидания перед следующей выборкой задач
+     *
+     * @param queueConsumer очередь, в которой отсутствуют задачи
+     * @return время ожидания
+     */
+    @Nonnull
+    Duration getNoTaskTimeout(@Nonnull QueueConsumer queueConsumer);
+
+    /**
+     * Сбросить ранее вычисленное время ожидания.
+     * Вызывается, когда в очереди могли появиться задачи, готовые к обработке.
+     */
+    default void reset() {
+    }
+
+    /**
+     * Поставщик фиксированного времени ожидания {@link QueueSettings#getNoTaskTimeout()}
+     */
+    class FixedNoTaskTimeoutProvider implements NoTaskTimeoutProvider {
+
+        @Nonnull
+        @Override
+        public Duration getNoTaskTimeout(@Nonnull QueueConsumer queueConsumer) {
+            return queueConsumer.getQueueConfig().getSettings().getNoTaskTimeout();
+        }
+    }
+}
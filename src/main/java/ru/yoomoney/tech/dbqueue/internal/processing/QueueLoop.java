@@ -4,8 +4,13 @@ import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
 import ru.yoomoney.tech.dbqueue.config.QueueShardId;
 import ru.yoomoney.tech.dbqueue.config.ThreadLifecycleListener;
 import ru.yoomoney.tech.dbqueue.internal.runner.QueueRunner;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Objects.requireNonNull;
 
@@ -24,6 +29,12 @@ public class QueueLoop {
     private final ThreadLifecycleListener threadLifecycleListener;
     @Nonnull
     private final MillisTimeProvider millisTimeProvider;
+    @Nonnull
+    private final NoTaskTimeoutProvider noTaskTimeoutProvider;
+    @Nullable
+    private final TaskRateLimiter rateLimiter;
+    @Nonnull
+    private final AtomicInteger pendingStopCount = new AtomicInteger();
 
     /**
      * Конструктор
@@ -35,20 +46,63 @@ public class QueueLoop {
     public QueueLoop(@Nonnull LoopPolicy loopPolicy,
                      @Nonnull ThreadLifecycleListener threadLifecycleListener,
                      @Nonnull MillisTimeProvider millisTimeProvider) {
+        this(loopPolicy, threadLifecycleListener, millisTimeProvider,
+                new NoTaskTimeoutProvider.FixedNoTaskTimeoutProvider());
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param loopPolicy              стратегия выполнения цикла
+     * @param threadLifecycleListener слушатель событий исполнения очереди
+     * @param millisTimeProvider      поставщик текущего времени
+     * @param noTaskTimeoutProvider   поставщик времени ожидания при отсутствии задач
+     */
+    public QueueLoop(@Nonnull LoopPolicy loopPolicy,
+                     @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                     @Nonnull MillisTimeProvider millisTimeProvider,
+                     @Nonnull NoTaskTimeoutProvider noTaskTimeoutProvider) {
+        this(loopPolicy, threadLifecycleListener, millisTimeProvider, noTaskTimeoutProvider, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param loopPolicy              стратегия выполнения цикла
+     * @param threadLifecycleListener слушатель событий исполнения очереди
+     * @param millisTimeProvider      поставщик текущего времени
+     * @param noTaskTimeoutProvider   поставщик времени ожидания при отсутствии задач
+     * @param rateLimiter             ограничитель количества выбираемых задач в секунду,
+     *                                общий с выборщиком задач очереди
+     */
+    public QueueLoop(@Nonnull LoopPolicy loopPolicy,
+                     @Nonnull ThreadLifecycleListener threadLifecycleListener,
+                     @Nonnull MillisTimeProvider millisTimeProvider,
+                     @Nonnull NoTaskTimeoutProvider noTaskTimeoutProvider,
+                     @Nullable TaskRateLimiter rateLimiter) {
         this.loopPolicy = requireNonNull(loopPolicy);
         this.threadLifecycleListener = requireNonNull(threadLifecycleListener);
         this.millisTimeProvider = requireNonNull(millisTimeProvider);
+        this.noTaskTimeoutProvider = requireNonNull(noTaskTimeoutProvider);
+        this.rateLimiter = rateLimiter;
     }
 
     /**
-     * Возобновить цикл обработки задач
+     * Возобновить цикл обработки задач.
+     * Вычисленное время ожидания при отсутствии задач сбрасывается.
      */
     public void wakeup() {
+        noTaskTimeoutProvider.reset();
         loopPolicy.doContinue();
     }
 
     /**
-     * Запустить цикл обработки задач в очереди
+     * Запустить цикл обработки задач в очереди.
+     * <p>
+     * Если задано {@link QueueSettings#getInitialNoTaskTimeout()}, время ожидания при отсутствии задач
+     * увеличивается от начального до {@link QueueSettings#getNoTaskTimeout()}, см. {@link NoTaskTimeoutBackoff}.
+     * Если задачи не выбраны из-за ограничения {@link QueueSettings#getRateLimit()},
+     * то цикл ожидает появления следующего разрешения.
      *
      * @param shardId       идентификатор шарда, на котором происходит обработка
      * @param queueConsumer выполняемая очередь
@@ -60,7 +114,13 @@ public class QueueLoop {
         requireNonNull(shardId);
         requireNonNull(queueConsumer);
         requireNonNull(queueRunner);
+        NoTaskTimeoutBackoff noTaskTimeoutBackoff = new NoTaskTimeoutBackoff(
+                () -> ThreadLocalRandom.current().nextDouble());
         loopPolicy.doRun(() -> {
+            if (tryAcceptStop()) {
+                Thread.currentThread().interrupt();
+                return;
+            }
             try {
                 long startTime = millisTimeProvider.getMillis();
                 threadLifecycleListener.started(shardId, queueConsumer.getQueueConfig().getLocation());
@@ -71,10 +131,17 @@ public class QueueLoop {
 
                 switch (queueProcessingStatus) {
                     case SKIPPED:
-                        loopPolicy.doWait(queueConsumer.getQueueConfig().getSettings().getNoTaskTimeout(),
+                        Duration rateLimitWaitTime = rateLimiter == null ? Duration.ZERO : rateLimiter.getWaitTime();
+                        if (!rateLimitWaitTime.isZero()) {
+                            loopPolicy.doWait(rateLimitWaitTime, LoopPolicy.WaitInterrupt.DENY);
+                            return;
+                        }
+                        loopPolicy.doWait(getNoTaskTimeout(queueConsumer, noTaskTimeoutBackoff),
                                 LoopPolicy.WaitInterrupt.ALLOW);
                         return;
                     case PROCESSED:
+                        noTaskTimeoutBackoff.reset();
+                        noTaskTimeoutProvider.reset();
                         loopPolicy.doWait(queueConsumer.getQueueConfig().getSettings().getBetweenTaskTimeout(),
                                 LoopPolicy.WaitInterrupt.DENY);
                         return;
@@ -91,6 +158,63 @@ public class QueueLoop {
         });
     }
 
+    @Nonnull
+    private Duration getNoTaskTimeout(@Nonnull QueueConsumer queueConsumer,
+                                      @Nonnull NoTaskTimeoutBackoff noTaskTimeoutBackoff) {
+        Duration noTaskTimeout = noTaskTimeoutProvider.getNoTaskTimeout(queueConsumer);
+        Duration initialNoTaskTimeout = queueConsumer.getQueueConfig().getSettings().getInitialNoTaskTimeout();
+        if (initialNoTaskTimeout.isZero()) {
+            return noTaskTimeout;
+        }
+        return noTaskTimeoutBackoff.nextTimeout(initialNoTaskTimeout, noTaskTimeout);
+    }
+
+    /**
+     * Завершить заданное количество потоков цикла обработки задач.
+     * <p>
+     * Поток завершается перед очередной выборкой задач,
+     * поэтому обрабатываемые задачи не прерываются.
+     *
+     * @param loopCount количество завершаемых потоков
+     */
+    public void stop(int loopCount) {
+        if (loopCount <= 0) {
+            throw new IllegalArgumentException("loopCount must be positive: loopCount=" + loopCount);
+        }
+        pendingStopCount.addAndGet(loopCount);
+    }
+
+    /**
+     * Отменить завершение потоков цикла, которые еще не завершились
+     *
+     * @param loopCount максимальное количество потоков, завершение которых требуется отменить
+     * @return количество потоков, завершение которых отменено
+     */
+    public int cancelStop(int loopCount) {
+        if (loopCount <= 0) {
+            throw new IllegalArgumentException("loopCount must be positive: loopCount=" + loopCount);
+        }
+        while (true) {
+            int stopCount = pendingStopCount.get();
+            int cancelledCount = Math.min(stopCount, loopCount);
+            if (pendingStopCount.compareAndSet(stopCount, stopCount - cancelledCount)) {
+                return cancelledCount;
+            }
+        }
+    }
+
+    private boolean tryAcceptStop() {
+        while (true) {
+            int stopCount = pendingStopCount.get();
+            if (stopCount == 0) {
+                return false;
+            }
+            if (pendingStopCount.compareAndSet(stopCount, stopCount - 1)) {
+                return true;
+            }
+        }
+    }
+
     /**
      * Прекратить работу цикла обработки задач в очереди
      */
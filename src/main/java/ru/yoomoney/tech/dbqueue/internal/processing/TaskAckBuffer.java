@@ -0,0 +1,88 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Буфер подтверждений успешно обработанных задач.
+ * <p>
+ * Накапливает идентификаторы завершенных задач и удаляет их из очереди пачкой,
+ * в одной транзакции, когда буфер заполнен, либо по явному вызову {@link #flush()}.
+ * Задачи, которые не успели удалить, будут повторно выбраны из очереди после истечения
+ * интервала повторной обработки.
+ *
+ * @since 17.10.2026
+ */
+public class TaskAckBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskAckBuffer.class);
+
+    @Nonnull
+    private final QueueLocation location;
+    @Nonnull
+    private final QueueShard queueShard;
+    private final int batchSize;
+    @Nonnull
+    private final BlockingQueue<Long> taskIds;
+
+    /**
+     * Конструктор
+     *
+     * @param location   местоположение очереди
+     * @param queueShard шард, на котором происходит обработка задач
+     * @param batchSize  максимальное количество задач, удаляемых за один запрос
+     */
+    public TaskAckBuffer(@Nonnull QueueLocation location,
+                         @Nonnull QueueShard queueShard,
+                         int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: batchSize=" + batchSize);
+        }
+        this.location = requireNonNull(location);
+        this.queueShard = requireNonNull(queueShard);
+        this.batchSize = batchSize;
+        this.taskIds = new ArrayBlockingQueue<>(batchSize);
+    }
+
+    /**
+     * Добавить завершенную задачу в буфер.
+     * Если буфер заполнен, то накопленные задачи удаляются в вызывающем потоке.
+     *
+     * @param taskId идентификатор задачи
+     */
+    public void add(long taskId) {
+        while (!taskIds.offer(taskId)) {
+            flush();
+        }
+        if (taskIds.remainingCapacity() == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Удалить из очереди все накопленные задачи
+     */
+    public void flush() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (taskIds.drainTo(batch, batchSize) > 0) {
+            List<Long> batchToDelete = batch;
+            try {
+                queueShard.transact(() -> queueShard.getQueueDao().deleteTasks(location, batchToDelete));
+            } catch (RuntimeException exc) {
+                log.warn("cannot delete finished tasks: location={}, shardId={}, taskIds={}",
+                        location, queueShard.getShardId(), batchToDelete, exc);
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+}
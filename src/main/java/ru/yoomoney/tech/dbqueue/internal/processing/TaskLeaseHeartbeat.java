@@ -0,0 +1,159 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Продление аренды обрабатываемых задач, см. {@link QueueSettings#getLeaseTime()}.
+ * <p>
+ * Хранит идентификаторы задач, которые выбраны на шарде и еще не обработаны,
+ * включая задачи, ожидающие исполнения,
+ * и по вызову {@link #extendLeases()} откладывает их все одним запросом на время аренды.
+ * Если экземпляр приложения упал, аренда не продлевается и задачи будут выбраны повторно
+ * через время аренды, а не через интервал повторной обработки.
+ *
+ * @since 17.10.2026
+ */
+public class TaskLeaseHeartbeat {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskLeaseHeartbeat.class);
+
+    /**
+     * Максимальная степень двойки для геометрической стратегии, защищает от переполнения
+     */
+    private static final int MAX_GEOMETRIC_EXPONENT = 30;
+
+    @Nonnull
+    private final QueueLocation location;
+    @Nonnull
+    private final QueueShard queueShard;
+    @Nonnull
+    private final Duration leaseTime;
+    @Nonnull
+    private final TaskRetryType retryType;
+    @Nonnull
+    private final Supplier<Duration> retryInterval;
+    @Nonnull
+    private final Set<Long> taskIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Конструктор
+     *
+     * @param location      местоположение очереди
+     * @param queueShard    шард, на котором происходит обработка задач
+     * @param leaseTime     время аренды задачи
+     * @param retryType     стратегия повтора задачи после неудачной попытки
+     * @param retryInterval поставщик интервала повтора задачи после неудачной попытки
+     */
+    public TaskLeaseHeartbeat(@Nonnull QueueLocation location,
+                              @Nonnull QueueShard queueShard,
+                              @Nonnull Duration leaseTime,
+                              @Nonnull TaskRetryType retryType,
+                              @Nonnull Supplier<Duration> retryInterval) {
+        if (leaseTime.getSeconds() <= 0) {
+            throw new IllegalArgumentException("leaseTime must be at least one second: leaseTime=" + leaseTime);
+        }
+        this.location = requireNonNull(location);
+        this.queueShard = requireNonNull(queueShard);
+        this.leaseTime = leaseTime;
+        this.retryType = requireNonNull(retryType);
+        this.retryInterval = requireNonNull(retryInterval);
+    }
+
+    /**
+     * Получить интервал продления аренды: треть времени аренды,
+     * так что одна неудачная попытка продления не приводит к повторной выборке задачи
+     *
+     * @return интервал продления
+     */
+    @Nonnull
+    public Duration getHeartbeatInterval() {
+        return leaseTime.dividedBy(3L);
+    }
+
+    /**
+     * Начать продление аренды задачи
+     *
+     * @param taskId идентификатор задачи
+     */
+    public void acquire(long taskId) {
+        taskIds.add(taskId);
+    }
+
+    /**
+     * Прекратить продление аренды задачи
+     *
+     * @param taskId идентификатор задачи
+     */
+    public void release(long taskId) {
+        taskIds.remove(taskId);
+    }
+
+    /**
+     * Продлить аренду всех обрабатываемых задач одним запросом.
+     * Задачи, которые уже отложены на больший срок, не изменяются.
+     */
+    public void extendLeases() {
+        List<Long> batch = new ArrayList<>(taskIds);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            queueShard.transact(() -> queueShard.getQueueDao().postponeTasks(location, batch, leaseTime));
+        } catch (RuntimeException exc) {
+            log.warn("cannot extend leases of tasks: location={}, shardId={}, taskIds={}",
+                    location, queueShard.getShardId(), batch, exc);
+        }
+    }
+
+    /**
+     * Отложить задачу после неудачной попытки согласно стратегии повтора.
+     * При выборке задача отложена только на время аренды, а продление аренды могло отложить её
+     * дальше задержки повтора, поэтому время обработки задачи устанавливается безусловно.
+     *
+     * @param taskRecord задача
+     */
+    public void postponeFailedTask(@Nonnull TaskRecord taskRecord) {
+        requireNonNull(taskRecord);
+        Duration delay = calculateRetryDelay(taskRecord.getAttemptsCount());
+        queueShard.transact(() -> queueShard.getQueueDao().postponeTask(location, taskRecord.getId(), delay));
+    }
+
+    /**
+     * Вычислить задержку повтора, совпадающую с задержкой, которую устанавливает выборка задачи
+     * без аренды
+     *
+     * @param attemptsCount количество попыток обработки задачи, включая текущую
+     * @return задержка повтора
+     */
+    @Nonnull
+    Duration calculateRetryDelay(long attemptsCount) {
+        Duration interval = requireNonNull(retryInterval.get());
+        long previousAttempts = Math.max(0L, attemptsCount - 1L);
+        switch (retryType) {
+            case GEOMETRIC_BACKOFF:
+                return interval.multipliedBy(1L << Math.min(previousAttempts, MAX_GEOMETRIC_EXPONENT));
+            case ARITHMETIC_BACKOFF:
+                return interval.multipliedBy(1L + previousAttempts * 2L);
+            case LINEAR_BACKOFF:
+                return interval;
+            default:
+                throw new IllegalStateException("unknown retry type: " + retryType);
+        }
+    }
+}
@@ -6,9 +6,14 @@ import ru.yoomoney.tech.dbqueue.config.QueueShard;
 import ru.yoomoney.tech.dbqueue.config.TaskLifecycleListener;
 import ru.yoomoney.tech.dbqueue.internal.pick.PickTaskSettings;
 import ru.yoomoney.tech.dbqueue.internal.pick.QueuePickTaskDao;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static java.util.Objects.requireNonNull;
 
@@ -29,6 +34,8 @@ public class TaskPicker {
     private final MillisTimeProvider millisTimeProvider;
 
     private final QueuePickTaskDao pickTaskDao;
+    @Nullable
+    private final TaskRateLimiter rateLimiter;
 
     /**
      * Конструктор
@@ -42,9 +49,28 @@ public class TaskPicker {
                       TaskLifecycleListener taskLifecycleListener,
                       MillisTimeProvider millisTimeProvider,
                       PickTaskSettings pickTaskSettings) {
+        this(queueShard, taskLifecycleListener, millisTimeProvider, pickTaskSettings, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param queueShard            шард с которого требуется выбрать задачу
+     * @param taskLifecycleListener слушатель жизненного цикла задачи в очереди
+     * @param millisTimeProvider    поставщик текущего времени
+     * @param pickTaskSettings      настройки выборки задачи
+     * @param rateLimiter           ограничитель количества выбираемых задач в секунду,
+     *                              если не задан, то количество не ограничивается
+     */
+    public TaskPicker(QueueShard queueShard,
+                      TaskLifecycleListener taskLifecycleListener,
+                      MillisTimeProvider millisTimeProvider,
+                      PickTaskSettings pickTaskSettings,
+                      @Nullable TaskRateLimiter rateLimiter) {
         this(queueShard, taskLifecycleListener, millisTimeProvider,
                 QueuePickTaskDao.Factory.create(queueShard.getDatabaseDialect(),
-                        queueShard.getQueueTableSchema(), queueShard.getDatabase(), pickTaskSettings));
+                        queueShard.getQueueTableSchema(), queueShard.getDatabase(), pickTaskSettings),
+                rateLimiter);
     }
 
     /**
@@ -59,21 +85,60 @@ public class TaskPicker {
                @Nonnull TaskLifecycleListener taskLifecycleListener,
                @Nonnull MillisTimeProvider millisTimeProvider,
                @Nonnull QueuePickTaskDao pickTaskDao) {
+        this(queueShard, taskLifecycleListener, millisTimeProvider, pickTaskDao, null);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param queueShard            шард с которого требуется выбрать задачу
+     * @param taskLifecycleListener слушатель жизненного цикла задачи в очереди
+     * @param millisTimeProvider    поставщик текущего времени
+     * @param pickTaskDao           dao для выборки задач
+     * @param rateLimiter           ограничитель количества выбираемых задач в секунду
+     */
+    TaskPicker(@Nonnull QueueShard queueShard,
+               @Nonnull TaskLifecycleListener taskLifecycleListener,
+               @Nonnull MillisTimeProvider millisTimeProvider,
+               @Nonnull QueuePickTaskDao pickTaskDao,
+               @Nullable TaskRateLimiter rateLimiter) {
         this.queueShard = requireNonNull(queueShard);
         this.taskLifecycleListener = requireNonNull(taskLifecycleListener);
         this.millisTimeProvider = requireNonNull(millisTimeProvider);
         this.pickTaskDao = requireNonNull(pickTaskDao);
+        this.rateLimiter = rateLimiter;
     }
 
     /**
      * Выбрать задачу из очереди
      *
      * @param queueConsumer очередь для выборки
-     * @return задача или null если отсуствует
+     * @return задача или null если отсуствует или превышено ограничение количества задач в секунду
      */
     @Nullable
     public TaskRecord pickTask(@Nonnull QueueConsumer queueConsumer) {
         requireNonNull(queueConsumer);
+        if (rateLimiter == null) {
+            return pickTaskWithoutLimit(queueConsumer);
+        }
+        if (rateLimiter.tryAcquire(1) == 0) {
+            return null;
+        }
+        TaskRecord taskRecord;
+        try {
+            taskRecord = pickTaskWithoutLimit(queueConsumer);
+        } catch (RuntimeException exc) {
+            rateLimiter.release(1);
+            throw exc;
+        }
+        if (taskRecord == null) {
+            rateLimiter.release(1);
+        }
+        return taskRecord;
+    }
+
+    @Nullable
+    private TaskRecord pickTaskWithoutLimit(@Nonnull QueueConsumer queueConsumer) {
         long startPickTaskTime = millisTimeProvider.getMillis();
         TaskRecord taskRecord = queueShard.transact(() -> pickTaskDao.pickTask(queueConsumer.getQueueConfig().getLocation()));
         if (taskRecord == null) {
@@ -84,5 +149,114 @@ public class TaskPicker {
         return taskRecord;
     }
 
+    /**
+     * Выбрать пачку задач из очереди.
+     * Размер пачки задается настройкой {@link QueueSettings#getPickBatchSize()}
+     *
+     * @param queueConsumer очередь для выборки
+     * @return список выбранных задач или пустой список если задачи отсутствуют
+     */
+    @Nonnull
+    public List<TaskRecord> pickTasks(@Nonnull QueueConsumer queueConsumer) {
+        requireNonNull(queueConsumer);
+        return pickTasks(queueConsumer, queueConsumer.getQueueConfig().getSettings().getPickBatchSize());
+    }
+
+    /**
+     * Выбрать пачку задач из очереди
+     *
+     * @param queueConsumer очередь для выборки
+     * @param maxBatchSize  максимальное количество выбираемых задач
+     * @return список выбранных задач или пустой список если задачи отсутствуют
+     * или превышено ограничение количества задач в секунду
+     */
+    @Nonnull
+    public List<TaskRecord> pickTasks(@Nonnull QueueConsumer queueConsumer, int maxBatchSize) {
+        requireNonNull(queueConsumer);
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: maxBatchSize=" + maxBatchSize);
+        }
+        if (rateLimiter == null) {
+            return pickTasksWithoutLimit(queueConsumer, maxBatchSize);
+        }
+        int permits = rateLimiter.tryAcquire(maxBatchSize);
+        if (permits == 0) {
+            return Collections.emptyList();
+        }
+        List<TaskRecord> taskRecords;
+        try {
+            taskRecords = pickTasksWithoutLimit(queueConsumer, permits);
+        } catch (RuntimeException exc) {
+            rateLimiter.release(permits);
+            throw exc;
+        }
+        rateLimiter.release(permits - taskRecords.size());
+        return taskRecords;
+    }
+
+    @Nonnull
+    private List<TaskRecord> pickTasksWithoutLimit(@Nonnull QueueConsumer queueConsumer, int maxBatchSize) {
+        if (maxBatchSize == 1) {
+            TaskRecord taskRecord = pickTaskWithoutLimit(queueConsumer);
+            return taskRecord == null ? Collections.emptyList() : Collections.singletonList(taskRecord);
+        }
+        QueueLocation location = queueConsumer.getQueueConfig().getLocation();
+        long startPickTaskTime = millisTimeProvider.getMillis();
+        List<TaskRecord> taskRecords = queueShard.transact(() -> pickTaskDao.pickTasks(location, maxBatchSize));
+        if (taskRecords.isEmpty()) {
+            return taskRecords;
+        }
+        long pickTaskTime = millisTimeProvider.getMillis() - startPickTaskTime;
+        taskRecords.forEach(taskRecord ->
+                taskLifecycleListener.picked(queueShard.getShardId(), location, taskRecord, pickTaskTime));
+        return taskRecords;
+    }
+
+    /**
+     * Выбрать пачку задач из группы очередей одной таблицы
+     *
+     * @param locations    местоположения очередей группы
+     * @param maxBatchSize максимальное количество выбираемых задач
+     * @return выбранные задачи по местоположению очереди, очереди без задач отсутствуют
+     */
+    @Nonnull
+    public Map<QueueLocation, List<TaskRecord>> pickGroupTasks(@Nonnull List<QueueLocation> locations,
+                                                               int maxBatchSize) {
+        requireNonNull(locations);
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: maxBatchSize=" + maxBatchSize);
+        }
+        if (rateLimiter == null) {
+            return pickGroupTasksWithoutLimit(locations, maxBatchSize);
+        }
+        int permits = rateLimiter.tryAcquire(maxBatchSize);
+        if (permits == 0) {
+            return Collections.emptyMap();
+        }
+        Map<QueueLocation, List<TaskRecord>> taskRecords;
+        try {
+            taskRecords = pickGroupTasksWithoutLimit(locations, permits);
+        } catch (RuntimeException exc) {
+            rateLimiter.release(permits);
+            throw exc;
+        }
+        rateLimiter.release(permits - taskRecords.values().stream().mapToInt(List::size).sum());
+        return taskRecords;
+    }
+
+    @Nonnull
+    private Map<QueueLocation, List<TaskRecord>> pickGroupTasksWithoutLimit(@Nonnull List<QueueLocation> locations,
+                                                                           int maxBatchSize) {
+        long startPickTaskTime = millisTimeProvider.getMillis();
+        Map<QueueLocation, List<TaskRecord>> taskRecords = queueShard.transact(
+                () -> pickTaskDao.pickGroupTasks(locations, maxBatchSize));
+        if (taskRecords.isEmpty()) {
+            return taskRecords;
+        }
+        long pickTaskTime = millisTimeProvider.getMillis() - startPickTaskTime;
+        taskRecords.forEach((location, locationTaskRecords) -> locationTaskRecords.forEach(taskRecord ->
+                taskLifecycleListener.picked(queueShard.getShardId(), location, taskRecord, pickTaskTime)));
+        return taskRecords;
+    }
 
 }
@@ -8,6 +8,7 @@ import ru.yoomoney.tech.dbqueue.config.QueueShard;
 import ru.yoomoney.tech.dbqueue.config.TaskLifecycleListener;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import static java.util.Objects.requireNonNull;
 
@@ -28,6 +29,8 @@ public class TaskProcessor {
     private final MillisTimeProvider millisTimeProvider;
     @Nonnull
     private final TaskResultHandler taskResultHandler;
+    @Nullable
+    private final TaskLeaseHeartbeat taskLeaseHeartbeat;
 
     /**
      * Конструктор
@@ -36,15 +39,47 @@ public class TaskProcessor {
      * @param taskLifecycleListener слушатель жизненного цикла задачи в очереди
      * @param millisTimeProvider    поставщик текущего времени
      * @param taskResultHandler     обработчик результата выполнения задачи
+     * @param taskLeaseHeartbeat    продление аренды задач, если задано, то аренда задачи
+     *                              продлевается до окончания ее обработки
      */
     public TaskProcessor(@Nonnull QueueShard queueShard,
                          @Nonnull TaskLifecycleListener taskLifecycleListener,
                          @Nonnull MillisTimeProvider millisTimeProvider,
-                         @Nonnull TaskResultHandler taskResultHandler) {
+                         @Nonnull TaskResultHandler taskResultHandler,
+                         @Nullable TaskLeaseHeartbeat taskLeaseHeartbeat) {
         this.queueShard = requireNonNull(queueShard);
         this.taskLifecycleListener = requireNonNull(taskLifecycleListener);
         this.millisTimeProvider = requireNonNull(millisTimeProvider);
         this.taskResultHandler = requireNonNull(taskResultHandler);
+        this.taskLeaseHeartbeat = taskLeaseHeartbeat;
+    }
+
+    /**
+     * Начать продление аренды выбранной задачи.
+     * Вызывается сразу после выборки, чтобы аренда продлевалась и пока задача ожидает исполнения.
+     * Аренда прекращается по завершении {@link #processTask(QueueConsumer, TaskRecord)}
+     * или вызовом {@link #releaseLease(TaskRecord)}, если задача не передана на исполнение.
+     *
+     * @param taskRecord выбранная задача
+     */
+    public void acquireLease(@Nonnull TaskRecord taskRecord) {
+        requireNonNull(taskRecord);
+        if (taskLeaseHeartbeat != null) {
+            taskLeaseHeartbeat.acquire(taskRecord.getId());
+        }
+    }
+
+    /**
+     * Прекратить продление аренды задачи, которая не будет обработана.
+     * Задача будет выбрана повторно после окончания аренды.
+     *
+     * @param taskRecord выбранная задача
+     */
+    public void releaseLease(@Nonnull TaskRecord taskRecord) {
+        requireNonNull(taskRecord);
+        if (taskLeaseHeartbeat != null) {
+            taskLeaseHeartbeat.release(taskRecord.getId());
+        }
     }
 
     /**
@@ -56,6 +91,8 @@ public class TaskProcessor {
     public void processTask(@Nonnull QueueConsumer queueConsumer, @Nonnull TaskRecord taskRecord) {
         requireNonNull(queueConsumer);
         requireNonNull(taskRecord);
+        TaskExecutionResult executionResult = null;
+        acquireLease(taskRecord);
         try {
             taskLifecycleListener.started(queueShard.getShardId(), queueConsumer.getQueueConfig().getLocation(),
                     taskRecord);
@@ -69,7 +106,7 @@ public class TaskProcessor {
                     .withTotalAttemptsCount(taskRecord.getTotalAttemptsCount())
                     .withExtData(taskRecord.getExtData())
                     .build();
-            TaskExecutionResult executionResult = queueConsumer.execute(task);
+            executionResult = queueConsumer.execute(task);
             taskLifecycleListener.executed(queueShard.getShardId(), queueConsumer.getQueueConfig().getLocation(),
                     taskRecord,
                     executionResult, millisTimeProvider.getMillis() - processTaskStarted);
@@ -77,7 +114,17 @@ public class TaskProcessor {
         } catch (Exception exc) {
             taskLifecycleListener.crashed(queueShard.getShardId(), queueConsumer.getQueueConfig().getLocation(),
                     taskRecord, exc);
+            if (executionResult == null) {
+                // падение обработчика задачи считается неудачной попыткой
+                try {
+                    taskResultHandler.handleResult(taskRecord, TaskExecutionResult.fail());
+                } catch (Exception failExc) {
+                    taskLifecycleListener.crashed(queueShard.getShardId(),
+                            queueConsumer.getQueueConfig().getLocation(), taskRecord, failExc);
+                }
+            }
         } finally {
+            releaseLease(taskRecord);
             taskLifecycleListener.finished(queueShard.getShardId(), queueConsumer.getQueueConfig().getLocation(),
                     taskRecord);
         }
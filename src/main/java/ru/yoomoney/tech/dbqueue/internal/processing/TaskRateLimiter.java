@@ -0,0 +1,95 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Ограничитель количества выбираемых задач в секунду, см. {@link QueueSettings#getRateLimit()}.
+ * <p>
+ * Реализует корзину маркеров без блокировок: хранится момент времени, начиная с которого корзина снова полна,
+ * каждое разрешение сдвигает этот момент на интервал между задачами.
+ * Корзина вмещает разрешения на одну секунду.
+ * Используется всеми потоками очереди на шарде.
+ *
+ * @since 17.10.2026
+ */
+public class TaskRateLimiter {
+
+    private final long permitIntervalNanos;
+    private final long capacityNanos;
+    @Nonnull
+    private final LongSupplier nanoTimeProvider;
+    @Nonnull
+    private final AtomicLong fullAtNanos;
+
+    /**
+     * Конструктор
+     *
+     * @param permitsPerSecond максимальное количество задач в секунду
+     * @param nanoTimeProvider поставщик текущего времени в наносекундах, например {@link System#nanoTime()}
+     */
+    public TaskRateLimiter(int permitsPerSecond, @Nonnull LongSupplier nanoTimeProvider) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: permitsPerSecond=" +
+                    permitsPerSecond);
+        }
+        this.permitIntervalNanos = Math.max(1L, TimeUnit.SECONDS.toNanos(1L) / permitsPerSecond);
+        this.capacityNanos = permitIntervalNanos * permitsPerSecond;
+        this.nanoTimeProvider = requireNonNull(nanoTimeProvider);
+        this.fullAtNanos = new AtomicLong(nanoTimeProvider.getAsLong());
+    }
+
+    /**
+     * Получить доступные разрешения без ожидания
+     *
+     * @param maxPermits максимальное количество запрашиваемых разрешений
+     * @return количество полученных разрешений, от 0 до maxPermits
+     */
+    public int tryAcquire(int maxPermits) {
+        if (maxPermits <= 0) {
+            throw new IllegalArgumentException("maxPermits must be positive: maxPermits=" + maxPermits);
+        }
+        while (true) {
+            long now = nanoTimeProvider.getAsLong();
+            long fullAt = fullAtNanos.get();
+            long usedNanos = Math.max(0L, fullAt - now);
+            long availablePermits = (capacityNanos - usedNanos) / permitIntervalNanos;
+            if (availablePermits <= 0) {
+                return 0;
+            }
+            int permits = (int) Math.min(maxPermits, availablePermits);
+            if (fullAtNanos.compareAndSet(fullAt, now + usedNanos + permits * permitIntervalNanos)) {
+                return permits;
+            }
+        }
+    }
+
+    /**
+     * Вернуть неиспользованные разрешения, например когда в очереди меньше задач, чем получено разрешений
+     *
+     * @param permits количество возвращаемых разрешений
+     */
+    public void release(int permits) {
+        if (permits > 0) {
+            fullAtNanos.addAndGet(-permits * permitIntervalNanos);
+        }
+    }
+
+    /**
+     * Получить время до появления следующего разрешения
+     *
+     * @return время ожидания или {@link Duration#ZERO}, если разрешение доступно
+     */
+    @Nonnull
+    public Duration getWaitTime() {
+        long waitNanos = fullAtNanos.get() - nanoTimeProvider.getAsLong() - (capacityNanos - permitIntervalNanos);
+        return waitNanos > 0 ? Duration.ofNanos(waitNanos) : Duration.ZERO;
+    }
+}
@@ -3,9 +3,12 @@ package ru.yoomoney.tech.dbqueue.internal.processing;
 import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
 import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import static java.util.Objects.requireNonNull;
 
@@ -23,6 +26,13 @@ public class TaskResultHandler {
     private final QueueShard queueShard;
     @Nonnull
     private final ReenqueueRetryStrategy reenqueueRetryStrategy;
+    @Nullable
+    private final TaskAckBuffer taskAckBuffer;
+    private final int maxAttempts;
+    @Nullable
+    private final QueueId deadLetterQueueId;
+    @Nullable
+    private final TaskLeaseHeartbeat taskLeaseHeartbeat;
 
     /**
      * Конструктор
@@ -30,13 +40,31 @@ public class TaskResultHandler {
      * @param location               местоположение очереди
      * @param queueShard             шард на котором происходит обработка задачи
      * @param reenqueueRetryStrategy стратегия для переоткладывания задач
+     * @param taskAckBuffer          буфер подтверждений завершенных задач,
+     *                               если не задан, то задачи удаляются сразу в отдельной транзакции
+     * @param maxAttempts            настройка {@link QueueSettings#getMaxAttempts()}, 0 - без ограничения
+     * @param deadLetterQueueId      настройка {@link QueueSettings#getDeadLetterQueueId()},
+     *                               обязательна при заданном количестве попыток
+     * @param taskLeaseHeartbeat     продление аренды задач, если задано, то неудачно обработанная задача
+     *                               откладывается согласно стратегии повтора
      */
     public TaskResultHandler(@Nonnull QueueLocation location,
                              @Nonnull QueueShard queueShard,
-                             @Nonnull ReenqueueRetryStrategy reenqueueRetryStrategy) {
+                             @Nonnull ReenqueueRetryStrategy reenqueueRetryStrategy,
+                             @Nullable TaskAckBuffer taskAckBuffer,
+                             int maxAttempts,
+                             @Nullable QueueId deadLetterQueueId,
+                             @Nullable TaskLeaseHeartbeat taskLeaseHeartbeat) {
+        if (maxAttempts > 0 && deadLetterQueueId == null) {
+            throw new IllegalArgumentException("deadLetterQueueId is required when maxAttempts is set");
+        }
         this.location = requireNonNull(location);
         this.queueShard = requireNonNull(queueShard);
         this.reenqueueRetryStrategy = requireNonNull(reenqueueRetryStrategy);
+        this.taskAckBuffer = taskAckBuffer;
+        this.maxAttempts = maxAttempts;
+        this.deadLetterQueueId = deadLetterQueueId;
+        this.taskLeaseHeartbeat = taskLeaseHeartbeat;
     }
 
     /**
@@ -50,12 +78,15 @@ public class TaskResultHandler {
         requireNonNull(executionResult);
         switch (executionResult.getActionType()) {
             case FINISH:
-                queueShard.getTransactionTemplate().execute(status ->
-                        queueShard.getQueueDao().deleteTask(location, taskRecord.getId()));
+                if (taskAckBuffer != null) {
+                    taskAckBuffer.add(taskRecord.getId());
+                    return;
+                }
+                queueShard.transact(() -> queueShard.getQueueDao().deleteTask(location, taskRecord.getId()));
                 return;
 
             case REENQUEUE:
-                queueShard.getTransactionTemplate().execute(status ->
+                queueShard.transact(() ->
                         queueShard.getQueueDao().reenqueue(
                                 location,
                                 taskRecord.getId(),
@@ -65,6 +96,15 @@ public class TaskResultHandler {
                 );
                 return;
             case FAIL:
+                if (maxAttempts > 0 && taskRecord.getAttemptsCount() >= maxAttempts) {
+                    QueueId targetQueueId = requireNonNull(deadLetterQueueId);
+                    queueShard.transact(() ->
+                            queueShard.getQueueDao().moveTask(location, taskRecord.getId(), targetQueueId));
+                    return;
+                }
+                if (taskLeaseHeartbeat != null) {
+                    taskLeaseHeartbeat.postponeFailedTask(taskRecord);
+                }
                 return;
 
             default:
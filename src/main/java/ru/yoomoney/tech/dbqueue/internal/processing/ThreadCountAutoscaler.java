@@ -0,0 +1,126 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import ru.yoomoney.tech.dbqueue.config.QueueShardId;
+import ru.yoomoney.tech.dbqueue.config.ThreadLifecycleListener;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Регулятор количества потоков очереди по нагрузке.
+ * <p>
+ * Считает итерации цикла обработки задач всех потоков очереди на шарде
+ * и по доле итераций, в которых были выбраны задачи, вычисляет требуемое количество потоков:
+ * удваивает количество, если почти каждая выборка возвращает задачи,
+ * и убирает один поток, если большая часть выборок пустая или потоки простаивали.
+ * Если итерации не завершались, но выполняются сейчас (долгая обработка задач),
+ * то количество потоков не изменяется.
+ * Количество потоков ограничено {@link QueueSettings#getMinThreadCount()}
+ * и {@link QueueSettings#getMaxThreadCount()}.
+ * События потоков передаются делегату без изменений.
+ *
+ * @since 17.10.2026
+ */
+public class ThreadCountAutoscaler implements ThreadLifecycleListener {
+
+    /**
+     * Доля выборок с задачами, начиная с которой количество потоков увеличивается
+     */
+    static final double SCALE_UP_PROCESSED_RATIO = 0.9;
+    /**
+     * Доля выборок с задачами, ниже которой количество потоков уменьшается
+     */
+    static final double SCALE_DOWN_PROCESSED_RATIO = 0.5;
+
+    @Nonnull
+    private final ThreadLifecycleListener delegate;
+    private final int minThreadCount;
+    private final int maxThreadCount;
+    @Nonnull
+    private final LongAdder executedCount = new LongAdder();
+    @Nonnull
+    private final LongAdder processedCount = new LongAdder();
+    @Nonnull
+    private final AtomicInteger inProgressCount = new AtomicInteger();
+
+    /**
+     * Конструктор
+     *
+     * @param delegate       слушатель событий потоков очереди
+     * @param minThreadCount минимальное количество потоков
+     * @param maxThreadCount максимальное количество потоков
+     */
+    public ThreadCountAutoscaler(@Nonnull ThreadLifecycleListener delegate,
+                                 int minThreadCount,
+                                 int maxThreadCount) {
+        if (minThreadCount <= 0 || minThreadCount > maxThreadCount) {
+            throw new IllegalArgumentException("invalid thread count range: minThreadCount=" + minThreadCount +
+                    ", maxThreadCount=" + maxThreadCount);
+        }
+        this.delegate = requireNonNull(delegate);
+        this.minThreadCount = minThreadCount;
+        this.maxThreadCount = maxThreadCount;
+    }
+
+    /**
+     * Вычислить требуемое количество потоков по итерациям, выполненным после предыдущего вызова
+     *
+     * @param currentThreadCount текущее количество потоков
+     * @return требуемое количество потоков
+     */
+    public int getThreadCount(int currentThreadCount) {
+        long executed = executedCount.sumThenReset();
+        long processed = processedCount.sumThenReset();
+        int threadCount = currentThreadCount;
+        if (executed == 0L) {
+            if (inProgressCount.get() == 0) {
+                threadCount = currentThreadCount - 1;
+            }
+        } else if (processed < executed * SCALE_DOWN_PROCESSED_RATIO) {
+            threadCount = currentThreadCount - 1;
+        } else if (processed >= executed * SCALE_UP_PROCESSED_RATIO) {
+            threadCount = currentThreadCount * 2;
+        }
+        return Math.max(minThreadCount, Math.min(maxThreadCount, threadCount));
+    }
+
+    /**
+     * Сбросить накопленную статистику итераций.
+     * Количество выполняющихся итераций не сбрасывается.
+     */
+    public void reset() {
+        executedCount.reset();
+        processedCount.reset();
+    }
+
+    @Override
+    public void started(@Nonnull QueueShardId shardId, @Nonnull QueueLocation location) {
+        inProgressCount.incrementAndGet();
+        delegate.started(shardId, location);
+    }
+
+    @Override
+    public void executed(QueueShardId shardId, QueueLocation location, boolean taskProcessed, long threadBusyTime) {
+        executedCount.increment();
+        if (taskProcessed) {
+            processedCount.increment();
+        }
+        delegate.executed(shardId, location, taskProcessed, threadBusyTime);
+    }
+
+    @Override
+    public void finished(@Nonnull QueueShardId shardId, @Nonnull QueueLocation location) {
+        inProgressCount.decrementAndGet();
+        delegate.finished(shardId, location);
+    }
+
+    @Override
+    public void crashed(@Nonnull QueueShardId shardId, @Nonnull QueueLocation location, @Nonnull Throwable exc) {
+        delegate.crashed(shardId, location, exc);
+    }
+}
@@ -1,5 +1,7 @@
 package ru.yoomoney.tech.dbqueue.internal.runner;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
 import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.internal.processing.QueueProcessingStatus;
@@ -7,23 +9,38 @@ import ru.yoomoney.tech.dbqueue.internal.processing.TaskPicker;
 import ru.yoomoney.tech.dbqueue.internal.processing.TaskProcessor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 
 /**
  * Базовая реализация обработчика задач очереди
+ * <p>
+ * Может ограничивать количество задач, переданных исполнителю и еще не обработанных.
+ * При достижении ограничения выборка задач приостанавливается до завершения обработки
+ * одной из задач, тем самым ограничивается объем памяти, занимаемый задачами в ожидании исполнения.
+ * Аренда выбранных задач продлевается с момента выборки, а не с начала обработки,
+ * так как задачи пачки ожидают исполнения друг за другом.
  *
  * @author Oleg Kandaurov
  * @since 27.08.2017
  */
 public class BaseQueueRunner implements QueueRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(BaseQueueRunner.class);
+
     @Nonnull
     private final TaskPicker taskPicker;
     @Nonnull
     private final TaskProcessor taskProcessor;
     @Nonnull
     private final Executor executor;
+    @Nullable
+    private final Semaphore inFlightPermits;
+    private final int maxBatchSize;
 
     /**
      * Конструктор
@@ -38,16 +55,103 @@ public class BaseQueueRunner implements QueueRunner {
         this.taskPicker = Objects.requireNonNull(taskPicker);
         this.taskProcessor = Objects.requireNonNull(taskProcessor);
         this.executor = Objects.requireNonNull(executor);
+        this.inFlightPermits = null;
+        this.maxBatchSize = 0;
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker    выборщик задачи
+     * @param taskProcessor обработчик задачи
+     * @param executor      исполнитель задачи
+     * @param maxInFlight   максимальное количество задач, переданных исполнителю и еще не обработанных
+     * @param maxBatchSize  максимальное количество задач, выбираемых за один раз
+     */
+    BaseQueueRunner(@Nonnull TaskPicker taskPicker,
+                    @Nonnull TaskProcessor taskProcessor,
+                    @Nonnull Executor executor,
+                    int maxInFlight,
+                    int maxBatchSize) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: maxInFlight=" + maxInFlight);
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: maxBatchSize=" + maxBatchSize);
+        }
+        this.taskPicker = Objects.requireNonNull(taskPicker);
+        this.taskProcessor = Objects.requireNonNull(taskProcessor);
+        this.executor = Objects.requireNonNull(executor);
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.maxBatchSize = maxBatchSize;
     }
 
     @Override
     @Nonnull
+    @SuppressWarnings("rawtypes")
     public QueueProcessingStatus runQueue(@Nonnull QueueConsumer queueConsumer) {
-        TaskRecord taskRecord = taskPicker.pickTask(queueConsumer);
-        if (taskRecord == null) {
+        if (inFlightPermits == null) {
+            List<TaskRecord> taskRecords = taskPicker.pickTasks(queueConsumer);
+            if (taskRecords.isEmpty()) {
+                return QueueProcessingStatus.SKIPPED;
+            }
+            taskRecords.forEach(taskProcessor::acquireLease);
+            for (int i = 0; i < taskRecords.size(); i++) {
+                TaskRecord taskRecord = taskRecords.get(i);
+                try {
+                    executor.execute(() -> taskProcessor.processTask(queueConsumer, taskRecord));
+                } catch (RuntimeException exc) {
+                    taskRecords.subList(i, taskRecords.size()).forEach(taskProcessor::releaseLease);
+                    throw exc;
+                }
+            }
+            return QueueProcessingStatus.PROCESSED;
+        }
+        return runQueueWithPermits(queueConsumer, inFlightPermits);
+    }
+
+    @Nonnull
+    @SuppressWarnings("rawtypes")
+    private QueueProcessingStatus runQueueWithPermits(@Nonnull QueueConsumer queueConsumer,
+                                                      @Nonnull Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+            return QueueProcessingStatus.SKIPPED;
+        }
+        int acquiredPermits = 1;
+        while (acquiredPermits < maxBatchSize && permits.tryAcquire()) {
+            acquiredPermits++;
+        }
+        List<TaskRecord> taskRecords;
+        try {
+            taskRecords = taskPicker.pickTasks(queueConsumer, acquiredPermits);
+        } catch (RuntimeException exc) {
+            permits.release(acquiredPermits);
+            throw exc;
+        }
+        permits.release(acquiredPermits - taskRecords.size());
+        if (taskRecords.isEmpty()) {
             return QueueProcessingStatus.SKIPPED;
         }
-        executor.execute(() -> taskProcessor.processTask(queueConsumer, taskRecord));
+        taskRecords.forEach(taskProcessor::acquireLease);
+        for (TaskRecord taskRecord : taskRecords) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        taskProcessor.processTask(queueConsumer, taskRecord);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException exc) {
+                taskProcessor.releaseLease(taskRecord);
+                permits.release();
+                log.warn("task is rejected by executor: location={}, taskId={}",
+                        queueConsumer.getQueueConfig().getLocation(), taskRecord.getId(), exc);
+            }
+        }
         return QueueProcessingStatus.PROCESSED;
     }
 }
@@ -0,0 +1,219 @@
+package ru.yoomoney.tech.dbqueue.internal.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.internal.processing.QueueProcessingStatus;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskPicker;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskProcessor;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Исполнитель задач группы очередей одной таблицы
+ * <p>
+ * Выбирает задачи всех очередей группы одним запросом и передает каждую задачу
+ * на обработку в очередь, которой она принадлежит.
+ * Может ограничивать количество задач, переданных исполнителям и еще не обработанных.
+ *
+ * @since 17.10.2026
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class QueueGroupRunner implements QueueRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(QueueGroupRunner.class);
+
+    @Nonnull
+    private final TaskPicker taskPicker;
+    @Nonnull
+    private final List<QueueLocation> locations;
+    @Nonnull
+    private final Map<QueueLocation, Member> members;
+    @Nullable
+    private final Semaphore inFlightPermits;
+    private final int maxBatchSize;
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker   выборщик задач
+     * @param members      очереди группы
+     * @param maxBatchSize максимальное количество задач, выбираемых за один раз
+     * @param maxInFlight  максимальное количество задач, переданных исполнителям и еще не обработанных,
+     *                     0 - без ограничения
+     */
+    QueueGroupRunner(@Nonnull TaskPicker taskPicker,
+                     @Nonnull List<Member> members,
+                     int maxBatchSize,
+                     int maxInFlight) {
+        requireNonNull(members);
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("members must not be empty");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: maxBatchSize=" + maxBatchSize);
+        }
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("maxInFlight must not be negative: maxInFlight=" + maxInFlight);
+        }
+        this.taskPicker = requireNonNull(taskPicker);
+        this.members = new LinkedHashMap<>();
+        members.forEach(member -> this.members.put(member.getLocation(), member));
+        this.locations = Collections.unmodifiableList(new ArrayList<>(this.members.keySet()));
+        this.inFlightPermits = maxInFlight == 0 ? null : new Semaphore(maxInFlight);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    @Nonnull
+    public QueueProcessingStatus runQueue(@Nonnull QueueConsumer queueConsumer) {
+        if (inFlightPermits == null) {
+            Map<QueueLocation, List<TaskRecord>> taskRecords = taskPicker.pickGroupTasks(locations, maxBatchSize);
+            if (taskRecords.isEmpty()) {
+                return QueueProcessingStatus.SKIPPED;
+            }
+            List<Map.Entry<Member, TaskRecord>> pickedTasks = acquireLeases(taskRecords);
+            for (int i = 0; i < pickedTasks.size(); i++) {
+                Member member = pickedTasks.get(i).getKey();
+                TaskRecord taskRecord = pickedTasks.get(i).getValue();
+                try {
+                    member.getExecutor().execute(
+                            () -> member.getTaskProcessor().processTask(member.getQueueConsumer(), taskRecord));
+                } catch (RuntimeException exc) {
+                    pickedTasks.subList(i, pickedTasks.size())
+                            .forEach(task -> task.getKey().getTaskProcessor().releaseLease(task.getValue()));
+                    throw exc;
+                }
+            }
+            return QueueProcessingStatus.PROCESSED;
+        }
+        return runQueueWithPermits(inFlightPermits);
+    }
+
+    @Nonnull
+    private QueueProcessingStatus runQueueWithPermits(@Nonnull Semaphore permits) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+            return QueueProcessingStatus.SKIPPED;
+        }
+        int acquiredPermits = 1;
+        while (acquiredPermits < maxBatchSize && permits.tryAcquire()) {
+            acquiredPermits++;
+        }
+        Map<QueueLocation, List<TaskRecord>> taskRecords;
+        try {
+            taskRecords = taskPicker.pickGroupTasks(locations, acquiredPermits);
+        } catch (RuntimeException exc) {
+            permits.release(acquiredPermits);
+            throw exc;
+        }
+        int pickedCount = taskRecords.values().stream().mapToInt(List::size).sum();
+        permits.release(acquiredPermits - pickedCount);
+        if (pickedCount == 0) {
+            return QueueProcessingStatus.SKIPPED;
+        }
+        for (Map.Entry<Member, TaskRecord> pickedTask : acquireLeases(taskRecords)) {
+            Member member = pickedTask.getKey();
+            TaskRecord taskRecord = pickedTask.getValue();
+            try {
+                member.getExecutor().execute(() -> {
+                    try {
+                        member.getTaskProcessor().processTask(member.getQueueConsumer(), taskRecord);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException exc) {
+                member.getTaskProcessor().releaseLease(taskRecord);
+                permits.release();
+                log.warn("task is rejected by executor: location={}, taskId={}",
+                        member.getLocation(), taskRecord.getId(), exc);
+            }
+        }
+        return QueueProcessingStatus.PROCESSED;
+    }
+
+    /**
+     * Начать продление аренды всех выбранных задач до передачи их исполнителям,
+     * так как задачи ожидают исполнения друг за другом
+     *
+     * @param taskRecords выбранные задачи по местоположению очереди
+     * @return выбранные задачи вместе с очередями группы в порядке передачи на исполнение
+     */
+    @Nonnull
+    private List<Map.Entry<Member, TaskRecord>> acquireLeases(
+            @Nonnull Map<QueueLocation, List<TaskRecord>> taskRecords) {
+        List<Map.Entry<Member, TaskRecord>> pickedTasks = new ArrayList<>();
+        taskRecords.forEach((location, locationTaskRecords) -> {
+            Member member = members.get(location);
+            for (TaskRecord taskRecord : locationTaskRecords) {
+                member.getTaskProcessor().acquireLease(taskRecord);
+                pickedTasks.add(new AbstractMap.SimpleImmutableEntry<>(member, taskRecord));
+            }
+        });
+        return pickedTasks;
+    }
+
+    /**
+     * Очередь группы
+     */
+    static class Member {
+        @Nonnull
+        private final QueueConsumer queueConsumer;
+        @Nonnull
+        private final TaskProcessor taskProcessor;
+        @Nonnull
+        private final Executor executor;
+
+        /**
+         * Конструктор
+         *
+         * @param queueConsumer очередь
+         * @param taskProcessor обработчик задач очереди
+         * @param executor      исполнитель задач очереди
+         */
+        Member(@Nonnull QueueConsumer queueConsumer,
+               @Nonnull TaskProcessor taskProcessor,
+               @Nonnull Executor executor) {
+            this.queueConsumer = requireNonNull(queueConsumer);
+            this.taskProcessor = requireNonNull(taskProcessor);
+            this.executor = requireNonNull(executor);
+        }
+
+        @Nonnull
+        QueueLocation getLocation() {
+            return queueConsumer.getQueueConfig().getLocation();
+        }
+
+        @Nonnull
+        QueueConsumer getQueueConsumer() {
+            return queueConsumer;
+        }
+
+        @Nonnull
+        TaskProcessor getTaskProcessor() {
+            return taskProcessor;
+        }
+
+        @Nonnull
+        Executor getExecutor() {
+            return executor;
+        }
+    }
+}
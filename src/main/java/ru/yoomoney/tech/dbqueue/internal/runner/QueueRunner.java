@@ -7,13 +7,21 @@ import ru.yoomoney.tech.dbqueue.internal.pick.PickTaskSettings;
 import ru.yoomoney.tech.dbqueue.internal.processing.MillisTimeProvider;
 import ru.yoomoney.tech.dbqueue.internal.processing.QueueProcessingStatus;
 import ru.yoomoney.tech.dbqueue.internal.processing.ReenqueueRetryStrategy;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskAckBuffer;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskLeaseHeartbeat;
 import ru.yoomoney.tech.dbqueue.internal.processing.TaskPicker;
 import ru.yoomoney.tech.dbqueue.internal.processing.TaskProcessor;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskRateLimiter;
 import ru.yoomoney.tech.dbqueue.internal.processing.TaskResultHandler;
 import ru.yoomoney.tech.dbqueue.settings.ProcessingMode;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 
@@ -52,49 +60,192 @@ public interface QueueRunner {
          * @param queueConsumer         очередь обработки задач
          * @param queueShard            шард, на котором будут запущен consumer
          * @param taskLifecycleListener слушатель процесса обработки задач
+         * @param taskAckBuffer         буфер подтверждений завершенных задач, если не задан, то задачи удаляются
+         *                              сразу, не используется в режиме {@link ProcessingMode#WRAP_IN_TRANSACTION}
+         * @param workerExecutor        пул рабочих потоков, обязателен в режиме {@link ProcessingMode#SINGLE_PICKER}
+         * @param rateLimiter           ограничитель количества выбираемых задач в секунду,
+         *                              общий для всех потоков очереди, если не задан, то выборка не ограничена
+         * @param taskLeaseHeartbeat    продление аренды обрабатываемых задач,
+         *                              обязательно при заданной настройке {@link QueueSettings#getLeaseTime()}
          * @return инстанс исполнителя задач
          */
         @SuppressWarnings({"rawtypes", "unchecked"})
         public static QueueRunner create(@Nonnull QueueConsumer queueConsumer,
                                          @Nonnull QueueShard queueShard,
-                                         @Nonnull TaskLifecycleListener taskLifecycleListener) {
+                                         @Nonnull TaskLifecycleListener taskLifecycleListener,
+                                         @Nullable TaskAckBuffer taskAckBuffer,
+                                         @Nullable Executor workerExecutor,
+                                         @Nullable TaskRateLimiter rateLimiter,
+                                         @Nullable TaskLeaseHeartbeat taskLeaseHeartbeat) {
             requireNonNull(queueConsumer);
             requireNonNull(queueShard);
             requireNonNull(taskLifecycleListener);
 
             QueueSettings queueSettings = queueConsumer.getQueueConfig().getSettings();
 
-            ReenqueueRetryStrategy reenqueueRetryStrategy = ReenqueueRetryStrategy.Factory
-                    .create(queueSettings.getReenqueueRetrySettings());
+            TaskPicker taskPicker = createTaskPicker(queueConsumer, queueShard, taskLifecycleListener, rateLimiter);
 
-            TaskPicker taskPicker = new TaskPicker(queueShard, taskLifecycleListener,
-                    new MillisTimeProvider.SystemMillisTimeProvider(),
-                    new PickTaskSettings(
-                            queueSettings.getRetryType(),
-                            queueSettings.getRetryInterval()));
-
-            TaskResultHandler taskResultHandler = new TaskResultHandler(
-                    queueConsumer.getQueueConfig().getLocation(),
-                    queueShard, reenqueueRetryStrategy);
+            ProcessingMode processingMode = queueSettings.getProcessingMode();
 
-            TaskProcessor taskProcessor = new TaskProcessor(queueShard, taskLifecycleListener,
-                    new MillisTimeProvider.SystemMillisTimeProvider(), taskResultHandler);
+            TaskProcessor taskProcessor = createTaskProcessor(queueConsumer, queueShard, taskLifecycleListener,
+                    taskAckBuffer, taskLeaseHeartbeat);
 
-            ProcessingMode processingMode = queueSettings.getProcessingMode();
             switch (processingMode) {
                 case SEPARATE_TRANSACTIONS:
                     return new QueueRunnerInSeparateTransactions(taskPicker, taskProcessor);
                 case WRAP_IN_TRANSACTION:
                     return new QueueRunnerInTransaction(taskPicker, taskProcessor, queueShard);
                 case USE_EXTERNAL_EXECUTOR:
-                    Optional<Executor> executor = queueConsumer.getExecutor();
-                    return new QueueRunnerInExternalExecutor(taskPicker, taskProcessor,
-                            executor.orElseThrow(() -> new IllegalArgumentException("Executor is empty. " +
-                                    "You must provide QueueConsumer#getExecutor in ProcessingMode#USE_EXTERNAL_EXECUTOR")));
+                    Optional<Executor> externalExecutor = queueConsumer.getExecutor();
+                    Executor executor = externalExecutor.orElseThrow(() -> new IllegalArgumentException("Executor is empty. " +
+                            "You must provide QueueConsumer#getExecutor in ProcessingMode#USE_EXTERNAL_EXECUTOR"));
+                    if (queueSettings.getMaxInFlight() > 0) {
+                        return new QueueRunnerInExternalExecutor(taskPicker, taskProcessor, executor,
+                                queueSettings.getMaxInFlight(), queueSettings.getPickBatchSize());
+                    }
+                    return new QueueRunnerInExternalExecutor(taskPicker, taskProcessor, executor);
+                case SINGLE_PICKER:
+                    if (workerExecutor == null) {
+                        throw new IllegalArgumentException(
+                                "worker executor is required in ProcessingMode#SINGLE_PICKER");
+                    }
+                    return new QueueRunnerInWorkerPool(taskPicker, taskProcessor, workerExecutor,
+                            queueSettings.getThreadCount());
+                default:
+                    throw new IllegalStateException("unknown processing mode: " + processingMode);
+            }
+        }
+
+        /**
+         * Создать исполнителя задач группы очередей одной таблицы.
+         * <p>
+         * Задачи всех очередей выбираются одним запросом, настройки выборки и обработки
+         * берутся у первой очереди группы, кроме настроек переоткладывания задач.
+         *
+         * @param queueConsumers        очереди группы
+         * @param queueShard            шард, на котором будут запущены очереди
+         * @param taskLifecycleListener слушатель процесса обработки задач
+         * @param taskAckBuffers        буферы подтверждений завершенных задач по местоположению очереди,
+         *                              не используются в режиме {@link ProcessingMode#WRAP_IN_TRANSACTION}
+         * @param workerExecutor        пул рабочих потоков, обязателен в режиме {@link ProcessingMode#SINGLE_PICKER}
+         * @param rateLimiter           ограничитель количества выбираемых задач в секунду,
+         *                              общий для всех очередей группы
+         * @param taskLeaseHeartbeats   продление аренды обрабатываемых задач по местоположению очереди,
+         *                              обязательно при заданной настройке {@link QueueSettings#getLeaseTime()}
+         * @return инстанс исполнителя задач
+         */
+        @SuppressWarnings("rawtypes")
+        public static QueueRunner createGroup(@Nonnull List<? extends QueueConsumer> queueConsumers,
+                                              @Nonnull QueueShard queueShard,
+                                              @Nonnull TaskLifecycleListener taskLifecycleListener,
+                                              @Nonnull Map<QueueLocation, TaskAckBuffer> taskAckBuffers,
+                                              @Nullable Executor workerExecutor,
+                                              @Nullable TaskRateLimiter rateLimiter,
+                                              @Nonnull Map<QueueLocation, TaskLeaseHeartbeat> taskLeaseHeartbeats) {
+            requireNonNull(queueConsumers);
+            requireNonNull(queueShard);
+            requireNonNull(taskLifecycleListener);
+            requireNonNull(taskAckBuffers);
+            requireNonNull(taskLeaseHeartbeats);
+            if (queueConsumers.isEmpty()) {
+                throw new IllegalArgumentException("queueConsumers must not be empty");
+            }
+
+            QueueSettings queueSettings = queueConsumers.get(0).getQueueConfig().getSettings();
+            TaskPicker taskPicker = createTaskPicker(queueConsumers.get(0), queueShard, taskLifecycleListener,
+                    rateLimiter);
+            ProcessingMode processingMode = queueSettings.getProcessingMode();
+            if (processingMode == ProcessingMode.SINGLE_PICKER && workerExecutor == null) {
+                throw new IllegalArgumentException("worker executor is required in ProcessingMode#SINGLE_PICKER");
+            }
+
+            List<QueueGroupRunner.Member> members = new ArrayList<>();
+            for (QueueConsumer queueConsumer : queueConsumers) {
+                QueueLocation location = queueConsumer.getQueueConfig().getLocation();
+                TaskProcessor taskProcessor = createTaskProcessor(queueConsumer, queueShard, taskLifecycleListener,
+                        taskAckBuffers.get(location), taskLeaseHeartbeats.get(location));
+                members.add(new QueueGroupRunner.Member(queueConsumer, taskProcessor,
+                        getGroupMemberExecutor(queueConsumer, processingMode, workerExecutor)));
+            }
+
+            switch (processingMode) {
+                case SEPARATE_TRANSACTIONS:
+                    return new QueueGroupRunner(taskPicker, members, queueSettings.getPickBatchSize(), 0);
+                case WRAP_IN_TRANSACTION:
+                    return new QueueRunnerInTransaction(
+                            new QueueGroupRunner(taskPicker, members, queueSettings.getPickBatchSize(), 0),
+                            queueShard);
+                case USE_EXTERNAL_EXECUTOR:
+                    return new QueueGroupRunner(taskPicker, members, queueSettings.getPickBatchSize(),
+                            queueSettings.getMaxInFlight());
+                case SINGLE_PICKER:
+                    return new QueueGroupRunner(taskPicker, members, queueSettings.getThreadCount(),
+                            queueSettings.getThreadCount());
+                default:
+                    throw new IllegalStateException("unknown processing mode: " + processingMode);
+            }
+        }
+
+        private static Executor getGroupMemberExecutor(@Nonnull QueueConsumer<?> queueConsumer,
+                                                       @Nonnull ProcessingMode processingMode,
+                                                       @Nullable Executor workerExecutor) {
+            switch (processingMode) {
+                case SEPARATE_TRANSACTIONS:
+                case WRAP_IN_TRANSACTION:
+                    return Runnable::run;
+                case USE_EXTERNAL_EXECUTOR:
+                    Optional<Executor> externalExecutor = queueConsumer.getExecutor();
+                    return externalExecutor.orElseThrow(() -> new IllegalArgumentException("Executor is empty. " +
+                            "You must provide QueueConsumer#getExecutor in ProcessingMode#USE_EXTERNAL_EXECUTOR: " +
+                            "location=" + queueConsumer.getQueueConfig().getLocation()));
+                case SINGLE_PICKER:
+                    return requireNonNull(workerExecutor);
                 default:
                     throw new IllegalStateException("unknown processing mode: " + processingMode);
             }
         }
 
+        @Nonnull
+        @SuppressWarnings("rawtypes")
+        private static TaskPicker createTaskPicker(@Nonnull QueueConsumer queueConsumer,
+                                                   @Nonnull QueueShard queueShard,
+                                                   @Nonnull TaskLifecycleListener taskLifecycleListener,
+                                                   @Nullable TaskRateLimiter rateLimiter) {
+            return new TaskPicker(queueShard, taskLifecycleListener,
+                    new MillisTimeProvider.SystemMillisTimeProvider(),
+                    new PickTaskSettings(
+                            queueConsumer.getQueueConfig().getSettings().getRetryType(),
+                            () -> queueConsumer.getQueueConfig().getSettings().getRetryInterval(),
+                            queueConsumer.getQueueConfig().getSettings().getLeaseTime().orElse(null)),
+                    rateLimiter);
+        }
+
+        @Nonnull
+        @SuppressWarnings("rawtypes")
+        private static TaskProcessor createTaskProcessor(@Nonnull QueueConsumer queueConsumer,
+                                                         @Nonnull QueueShard queueShard,
+                                                         @Nonnull TaskLifecycleListener taskLifecycleListener,
+                                                         @Nullable TaskAckBuffer taskAckBuffer,
+                                                         @Nullable TaskLeaseHeartbeat taskLeaseHeartbeat) {
+            QueueSettings queueSettings = queueConsumer.getQueueConfig().getSettings();
+            if (queueSettings.getLeaseTime().isPresent() && taskLeaseHeartbeat == null) {
+                throw new IllegalArgumentException("task lease heartbeat is required when lease time is set: " +
+                        "location=" + queueConsumer.getQueueConfig().getLocation());
+            }
+
+            ReenqueueRetryStrategy reenqueueRetryStrategy = ReenqueueRetryStrategy.Factory
+                    .create(queueSettings.getReenqueueRetrySettings());
+
+            TaskResultHandler taskResultHandler = new TaskResultHandler(
+                    queueConsumer.getQueueConfig().getLocation(),
+                    queueShard, reenqueueRetryStrategy,
+                    queueSettings.getProcessingMode() == ProcessingMode.WRAP_IN_TRANSACTION ? null : taskAckBuffer,
+                    queueSettings.getMaxAttempts(), queueSettings.getDeadLetterQueueId().orElse(null),
+                    taskLeaseHeartbeat);
+
+            return new TaskProcessor(queueShard, taskLifecycleListener,
+                    new MillisTimeProvider.SystemMillisTimeProvider(), taskResultHandler, taskLeaseHeartbeat);
+        }
+
     }
 }
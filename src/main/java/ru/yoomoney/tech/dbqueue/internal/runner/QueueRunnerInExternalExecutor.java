@@ -34,6 +34,24 @@ class QueueRunnerInExternalExecutor implements QueueRunner {
         baseQueueRunner = new BaseQueueRunner(taskPicker, taskProcessor, externalExecutor);
     }
 
+    /**
+     * Конструктор
+     *
+     * @param taskPicker       выборщик задачи
+     * @param taskProcessor    обработчик задачи
+     * @param externalExecutor исполнитель задачи
+     * @param maxInFlight      максимальное количество задач, переданных исполнителю и еще не обработанных
+     * @param pickBatchSize    максимальное количество задач, выбираемых за один раз
+     */
+    QueueRunnerInExternalExecutor(@Nonnull TaskPicker taskPicker,
+                                  @Nonnull TaskProcessor taskProcessor,
+                                  @Nonnull Executor externalExecutor,
+                                  int maxInFlight,
+                                  int pickBatchSize) {
+        baseQueueRunner = new BaseQueueRunner(taskPicker, taskProcessor, externalExecutor,
+                maxInFlight, pickBatchSize);
+    }
+
     @Override
     @Nonnull
     public QueueProcessingStatus runQueue(@Nonnull QueueConsumer queueConsumer) {
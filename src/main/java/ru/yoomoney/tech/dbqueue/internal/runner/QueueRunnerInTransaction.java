@@ -24,7 +24,7 @@ class QueueRunnerInTransaction implements QueueRunner {
 
     @Nonnull
     private final QueueShard queueShard;
-    private final BaseQueueRunner baseQueueRunner;
+    private final QueueRunner queueRunner;
 
     /**
      * Конструктор
@@ -36,15 +36,25 @@ class QueueRunnerInTransaction implements QueueRunner {
     QueueRunnerInTransaction(@Nonnull TaskPicker taskPicker,
                              @Nonnull TaskProcessor taskProcessor,
                              @Nonnull QueueShard queueShard) {
+        this(new BaseQueueRunner(taskPicker, taskProcessor, Runnable::run), queueShard);
+    }
+
+    /**
+     * Конструктор
+     *
+     * @param queueRunner исполнитель задач, выполняемый в транзакции
+     * @param queueShard  шард на котором обрабатываются задачи
+     */
+    QueueRunnerInTransaction(@Nonnull QueueRunner queueRunner,
+                             @Nonnull QueueShard queueShard) {
+        this.queueRunner = requireNonNull(queueRunner);
         this.queueShard = requireNonNull(queueShard);
-        baseQueueRunner = new BaseQueueRunner(taskPicker, taskProcessor, Runnable::run);
     }
 
     @Override
     @Nonnull
     @SuppressFBWarnings("NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE")
     public QueueProcessingStatus runQueue(@Nonnull QueueConsumer queueConsumer) {
-        return requireNonNull(queueShard.getTransactionTemplate().execute(status ->
-                baseQueueRunner.runQueue(queueConsumer)));
+        return requireNonNull(queueShard.transact(() -> queueRunner.runQueue(queueConsumer)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package ru.yoomoney.tech.dbqueue.internal.runner;
+
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.internal.processing.QueueProcessingStatus;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskPicker;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskProcessor;
+import ru.yoomoney.tech.dbqueue.settings.ProcessingMode;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.Executor;
+
+/**
+ * Исполнитель задач очереди в режиме
+ * {@link ProcessingMode#SINGLE_PICKER}
+ * <p>
+ * Выбирает задачи в потоке цикла очереди и передает их на обработку в пул рабочих потоков.
+ * Количество выбираемых задач ограничено количеством свободных рабочих потоков,
+ * при отсутствии свободных потоков выборка задач приостанавливается.
+ *
+ * @since 17.10.2026
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class QueueRunnerInWorkerPool implements QueueRunner {
+
+    private final BaseQueueRunner baseQueueRunner;
+
+    /**
+     * Конструктор
+     *
+     * @param taskPicker     выборщик задачи
+     * @param taskProcessor  обработчик задачи
+     * @param workerExecutor пул рабочих потоков
+     * @param workerCount    количество рабочих потоков
+     */
+    QueueRunnerInWorkerPool(@Nonnull TaskPicker taskPicker,
+                            @Nonnull TaskProcessor taskProcessor,
+                            @Nonnull Executor workerExecutor,
+                            int workerCount) {
+        baseQueueRunner = new BaseQueueRunner(taskPicker, taskProcessor, workerExecutor, workerCount, workerCount);
+    }
+
+    @Override
+    @Nonnull
+    public QueueProcessingStatus runQueue(@Nonnull QueueConsumer queueConsumer) {
+        return baseQueueRunner.runQueue(queueConsumer);
+    }
+
+}
@@ -50,5 +50,21 @@ public enum ProcessingMode {
      * with increasing the number of queue processing threads,
      * although this also will lead to the increasing database idle polls.
      */
-    USE_EXTERNAL_EXECUTOR
+    USE_EXTERNAL_EXECUTOR,
+
+    /**
+     * Task will be processed at least once, in an internal pool of worker threads.
+     * Each call to database will be performed in separate transaction.
+     * <p>
+     * A single thread per queue and shard picks tasks from the database
+     * and hands them off to worker threads, the number of worker threads is set by
+     * {@link QueueSettings#getThreadCount()}.
+     * The picker takes no more tasks than there are free workers and stops picking
+     * while all workers are busy, {@link QueueSettings#getPickBatchSize()} is not used.
+     * <p>
+     * This mode should be used when the queue has many processing threads,
+     * since the number of idle polls and database connections used for picking
+     * no longer depends on the number of threads.
+     */
+    SINGLE_PICKER
 }
@@ -99,8 +99,61 @@ import java.util.stream.IntStream;
  * # {@link QueueConfigsReader#VALUE_PROCESSING_MODE_SEPARATE_TRANSACTIONS}
  * # {@link QueueConfigsReader#VALUE_PROCESSING_MODE_USE_EXTERNAL_EXECUTOR}
  * # {@link QueueConfigsReader#VALUE_PROCESSING_MODE_WRAP_IN_TRANSACTION}
+ * # {@link QueueConfigsReader#VALUE_PROCESSING_MODE_SINGLE_PICKER}
  * queue-prefix.testQueue.processing-mode=use-external-executor
  *
+ * # see {@link QueueConfigsReader#SETTING_PICK_BATCH_SIZE}
+ * # 1 is used by default.
+ * queue-prefix.testQueue.pick-batch-size=10
+ *
+ * # see {@link QueueConfigsReader#SETTING_ACK_BATCH_SIZE}
+ * # 1 is used by default, which means that every finished task is deleted right away.
+ * queue-prefix.testQueue.ack-batch-size=100
+ *
+ * # see {@link QueueConfigsReader#SETTING_ACK_FLUSH_INTERVAL}
+ * # PT1S is used by default.
+ * queue-prefix.testQueue.ack-flush-interval=PT0.5S
+ *
+ * # see {@link QueueConfigsReader#SETTING_MAX_IN_FLIGHT}
+ * # unlimited by default.
+ * queue-prefix.testQueue.max-in-flight=100
+ *
+ * # see {@link QueueConfigsReader#SETTING_ADAPTIVE_NO_TASK_TIMEOUT}
+ * # false is used by default.
+ * queue-prefix.testQueue.adaptive-no-task-timeout=true
+ *
+ * # see {@link QueueConfigsReader#SETTING_MIN_THREAD_COUNT}
+ * # thread-count is used by default.
+ * queue-prefix.testQueue.min-thread-count=1
+ *
+ * # see {@link QueueConfigsReader#SETTING_MAX_THREAD_COUNT}
+ * # thread-count is used by default.
+ * queue-prefix.testQueue.max-thread-count=8
+ *
+ * # see {@link QueueConfigsReader#SETTING_AUTOSCALE_INTERVAL}
+ * # PT10S is used by default.
+ * queue-prefix.testQueue.autoscale-interval=PT30S
+ *
+ * # see {@link QueueConfigsReader#SETTING_INITIAL_NO_TASK_TIMEOUT}
+ * # PT0S is used by default, which turns off the backoff of no-task-timeout.
+ * queue-prefix.testQueue.initial-no-task-timeout=PT0.1S
+ *
+ * # see {@link QueueConfigsReader#SETTING_MAX_ATTEMPTS}
+ * # 0 is used by default, which means that failed tasks are retried forever.
+ * queue-prefix.testQueue.max-attempts=10
+ *
+ * # see {@link QueueConfigsReader#SETTING_DEAD_LETTER_QUEUE}
+ * # required when max-attempts is set.
+ * queue-prefix.testQueue.dead-letter-queue=testQueueDeadLetter
+ *
+ * # see {@link QueueConfigsReader#SETTING_RATE_LIMIT}
+ * # 0 is used by default, which means that the rate is not limited.
+ * queue-prefix.testQueue.rate-limit=100
+ *
+ * # see {@link QueueConfigsReader#SETTING_LEASE_TIME}
+ * # not set by default, which means that picked tasks are postponed for retry-interval.
+ * queue-prefix.testQueue.lease-time=PT30S
+ *
  * # see {@link QueueConfigsReader#SETTING_ADDITIONAL}
  * # see {@link QueueSettings#getAdditionalSettings()}
  * queue-prefix.testQueue.additional-settings.custom-val=custom-key
@@ -165,6 +218,10 @@ public class QueueConfigsReader {
      * Representation of {@link ProcessingMode#SEPARATE_TRANSACTIONS}
      */
     public static final String VALUE_PROCESSING_MODE_SEPARATE_TRANSACTIONS = "separate-transactions";
+    /**
+     * Representation of {@link ProcessingMode#SINGLE_PICKER}
+     */
+    public static final String VALUE_PROCESSING_MODE_SINGLE_PICKER = "single-picker";
     /**
      * Representation of {@link QueueSettings#getProcessingMode()}
      */
@@ -206,6 +263,58 @@ public class QueueConfigsReader {
      * Representation of {@link QueueSettings#getThreadCount()}
      */
     public static final String SETTING_THREAD_COUNT = "thread-count";
+    /**
+     * Representation of {@link QueueSettings#getPickBatchSize()}
+     */
+    public static final String SETTING_PICK_BATCH_SIZE = "pick-batch-size";
+    /**
+     * Representation of {@link QueueSettings#getAckBatchSize()}
+     */
+    public static final String SETTING_ACK_BATCH_SIZE = "ack-batch-size";
+    /**
+     * Representation of {@link QueueSettings#getAckFlushInterval()}
+     */
+    public static final String SETTING_ACK_FLUSH_INTERVAL = "ack-flush-interval";
+    /**
+     * Representation of {@link QueueSettings#getMaxInFlight()}
+     */
+    public static final String SETTING_MAX_IN_FLIGHT = "max-in-flight";
+    /**
+     * Representation of {@link QueueSettings#isAdaptiveNoTaskTimeout()}
+     */
+    public static final String SETTING_ADAPTIVE_NO_TASK_TIMEOUT = "adaptive-no-task-timeout";
+    /**
+     * Representation of {@link QueueSettings#getMinThreadCount()}
+     */
+    public static final String SETTING_MIN_THREAD_COUNT = "min-thread-count";
+    /**
+     * Representation of {@link QueueSettings#getMaxThreadCount()}
+     */
+    public static final String SETTING_MAX_THREAD_COUNT = "max-thread-count";
+    /**
+     * Representation of {@link QueueSettings#getAutoscaleInterval()}
+     */
+    public static final String SETTING_AUTOSCALE_INTERVAL = "autoscale-interval";
+    /**
+     * Representation of {@link QueueSettings#getInitialNoTaskTimeout()}
+     */
+    public static final String SETTING_INITIAL_NO_TASK_TIMEOUT = "initial-no-task-timeout";
+    /**
+     * Representation of {@link QueueSettings#getMaxAttempts()}
+     */
+    public static final String SETTING_MAX_ATTEMPTS = "max-attempts";
+    /**
+     * Representation of {@link QueueSettings#getDeadLetterQueueId()}
+     */
+    public static final String SETTING_DEAD_LETTER_QUEUE = "dead-letter-queue";
+    /**
+     * Representation of {@link QueueSettings#getRateLimit()}
+     */
+    public static final String SETTING_RATE_LIMIT = "rate-limit";
+    /**
+     * Representation of {@link QueueSettings#getLeaseTime()}
+     */
+    public static final String SETTING_LEASE_TIME = "lease-time";
     /**
      * Representation of {@link QueueSettings#getFatalCrashTimeout()}
      */
@@ -256,6 +365,7 @@ public class QueueConfigsReader {
     @Nonnull
     public Collection<QueueConfig> parse(@Nonnull Path configPath, @Nullable Path... overrideConfigPath) {
         Objects.requireNonNull(configPath, "config path is empty");
+        errorMessages.clear();
         Map<String, String> rawSettings = readRawSettings(configPath);
         if (overrideConfigPath != null) {
             Arrays.stream(overrideConfigPath).filter(Objects::nonNull).forEach(path ->
@@ -451,6 +561,45 @@ public class QueueConfigsReader {
                 case SETTING_PROCESSING_MODE:
                     queueSetting.withProcessingMode(parseProcessingMode(value).orElse(null));
                     return;
+                case SETTING_PICK_BATCH_SIZE:
+                    queueSetting.withPickBatchSize(parsePositiveInteger(value));
+                    return;
+                case SETTING_ACK_BATCH_SIZE:
+                    queueSetting.withAckBatchSize(parsePositiveInteger(value));
+                    return;
+                case SETTING_ACK_FLUSH_INTERVAL:
+                    queueSetting.withAckFlushInterval(Duration.parse(value));
+                    return;
+                case SETTING_MAX_IN_FLIGHT:
+                    queueSetting.withMaxInFlight(parsePositiveInteger(value));
+                    return;
+                case SETTING_ADAPTIVE_NO_TASK_TIMEOUT:
+                    queueSetting.withAdaptiveNoTaskTimeout(parseBoolean(value));
+                    return;
+                case SETTING_MIN_THREAD_COUNT:
+                    queueSetting.withMinThreadCount(parsePositiveInteger(value));
+                    return;
+                case SETTING_MAX_THREAD_COUNT:
+                    queueSetting.withMaxThreadCount(parsePositiveInteger(value));
+                    return;
+                case SETTING_AUTOSCALE_INTERVAL:
+                    queueSetting.withAutoscaleInterval(Duration.parse(value));
+                    return;
+                case SETTING_INITIAL_NO_TASK_TIMEOUT:
+                    queueSetting.withInitialNoTaskTimeout(Duration.parse(value));
+                    return;
+                case SETTING_MAX_ATTEMPTS:
+                    queueSetting.withMaxAttempts(parsePositiveInteger(value));
+                    return;
+                case SETTING_DEAD_LETTER_QUEUE:
+                    queueSetting.withDeadLetterQueueId(new QueueId(value));
+                    return;
+                case SETTING_RATE_LIMIT:
+                    queueSetting.withRateLimit(parsePositiveInteger(value));
+                    return;
+                case SETTING_LEASE_TIME:
+                    queueSetting.withLeaseTime(Duration.parse(value));
+                    return;
                 default:
                     errorMessages.add(String.format("unknown setting: name=%s, value=%s", name, value));
                     return;
@@ -462,6 +611,24 @@ public class QueueConfigsReader {
         }
     }
 
+    private Integer parsePositiveInteger(String value) {
+        Integer result = Integer.valueOf(value);
+        if (result <= 0) {
+            throw new IllegalArgumentException("value must be positive: value=" + value);
+        }
+        return result;
+    }
+
+    private Boolean parseBoolean(String value) {
+        if ("true".equals(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equals(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("value must be true or false: value=" + value);
+    }
+
     private Optional<ProcessingMode> parseProcessingMode(String name) {
         switch (name) {
             case VALUE_PROCESSING_MODE_SEPARATE_TRANSACTIONS:
@@ -470,6 +637,8 @@ public class QueueConfigsReader {
                 return Optional.of(ProcessingMode.WRAP_IN_TRANSACTION);
             case VALUE_PROCESSING_MODE_USE_EXTERNAL_EXECUTOR:
                 return Optional.of(ProcessingMode.USE_EXTERNAL_EXECUTOR);
+            case VALUE_PROCESSING_MODE_SINGLE_PICKER:
+                return Optional.of(ProcessingMode.SINGLE_PICKER);
             default:
                 errorMessages.add(String.format("unknown processing mode: name=%s", name));
                 return Optional.empty();
@@ -0,0 +1,184 @@
+package ru.yoomoney.tech.dbqueue.settings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Watches queue configuration files and reloads queue configurations when the files are changed.
+ * <p>
+ * Files are watched with {@link WatchService} in a separate daemon thread.
+ * After a change all the files are parsed again with {@link QueueConfigsReader}
+ * and the parsed configurations are passed to the listener,
+ * e.g. {@code QueueService#updateQueueConfigs(Collection)}.
+ * If the files cannot be parsed or the listener rejects the configurations,
+ * a warning is logged and the previous configurations stay in effect.
+ * Several changes made within a short delay are reloaded once.
+ *
+ * @since 17.10.2026
+ */
+public class QueueConfigsWatcher {
+    private static final Logger log = LoggerFactory.getLogger(QueueConfigsWatcher.class);
+
+    /**
+     * Delay after a change before the files are reloaded,
+     * editors often write a file with several operations.
+     */
+    private static final long RELOAD_DELAY_MILLIS = 200L;
+
+    @Nonnull
+    private final QueueConfigsReader queueConfigsReader;
+    @Nonnull
+    private final Consumer<Collection<QueueConfig>> configsListener;
+    @Nonnull
+    private final Path configPath;
+    @Nonnull
+    private final Path[] overrideConfigPaths;
+    @Nullable
+    private WatchService watchService;
+    @Nullable
+    private Thread watcherThread;
+
+    /**
+     * Constructor
+     *
+     * @param queueConfigsReader Reader of the configuration files, must not be used concurrently elsewhere.
+     * @param configsListener    Listener of reloaded queue configurations.
+     * @param configPath         File to read configuration from.
+     * @param overrideConfigPath Files that override main configuration,
+     *                           see {@link QueueConfigsReader#parse(Path, Path...)}.
+     */
+    public QueueConfigsWatcher(@Nonnull QueueConfigsReader queueConfigsReader,
+                               @Nonnull Consumer<Collection<QueueConfig>> configsListener,
+                               @Nonnull Path configPath,
+                               @Nullable Path... overrideConfigPath) {
+        this.queueConfigsReader = requireNonNull(queueConfigsReader, "queueConfigsReader");
+        this.configsListener = requireNonNull(configsListener, "configsListener");
+        this.configPath = requireNonNull(configPath, "configPath");
+        this.overrideConfigPaths = overrideConfigPath == null ? new Path[0] :
+                Arrays.stream(overrideConfigPath).filter(Objects::nonNull).toArray(Path[]::new);
+    }
+
+    /**
+     * Start watching configuration files in a separate daemon thread.
+     * Does nothing if the watcher is already started.
+     */
+    public synchronized void start() {
+        if (watcherThread != null) {
+            return;
+        }
+        List<Path> configPaths = getConfigPaths();
+        log.info("starting queue configs watcher: configPaths={}", configPaths);
+        WatchService newWatchService;
+        try {
+            newWatchService = FileSystems.getDefault().newWatchService();
+            Set<Path> directories = new LinkedHashSet<>();
+            configPaths.forEach(path -> directories.add(path.getParent()));
+            for (Path directory : directories) {
+                directory.register(newWatchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException exc) {
+            throw new IllegalStateException("cannot watch queue configs: configPaths=" + configPaths, exc);
+        }
+        watchService = newWatchService;
+        watcherThread = new Thread(() -> watch(newWatchService, configPaths), "queue-configs-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    /**
+     * Stop watching configuration files.
+     */
+    public synchronized void shutdown() {
+        if (watcherThread == null) {
+            return;
+        }
+        log.info("shutting down queue configs watcher: configPath={}", configPath);
+        watcherThread.interrupt();
+        watcherThread = null;
+        try {
+            requireNonNull(watchService).close();
+        } catch (IOException exc) {
+            log.warn("cannot close watch service of queue configs: configPath={}", configPath, exc);
+        }
+        watchService = null;
+    }
+
+    @Nonnull
+    private List<Path> getConfigPaths() {
+        List<Path> configPaths = new ArrayList<>();
+        configPaths.add(configPath.toAbsolutePath());
+        Arrays.stream(overrideConfigPaths).forEach(path -> configPaths.add(path.toAbsolutePath()));
+        return configPaths;
+    }
+
+    private void watch(@Nonnull WatchService watchService, @Nonnull List<Path> configPaths) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (isConfigChanged(watchService.take(), configPaths)) {
+                    WatchKey watchKey;
+                    while ((watchKey = watchService.poll(RELOAD_DELAY_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                        isConfigChanged(watchKey, configPaths);
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            log.debug("watch service of queue configs is closed: configPath={}", configPath);
+        }
+    }
+
+    private static boolean isConfigChanged(@Nonnull WatchKey watchKey, @Nonnull List<Path> configPaths) {
+        Path directory = (Path) watchKey.watchable();
+        boolean changed = false;
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || configPaths.contains(directory.resolve((Path) event.context()))) {
+                changed = true;
+            }
+        }
+        watchKey.reset();
+        return changed;
+    }
+
+    private void reload() {
+        Collection<QueueConfig> queueConfigs;
+        try {
+            queueConfigs = queueConfigsReader.parse(configPath, overrideConfigPaths);
+        } catch (RuntimeException exc) {
+            log.warn("cannot reload queue configs, previous configs are kept: configPath={}", configPath, exc);
+            return;
+        }
+        log.info("queue configs are reloaded: configPath={}", configPath);
+        try {
+            configsListener.accept(queueConfigs);
+        } catch (RuntimeException exc) {
+            log.warn("cannot apply reloaded queue configs, previous configs are kept: configPath={}",
+                    configPath, exc);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -22,8 +23,14 @@ public final class QueueSettings {
             Memoizer.memoize(Duration::parse);
 
     private static final Duration DEFAULT_TIMEOUT_ON_FATAL_CRASH = Duration.ofSeconds(1L);
+    private static final Duration DEFAULT_AUTOSCALE_INTERVAL = Duration.ofSeconds(10L);
 
     private final int threadCount;
+    private final int minThreadCount;
+    private final int maxThreadCount;
+    @Nonnull
+    private final Duration autoscaleInterval;
+    private final int pickBatchSize;
     @Nonnull
     private final Duration noTaskTimeout;
     @Nonnull
@@ -38,6 +45,19 @@ public final class QueueSettings {
     private final ReenqueueRetrySettings reenqueueRetrySettings;
     @Nonnull
     private final ProcessingMode processingMode;
+    private final int ackBatchSize;
+    @Nonnull
+    private final Duration ackFlushInterval;
+    private final int maxInFlight;
+    private final boolean adaptiveNoTaskTimeout;
+    @Nonnull
+    private final Duration initialNoTaskTimeout;
+    private final int maxAttempts;
+    @Nullable
+    private final QueueId deadLetterQueueId;
+    private final int rateLimit;
+    @Nullable
+    private final Duration leaseTime;
     @Nonnull
     private final Map<String, String> additionalSettings;
 
@@ -49,10 +69,29 @@ public final class QueueSettings {
                           @Nullable Duration retryInterval,
                           @Nullable ReenqueueRetrySettings reenqueueRetrySettings,
                           @Nullable ProcessingMode processingMode,
+                          @Nullable Integer pickBatchSize,
+                          @Nullable Integer ackBatchSize,
+                          @Nullable Duration ackFlushInterval,
+                          @Nullable Integer maxInFlight,
+                          @Nullable Boolean adaptiveNoTaskTimeout,
+                          @Nullable Integer minThreadCount,
+                          @Nullable Integer maxThreadCount,
+                          @Nullable Duration autoscaleInterval,
+                          @Nullable Duration initialNoTaskTimeout,
+                          @Nullable Integer maxAttempts,
+                          @Nullable QueueId deadLetterQueueId,
+                          @Nullable Integer rateLimit,
+                          @Nullable Duration leaseTime,
                           @Nullable Map<String, String> additionalSettings) {
         this.noTaskTimeout = Objects.requireNonNull(noTaskTimeout);
         this.betweenTaskTimeout = Objects.requireNonNull(betweenTaskTimeout);
-        this.threadCount = threadCount == null ? 1 : threadCount;
+        if (threadCount == null) {
+            this.threadCount = minThreadCount == null ? 1 : minThreadCount;
+        } else {
+            this.threadCount = threadCount;
+        }
+        this.minThreadCount = minThreadCount == null ? this.threadCount : minThreadCount;
+        this.maxThreadCount = maxThreadCount == null ? this.threadCount : maxThreadCount;
         this.fatalCrashTimeout = fatalCrashTimeout == null ? DEFAULT_TIMEOUT_ON_FATAL_CRASH : fatalCrashTimeout;
         this.retryType = retryType == null ? TaskRetryType.GEOMETRIC_BACKOFF : retryType;
         this.retryInterval = retryInterval == null ? Duration.ofMinutes(1) : retryInterval;
@@ -60,6 +99,75 @@ public final class QueueSettings {
                 ? ReenqueueRetrySettings.createDefault()
                 : reenqueueRetrySettings;
         this.processingMode = processingMode == null ? ProcessingMode.SEPARATE_TRANSACTIONS : processingMode;
+        this.pickBatchSize = pickBatchSize == null ? 1 : pickBatchSize;
+        if (this.pickBatchSize <= 0) {
+            throw new IllegalArgumentException("pickBatchSize must be positive: pickBatchSize=" + this.pickBatchSize);
+        }
+        if (this.pickBatchSize > 1 && this.processingMode == ProcessingMode.WRAP_IN_TRANSACTION) {
+            throw new IllegalArgumentException("pickBatchSize is not supported in processing mode " +
+                    this.processingMode + ": pickBatchSize=" + this.pickBatchSize);
+        }
+        this.ackBatchSize = ackBatchSize == null ? 1 : ackBatchSize;
+        if (this.ackBatchSize <= 0) {
+            throw new IllegalArgumentException("ackBatchSize must be positive: ackBatchSize=" + this.ackBatchSize);
+        }
+        this.ackFlushInterval = ackFlushInterval == null ? Duration.ofSeconds(1L) : ackFlushInterval;
+        if (this.ackFlushInterval.isNegative() || this.ackFlushInterval.isZero()) {
+            throw new IllegalArgumentException("ackFlushInterval must be positive: ackFlushInterval=" +
+                    this.ackFlushInterval);
+        }
+        this.maxInFlight = maxInFlight == null ? 0 : maxInFlight;
+        if (this.maxInFlight < 0) {
+            throw new IllegalArgumentException("maxInFlight must not be negative: maxInFlight=" + this.maxInFlight);
+        }
+        this.adaptiveNoTaskTimeout = Boolean.TRUE.equals(adaptiveNoTaskTimeout);
+        if (this.threadCount > 0 && (this.minThreadCount <= 0 || this.minThreadCount > this.threadCount ||
+                this.threadCount > this.maxThreadCount)) {
+            throw new IllegalArgumentException("thread count must be within min and max thread count: " +
+                    "threadCount=" + this.threadCount + ", minThreadCount=" + this.minThreadCount +
+                    ", maxThreadCount=" + this.maxThreadCount);
+        }
+        if (this.minThreadCount != this.maxThreadCount && this.processingMode == ProcessingMode.SINGLE_PICKER) {
+            throw new IllegalArgumentException("thread count autoscaling is not supported in processing mode " +
+                    this.processingMode);
+        }
+        this.autoscaleInterval = autoscaleInterval == null ? DEFAULT_AUTOSCALE_INTERVAL : autoscaleInterval;
+        if (this.autoscaleInterval.isNegative() || this.autoscaleInterval.isZero()) {
+            throw new IllegalArgumentException("autoscaleInterval must be positive: autoscaleInterval=" +
+                    this.autoscaleInterval);
+        }
+        this.initialNoTaskTimeout = initialNoTaskTimeout == null ? Duration.ZERO : initialNoTaskTimeout;
+        if (this.initialNoTaskTimeout.isNegative()) {
+            throw new IllegalArgumentException("initialNoTaskTimeout must not be negative: initialNoTaskTimeout=" +
+                    this.initialNoTaskTimeout);
+        }
+        this.maxAttempts = maxAttempts == null ? 0 : maxAttempts;
+        if (this.maxAttempts < 0) {
+            throw new IllegalArgumentException("maxAttempts must not be negative: maxAttempts=" + this.maxAttempts);
+        }
+        if (this.maxAttempts > 0 && deadLetterQueueId == null) {
+            throw new IllegalArgumentException("deadLetterQueueId is required when maxAttempts is set: " +
+                    "maxAttempts=" + this.maxAttempts);
+        }
+        this.deadLetterQueueId = deadLetterQueueId;
+        this.rateLimit = rateLimit == null ? 0 : rateLimit;
+        if (this.rateLimit < 0) {
+            throw new IllegalArgumentException("rateLimit must not be negative: rateLimit=" + this.rateLimit);
+        }
+        this.leaseTime = leaseTime;
+        if (leaseTime != null) {
+            if (leaseTime.getSeconds() <= 0) {
+                throw new IllegalArgumentException("leaseTime must be at least one second: leaseTime=" + leaseTime);
+            }
+            if (this.processingMode == ProcessingMode.WRAP_IN_TRANSACTION) {
+                throw new IllegalArgumentException("lease time is not supported in processing mode " +
+                        this.processingMode);
+            }
+            if (this.ackBatchSize > 1 && this.ackFlushInterval.multipliedBy(2L).compareTo(leaseTime) >= 0) {
+                throw new IllegalArgumentException("ackFlushInterval must be less than a half of leaseTime: " +
+                        "ackFlushInterval=" + this.ackFlushInterval + ", leaseTime=" + leaseTime);
+            }
+        }
         this.additionalSettings = additionalSettings == null ? Collections.emptyMap() :
                 Collections.unmodifiableMap(new HashMap<>(additionalSettings));
     }
@@ -105,6 +213,198 @@ public final class QueueSettings {
         return threadCount;
     }
 
+    /**
+     * Get minimum number of threads for processing tasks in the queue.
+     * Equals to {@link #getThreadCount()} by default.
+     * When differs from {@link #getMaxThreadCount()}, number of threads is adjusted to the load
+     * every {@link #getAutoscaleInterval()}: added while almost every pick returns tasks and
+     * removed while most of the picks are empty.
+     * Thread count autoscaling is not supported in {@link ProcessingMode#SINGLE_PICKER} mode.
+     *
+     * @return Minimum number of processing threads.
+     */
+    public int getMinThreadCount() {
+        return minThreadCount;
+    }
+
+    /**
+     * Get maximum number of threads for processing tasks in the queue.
+     * Equals to {@link #getThreadCount()} by default.
+     *
+     * @return Maximum number of processing threads.
+     * @see #getMinThreadCount()
+     */
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    /**
+     * Get attribute that number of threads is adjusted to the load.
+     *
+     * @return true if thread count autoscaling is enabled.
+     * @see #getMinThreadCount()
+     */
+    public boolean isThreadCountAutoscaled() {
+        return minThreadCount != maxThreadCount;
+    }
+
+    /**
+     * Get interval between adjustments of number of threads to the load.
+     * Used only when {@link #isThreadCountAutoscaled()} is true.
+     *
+     * @return Thread count autoscaling interval.
+     */
+    @Nonnull
+    public Duration getAutoscaleInterval() {
+        return autoscaleInterval;
+    }
+
+    /**
+     * Get maximum number of tasks which are picked from the queue within a single database query.
+     * Picked tasks are processed one after another by the same thread.
+     * Must be 1 in {@link ProcessingMode#WRAP_IN_TRANSACTION} mode, since a batch is picked
+     * within a single transaction and a failure of one task would roll back the others.
+     *
+     * @return Number of tasks picked at once.
+     */
+    public int getPickBatchSize() {
+        return pickBatchSize;
+    }
+
+    /**
+     * Get number of finished tasks which are deleted from the queue within a single statement.
+     * Value 1 means that every finished task is deleted right away in a separate transaction.
+     * Greater values enable asynchronous acknowledgement: identifiers of finished tasks are buffered
+     * and deleted in batches when buffer is full or {@link #getAckFlushInterval()} is elapsed.
+     * Not applicable to {@link ProcessingMode#WRAP_IN_TRANSACTION} mode.
+     * A buffered task still blocks the following tasks of its ordering key until the buffer is flushed.
+     *
+     * @return Number of finished tasks deleted at once.
+     */
+    public int getAckBatchSize() {
+        return ackBatchSize;
+    }
+
+    /**
+     * Get maximum time the identifiers of finished tasks are kept in the acknowledgement buffer.
+     * The interval should be noticeably less than {@link #getRetryInterval()},
+     * otherwise finished tasks might be picked again before they are deleted.
+     * Used only when {@link #getAckBatchSize()} is greater than 1.
+     * Must be positive, 1 second by default.
+     *
+     * @return Flush interval of the acknowledgement buffer.
+     */
+    @Nonnull
+    public Duration getAckFlushInterval() {
+        return ackFlushInterval;
+    }
+
+    /**
+     * Get maximum number of tasks which are handed off to the external executor and not yet processed.
+     * When the limit is reached, tasks are not picked until some of the tasks in flight are processed.
+     * Value 0 means there is no limit.
+     * Applicable only to {@link ProcessingMode#USE_EXTERNAL_EXECUTOR} mode.
+     *
+     * @return Maximum number of tasks in flight.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Get attribute that the delay between picks, when there are no tasks for processing, is adapted to the earliest
+     * scheduled task in the queue.
+     * When enabled, after an empty pick the queue waits until the next task is ready, but no longer
+     * than {@link #getNoTaskTimeout()}. The time of the next task is requested from the database
+     * and shared between all threads of the queue on the shard.
+     *
+     * @return true if the delay is adapted to the next scheduled task.
+     */
+    public boolean isAdaptiveNoTaskTimeout() {
+        return adaptiveNoTaskTimeout;
+    }
+
+    /**
+     * Get initial delay between picks when there are no tasks for processing.
+     * <p>
+     * When set, the delay after the first empty pick equals to the initial delay,
+     * the delay is doubled after every next empty pick up to {@link #getNoTaskTimeout()}
+     * and is reset after a pick which returns tasks.
+     * Every delay is randomly shortened by up to a half, so threads of the queue poll the database at different times.
+     * So the queue picks up new tasks quickly after a short idle period and polls rarely while it stays empty.
+     * Zero by default, which means that the delay always equals to {@link #getNoTaskTimeout()}.
+     *
+     * @return Initial delay when there are no tasks to process.
+     */
+    @Nonnull
+    public Duration getInitialNoTaskTimeout() {
+        return initialNoTaskTimeout;
+    }
+
+    /**
+     * Get maximum number of failed attempts to process a task before the task is moved
+     * to the {@link #getDeadLetterQueueId() dead letter queue}.
+     * <p>
+     * The attempts are counted since the task was enqueued or reenqueued,
+     * see {@link ru.yoomoney.tech.dbqueue.api.Task#getAttemptsCount()}.
+     * Moved tasks are no longer picked by the queue, so the tasks which always fail
+     * do not grow the set of rows scanned by the pick query.
+     * Zero by default, which means that failed tasks are retried forever.
+     *
+     * @return Maximum number of attempts to process a task.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Get identifier of the dead letter queue in the same table, where the tasks are moved to
+     * after {@link #getMaxAttempts()} failed attempts.
+     * <p>
+     * Tasks in the dead letter queue can be inspected in the table or processed by a separate consumer.
+     *
+     * @return Identifier of the dead letter queue.
+     */
+    @Nonnull
+    public Optional<QueueId> getDeadLetterQueueId() {
+        return Optional.ofNullable(deadLetterQueueId);
+    }
+
+    /**
+     * Get maximum number of tasks picked per second by all threads of the queue on a shard.
+     * <p>
+     * Threads take permits from a token bucket before the pick query,
+     * so tasks over the limit stay in the queue and their attempts are not incremented.
+     * Up to a second worth of permits can be used at once after the queue was idle.
+     * Zero by default, which means that the rate is not limited.
+     *
+     * @return Maximum number of tasks per second.
+     */
+    public int getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Get lease time of a picked task.
+     * <p>
+     * When set, a picked task is postponed for the lease time instead of {@link #getRetryInterval()},
+     * and the lease of the picked tasks is extended every third of the lease time
+     * by a single statement per queue on a shard. The extension never moves a task earlier.
+     * So the tasks of a crashed instance are picked again after the lease time,
+     * while long-running tasks are not picked twice.
+     * After a failed attempt the task is rescheduled according to {@link #getRetryType()}
+     * counting from the end of the attempt, replacing the extended lease.
+     * Not supported in {@link ProcessingMode#WRAP_IN_TRANSACTION} mode.
+     * When {@link #getAckBatchSize()} is greater than 1, {@link #getAckFlushInterval()}
+     * must be less than a half of the lease time.
+     *
+     * @return Lease time of a picked task.
+     */
+    @Nonnull
+    public Optional<Duration> getLeaseTime() {
+        return Optional.ofNullable(leaseTime);
+    }
+
     /**
      * Get delay duration between picking tasks from the queue if there are no task for processing.
      *
@@ -192,6 +492,10 @@ public final class QueueSettings {
     public String toString() {
         return '{' +
                 "threadCount=" + threadCount +
+                ", minThreadCount=" + minThreadCount +
+                ", maxThreadCount=" + maxThreadCount +
+                ", autoscaleInterval=" + autoscaleInterval +
+                ", pickBatchSize=" + pickBatchSize +
                 ", betweenTaskTimeout=" + betweenTaskTimeout +
                 ", noTaskTimeout=" + noTaskTimeout +
                 ", processingMode=" + processingMode +
@@ -199,6 +503,15 @@ public final class QueueSettings {
                 ", retryInterval=" + retryInterval +
                 ", reenqueueRetrySettings=" + reenqueueRetrySettings +
                 ", fatalCrashTimeout=" + fatalCrashTimeout +
+                ", ackBatchSize=" + ackBatchSize +
+                ", ackFlushInterval=" + ackFlushInterval +
+                ", maxInFlight=" + maxInFlight +
+                ", adaptiveNoTaskTimeout=" + adaptiveNoTaskTimeout +
+                ", initialNoTaskTimeout=" + initialNoTaskTimeout +
+                ", maxAttempts=" + maxAttempts +
+                ", deadLetterQueueId=" + deadLetterQueueId +
+                ", rateLimit=" + rateLimit +
+                ", leaseTime=" + leaseTime +
                 (additionalSettings.isEmpty() ? "" : ", additionalSettings=" + additionalSettings) +
                 '}';
     }
@@ -213,6 +526,10 @@ public final class QueueSettings {
         }
         QueueSettings that = (QueueSettings) obj;
         return threadCount == that.threadCount &&
+                minThreadCount == that.minThreadCount &&
+                maxThreadCount == that.maxThreadCount &&
+                Objects.equals(autoscaleInterval, that.autoscaleInterval) &&
+                pickBatchSize == that.pickBatchSize &&
                 retryType == that.retryType &&
                 processingMode == that.processingMode &&
                 Objects.equals(reenqueueRetrySettings, that.reenqueueRetrySettings) &&
@@ -220,13 +537,24 @@ public final class QueueSettings {
                 Objects.equals(betweenTaskTimeout, that.betweenTaskTimeout) &&
                 Objects.equals(fatalCrashTimeout, that.fatalCrashTimeout) &&
                 Objects.equals(retryInterval, that.retryInterval) &&
+                ackBatchSize == that.ackBatchSize &&
+                Objects.equals(ackFlushInterval, that.ackFlushInterval) &&
+                maxInFlight == that.maxInFlight &&
+                adaptiveNoTaskTimeout == that.adaptiveNoTaskTimeout &&
+                Objects.equals(initialNoTaskTimeout, that.initialNoTaskTimeout) &&
+                maxAttempts == that.maxAttempts &&
+                Objects.equals(deadLetterQueueId, that.deadLetterQueueId) &&
+                rateLimit == that.rateLimit &&
+                Objects.equals(leaseTime, that.leaseTime) &&
                 Objects.equals(additionalSettings, that.additionalSettings);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(threadCount, noTaskTimeout, betweenTaskTimeout, fatalCrashTimeout, retryType, reenqueueRetrySettings,
-                processingMode, retryInterval, additionalSettings);
+        return Objects.hash(threadCount, minThreadCount, maxThreadCount, autoscaleInterval, noTaskTimeout,
+                betweenTaskTimeout, fatalCrashTimeout, retryType, reenqueueRetrySettings, processingMode,
+                retryInterval, pickBatchSize, ackBatchSize, ackFlushInterval, maxInFlight, adaptiveNoTaskTimeout,
+                initialNoTaskTimeout, maxAttempts, deadLetterQueueId, rateLimit, leaseTime, additionalSettings);
     }
 
     /**
@@ -241,6 +569,19 @@ public final class QueueSettings {
         private Duration retryInterval;
         private ReenqueueRetrySettings reenqueueRetrySettings;
         private ProcessingMode processingMode;
+        private Integer pickBatchSize;
+        private Integer ackBatchSize;
+        private Duration ackFlushInterval;
+        private Integer maxInFlight;
+        private Boolean adaptiveNoTaskTimeout;
+        private Integer minThreadCount;
+        private Integer maxThreadCount;
+        private Duration autoscaleInterval;
+        private Duration initialNoTaskTimeout;
+        private Integer maxAttempts;
+        private QueueId deadLetterQueueId;
+        private Integer rateLimit;
+        private Duration leaseTime;
         private final Map<String, String> additionalSettings = new HashMap<>();
 
         private Builder() {
@@ -292,6 +633,39 @@ public final class QueueSettings {
             return this;
         }
 
+        /**
+         * Set minimum number of threads for processing tasks in the queue.
+         *
+         * @param minThreadCount Minimum number of processing threads.
+         * @return Reference to the same builder.
+         */
+        public Builder withMinThreadCount(@Nullable Integer minThreadCount) {
+            this.minThreadCount = minThreadCount;
+            return this;
+        }
+
+        /**
+         * Set maximum number of threads for processing tasks in the queue.
+         *
+         * @param maxThreadCount Maximum number of processing threads.
+         * @return Reference to the same builder.
+         */
+        public Builder withMaxThreadCount(@Nullable Integer maxThreadCount) {
+            this.maxThreadCount = maxThreadCount;
+            return this;
+        }
+
+        /**
+         * Set interval between adjustments of number of threads to the load.
+         *
+         * @param autoscaleInterval Thread count autoscaling interval.
+         * @return Reference to the same builder.
+         */
+        public Builder withAutoscaleInterval(@Nullable Duration autoscaleInterval) {
+            this.autoscaleInterval = autoscaleInterval;
+            return this;
+        }
+
         /**
          * Set task execution retry strategy.
          *
@@ -337,6 +711,122 @@ public final class QueueSettings {
             return this;
         }
 
+        /**
+         * Set maximum number of tasks which are picked from the queue within a single database query.
+         *
+         * @param pickBatchSize Number of tasks picked at once.
+         * @return Reference to the same builder.
+         */
+        public Builder withPickBatchSize(@Nullable Integer pickBatchSize) {
+            this.pickBatchSize = pickBatchSize;
+            return this;
+        }
+
+        /**
+         * Set number of finished tasks which are deleted from the queue within a single statement.
+         *
+         * @param ackBatchSize Number of finished tasks deleted at once.
+         * @return Reference to the same builder.
+         */
+        public Builder withAckBatchSize(@Nullable Integer ackBatchSize) {
+            this.ackBatchSize = ackBatchSize;
+            return this;
+        }
+
+        /**
+         * Set maximum time the identifiers of finished tasks are kept in the acknowledgement buffer.
+         *
+         * @param ackFlushInterval Flush interval of the acknowledgement buffer.
+         * @return Reference to the same builder.
+         */
+        public Builder withAckFlushInterval(@Nullable Duration ackFlushInterval) {
+            this.ackFlushInterval = ackFlushInterval;
+            return this;
+        }
+
+        /**
+         * Set maximum number of tasks which are handed off to the external executor and not yet processed.
+         *
+         * @param maxInFlight Maximum number of tasks in flight, 0 means there is no limit.
+         * @return Reference to the same builder.
+         */
+        public Builder withMaxInFlight(@Nullable Integer maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Set attribute that the delay between picks, when there are no tasks for processing, is adapted
+         * to the earliest scheduled task in the queue.
+         *
+         * @param adaptiveNoTaskTimeout true to adapt the delay to the next scheduled task.
+         * @return Reference to the same builder.
+         */
+        public Builder withAdaptiveNoTaskTimeout(@Nullable Boolean adaptiveNoTaskTimeout) {
+            this.adaptiveNoTaskTimeout = adaptiveNoTaskTimeout;
+            return this;
+        }
+
+        /**
+         * Set initial delay between picks when there are no tasks for processing,
+         * see {@link QueueSettings#getInitialNoTaskTimeout()}.
+         *
+         * @param initialNoTaskTimeout Initial delay when there are no tasks to process.
+         * @return Reference to the same builder.
+         */
+        public Builder withInitialNoTaskTimeout(@Nullable Duration initialNoTaskTimeout) {
+            this.initialNoTaskTimeout = initialNoTaskTimeout;
+            return this;
+        }
+
+        /**
+         * Set maximum number of failed attempts to process a task before the task is moved
+         * to the dead letter queue, see {@link QueueSettings#getMaxAttempts()}.
+         *
+         * @param maxAttempts Maximum number of attempts to process a task.
+         * @return Reference to the same builder.
+         */
+        public Builder withMaxAttempts(@Nullable Integer maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Set identifier of the dead letter queue in the same table,
+         * see {@link QueueSettings#getDeadLetterQueueId()}.
+         *
+         * @param deadLetterQueueId Identifier of the dead letter queue.
+         * @return Reference to the same builder.
+         */
+        public Builder withDeadLetterQueueId(@Nullable QueueId deadLetterQueueId) {
+            this.deadLetterQueueId = deadLetterQueueId;
+            return this;
+        }
+
+        /**
+         * Set maximum number of tasks picked per second on a shard,
+         * see {@link QueueSettings#getRateLimit()}.
+         *
+         * @param rateLimit Maximum number of tasks per second.
+         * @return Reference to the same builder.
+         */
+        public Builder withRateLimit(@Nullable Integer rateLimit) {
+            this.rateLimit = rateLimit;
+            return this;
+        }
+
+        /**
+         * Set lease time of a picked task,
+         * see {@link QueueSettings#getLeaseTime()}.
+         *
+         * @param leaseTime Lease time of a picked task.
+         * @return Reference to the same builder.
+         */
+        public Builder withLeaseTime(@Nullable Duration leaseTime) {
+            this.leaseTime = leaseTime;
+            return this;
+        }
+
         /**
          * Set the map of additional properties for the queue.
          *
@@ -367,8 +857,11 @@ public final class QueueSettings {
          * @return A new queue settings object.
          */
         public QueueSettings build() {
-            return new QueueSettings(noTaskTimeout, betweenTaskTimeout, fatalCrashTimeout, threadCount,
-                    retryType, retryInterval, reenqueueRetrySettings, processingMode, additionalSettings);
+            return new QueueSettings(noTaskTimeout, betweenTaskTimeout, fatalCrashTimeout, threadCount, retryType,
+                    retryInterval, reenqueueRetrySettings, processingMode, pickBatchSize, ackBatchSize,
+                    ackFlushInterval, maxInFlight, adaptiveNoTaskTimeout, minThreadCount, maxThreadCount,
+                    autoscaleInterval, initialNoTaskTimeout, maxAttempts, deadLetterQueueId, rateLimit,
+                    leaseTime, additionalSettings);
         }
     }
 
@@ -44,7 +44,7 @@ public class ExampleConfiguration {
         QueueShard shard = new QueueShard(DatabaseDialect.POSTGRESQL,
                 QueueTableSchema.builder().build(),
                 new QueueShardId("main"),
-                PostgresDatabaseInitializer.getDataSource());
+                PostgresDatabaseInitializer.getDatabase());
 
         QueueConfig config = new QueueConfig(QueueLocation.builder().withTableName("example_task_table")
                 .withQueueId(new QueueId("example_queue")).build(),
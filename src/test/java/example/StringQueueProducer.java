@@ -8,6 +8,8 @@ import ru.yoomoney.tech.dbqueue.config.QueueShard;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
 
 import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
@@ -33,12 +35,30 @@ public class StringQueueProducer implements QueueProducer<String> {
     @Override
     public long enqueue(@Nonnull EnqueueParams<String> enqueueParams) {
         requireNonNull(enqueueParams);
-        EnqueueParams<String> rawEnqueueParams = new EnqueueParams<String>()
+        EnqueueParams<String> rawEnqueueParams = toRawEnqueueParams(enqueueParams);
+        return requireNonNull(queueShard.transact(() ->
+                queueShard.getQueueDao().enqueue(queueConfig.getLocation(), rawEnqueueParams)));
+    }
+
+    @Nonnull
+    @Override
+    public List<Long> enqueueBatch(@Nonnull List<EnqueueParams<String>> enqueueParams) {
+        requireNonNull(enqueueParams);
+        List<EnqueueParams<String>> rawEnqueueParams = enqueueParams.stream()
+                .map(this::toRawEnqueueParams)
+                .collect(Collectors.toList());
+        return requireNonNull(queueShard.transact(() ->
+                queueShard.getQueueDao().enqueueBatch(queueConfig.getLocation(), rawEnqueueParams)));
+    }
+
+    private EnqueueParams<String> toRawEnqueueParams(@Nonnull EnqueueParams<String> enqueueParams) {
+        return new EnqueueParams<String>()
                 .withPayload(getPayloadTransformer().fromObject(enqueueParams.getPayload()))
                 .withExecutionDelay(enqueueParams.getExecutionDelay())
+                .withPriority(enqueueParams.getPriority())
+                .withOrderingKey(enqueueParams.getOrderingKey())
+                .withDeduplicationKey(enqueueParams.getDeduplicationKey())
                 .withExtData(enqueueParams.getExtData());
-        return requireNonNull(queueShard.transact(() ->
-                queueShard.getQueueDao().enqueue(queueConfig.getLocation(), rawEnqueueParams)));
     }
 
     @Nonnull
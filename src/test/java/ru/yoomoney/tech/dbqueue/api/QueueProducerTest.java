@@ -0,0 +1,41 @@
+package ru.yoomoney.tech.dbqueue.api;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.api.impl.NoopPayloadTransformer;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @since 17.10.2026
+ */
+public class QueueProducerTest {
+
+    @Test
+    public void should_enqueue_batch_one_by_one_by_default() {
+        List<String> enqueuedPayloads = new ArrayList<>();
+        QueueProducer<String> producer = new QueueProducer<String>() {
+            @Override
+            public long enqueue(@Nonnull EnqueueParams<String> enqueueParams) {
+                enqueuedPayloads.add(enqueueParams.getPayload());
+                return enqueuedPayloads.size();
+            }
+
+            @Nonnull
+            @Override
+            public TaskPayloadTransformer<String> getPayloadTransformer() {
+                return NoopPayloadTransformer.getInstance();
+            }
+        };
+
+        List<Long> ids = producer.enqueueBatch(Arrays.asList(EnqueueParams.create("1"), EnqueueParams.create("2")));
+
+        assertThat(ids, equalTo(Arrays.asList(1L, 2L)));
+        assertThat(enqueuedPayloads, equalTo(Arrays.asList("1", "2")));
+    }
+}
@@ -2,10 +2,12 @@ package ru.yoomoney.tech.dbqueue.config;
 
 import example.StringQueueConsumer;
 import org.junit.Test;
-import org.springframework.jdbc.core.JdbcOperations;
-import org.springframework.transaction.support.TransactionOperations;
+import ru.yoomoney.tech.dbqueue.dao.Database;
 import ru.yoomoney.tech.dbqueue.internal.processing.QueueLoop;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskAckBuffer;
+import ru.yoomoney.tech.dbqueue.internal.processing.ThreadCountAutoscaler;
 import ru.yoomoney.tech.dbqueue.internal.runner.QueueRunner;
+import ru.yoomoney.tech.dbqueue.settings.ProcessingMode;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
@@ -13,12 +15,19 @@ import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 import ru.yoomoney.tech.dbqueue.stub.NoopQueueConsumer;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Oleg Kandaurov
@@ -27,7 +36,7 @@ import static org.mockito.Mockito.verify;
 public class QueueExecutionPoolTest {
 
     private static QueueShard DEFAULT_SHARD = new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(),
-            new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class));
+            new QueueShardId("s1"), mock(Database.class));
 
     @Test
     public void should_start() {
@@ -46,6 +55,106 @@ public class QueueExecutionPoolTest {
         verify(queueLoop, times(2)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
     }
 
+    @Test
+    public void should_change_thread_count() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(2)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        QueueLoop queueLoop = mock(QueueLoop.class);
+        when(queueLoop.cancelStop(1)).thenReturn(1);
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD, queueLoop, new DirectExecutor(), queueRunner);
+        pool.setThreadCount(3);
+        verify(queueLoop, never()).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+
+        pool.start();
+        verify(queueLoop, times(3)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+
+        pool.setThreadCount(5);
+        verify(queueLoop).cancelStop(2);
+        verify(queueLoop, times(5)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+
+        pool.setThreadCount(1);
+        verify(queueLoop).stop(4);
+
+        pool.setThreadCount(2);
+        verify(queueLoop).cancelStop(1);
+        verify(queueLoop, times(5)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+    }
+
+    @Test
+    public void should_autoscale_thread_count() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(2)
+                        .withMinThreadCount(1)
+                        .withMaxThreadCount(4)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        QueueLoop queueLoop = mock(QueueLoop.class);
+        ThreadCountAutoscaler autoscaler = mock(ThreadCountAutoscaler.class);
+        when(autoscaler.getThreadCount(2)).thenReturn(4);
+        when(autoscaler.getThreadCount(4)).thenReturn(3);
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD, queueLoop, new DirectExecutor(), queueRunner);
+        pool.start();
+
+        pool.autoscaleThreadCount(autoscaler);
+        verify(queueLoop, times(4)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+        pool.autoscaleThreadCount(autoscaler);
+        verify(queueLoop).stop(1);
+
+        when(queueLoop.isPaused()).thenReturn(true);
+        pool.autoscaleThreadCount(autoscaler);
+        verify(autoscaler).reset();
+        verify(autoscaler, times(2)).getThreadCount(anyInt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_change_thread_count_in_single_picker_mode() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(4)
+                        .withProcessingMode(ProcessingMode.SINGLE_PICKER)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        QueueExecutionPool pool = new QueueExecutionPool(new NoopQueueConsumer(queueConfig), DEFAULT_SHARD,
+                mock(QueueLoop.class), new DirectExecutor(), mock(QueueRunner.class), null, mock(ExecutorService.class));
+        pool.setThreadCount(2);
+    }
+
+    @Test
+    public void should_resize_thread_pool_of_queue() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder().withNoTaskTimeout(Duration.ofHours(1L)).withThreadCount(1)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        List<Thread> createdThreads = new CopyOnWriteArrayList<>();
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD,
+                mock(TaskLifecycleListener.class), mock(ThreadLifecycleListener.class),
+                (location, shardId) -> runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    createdThreads.add(thread);
+                    return thread;
+                });
+        pool.start();
+        pool.setThreadCount(3);
+        pool.shutdown();
+        assertThat(createdThreads.size(), equalTo(3));
+    }
+
     @Test
     public void should_shutdown() {
         QueueConfig queueConfig = new QueueConfig(
@@ -60,6 +169,82 @@ public class QueueExecutionPoolTest {
         verify(executor).shutdownNow();
     }
 
+    @Test
+    public void should_flush_acks_on_shutdown() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder().withNoTaskTimeout(Duration.ZERO).withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        QueueLoop queueLoop = mock(QueueLoop.class);
+        ExecutorService executor = mock(ExecutorService.class);
+        TaskAckBuffer taskAckBuffer = mock(TaskAckBuffer.class);
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD, queueLoop, executor, queueRunner,
+                taskAckBuffer, null);
+        pool.shutdown();
+        verify(executor).shutdownNow();
+        verify(taskAckBuffer).flush();
+    }
+
+    @Test
+    public void should_start_single_loop_in_single_picker_mode() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable")
+                        .withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(4)
+                        .withProcessingMode(ProcessingMode.SINGLE_PICKER)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        QueueLoop queueLoop = mock(QueueLoop.class);
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD, queueLoop, new DirectExecutor(),
+                queueRunner, null, mock(ExecutorService.class));
+        pool.start();
+        verify(queueLoop, times(1)).start(DEFAULT_SHARD.getShardId(), consumer, queueRunner);
+    }
+
+    @Test
+    public void should_shutdown_worker_executor() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder().withNoTaskTimeout(Duration.ZERO).withBetweenTaskTimeout(Duration.ZERO)
+                        .withProcessingMode(ProcessingMode.SINGLE_PICKER).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        QueueLoop queueLoop = mock(QueueLoop.class);
+        ExecutorService executor = mock(ExecutorService.class);
+        ExecutorService workerExecutor = mock(ExecutorService.class);
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD, queueLoop, executor, queueRunner,
+                null, workerExecutor);
+        pool.shutdown();
+        verify(executor).shutdownNow();
+        verify(workerExecutor).shutdownNow();
+    }
+
+    @Test
+    public void should_use_provided_thread_factory() {
+        QueueConfig queueConfig = new QueueConfig(
+                QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId("queue1")).build(),
+                QueueSettings.builder().withNoTaskTimeout(Duration.ofHours(1L)).withThreadCount(2)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        StringQueueConsumer consumer = new NoopQueueConsumer(queueConfig);
+        List<Thread> createdThreads = new CopyOnWriteArrayList<>();
+        QueueExecutionPool pool = new QueueExecutionPool(consumer, DEFAULT_SHARD,
+                mock(TaskLifecycleListener.class), mock(ThreadLifecycleListener.class),
+                (location, shardId) -> runnable -> {
+                    Thread thread = new Thread(runnable, "custom-" + location.getQueueId().asString());
+                    thread.setDaemon(true);
+                    createdThreads.add(thread);
+                    return thread;
+                });
+        pool.start();
+        pool.shutdown();
+        assertThat(createdThreads.size(), equalTo(2));
+        assertThat(createdThreads.get(0).getName(), equalTo("custom-queue1"));
+    }
+
     @Test
     public void should_pause() {
         QueueConfig queueConfig = new QueueConfig(
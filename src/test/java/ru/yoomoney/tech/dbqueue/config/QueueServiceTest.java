@@ -2,14 +2,15 @@ package ru.yoomoney.tech.dbqueue.config;
 
 import org.junit.Assert;
 import org.junit.Test;
-import org.springframework.jdbc.core.JdbcOperations;
-import org.springframework.transaction.support.TransactionOperations;
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
 import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.dao.Database;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
+import javax.sql.DataSource;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -20,7 +21,12 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -34,7 +40,7 @@ import static org.mockito.Mockito.when;
 public class QueueServiceTest {
 
     private static QueueShard DEFAULT_SHARD = new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(),
-            new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class));
+            new QueueShardId("s1"), mock(Database.class));
 
     @Test
     public void should_not_register_queue_when_thread_count_is_zero() throws Exception {
@@ -68,7 +74,8 @@ public class QueueServiceTest {
                         .withBetweenTaskTimeout(Duration.ZERO).build()));
         QueueExecutionPool queueExecutionPool = mock(QueueExecutionPool.class);
         QueueService queueService = new QueueService(Collections.singletonList(DEFAULT_SHARD),
-                ((queueShard, queueConsumer) -> queueExecutionPool));
+                ((queueShard, queueConsumer) -> queueExecutionPool),
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
         Assert.assertFalse(queueService.registerQueue(consumer));
         List<String> errorMessages = new ArrayList<>();
 
@@ -181,7 +188,8 @@ public class QueueServiceTest {
                         return queueExecutionPool2;
                     }
                     throw new IllegalArgumentException("unknown consumer");
-                });
+                },
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
         assertTrue(queueService.registerQueue(consumer1));
         assertTrue(queueService.registerQueue(consumer2));
         queueService.start();
@@ -235,7 +243,7 @@ public class QueueServiceTest {
         when(queueExecutionPool2.isTerminated()).thenReturn(true);
 
         QueueShard shard2 = new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(),
-                new QueueShardId("s2"), mock(JdbcOperations.class), mock(TransactionOperations.class));
+                new QueueShardId("s2"), mock(Database.class));
 
         QueueService queueService = new QueueService(Arrays.asList(DEFAULT_SHARD, shard2),
                 (shard, queueConsumer) -> {
@@ -245,7 +253,8 @@ public class QueueServiceTest {
                         return queueExecutionPool2;
                     }
                     throw new IllegalArgumentException("unknown consumer");
-                });
+                },
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
         assertTrue(queueService.registerQueue(consumer1));
         queueService.start();
         queueService.pause();
@@ -288,7 +297,8 @@ public class QueueServiceTest {
         when(queueExecutionPool.isTerminated()).thenReturn(false);
         when(queueExecutionPool.getQueueShardId()).thenReturn(DEFAULT_SHARD.getShardId());
         QueueService queueService = new QueueService(Arrays.asList(DEFAULT_SHARD),
-                (shard, queueConsumer) -> queueExecutionPool);
+                (shard, queueConsumer) -> queueExecutionPool,
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
 
         assertTrue(queueService.registerQueue(consumer));
         assertThat(queueService.awaitTermination(queueId, Duration.ofMinutes(1)),
@@ -312,7 +322,8 @@ public class QueueServiceTest {
         when(queueExecutionPool.isTerminated()).thenReturn(false);
         when(queueExecutionPool.getQueueShardId()).thenReturn(DEFAULT_SHARD.getShardId());
         QueueService queueService = new QueueService(Arrays.asList(DEFAULT_SHARD),
-                (shard, queueConsumer) -> queueExecutionPool);
+                (shard, queueConsumer) -> queueExecutionPool,
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
 
         assertTrue(queueService.registerQueue(consumer));
         assertThat(queueService.awaitTermination(Duration.ofMinutes(1)),
@@ -320,4 +331,235 @@ public class QueueServiceTest {
         verify(queueExecutionPool).awaitTermination(Duration.ofMinutes(1));
         verify(queueExecutionPool, times(2)).isTerminated();
     }
+
+    @Test
+    public void should_listen_notifications_only_on_known_postgres_shard() {
+        QueueShard mssqlShard = new QueueShard(DatabaseDialect.MSSQL, QueueTableSchema.builder().build(),
+                new QueueShardId("s2"), mock(Database.class));
+        QueueService queueService = new QueueService(Arrays.asList(DEFAULT_SHARD, mssqlShard),
+                ((queueShard, queueConsumer) -> mock(QueueExecutionPool.class)),
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
+        List<String> errorMessages = new ArrayList<>();
+
+        queueService.listenNotifications(DEFAULT_SHARD.getShardId(), mock(DataSource.class));
+        try {
+            queueService.listenNotifications(new QueueShardId("unknown"), mock(DataSource.class));
+        } catch (IllegalArgumentException exc) {
+            errorMessages.add(exc.getMessage());
+        }
+        try {
+            queueService.listenNotifications(mssqlShard.getShardId(), mock(DataSource.class));
+        } catch (IllegalArgumentException exc) {
+            errorMessages.add(exc.getMessage());
+        }
+
+        assertThat(errorMessages.toString(), equalTo("[" +
+                "cannot listen notifications, unknown shard: shardId=unknown, " +
+                "notifications are not supported: shardId=s2, databaseDialect=MSSQL]"));
+    }
+
+    @Test
+    public void should_wakeup_queue_after_local_enqueue_is_committed() {
+        Database database = mock(Database.class);
+        when(database.selectOne(anyString(), any(Object[].class), eq(Long.class))).thenReturn(1L);
+        List<Runnable> afterCommitActions = new ArrayList<>();
+        doAnswer(invocation -> afterCommitActions.add(invocation.getArgument(0)))
+                .when(database).afterCommit(any());
+        QueueShard queueShard = new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(),
+                new QueueShardId("s1"), database);
+        QueueConsumer<?> consumer = mock(QueueConsumer.class);
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("queue1")).build();
+        when(consumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(1)
+                        .withBetweenTaskTimeout(Duration.ZERO).build()));
+        QueueExecutionPool queueExecutionPool = mock(QueueExecutionPool.class);
+        QueueService queueService = new QueueService(Collections.singletonList(queueShard),
+                (shard, queueConsumer) -> queueExecutionPool,
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
+        assertTrue(queueService.registerQueue(consumer));
+
+        queueShard.getQueueDao().enqueue(location, new EnqueueParams<>());
+        assertTrue(afterCommitActions.isEmpty());
+
+        queueService.start();
+        queueShard.getQueueDao().enqueue(location, new EnqueueParams<String>()
+                .withExecutionDelay(Duration.ofMinutes(1L)));
+        queueShard.getQueueDao().enqueue(location, new EnqueueParams<>());
+        verify(queueExecutionPool, never()).wakeup();
+        assertThat(afterCommitActions.size(), equalTo(1));
+        afterCommitActions.forEach(Runnable::run);
+        verify(queueExecutionPool).wakeup();
+
+        queueService.shutdown();
+        queueShard.getQueueDao().enqueue(location, new EnqueueParams<>());
+        assertThat(afterCommitActions.size(), equalTo(1));
+    }
+
+    @Test
+    public void should_register_queue_group_with_single_pool() {
+        QueueId queueId1 = new QueueId("queue1");
+        QueueId queueId2 = new QueueId("queue2");
+        QueueConsumer<?> consumer1 = createConsumer("testTable", queueId1);
+        QueueConsumer<?> consumer2 = createConsumer("testTable", queueId2);
+        QueueExecutionPool queueExecutionPool = mock(QueueExecutionPool.class);
+        List<QueueGroupConsumer> groupConsumers = new ArrayList<>();
+
+        QueueService queueService = new QueueService(Collections.singletonList(DEFAULT_SHARD),
+                (shard, queueConsumer) -> {
+                    throw new IllegalArgumentException("unexpected consumer");
+                },
+                (shard, groupConsumer) -> {
+                    groupConsumers.add(groupConsumer);
+                    return queueExecutionPool;
+                });
+        assertTrue(queueService.registerQueueGroup(new QueueId("group"), Arrays.asList(consumer1, consumer2)));
+        assertFalse(queueService.registerQueueGroup(new QueueId("group2"), Collections.singletonList(consumer2)));
+        assertFalse(queueService.registerQueue(consumer1));
+
+        assertThat(groupConsumers.size(), equalTo(1));
+        assertThat(groupConsumers.get(0).getQueueConfig().getLocation(), equalTo(QueueLocation.builder()
+                .withTableName("testTable").withQueueId(new QueueId("group")).build()));
+        assertThat(groupConsumers.get(0).getQueueConsumers(), equalTo(Arrays.asList(consumer1, consumer2)));
+
+        queueService.start(queueId1);
+        queueService.wakeup(queueId2, DEFAULT_SHARD.getShardId());
+        verify(queueExecutionPool).start();
+        verify(queueExecutionPool).wakeup();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_register_queue_group_with_different_tables() {
+        QueueService queueService = new QueueService(Collections.singletonList(DEFAULT_SHARD),
+                mock(ThreadLifecycleListener.class), mock(TaskLifecycleListener.class));
+        queueService.registerQueueGroup(new QueueId("group"), Arrays.asList(
+                createConsumer("testTable1", new QueueId("queue1")),
+                createConsumer("testTable2", new QueueId("queue2"))));
+    }
+
+    @Test
+    public void should_change_thread_count_of_queue() {
+        QueueId queueId = new QueueId("queue1");
+        QueueConsumer<?> consumer = createConsumer("testTable", queueId);
+        QueueShard shard2 = new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(),
+                new QueueShardId("s2"), mock(Database.class));
+        QueueExecutionPool queueExecutionPool1 = mock(QueueExecutionPool.class);
+        QueueExecutionPool queueExecutionPool2 = mock(QueueExecutionPool.class);
+
+        QueueService queueService = new QueueService(Arrays.asList(DEFAULT_SHARD, shard2),
+                (shard, queueConsumer) -> shard.equals(DEFAULT_SHARD) ? queueExecutionPool1 : queueExecutionPool2,
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
+        assertTrue(queueService.registerQueue(consumer));
+        queueService.setThreadCount(queueId, 3);
+        queueService.setThreadCount(queueId, shard2.getShardId(), 5);
+
+        verify(queueExecutionPool1).setThreadCount(3);
+        verify(queueExecutionPool2).setThreadCount(3);
+        verify(queueExecutionPool2).setThreadCount(5);
+        verifyNoMoreInteractions(queueExecutionPool1, queueExecutionPool2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_change_thread_count_on_unknown_shard() {
+        QueueId queueId = new QueueId("queue1");
+        QueueService queueService = new QueueService(Collections.singletonList(DEFAULT_SHARD),
+                (shard, queueConsumer) -> mock(QueueExecutionPool.class),
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
+        assertTrue(queueService.registerQueue(createConsumer("testTable", queueId)));
+        queueService.setThreadCount(queueId, new QueueShardId("unknown"), 3);
+    }
+
+    @Test
+    public void should_update_queue_configs() {
+        QueueId queueId = new QueueId("queue1");
+        QueueConsumer<?> consumer = createConsumer("testTable", queueId);
+        QueueExecutionPool queueExecutionPool = mock(QueueExecutionPool.class);
+        List<QueueConsumer<?>> poolConsumers = new ArrayList<>();
+
+        QueueService queueService = new QueueService(Collections.singletonList(DEFAULT_SHARD),
+                (shard, queueConsumer) -> {
+                    poolConsumers.add(queueConsumer);
+                    return queueExecutionPool;
+                },
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
+        assertTrue(queueService.registerQueue(consumer));
+        QueueConfig newConfig = new QueueConfig(consumer.getQueueConfig().getLocation(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ofSeconds(5L))
+                        .withThreadCount(3)
+                        .withRetryInterval(Duration.ofMinutes(5L))
+                        .withBetweenTaskTimeout(Duration.ofSeconds(1L)).build());
+        queueService.updateQueueConfigs(Arrays.asList(newConfig, new QueueConfig(
+                QueueLocation.builder().withTableName("testTable").withQueueId(new QueueId("unknown")).build(),
+                consumer.getQueueConfig().getSettings())));
+
+        assertThat(poolConsumers.get(0).getQueueConfig(), equalTo(newConfig));
+        verify(queueExecutionPool).setThreadCount(3);
+        verifyNoMoreInteractions(queueExecutionPool);
+    }
+
+    @Test
+    public void should_not_update_queue_configs_when_setting_requires_restart() {
+        QueueId queueId1 = new QueueId("queue1");
+        QueueId queueId2 = new QueueId("queue2");
+        QueueConsumer<?> consumer1 = createConsumer("testTable", queueId1);
+        QueueConsumer<?> consumer2 = createConsumer("testTable", queueId2);
+        List<QueueConsumer<?>> poolConsumers = new ArrayList<>();
+
+        QueueService queueService = new QueueService(Collections.singletonList(DEFAULT_SHARD),
+                (shard, queueConsumer) -> {
+                    poolConsumers.add(queueConsumer);
+                    return mock(QueueExecutionPool.class);
+                },
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
+        assertTrue(queueService.registerQueue(consumer1));
+        assertTrue(queueService.registerQueue(consumer2));
+        QueueConfig newConfig1 = new QueueConfig(consumer1.getQueueConfig().getLocation(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ofSeconds(5L))
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        QueueConfig newConfig2 = new QueueConfig(consumer2.getQueueConfig().getLocation(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withPickBatchSize(10)
+                        .withBetweenTaskTimeout(Duration.ZERO).build());
+        try {
+            queueService.updateQueueConfigs(Arrays.asList(newConfig1, newConfig2));
+            Assert.fail("update must be rejected");
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        assertThat(poolConsumers.get(0).getQueueConfig(), equalTo(consumer1.getQueueConfig()));
+        assertThat(poolConsumers.get(1).getQueueConfig(), equalTo(consumer2.getQueueConfig()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_update_config_of_queue_group() {
+        QueueId queueId = new QueueId("queue1");
+        QueueConsumer<?> consumer = createConsumer("testTable", queueId);
+        QueueService queueService = new QueueService(Collections.singletonList(DEFAULT_SHARD),
+                (shard, queueConsumer) -> mock(QueueExecutionPool.class),
+                (shard, groupConsumer) -> mock(QueueExecutionPool.class));
+        assertTrue(queueService.registerQueueGroup(new QueueId("group"), Collections.singletonList(consumer)));
+
+        queueService.updateQueueConfigs(Collections.singletonList(new QueueConfig(
+                consumer.getQueueConfig().getLocation(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ofSeconds(5L))
+                        .withBetweenTaskTimeout(Duration.ZERO).build())));
+    }
+
+    private static QueueConsumer<?> createConsumer(String tableName, QueueId queueId) {
+        QueueConsumer<?> consumer = mock(QueueConsumer.class);
+        when(consumer.getQueueConfig()).thenReturn(new QueueConfig(
+                QueueLocation.builder().withTableName(tableName)
+                        .withQueueId(queueId).build(),
+                QueueSettings.builder()
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .withThreadCount(1)
+                        .withBetweenTaskTimeout(Duration.ZERO).build()));
+        return consumer;
+    }
 }
@@ -25,6 +25,9 @@ public class QueueTableSchemaTest {
                 .withAttemptField("at !@#$%^&*()_+-=1\n;'][{}")
                 .withReenqueueAttemptField("rat !@#$%^&*()_+-=1\n;'][{}")
                 .withTotalAttemptField("tat !@#$%^&*()_+-=1\n;'][{}")
+                .withPriorityField("pr !@#$%^&*()_+-=1\n;'][{}")
+                .withOrderingKeyField("ok !@#$%^&*()_+-=1\n;'][{}")
+                .withDeduplicationKeyField("dk !@#$%^&*()_+-=1\n;'][{}")
                 .withExtFields(Collections.singletonList("tr !@#$%^&*()_+-=1\n;'][{}"))
                 .build();
         assertThat(schema.getIdField(), equalTo("qid_1"));
@@ -35,6 +38,9 @@ public class QueueTableSchemaTest {
         assertThat(schema.getAttemptField(), equalTo("at_1"));
         assertThat(schema.getReenqueueAttemptField(), equalTo("rat_1"));
         assertThat(schema.getTotalAttemptField(), equalTo("tat_1"));
+        assertThat(schema.getPriorityField().get(), equalTo("pr_1"));
+        assertThat(schema.getOrderingKeyField().get(), equalTo("ok_1"));
+        assertThat(schema.getDeduplicationKeyField().get(), equalTo("dk_1"));
         assertThat(schema.getExtFields().get(0), equalTo("tr_1"));
     }
 
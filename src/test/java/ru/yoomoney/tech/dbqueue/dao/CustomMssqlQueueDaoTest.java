@@ -16,8 +16,8 @@ public class CustomMssqlQueueDaoTest extends QueueDaoTest {
     }
 
     public CustomMssqlQueueDaoTest() {
-        super(new MssqlQueueDao(MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.CUSTOM_SCHEMA),
+        super(new MssqlQueueDao(MssqlDatabaseInitializer.getDatabase(), MssqlDatabaseInitializer.CUSTOM_SCHEMA),
                 MssqlDatabaseInitializer.CUSTOM_TABLE_NAME, MssqlDatabaseInitializer.CUSTOM_SCHEMA,
-                MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.getTransactionTemplate());
+                MssqlDatabaseInitializer.getDatabase());
     }
 }
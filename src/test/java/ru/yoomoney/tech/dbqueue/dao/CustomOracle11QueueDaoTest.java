@@ -21,9 +21,9 @@ public class CustomOracle11QueueDaoTest extends QueueDaoTest {
     }
 
     public CustomOracle11QueueDaoTest() {
-        super(new Oracle11QueueDao(OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.CUSTOM_SCHEMA),
+        super(new Oracle11QueueDao(OracleDatabaseInitializer.getDatabase(), OracleDatabaseInitializer.CUSTOM_SCHEMA),
                 OracleDatabaseInitializer.CUSTOM_TABLE_NAME, OracleDatabaseInitializer.CUSTOM_SCHEMA,
-                OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.getTransactionTemplate());
+                OracleDatabaseInitializer.getDatabase());
     }
 
     @Override
@@ -15,8 +15,8 @@ public class CustomPostgresQueueDaoTest extends QueueDaoTest {
     }
 
     public CustomPostgresQueueDaoTest() {
-        super(new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.CUSTOM_SCHEMA),
+        super(new PostgresQueueDao(PostgresDatabaseInitializer.getDatabase(), PostgresDatabaseInitializer.CUSTOM_SCHEMA),
                 PostgresDatabaseInitializer.CUSTOM_TABLE_NAME, PostgresDatabaseInitializer.CUSTOM_SCHEMA,
-                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+                PostgresDatabaseInitializer.getDatabase());
     }
 }
@@ -16,8 +16,8 @@ public class DefaultMssqlQueueDaoTest extends QueueDaoTest {
     }
 
     public DefaultMssqlQueueDaoTest() {
-        super(new MssqlQueueDao(MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.DEFAULT_SCHEMA),
+        super(new MssqlQueueDao(MssqlDatabaseInitializer.getDatabase(), MssqlDatabaseInitializer.DEFAULT_SCHEMA),
                 MssqlDatabaseInitializer.DEFAULT_TABLE_NAME, MssqlDatabaseInitializer.DEFAULT_SCHEMA,
-                MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.getTransactionTemplate());
+                MssqlDatabaseInitializer.getDatabase());
     }
 }
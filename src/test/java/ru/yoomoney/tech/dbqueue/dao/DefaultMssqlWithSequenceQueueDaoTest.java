@@ -20,9 +20,9 @@ public class DefaultMssqlWithSequenceQueueDaoTest extends QueueDaoTest {
     }
 
     public DefaultMssqlWithSequenceQueueDaoTest() {
-        super(new MssqlQueueDao(MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.DEFAULT_SCHEMA),
+        super(new MssqlQueueDao(MssqlDatabaseInitializer.getDatabase(), MssqlDatabaseInitializer.DEFAULT_SCHEMA),
                 MssqlDatabaseInitializer.DEFAULT_TABLE_NAME_WO_IDENT, MssqlDatabaseInitializer.DEFAULT_SCHEMA,
-                MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.getTransactionTemplate());
+                MssqlDatabaseInitializer.getDatabase());
     }
 
     protected QueueLocation generateUniqueLocation() {
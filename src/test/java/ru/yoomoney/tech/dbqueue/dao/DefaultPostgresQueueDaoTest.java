@@ -15,8 +15,8 @@ public class DefaultPostgresQueueDaoTest extends QueueDaoTest {
     }
 
     public DefaultPostgresQueueDaoTest() {
-        super(new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.DEFAULT_SCHEMA),
+        super(new PostgresQueueDao(PostgresDatabaseInitializer.getDatabase(), PostgresDatabaseInitializer.DEFAULT_SCHEMA),
                 PostgresDatabaseInitializer.DEFAULT_TABLE_NAME, PostgresDatabaseInitializer.DEFAULT_SCHEMA,
-                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+                PostgresDatabaseInitializer.getDatabase());
     }
 }
@@ -0,0 +1,57 @@
+package ru.yoomoney.tech.dbqueue.dao;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class Oracle11QueueDaoTest {
+
+    private static final QueueLocation LOCATION = QueueLocation.builder()
+            .withTableName("queue_test").withQueueId(new QueueId("test_queue")).withIdSequence("queue_seq").build();
+    private static final QueueTableSchema TABLE_SCHEMA = QueueTableSchema.builder()
+            .withDeduplicationKeyField("dkey").build();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_return_task_of_concurrent_enqueue_with_same_key() {
+        Database database = mock(Database.class);
+        when(database.selectOne(anyString(), eq(Long.class))).thenReturn(1L);
+        when(database.update(anyString(), any(Object[].class))).thenThrow(new IllegalStateException(
+                new SQLIntegrityConstraintViolationException("ORA-00001: unique constraint violated", "23000", 1)));
+        when(database.selectMany(anyString(), eq(new Object[]{"test_queue", "key"}), any(Database.RowMapper.class)))
+                .thenReturn(Collections.singletonList(TaskDeduplicator.insertedTask("key", 20L)));
+        Oracle11QueueDao queueDao = new Oracle11QueueDao(database, TABLE_SCHEMA);
+
+        long id = queueDao.enqueue(LOCATION, EnqueueParams.create("payload").withDeduplicationKey("key"));
+
+        assertThat(id, equalTo(20L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_not_ignore_other_enqueue_failures() {
+        Database database = mock(Database.class);
+        when(database.selectOne(anyString(), eq(Long.class))).thenReturn(1L);
+        when(database.update(anyString(), any(Object[].class))).thenThrow(new IllegalStateException(
+                new SQLException("ORA-01400: cannot insert NULL", "23000", 1400)));
+        Oracle11QueueDao queueDao = new Oracle11QueueDao(database, TABLE_SCHEMA);
+
+        queueDao.enqueue(LOCATION, EnqueueParams.create("payload").withDeduplicationKey("key"));
+    }
+}
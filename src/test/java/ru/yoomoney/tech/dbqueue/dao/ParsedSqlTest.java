@@ -0,0 +1,81 @@
+package ru.yoomoney.tech.dbqueue.dao;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @since 17.10.2026
+ */
+public class ParsedSqlTest {
+
+    @Test
+    public void should_replace_named_parameters_with_placeholders() {
+        ParsedSql parsedSql = ParsedSql.parseNamed("UPDATE t SET a = :a, b = :b_1 WHERE id = :id AND a = :a");
+
+        assertThat(parsedSql.getParameterNames(), equalTo(Arrays.asList("a", "b_1", "id", "a")));
+        assertThat(parsedSql.getPositionalSql(Collections.emptyMap()),
+                equalTo("UPDATE t SET a = ?, b = ? WHERE id = ? AND a = ?"));
+    }
+
+    @Test
+    public void should_skip_literals_comments_and_casts() {
+        ParsedSql parsedSql = ParsedSql.parseNamed("SELECT ':a', \":b\", now() + :delay * INTERVAL '1 SECOND', " +
+                "CAST(x AS BIGINT)::text -- :c\n/* :d */ FROM t WHERE v := :e");
+
+        assertThat(parsedSql.getParameterNames(), equalTo(Arrays.asList("delay", "e")));
+        assertThat(parsedSql.getPositionalSql(Collections.emptyMap()),
+                equalTo("SELECT ':a', \":b\", now() + ? * INTERVAL '1 SECOND', " +
+                        "CAST(x AS BIGINT)::text -- :c\n/* :d */ FROM t WHERE v := ?"));
+    }
+
+    @Test
+    public void should_expand_collection_parameter() {
+        ParsedSql parsedSql = ParsedSql.parseNamed("DELETE FROM t WHERE queue_name = :queueName AND id IN (:ids)");
+        Map<String, Object> params = new HashMap<>();
+        params.put("queueName", "q");
+        params.put("ids", Arrays.asList(1L, 2L, 3L));
+
+        assertThat(parsedSql.getPositionalSql(params),
+                equalTo("DELETE FROM t WHERE queue_name = ? AND id IN (?, ?, ?)"));
+    }
+
+    @Test
+    public void should_fail_on_empty_collection_parameter() {
+        ParsedSql parsedSql = ParsedSql.parseNamed("DELETE FROM t WHERE id IN (:ids)");
+        try {
+            parsedSql.getPositionalSql(Collections.singletonMap("ids", Collections.emptyList()));
+            fail("exception expected");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("collection parameter must not be empty: name=ids"));
+        }
+    }
+
+    @Test
+    public void should_convert_placeholders_to_named_parameters() {
+        ParsedSql parsedSql = ParsedSql.parsePositional("UPDATE t SET a = ?, b = '?' /* ? */ WHERE id = ? -- ?");
+
+        assertThat(parsedSql.getNamedSql(), equalTo("UPDATE t SET a = :p0, b = '?' /* ? */ WHERE id = :p1 -- ?"));
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("p0", null);
+        expected.put("p1", 5L);
+        assertThat(parsedSql.toParameterMap(new Object[]{null, 5L}), equalTo(expected));
+    }
+
+    @Test
+    public void should_fail_on_parameter_count_mismatch() {
+        try {
+            ParsedSql.parsePositional("SELECT ? FROM dual").toParameterMap(new Object[0]);
+            fail("exception expected");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("invalid parameter count: expected=1, actual=0"));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.yoomoney.tech.dbqueue.dao;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @since 17.10.2026
+ */
+public class PostgresQueueDaoTest {
+
+    @Test
+    public void should_use_table_name_in_notification_channel() {
+        assertThat(PostgresQueueDao.getNotificationChannel(createLocation("queue_tasks")),
+                equalTo("dbqueue_queue_tasks"));
+    }
+
+    @Test
+    public void should_shorten_long_notification_channel() {
+        String longTableName = "public." + String.join("", Collections.nCopies(60, "t"));
+        String channel = PostgresQueueDao.getNotificationChannel(createLocation(longTableName));
+        String otherChannel = PostgresQueueDao.getNotificationChannel(createLocation(longTableName + "2"));
+
+        assertTrue(channel.startsWith("dbqueue_"));
+        assertTrue(channel.getBytes(StandardCharsets.UTF_8).length <= 63);
+        assertThat(PostgresQueueDao.getNotificationChannel(createLocation(longTableName)), equalTo(channel));
+        assertThat(otherChannel, not(equalTo(channel)));
+    }
+
+    private static QueueLocation createLocation(String tableName) {
+        return QueueLocation.builder().withTableName(tableName).withQueueId(new QueueId("queue")).build();
+    }
+}
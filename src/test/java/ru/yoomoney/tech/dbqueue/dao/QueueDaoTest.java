@@ -1,6 +1,7 @@
 package ru.yoomoney.tech.dbqueue.dao;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Ignore;
 import org.junit.Test;
 import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
@@ -11,8 +12,13 @@ import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.CoreMatchers.*;
 
@@ -72,6 +78,84 @@ public abstract class QueueDaoTest {
         });
     }
 
+    @Test
+    public void enqueue_batch_should_save_all_tasks_in_order() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        List<EnqueueParams<String>> enqueueParams = IntStream.range(0, 1500)
+                .mapToObj(i -> EnqueueParams.create("payload-" + i))
+                .collect(Collectors.toList());
+
+        List<Long> enqueueIds = database.transact(() -> queueDao.enqueueBatch(location, enqueueParams));
+
+        Assert.assertThat(enqueueIds.size(), equalTo(enqueueParams.size()));
+        Assert.assertThat(new HashSet<>(enqueueIds).size(), equalTo(enqueueParams.size()));
+        for (int i : Arrays.asList(0, 999, 1000, 1499)) {
+            String payload = database.selectOne("select " + tableSchema.getPayloadField() + " from " + tableName +
+                    " where " + tableSchema.getIdField() + "=" + enqueueIds.get(i), rs -> rs.getString(1));
+            Assert.assertThat(payload, equalTo("payload-" + i));
+        }
+    }
+
+    @Test
+    public void enqueue_should_return_existing_task_with_same_deduplication_key() throws Exception {
+        Assume.assumeTrue(tableSchema.getDeduplicationKeyField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        String deduplicationKey = UUID.randomUUID().toString();
+        Long firstId = database.transact(() -> queueDao.enqueue(location,
+                EnqueueParams.create("first").withDeduplicationKey(deduplicationKey)));
+
+        Long secondId = database.transact(() -> queueDao.enqueue(location,
+                EnqueueParams.create("second").withDeduplicationKey(deduplicationKey)));
+
+        Assert.assertThat(secondId, equalTo(firstId));
+        List<String> payloads = database.selectMany("select " + tableSchema.getPayloadField() + " from " + tableName +
+                        " where " + tableSchema.getQueueNameField() + "='" + location.getQueueId().asString() + "'",
+                rs -> rs.getString(1));
+        Assert.assertThat(payloads, equalTo(Collections.singletonList("first")));
+    }
+
+    @Test
+    public void enqueue_should_not_deduplicate_tasks_of_different_queues() throws Exception {
+        Assume.assumeTrue(tableSchema.getDeduplicationKeyField().isPresent());
+        QueueLocation firstLocation = generateUniqueLocation();
+        QueueLocation secondLocation = generateUniqueLocation();
+        String deduplicationKey = UUID.randomUUID().toString();
+        Long firstId = database.transact(() -> queueDao.enqueue(firstLocation,
+                EnqueueParams.create("first").withDeduplicationKey(deduplicationKey)));
+
+        Long secondId = database.transact(() -> queueDao.enqueue(secondLocation,
+                EnqueueParams.create("second").withDeduplicationKey(deduplicationKey)));
+
+        Assert.assertThat(secondId, not(equalTo(firstId)));
+        String payload = database.selectOne("select " + tableSchema.getPayloadField() + " from " + tableName +
+                " where " + tableSchema.getIdField() + "=" + secondId, rs -> rs.getString(1));
+        Assert.assertThat(payload, equalTo("second"));
+    }
+
+    @Test
+    public void enqueue_batch_should_return_existing_tasks_with_same_deduplication_keys() throws Exception {
+        Assume.assumeTrue(tableSchema.getDeduplicationKeyField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        String firstKey = UUID.randomUUID().toString();
+        String secondKey = UUID.randomUUID().toString();
+        Long existingId = database.transact(() -> queueDao.enqueue(location,
+                EnqueueParams.create("existing").withDeduplicationKey(firstKey)));
+
+        List<Long> enqueueIds = database.transact(() -> queueDao.enqueueBatch(location, Arrays.asList(
+                EnqueueParams.create("first").withDeduplicationKey(firstKey),
+                EnqueueParams.create("second").withDeduplicationKey(secondKey),
+                EnqueueParams.create("without-key"),
+                EnqueueParams.create("second-again").withDeduplicationKey(secondKey))));
+
+        Assert.assertThat(enqueueIds.size(), equalTo(4));
+        Assert.assertThat(enqueueIds.get(0), equalTo(existingId));
+        Assert.assertThat(enqueueIds.get(3), equalTo(enqueueIds.get(1)));
+        Assert.assertThat(new HashSet<>(enqueueIds).size(), equalTo(3));
+        String payload = database.selectOne("select " + tableSchema.getPayloadField() + " from " + tableName +
+                " where " + tableSchema.getIdField() + "=" + enqueueIds.get(2), rs -> rs.getString(1));
+        Assert.assertThat(payload, equalTo("without-key"));
+    }
+
     @Test
     public void delete_should_return_false_when_no_deletion() throws Exception {
         QueueLocation location = generateUniqueLocation();
@@ -92,6 +176,21 @@ public abstract class QueueDaoTest {
         Assert.assertThat(obj, nullValue());
     }
 
+    @Test
+    public void delete_tasks_should_delete_only_given_tasks() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        Long firstId = database.transact(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+        Long secondId = database.transact(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+        Long thirdId = database.transact(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+
+        Integer deleteResult = database.transact(() -> queueDao.deleteTasks(location, Arrays.asList(firstId, thirdId, 0L)));
+        Assert.assertThat(deleteResult, equalTo(2));
+        List<Long> remainingIds = database.selectMany("select " + tableSchema.getIdField() + " from " + tableName +
+                        " where " + tableSchema.getQueueNameField() + "='" + location.getQueueId().asString() + "'",
+                rs -> rs.getLong(1));
+        Assert.assertThat(remainingIds, equalTo(Collections.singletonList(secondId)));
+    }
+
     @Test
     public void reenqueue_should_update_next_process_time() throws Exception {
         QueueLocation location = generateUniqueLocation();
@@ -171,6 +270,95 @@ public abstract class QueueDaoTest {
         Assert.assertThat(reenqueueResult, equalTo(false));
     }
 
+    @Test
+    public void postpone_tasks_should_extend_only_earlier_tasks() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        Long earlierId = database.transact(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+        Long laterId = database.transact(() -> queueDao.enqueue(location,
+                EnqueueParams.create("{}").withExecutionDelay(Duration.ofHours(2L))));
+        database.transact(() -> {
+            database.update("update " + tableName + " set " + tableSchema.getAttemptField() + "=3 where " + tableSchema.getIdField() + "=" + earlierId);
+        });
+
+        ZonedDateTime beforeExecution = ZonedDateTime.now();
+        Duration executionDelay = Duration.ofHours(1L);
+        Integer postponeResult = database.transact(() ->
+                queueDao.postponeTasks(location, Arrays.asList(earlierId, laterId, 0L), executionDelay));
+
+        Assert.assertThat(postponeResult, equalTo(1));
+        Object object = database.selectOne("select * from " + tableName + " where " + tableSchema.getIdField() + "=" + earlierId, rs -> {
+            ZonedDateTime nextProcessAt = ZonedDateTime.ofInstant(rs.getTimestamp(tableSchema.getNextProcessAtField()).toInstant(),
+                    ZoneId.systemDefault());
+            Assert.assertThat(nextProcessAt.isAfter(beforeExecution.plus(executionDelay)), equalTo(true));
+            Assert.assertThat(rs.getLong(tableSchema.getAttemptField()), equalTo(3L));
+            return new Object();
+        });
+        Assert.assertThat(object, notNullValue());
+        object = database.selectOne("select * from " + tableName + " where " + tableSchema.getIdField() + "=" + laterId, rs -> {
+            ZonedDateTime nextProcessAt = ZonedDateTime.ofInstant(rs.getTimestamp(tableSchema.getNextProcessAtField()).toInstant(),
+                    ZoneId.systemDefault());
+            Assert.assertThat(nextProcessAt.isAfter(beforeExecution.plus(Duration.ofMinutes(90L))), equalTo(true));
+            return new Object();
+        });
+        Assert.assertThat(object, notNullValue());
+    }
+
+    @Test
+    public void postpone_task_should_move_later_task_earlier_and_keep_attempts() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        Long enqueueId = database.transact(() -> queueDao.enqueue(location,
+                EnqueueParams.create("{}").withExecutionDelay(Duration.ofHours(2L))));
+        database.transact(() -> {
+            database.update("update " + tableName + " set " + tableSchema.getAttemptField() + "=3 where " + tableSchema.getIdField() + "=" + enqueueId);
+        });
+
+        ZonedDateTime beforeExecution = ZonedDateTime.now();
+        Duration executionDelay = Duration.ofMinutes(10L);
+        Boolean postponeResult = database.transact(() -> queueDao.postponeTask(location, enqueueId, executionDelay));
+
+        Assert.assertThat(postponeResult, equalTo(true));
+        Object object = database.selectOne("select * from " + tableName + " where " + tableSchema.getIdField() + "=" + enqueueId, rs -> {
+            ZonedDateTime nextProcessAt = ZonedDateTime.ofInstant(rs.getTimestamp(tableSchema.getNextProcessAtField()).toInstant(),
+                    ZoneId.systemDefault());
+            Assert.assertThat(nextProcessAt.isAfter(beforeExecution.plus(executionDelay)), equalTo(true));
+            Assert.assertThat(nextProcessAt.isBefore(beforeExecution.plus(Duration.ofHours(1L))), equalTo(true));
+            Assert.assertThat(rs.getLong(tableSchema.getAttemptField()), equalTo(3L));
+            return new Object();
+        });
+        Assert.assertThat(object, notNullValue());
+    }
+
+    @Test
+    public void move_task_should_change_queue_and_reset_attempts() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        QueueId targetQueueId = new QueueId("test-queue-" + UUID.randomUUID());
+        Long enqueueId = database.transact(() -> queueDao.enqueue(location,
+                EnqueueParams.create("{}").withExecutionDelay(Duration.ofHours(1L))));
+        database.transact(() -> {
+            database.update("update " + tableName + " set " + tableSchema.getAttemptField() + "=10 where " + tableSchema.getIdField() + "=" + enqueueId);
+        });
+
+        Boolean moveResult = database.transact(() -> queueDao.moveTask(location, enqueueId, targetQueueId));
+
+        Assert.assertThat(moveResult, equalTo(true));
+        Object object = database.selectOne("select * from " + tableName + " where " + tableSchema.getIdField() + "=" + enqueueId, rs -> {
+            Assert.assertThat(rs.getString(tableSchema.getQueueNameField()), equalTo(targetQueueId.asString()));
+            Assert.assertThat(rs.getLong(tableSchema.getAttemptField()), equalTo(0L));
+            Assert.assertThat(rs.getTimestamp(tableSchema.getNextProcessAtField()).getTime() <= System.currentTimeMillis(),
+                    equalTo(true));
+            return new Object();
+        });
+        Assert.assertThat(object, notNullValue());
+    }
+
+    @Test
+    public void move_task_should_return_false_when_no_update() throws Exception {
+        QueueLocation location = generateUniqueLocation();
+        Boolean moveResult = database.transact(() ->
+                queueDao.moveTask(location, 0L, new QueueId("test-queue-" + UUID.randomUUID())));
+        Assert.assertThat(moveResult, equalTo(false));
+    }
+
     protected QueueLocation generateUniqueLocation() {
         return QueueLocation.builder().withTableName(tableName)
                 .withQueueId(new QueueId("test-queue-" + UUID.randomUUID())).build();
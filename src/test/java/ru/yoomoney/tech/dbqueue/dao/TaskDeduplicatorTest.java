@@ -0,0 +1,71 @@
+package ru.yoomoney.tech.dbqueue.dao;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class TaskDeduplicatorTest {
+
+    private static final QueueLocation LOCATION = QueueLocation.builder()
+            .withTableName("queue_test").withQueueId(new QueueId("test_queue")).build();
+    private static final QueueTableSchema TABLE_SCHEMA = QueueTableSchema.builder()
+            .withDeduplicationKeyField("dkey").build();
+
+    @Test
+    public void should_exclude_repeated_keys_of_batch() {
+        EnqueueParams<String> first = EnqueueParams.create("1").withDeduplicationKey("a");
+        EnqueueParams<String> second = EnqueueParams.create("2");
+        EnqueueParams<String> third = EnqueueParams.create("3").withDeduplicationKey("a");
+        EnqueueParams<String> fourth = EnqueueParams.create("4");
+
+        assertThat(TaskDeduplicator.distinctByKey(Arrays.asList(first, second, third, fourth)),
+                equalTo(Arrays.asList(first, second, fourth)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_resolve_ids_of_skipped_tasks_by_keys() {
+        Database database = mock(Database.class);
+        when(database.selectMany(eq("SELECT id, dkey FROM queue_test WHERE queue_name = ? AND dkey IN (?, ?)"),
+                eq(new Object[]{"test_queue", "b", "c"}), any(Database.RowMapper.class)))
+                .thenReturn(Collections.singletonList(TaskDeduplicator.insertedTask("b", 20L)));
+        TaskDeduplicator taskDeduplicator = new TaskDeduplicator(database, TABLE_SCHEMA);
+
+        List<Long> ids = taskDeduplicator.resolveIds(LOCATION, Arrays.asList(
+                        EnqueueParams.create("1").withDeduplicationKey("a"),
+                        EnqueueParams.create("2"),
+                        EnqueueParams.create("3").withDeduplicationKey("b"),
+                        EnqueueParams.create("4").withDeduplicationKey("c"),
+                        EnqueueParams.create("5").withDeduplicationKey("a")),
+                Arrays.asList(TaskDeduplicator.insertedTask("a", 10L), TaskDeduplicator.insertedTask(null, 11L)),
+                task -> 30L);
+
+        assertThat(ids, equalTo(Arrays.asList(10L, 11L, 20L, 30L, 10L)));
+    }
+
+    @Test
+    public void should_not_find_task_without_key() {
+        Database database = mock(Database.class);
+        TaskDeduplicator taskDeduplicator = new TaskDeduplicator(database, TABLE_SCHEMA);
+
+        assertThat(taskDeduplicator.findTaskId(LOCATION, null), equalTo(null));
+        verifyZeroInteractions(database);
+    }
+}
@@ -0,0 +1,191 @@
+package ru.yoomoney.tech.dbqueue.dao.jdbc;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class JdbcDatabaseTest {
+
+    private static final String UPDATE_SQL = "UPDATE t SET a = :a WHERE id = :id";
+    private static final String POSITIONAL_UPDATE_SQL = "UPDATE t SET a = ? WHERE id = ?";
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final JdbcDatabase database = new JdbcDatabase(dataSource);
+
+    @Before
+    public void setUp() throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        when(connection.prepareStatement(POSITIONAL_UPDATE_SQL)).thenReturn(statement);
+        when(statement.executeUpdate()).thenReturn(1);
+    }
+
+    @Test
+    public void should_bind_parameters_and_close_resources_outside_of_transaction() throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        params.put("a", null);
+        params.put("id", 5L);
+
+        assertThat(database.update(UPDATE_SQL, params), equalTo(1));
+
+        verify(statement).setNull(1, Types.NULL);
+        verify(statement).setObject(2, 5L);
+        verify(statement).close();
+        verify(connection).close();
+        verify(connection, never()).setAutoCommit(false);
+    }
+
+    @Test
+    public void should_bind_positional_parameters() throws Exception {
+        assertThat(database.update(POSITIONAL_UPDATE_SQL, new Object[]{null, 5L}), equalTo(1));
+
+        verify(statement).setNull(1, Types.NULL);
+        verify(statement).setObject(2, 5L);
+        verify(statement).close();
+        verify(connection).close();
+    }
+
+    @Test
+    public void should_reuse_statement_and_commit_transaction() throws Exception {
+        List<String> events = new ArrayList<>();
+
+        int updated = database.transact(() -> {
+            database.afterCommit(() -> events.add("afterCommit"));
+            int count = database.update(UPDATE_SQL, params(1L));
+            count += database.transact(() -> database.update(POSITIONAL_UPDATE_SQL, new Object[]{"value", 2L}));
+            events.add("executed");
+            return count;
+        });
+
+        assertThat(updated, equalTo(2));
+        assertThat(events, equalTo(Arrays.asList("executed", "afterCommit")));
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, times(1)).prepareStatement(POSITIONAL_UPDATE_SQL);
+        verify(statement, times(2)).executeUpdate();
+        InOrder inOrder = inOrder(connection, statement);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(connection).commit();
+        inOrder.verify(statement).close();
+        inOrder.verify(connection).setAutoCommit(true);
+        inOrder.verify(connection).close();
+    }
+
+    @Test
+    public void should_rollback_transaction_and_skip_after_commit_actions() throws Exception {
+        List<String> events = new ArrayList<>();
+        try {
+            database.transact(() -> {
+                database.afterCommit(() -> events.add("afterCommit"));
+                database.update(UPDATE_SQL, params(1L));
+                throw new IllegalStateException("failure");
+            });
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), equalTo("failure"));
+        }
+
+        assertThat(events, equalTo(Collections.emptyList()));
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).close();
+    }
+
+    @Test
+    public void should_run_after_commit_action_immediately_outside_of_transaction() {
+        List<String> events = new ArrayList<>();
+
+        database.afterCommit(() -> events.add("afterCommit"));
+
+        assertThat(events, equalTo(Collections.singletonList("afterCommit")));
+    }
+
+    @Test
+    public void should_return_null_when_no_rows_selected() throws Exception {
+        PreparedStatement selectStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement("SELECT id FROM t WHERE id = ?")).thenReturn(selectStatement);
+        when(selectStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+
+        Long id = database.selectOne("SELECT id FROM t WHERE id = :id", Collections.singletonMap("id", 1L),
+                Long.class);
+
+        assertThat(id, nullValue());
+        verify(resultSet).close();
+    }
+
+    @Test
+    public void should_expand_collection_parameters_of_every_batch_map() throws Exception {
+        String sql = "DELETE FROM t WHERE id IN (:ids)";
+        PreparedStatement pairStatement = mock(PreparedStatement.class);
+        PreparedStatement singleStatement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("DELETE FROM t WHERE id IN (?, ?)")).thenReturn(pairStatement);
+        when(connection.prepareStatement("DELETE FROM t WHERE id IN (?)")).thenReturn(singleStatement);
+        when(pairStatement.executeBatch()).thenReturn(new int[]{2, 1});
+        when(singleStatement.executeBatch()).thenReturn(new int[]{1});
+
+        int[] updateCounts = database.batchUpdate(sql, Arrays.asList(
+                Collections.singletonMap("ids", Arrays.asList(1L, 2L)),
+                Collections.singletonMap("ids", Arrays.asList(3L, 4L)),
+                Collections.singletonMap("ids", Collections.singletonList(5L))));
+
+        assertThat(updateCounts, equalTo(new int[]{2, 1, 1}));
+        verify(pairStatement, times(2)).addBatch();
+        verify(pairStatement).setObject(1, 3L);
+        verify(pairStatement).setObject(2, 4L);
+        verify(singleStatement).setObject(1, 5L);
+        verify(singleStatement).addBatch();
+        verify(pairStatement).close();
+        verify(singleStatement).close();
+    }
+
+    @Test
+    public void should_fail_when_parameter_is_missing() {
+        try {
+            database.update(UPDATE_SQL, Collections.singletonMap("a", 1L));
+            fail("exception expected");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), equalTo("no value for parameter: name=id"));
+        }
+    }
+
+    private static Map<String, Object> params(long id) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("a", "value");
+        params.put("id", id);
+        return params;
+    }
+}
@@ -18,11 +18,11 @@ public class CustomMssqlQueuePickTaskDaoTest extends QueuePickTaskDaoTest {
     }
 
     public CustomMssqlQueuePickTaskDaoTest() {
-        super(new MssqlQueueDao(MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.CUSTOM_SCHEMA),
-                pickTaskSettings -> new MssqlQueuePickTaskDao(MssqlDatabaseInitializer.getJdbcTemplate(),
+        super(new MssqlQueueDao(MssqlDatabaseInitializer.getDatabase(), MssqlDatabaseInitializer.CUSTOM_SCHEMA),
+                pickTaskSettings -> new MssqlQueuePickTaskDao(MssqlDatabaseInitializer.getDatabase(),
                         MssqlDatabaseInitializer.CUSTOM_SCHEMA, pickTaskSettings),
                 MssqlDatabaseInitializer.CUSTOM_TABLE_NAME, MssqlDatabaseInitializer.CUSTOM_SCHEMA,
-                MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.getTransactionTemplate());
+                MssqlDatabaseInitializer.getDatabase());
     }
 
     @Override
@@ -23,11 +23,11 @@ public class CustomOracle11QueuePickTaskDaoTest extends QueuePickTaskDaoTest {
     }
 
     public CustomOracle11QueuePickTaskDaoTest() {
-        super(new Oracle11QueueDao(OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.CUSTOM_SCHEMA),
-                pickTaskSettings -> new Oracle11QueuePickTaskDao(OracleDatabaseInitializer.getJdbcTemplate(),
+        super(new Oracle11QueueDao(OracleDatabaseInitializer.getDatabase(), OracleDatabaseInitializer.CUSTOM_SCHEMA),
+                pickTaskSettings -> new Oracle11QueuePickTaskDao(OracleDatabaseInitializer.getDatabase(),
                         OracleDatabaseInitializer.CUSTOM_SCHEMA, pickTaskSettings),
                 OracleDatabaseInitializer.CUSTOM_TABLE_NAME, OracleDatabaseInitializer.CUSTOM_SCHEMA,
-                OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.getTransactionTemplate());
+                OracleDatabaseInitializer.getDatabase());
     }
 
     @Override
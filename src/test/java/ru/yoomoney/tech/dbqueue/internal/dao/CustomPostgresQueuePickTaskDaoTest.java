@@ -17,11 +17,11 @@ public class CustomPostgresQueuePickTaskDaoTest extends QueuePickTaskDaoTest {
     }
 
     public CustomPostgresQueuePickTaskDaoTest() {
-        super(new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.CUSTOM_SCHEMA),
-                pickTaskSettings -> new PostgresQueuePickTaskDao(PostgresDatabaseInitializer.getJdbcTemplate(),
+        super(new PostgresQueueDao(PostgresDatabaseInitializer.getDatabase(), PostgresDatabaseInitializer.CUSTOM_SCHEMA),
+                pickTaskSettings -> new PostgresQueuePickTaskDao(PostgresDatabaseInitializer.getDatabase(),
                         PostgresDatabaseInitializer.CUSTOM_SCHEMA, pickTaskSettings),
                 PostgresDatabaseInitializer.CUSTOM_TABLE_NAME, PostgresDatabaseInitializer.CUSTOM_SCHEMA,
-                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+                PostgresDatabaseInitializer.getDatabase());
     }
 
     @Override
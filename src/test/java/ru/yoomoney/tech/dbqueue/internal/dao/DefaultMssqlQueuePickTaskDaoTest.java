@@ -18,11 +18,11 @@ public class DefaultMssqlQueuePickTaskDaoTest extends QueuePickTaskDaoTest {
     }
 
     public DefaultMssqlQueuePickTaskDaoTest() {
-        super(new MssqlQueueDao(MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.DEFAULT_SCHEMA),
-                pickTaskSettings -> new MssqlQueuePickTaskDao(MssqlDatabaseInitializer.getJdbcTemplate(),
+        super(new MssqlQueueDao(MssqlDatabaseInitializer.getDatabase(), MssqlDatabaseInitializer.DEFAULT_SCHEMA),
+                pickTaskSettings -> new MssqlQueuePickTaskDao(MssqlDatabaseInitializer.getDatabase(),
                         MssqlDatabaseInitializer.DEFAULT_SCHEMA, pickTaskSettings),
                 MssqlDatabaseInitializer.DEFAULT_TABLE_NAME, MssqlDatabaseInitializer.DEFAULT_SCHEMA,
-                MssqlDatabaseInitializer.getJdbcTemplate(), MssqlDatabaseInitializer.getTransactionTemplate());
+                MssqlDatabaseInitializer.getDatabase());
     }
 
     @Override
@@ -24,11 +24,11 @@ public class DefaultOracle11QueuePickTaskDaoTest extends QueuePickTaskDaoTest {
     }
 
     public DefaultOracle11QueuePickTaskDaoTest() {
-        super(new Oracle11QueueDao(OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.DEFAULT_SCHEMA),
-                pickTaskSettings -> new Oracle11QueuePickTaskDao(OracleDatabaseInitializer.getJdbcTemplate(),
+        super(new Oracle11QueueDao(OracleDatabaseInitializer.getDatabase(), OracleDatabaseInitializer.DEFAULT_SCHEMA),
+                pickTaskSettings -> new Oracle11QueuePickTaskDao(OracleDatabaseInitializer.getDatabase(),
                         PostgresDatabaseInitializer.DEFAULT_SCHEMA, pickTaskSettings),
                 OracleDatabaseInitializer.DEFAULT_TABLE_NAME, OracleDatabaseInitializer.DEFAULT_SCHEMA,
-                OracleDatabaseInitializer.getJdbcTemplate(), OracleDatabaseInitializer.getTransactionTemplate());
+                OracleDatabaseInitializer.getDatabase());
     }
 
     @Override
@@ -17,11 +17,11 @@ public class DefaultPostgresQueuePickTaskDaoTest extends QueuePickTaskDaoTest {
     }
 
     public DefaultPostgresQueuePickTaskDaoTest() {
-        super(new PostgresQueueDao(PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.DEFAULT_SCHEMA),
-                pickTaskSettings -> new PostgresQueuePickTaskDao(PostgresDatabaseInitializer.getJdbcTemplate(),
+        super(new PostgresQueueDao(PostgresDatabaseInitializer.getDatabase(), PostgresDatabaseInitializer.DEFAULT_SCHEMA),
+                pickTaskSettings -> new PostgresQueuePickTaskDao(PostgresDatabaseInitializer.getDatabase(),
                         PostgresDatabaseInitializer.DEFAULT_SCHEMA, pickTaskSettings),
                 PostgresDatabaseInitializer.DEFAULT_TABLE_NAME, PostgresDatabaseInitializer.DEFAULT_SCHEMA,
-                PostgresDatabaseInitializer.getJdbcTemplate(), PostgresDatabaseInitializer.getTransactionTemplate());
+                PostgresDatabaseInitializer.getDatabase());
     }
 
     @Override
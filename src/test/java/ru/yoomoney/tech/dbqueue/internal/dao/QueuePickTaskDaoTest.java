@@ -1,15 +1,13 @@
 package ru.yoomoney.tech.dbqueue.internal.dao;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Ignore;
 import org.junit.Test;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.support.TransactionCallbackWithoutResult;
-import org.springframework.transaction.support.TransactionTemplate;
 import ru.yoomoney.tech.dbqueue.api.EnqueueParams;
 import ru.yoomoney.tech.dbqueue.api.TaskRecord;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.dao.Database;
 import ru.yoomoney.tech.dbqueue.dao.QueueDao;
 import ru.yoomoney.tech.dbqueue.internal.pick.PickTaskSettings;
 import ru.yoomoney.tech.dbqueue.internal.pick.QueuePickTaskDao;
@@ -20,10 +18,15 @@ import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
 import java.math.BigInteger;
 import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
@@ -37,8 +40,7 @@ import static org.hamcrest.CoreMatchers.nullValue;
 @Ignore
 public abstract class QueuePickTaskDaoTest {
 
-    protected final JdbcTemplate jdbcTemplate;
-    protected final TransactionTemplate transactionTemplate;
+    protected final Database database;
 
     protected final String tableName;
     protected final QueueTableSchema tableSchema;
@@ -53,11 +55,10 @@ public abstract class QueuePickTaskDaoTest {
 
     public QueuePickTaskDaoTest(QueueDao queueDao, Function<PickTaskSettings, QueuePickTaskDao> pickTaskDaoFactory,
                                 String tableName, QueueTableSchema tableSchema,
-                                JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+                                Database database) {
         this.tableName = tableName;
         this.tableSchema = tableSchema;
-        this.transactionTemplate = transactionTemplate;
-        this.jdbcTemplate = jdbcTemplate;
+        this.database = database;
         this.queueDao = queueDao;
         this.pickTaskDaoFactory = pickTaskDaoFactory;
     }
@@ -101,6 +102,121 @@ public abstract class QueuePickTaskDaoTest {
         Assert.assertThat(taskRecord.getCreatedAt().isBefore(afterEnqueue), equalTo(true));
     }
 
+    @Test
+    public void pick_tasks_should_return_no_more_than_batch_size() {
+        QueueLocation location = generateUniqueLocation();
+        for (int i = 0; i < 3; i++) {
+            executeInTransaction(() -> queueDao.enqueue(location, new EnqueueParams<>()));
+        }
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.ARITHMETIC_BACKOFF, Duration.ofMinutes(1)));
+
+        List<TaskRecord> firstBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 2));
+        List<TaskRecord> secondBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 2));
+        List<TaskRecord> thirdBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 2));
+
+        Assert.assertThat(firstBatch.size(), equalTo(2));
+        Assert.assertThat(secondBatch.size(), equalTo(1));
+        Assert.assertThat(thirdBatch.isEmpty(), equalTo(true));
+        firstBatch.forEach(taskRecord -> Assert.assertThat(taskRecord.getAttemptsCount(), equalTo(1L)));
+    }
+
+    @Test
+    public void pick_group_tasks_should_return_tasks_of_all_queues() {
+        QueueLocation location1 = generateUniqueLocation();
+        QueueLocation location2 = generateUniqueLocation();
+        QueueLocation location3 = generateUniqueLocation();
+        Long taskId1 = executeInTransaction(() -> queueDao.enqueue(location1, new EnqueueParams<>()));
+        Long taskId2 = executeInTransaction(() -> queueDao.enqueue(location2, new EnqueueParams<>()));
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.ARITHMETIC_BACKOFF, Duration.ofMinutes(1)));
+
+        Map<QueueLocation, List<TaskRecord>> firstBatch = executeInTransaction(
+                () -> pickTaskDao.pickGroupTasks(Arrays.asList(location1, location2, location3), 5));
+        Map<QueueLocation, List<TaskRecord>> secondBatch = executeInTransaction(
+                () -> pickTaskDao.pickGroupTasks(Arrays.asList(location1, location2, location3), 5));
+
+        Assert.assertThat(firstBatch.size(), equalTo(2));
+        Assert.assertThat(firstBatch.get(location1).size(), equalTo(1));
+        Assert.assertThat(firstBatch.get(location1).get(0).getId(), equalTo(taskId1));
+        Assert.assertThat(firstBatch.get(location2).size(), equalTo(1));
+        Assert.assertThat(firstBatch.get(location2).get(0).getId(), equalTo(taskId2));
+        Assert.assertThat(secondBatch.isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void pick_task_should_return_task_with_highest_priority_first() {
+        Assume.assumeTrue(tableSchema.getPriorityField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        Long lowPriorityId = executeInTransaction(() -> queueDao.enqueue(location,
+                new EnqueueParams<String>().withPriority(1)));
+        Long highPriorityId = executeInTransaction(() -> queueDao.enqueue(location,
+                new EnqueueParams<String>().withPriority(10)));
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.ARITHMETIC_BACKOFF, Duration.ofMinutes(1)));
+
+        List<TaskRecord> firstBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 1));
+        List<TaskRecord> secondBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 1));
+
+        Assert.assertThat(firstBatch.size(), equalTo(1));
+        Assert.assertThat(firstBatch.get(0).getId(), equalTo(highPriorityId));
+        Assert.assertThat(secondBatch.size(), equalTo(1));
+        Assert.assertThat(secondBatch.get(0).getId(), equalTo(lowPriorityId));
+    }
+
+    @Test
+    public void pick_tasks_should_return_only_oldest_task_of_ordering_key() {
+        Assume.assumeTrue(tableSchema.getOrderingKeyField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        Long firstKeyId = executeInTransaction(() -> queueDao.enqueue(location,
+                new EnqueueParams<String>().withOrderingKey("key1")));
+        executeInTransaction(() -> queueDao.enqueue(location,
+                new EnqueueParams<String>().withOrderingKey("key1")));
+        Long secondKeyId = executeInTransaction(() -> queueDao.enqueue(location,
+                new EnqueueParams<String>().withOrderingKey("key2")));
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.ARITHMETIC_BACKOFF, Duration.ofMinutes(1)));
+
+        List<TaskRecord> firstBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 10));
+        List<TaskRecord> secondBatch = executeInTransaction(() -> pickTaskDao.pickTasks(location, 10));
+
+        Assert.assertThat(firstBatch.stream().map(TaskRecord::getId).collect(Collectors.toSet()),
+                equalTo(new HashSet<>(Arrays.asList(firstKeyId, secondKeyId))));
+        Assert.assertThat(secondBatch.size(), equalTo(0));
+    }
+
+    @Test
+    public void pick_task_should_return_next_task_of_ordering_key_after_previous_is_deleted() {
+        Assume.assumeTrue(tableSchema.getOrderingKeyField().isPresent());
+        QueueLocation location = generateUniqueLocation();
+        Long firstId = executeInTransaction(() -> queueDao.enqueue(location,
+                new EnqueueParams<String>().withOrderingKey("key1")));
+        Long secondId = executeInTransaction(() -> queueDao.enqueue(location,
+                new EnqueueParams<String>().withOrderingKey("key1")));
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.ARITHMETIC_BACKOFF, Duration.ofMinutes(1)));
+
+        TaskRecord firstTask = executeInTransaction(() -> pickTaskDao.pickTask(location));
+        executeInTransaction(() -> queueDao.deleteTask(location, firstId));
+        TaskRecord secondTask = executeInTransaction(() -> pickTaskDao.pickTask(location));
+
+        Assert.assertThat(firstTask.getId(), equalTo(firstId));
+        Assert.assertThat(secondTask.getId(), equalTo(secondId));
+    }
+
+    @Test
+    public void get_next_task_delay_should_return_delay_of_earliest_task() {
+        QueueLocation location = generateUniqueLocation();
+        QueuePickTaskDao pickTaskDao = pickTaskDaoFactory.apply(new PickTaskSettings(TaskRetryType.ARITHMETIC_BACKOFF, Duration.ofMinutes(1)));
+        Assert.assertThat(executeInTransaction(() -> pickTaskDao.getNextTaskDelay(location)), is(nullValue()));
+
+        executeInTransaction(() ->
+                queueDao.enqueue(location, new EnqueueParams<String>().withExecutionDelay(Duration.ofHours(2))));
+        executeInTransaction(() ->
+                queueDao.enqueue(location, new EnqueueParams<String>().withExecutionDelay(Duration.ofHours(1))));
+
+        Duration nextTaskDelay = executeInTransaction(() -> pickTaskDao.getNextTaskDelay(location));
+        Assert.assertThat(nextTaskDelay, is(not(nullValue())));
+        Objects.requireNonNull(nextTaskDelay);
+        Assert.assertThat(nextTaskDelay.compareTo(Duration.ofHours(1).plus(WINDOWS_OS_DELAY)) <= 0, equalTo(true));
+        Assert.assertThat(nextTaskDelay.compareTo(Duration.ofHours(1).minus(Duration.ofMinutes(1))) > 0, equalTo(true));
+    }
+
     @Test
     public void pick_task_should_delay_with_linear_strategy() {
         QueueLocation location = generateUniqueLocation();
@@ -173,7 +289,7 @@ public abstract class QueuePickTaskDaoTest {
 
     private TaskRecord resetProcessTimeAndPick(QueueLocation location, QueuePickTaskDao pickTaskDao, Long enqueueId) {
         executeInTransaction(() -> {
-            jdbcTemplate.update("update " + tableName +
+            database.update("update " + tableName +
                     " set " + tableSchema.getNextProcessAtField() + "= " + currentTimeSql() + " where " + tableSchema.getIdField() + "=" + enqueueId);
         });
 
@@ -198,16 +314,11 @@ public abstract class QueuePickTaskDaoTest {
     }
 
     protected void executeInTransaction(Runnable runnable) {
-        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
-            @Override
-            protected void doInTransactionWithoutResult(TransactionStatus status) {
-                runnable.run();
-            }
-        });
+        database.transact(runnable);
     }
 
     protected <T> T executeInTransaction(Supplier<T> supplier) {
-        return transactionTemplate.execute(status -> supplier.get());
+        return database.transact(supplier);
     }
 
 }
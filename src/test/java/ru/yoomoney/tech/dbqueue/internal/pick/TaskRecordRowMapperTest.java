@@ -0,0 +1,56 @@
+package ru.yoomoney.tech.dbqueue.internal.pick;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class TaskRecordRowMapperTest {
+
+    @Test
+    public void should_map_columns_by_index() throws Exception {
+        ZonedDateTime createdAt = ZonedDateTime.of(2026, 10, 17, 10, 0, 0, 0, ZoneId.systemDefault());
+        ZonedDateTime nextProcessAt = createdAt.plusMinutes(1L);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(11L);
+        when(rs.getString(2)).thenReturn("payload");
+        when(rs.getLong(3)).thenReturn(2L);
+        when(rs.getLong(4)).thenReturn(3L);
+        when(rs.getLong(5)).thenReturn(4L);
+        when(rs.getTimestamp(6)).thenReturn(Timestamp.from(createdAt.toInstant()));
+        when(rs.getTimestamp(7)).thenReturn(Timestamp.from(nextProcessAt.toInstant()));
+        when(rs.getString(8)).thenReturn("trace");
+        when(rs.getString(9)).thenReturn(null);
+        TaskRecordRowMapper rowMapper = new TaskRecordRowMapper(QueueTableSchema.builder()
+                .withExtFields(Arrays.asList("trace_id", "user_id")).build());
+
+        Map<String, String> extData = new LinkedHashMap<>();
+        extData.put("trace_id", "trace");
+        extData.put("user_id", null);
+        assertThat(rowMapper.mapToObject(rs), equalTo(TaskRecord.builder()
+                .withId(11L)
+                .withPayload("payload")
+                .withAttemptsCount(2L)
+                .withReenqueueAttemptsCount(3L)
+                .withTotalAttemptsCount(4L)
+                .withCreatedAt(createdAt)
+                .withNextProcessAt(nextProcessAt)
+                .withExtData(extData)
+                .build()));
+    }
+}
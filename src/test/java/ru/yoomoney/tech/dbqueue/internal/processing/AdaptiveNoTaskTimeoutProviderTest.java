@@ -0,0 +1,108 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.internal.pick.QueuePickTaskDao;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+import ru.yoomoney.tech.dbqueue.stub.FakeMillisTimeProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class AdaptiveNoTaskTimeoutProviderTest {
+
+    private static final QueueLocation location = QueueLocation.builder().withTableName("testTable")
+            .withQueueId(new QueueId("testQueue")).build();
+
+    @Test
+    public void should_wait_until_next_task_and_cache_wakeup_time() {
+        QueueConsumer queueConsumer = createQueueConsumer(Duration.ofSeconds(10L));
+        QueueShard queueShard = createQueueShard();
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        when(pickTaskDao.getNextTaskDelay(location)).thenReturn(Duration.ofMillis(300L));
+
+        AdaptiveNoTaskTimeoutProvider provider = new AdaptiveNoTaskTimeoutProvider(queueShard, pickTaskDao,
+                new FakeMillisTimeProvider(Arrays.asList(1000L, 1100L, 1300L)));
+
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofMillis(300L)));
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofMillis(200L)));
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofMillis(300L)));
+        verify(pickTaskDao, times(2)).getNextTaskDelay(location);
+    }
+
+    @Test
+    public void should_recompute_wakeup_time_after_reset() {
+        QueueConsumer queueConsumer = createQueueConsumer(Duration.ofSeconds(10L));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        when(pickTaskDao.getNextTaskDelay(location))
+                .thenReturn(Duration.ofSeconds(5L))
+                .thenReturn(Duration.ofMillis(100L));
+
+        AdaptiveNoTaskTimeoutProvider provider = new AdaptiveNoTaskTimeoutProvider(createQueueShard(), pickTaskDao,
+                new FakeMillisTimeProvider(Arrays.asList(1000L, 1200L)));
+
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofSeconds(5L)));
+        provider.reset();
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofMillis(100L)));
+        verify(pickTaskDao, times(2)).getNextTaskDelay(location);
+    }
+
+    @Test
+    public void should_limit_timeout_by_no_task_timeout() {
+        QueueConsumer queueConsumer = createQueueConsumer(Duration.ofSeconds(1L));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        when(pickTaskDao.getNextTaskDelay(location)).thenReturn(Duration.ofMinutes(5L));
+
+        AdaptiveNoTaskTimeoutProvider provider = new AdaptiveNoTaskTimeoutProvider(createQueueShard(), pickTaskDao,
+                new FakeMillisTimeProvider(Arrays.asList(0L)));
+
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofSeconds(1L)));
+    }
+
+    @Test
+    public void should_use_no_task_timeout_when_next_task_is_unknown() {
+        QueueConsumer queueConsumer = createQueueConsumer(Duration.ofSeconds(1L));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        when(pickTaskDao.getNextTaskDelay(location))
+                .thenReturn(null)
+                .thenReturn(Duration.ofMillis(-100L))
+                .thenThrow(new IllegalStateException("fail"));
+
+        AdaptiveNoTaskTimeoutProvider provider = new AdaptiveNoTaskTimeoutProvider(createQueueShard(), pickTaskDao,
+                new FakeMillisTimeProvider(Arrays.asList(0L, 1000L, 2000L)));
+
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofSeconds(1L)));
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofSeconds(1L)));
+        assertThat(provider.getNoTaskTimeout(queueConsumer), equalTo(Duration.ofSeconds(1L)));
+    }
+
+    private static QueueConsumer createQueueConsumer(Duration noTaskTimeout) {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(noTaskTimeout).build()));
+        return queueConsumer;
+    }
+
+    private static QueueShard createQueueShard() {
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        return queueShard;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @since 17.10.2026
+ */
+public class NoTaskTimeoutBackoffTest {
+
+    private static final Duration INITIAL_TIMEOUT = Duration.ofMillis(100L);
+    private static final Duration MAX_TIMEOUT = Duration.ofMillis(500L);
+
+    @Test
+    public void should_double_timeout_up_to_max_timeout() {
+        NoTaskTimeoutBackoff backoff = new NoTaskTimeoutBackoff(() -> 0.999999);
+
+        assertThat(backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT), equalTo(Duration.ofMillis(99L)));
+        assertThat(backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT), equalTo(Duration.ofMillis(199L)));
+        assertThat(backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT), equalTo(Duration.ofMillis(399L)));
+        assertThat(backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT), equalTo(Duration.ofMillis(499L)));
+        assertThat(backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT), equalTo(Duration.ofMillis(499L)));
+    }
+
+    @Test
+    public void should_shorten_timeout_by_jitter_up_to_half() {
+        NoTaskTimeoutBackoff backoff = new NoTaskTimeoutBackoff(() -> 0.0);
+
+        assertThat(backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT), equalTo(Duration.ofMillis(50L)));
+        assertThat(backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT), equalTo(Duration.ofMillis(100L)));
+    }
+
+    @Test
+    public void should_start_from_initial_timeout_after_reset() {
+        NoTaskTimeoutBackoff backoff = new NoTaskTimeoutBackoff(() -> 0.0);
+
+        backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT);
+        backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT);
+        backoff.reset();
+        assertThat(backoff.nextTimeout(INITIAL_TIMEOUT, MAX_TIMEOUT), equalTo(Duration.ofMillis(50L)));
+    }
+
+    @Test
+    public void should_not_exceed_max_timeout_when_initial_timeout_is_greater() {
+        NoTaskTimeoutBackoff backoff = new NoTaskTimeoutBackoff(() -> 0.0);
+
+        assertThat(backoff.nextTimeout(Duration.ofSeconds(1L), MAX_TIMEOUT), equalTo(Duration.ofMillis(250L)));
+    }
+}
@@ -1,6 +1,7 @@
 package ru.yoomoney.tech.dbqueue.internal.processing;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
 import ru.yoomoney.tech.dbqueue.config.QueueShardId;
 import ru.yoomoney.tech.dbqueue.config.ThreadLifecycleListener;
@@ -13,13 +14,19 @@ import ru.yoomoney.tech.dbqueue.stub.FakeMillisTimeProvider;
 
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -120,6 +127,128 @@ public class QueueLoopTest {
         verify(listener).finished(shardId, location);
     }
 
+    @Test
+    public void should_stop_loop_before_next_pick() {
+        ThreadLifecycleListener listener = mock(ThreadLifecycleListener.class);
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+
+        QueueLoop queueLoop = new QueueLoop(new LoopPolicy.WakeupLoopPolicy(), listener,
+                new MillisTimeProvider.SystemMillisTimeProvider());
+        queueLoop.unpause();
+        queueLoop.stop(1);
+        queueLoop.start(shardId, queueConsumer, queueRunner);
+        // сбрасываем флаг прерывания, чтобы он не влиял на другие тесты в этом потоке
+        assertTrue(Thread.interrupted());
+
+        verifyZeroInteractions(queueRunner);
+        verifyZeroInteractions(listener);
+        assertThat(queueLoop.cancelStop(1), equalTo(0));
+    }
+
+    @Test
+    public void should_cancel_stop_of_loop() {
+        LoopPolicy loopPolicy = spy(new DelegatedSingleLoopExecution(new LoopPolicy.WakeupLoopPolicy()));
+        ThreadLifecycleListener listener = mock(ThreadLifecycleListener.class);
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        QueueLocation location = QueueLocation.builder().withTableName("table")
+                .withQueueId(new QueueId("queue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder()
+                        .withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO)
+                        .build()));
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        when(queueRunner.runQueue(queueConsumer)).thenReturn(QueueProcessingStatus.SKIPPED);
+
+        QueueLoop queueLoop = new QueueLoop(loopPolicy, listener, new MillisTimeProvider.SystemMillisTimeProvider());
+        queueLoop.unpause();
+        queueLoop.stop(2);
+        assertThat(queueLoop.cancelStop(3), equalTo(2));
+        queueLoop.start(shardId, queueConsumer, queueRunner);
+
+        verify(queueRunner).runQueue(queueConsumer);
+        verify(listener).finished(shardId, location);
+    }
+
+    @Test
+    public void should_back_off_no_task_timeout_until_task_is_picked() {
+        LoopPolicy loopPolicy = spy(new RepeatedLoopPolicy(5));
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        QueueLocation location = QueueLocation.builder().withTableName("table")
+                .withQueueId(new QueueId("queue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder()
+                        .withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ofMillis(300L))
+                        .withInitialNoTaskTimeout(Duration.ofMillis(100L))
+                        .build()));
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        when(queueRunner.runQueue(queueConsumer)).thenReturn(QueueProcessingStatus.SKIPPED,
+                QueueProcessingStatus.SKIPPED, QueueProcessingStatus.SKIPPED,
+                QueueProcessingStatus.PROCESSED, QueueProcessingStatus.SKIPPED);
+
+        new QueueLoop(loopPolicy, mock(ThreadLifecycleListener.class), new MillisTimeProvider.SystemMillisTimeProvider())
+                .start(shardId, queueConsumer, queueRunner);
+
+        ArgumentCaptor<Duration> timeouts = ArgumentCaptor.forClass(Duration.class);
+        verify(loopPolicy, times(5)).doWait(timeouts.capture(), any());
+        assertTimeoutBetween(timeouts.getAllValues().get(0), 50L, 100L);
+        assertTimeoutBetween(timeouts.getAllValues().get(1), 100L, 200L);
+        assertTimeoutBetween(timeouts.getAllValues().get(2), 150L, 300L);
+        assertThat(timeouts.getAllValues().get(3), equalTo(Duration.ZERO));
+        assertTimeoutBetween(timeouts.getAllValues().get(4), 50L, 100L);
+    }
+
+    @Test
+    public void should_wait_for_rate_limit_permit_when_tasks_are_not_picked() {
+        LoopPolicy loopPolicy = spy(new SyncLoopPolicy());
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        QueueLocation location = QueueLocation.builder().withTableName("table")
+                .withQueueId(new QueueId("queue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder()
+                        .withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ofSeconds(5L))
+                        .withRateLimit(10)
+                        .build()));
+        AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+        TaskRateLimiter rateLimiter = new TaskRateLimiter(10, nanoTime::get);
+        rateLimiter.tryAcquire(10);
+        QueueRunner queueRunner = mock(QueueRunner.class);
+        when(queueRunner.runQueue(queueConsumer)).thenReturn(QueueProcessingStatus.SKIPPED);
+
+        new QueueLoop(loopPolicy, mock(ThreadLifecycleListener.class), new MillisTimeProvider.SystemMillisTimeProvider(),
+                new NoTaskTimeoutProvider.FixedNoTaskTimeoutProvider(), rateLimiter)
+                .start(shardId, queueConsumer, queueRunner);
+
+        verify(loopPolicy).doWait(Duration.ofMillis(100L), LoopPolicy.WaitInterrupt.DENY);
+    }
+
+    private static void assertTimeoutBetween(Duration timeout, long minMillis, long maxMillis) {
+        assertTrue("timeout=" + timeout, timeout.toMillis() >= minMillis && timeout.toMillis() <= maxMillis);
+    }
+
+    private static class RepeatedLoopPolicy extends SyncLoopPolicy {
+
+        private final int iterationCount;
+
+        private RepeatedLoopPolicy(int iterationCount) {
+            this.iterationCount = iterationCount;
+        }
+
+        @Override
+        public void doRun(Runnable runnable) {
+            for (int i = 0; i < iterationCount; i++) {
+                runnable.run();
+            }
+        }
+    }
+
     private static class DelegatedSingleLoopExecution implements LoopPolicy {
 
         private final LoopPolicy delegate;
@@ -139,6 +268,8 @@ public class QueueLoopTest {
                 attemptCount++;
                 runnable.run();
             });
+            // сбрасываем флаг прерывания, чтобы он не влиял на другие тесты в этом потоке
+            Thread.interrupted();
         }
 
         @Override
@@ -0,0 +1,82 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.dao.PostgresQueueDao;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class TaskAckBufferTest {
+
+    private static final QueueLocation location = QueueLocation.builder().withTableName("testTable")
+            .withQueueId(new QueueId("testQueue")).build();
+
+    @Test
+    public void should_delete_tasks_when_buffer_is_full() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        QueueShard queueShard = mockQueueShard(queueDao);
+        TaskAckBuffer taskAckBuffer = new TaskAckBuffer(location, queueShard, 3);
+
+        taskAckBuffer.add(1L);
+        taskAckBuffer.add(2L);
+        verifyZeroInteractions(queueDao);
+
+        taskAckBuffer.add(3L);
+        verify(queueDao).deleteTasks(location, Arrays.asList(1L, 2L, 3L));
+        verifyNoMoreInteractions(queueDao);
+    }
+
+    @Test
+    public void should_delete_buffered_tasks_on_flush() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        QueueShard queueShard = mockQueueShard(queueDao);
+        TaskAckBuffer taskAckBuffer = new TaskAckBuffer(location, queueShard, 3);
+
+        taskAckBuffer.flush();
+        verifyZeroInteractions(queueDao);
+
+        taskAckBuffer.add(1L);
+        taskAckBuffer.flush();
+        verify(queueDao).deleteTasks(location, Collections.singletonList(1L));
+        verifyNoMoreInteractions(queueDao);
+    }
+
+    @Test
+    public void should_not_fail_when_delete_failed() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        when(queueDao.deleteTasks(eq(location), any())).thenThrow(new IllegalStateException("fail"));
+        QueueShard queueShard = mockQueueShard(queueDao);
+        TaskAckBuffer taskAckBuffer = new TaskAckBuffer(location, queueShard, 1);
+
+        taskAckBuffer.add(1L);
+
+        verify(queueDao).deleteTasks(location, Collections.singletonList(1L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_accept_non_positive_batch_size() {
+        new TaskAckBuffer(location, mock(QueueShard.class), 0);
+    }
+
+    private static QueueShard mockQueueShard(PostgresQueueDao queueDao) {
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+        return queueShard;
+    }
+}
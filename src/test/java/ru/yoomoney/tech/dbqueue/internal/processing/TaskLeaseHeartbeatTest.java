@@ -0,0 +1,119 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.config.QueueShard;
+import ru.yoomoney.tech.dbqueue.dao.PostgresQueueDao;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class TaskLeaseHeartbeatTest {
+
+    private static final QueueLocation location = QueueLocation.builder().withTableName("testTable")
+            .withQueueId(new QueueId("testQueue")).build();
+    private static final Duration LEASE_TIME = Duration.ofSeconds(30L);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_extend_leases_of_acquired_tasks() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        TaskLeaseHeartbeat taskLeaseHeartbeat = new TaskLeaseHeartbeat(location, mockQueueShard(queueDao),
+                LEASE_TIME, TaskRetryType.LINEAR_BACKOFF, () -> Duration.ofMinutes(1L));
+
+        taskLeaseHeartbeat.extendLeases();
+        verifyZeroInteractions(queueDao);
+
+        taskLeaseHeartbeat.acquire(1L);
+        taskLeaseHeartbeat.acquire(2L);
+        taskLeaseHeartbeat.acquire(3L);
+        taskLeaseHeartbeat.release(2L);
+        taskLeaseHeartbeat.extendLeases();
+
+        ArgumentCaptor<List<Long>> taskIds = ArgumentCaptor.forClass(List.class);
+        verify(queueDao).postponeTasks(eq(location), taskIds.capture(), eq(LEASE_TIME));
+        assertThat(new HashSet<>(taskIds.getValue()), equalTo(new HashSet<>(Arrays.asList(1L, 3L))));
+        verifyNoMoreInteractions(queueDao);
+    }
+
+    @Test
+    public void should_not_fail_when_extension_failed() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        when(queueDao.postponeTasks(eq(location), anyCollection(), eq(LEASE_TIME)))
+                .thenThrow(new IllegalStateException("fail"));
+        TaskLeaseHeartbeat taskLeaseHeartbeat = new TaskLeaseHeartbeat(location, mockQueueShard(queueDao),
+                LEASE_TIME, TaskRetryType.LINEAR_BACKOFF, () -> Duration.ofMinutes(1L));
+        taskLeaseHeartbeat.acquire(1L);
+
+        taskLeaseHeartbeat.extendLeases();
+
+        verify(queueDao).postponeTasks(location, Collections.singletonList(1L), LEASE_TIME);
+    }
+
+    @Test
+    public void should_postpone_failed_task_unconditionally() {
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        TaskLeaseHeartbeat taskLeaseHeartbeat = new TaskLeaseHeartbeat(location, mockQueueShard(queueDao),
+                LEASE_TIME, TaskRetryType.LINEAR_BACKOFF, () -> Duration.ofSeconds(10L));
+
+        taskLeaseHeartbeat.postponeFailedTask(TaskRecord.builder().withId(1L).withAttemptsCount(2L).build());
+
+        verify(queueDao).postponeTask(location, 1L, Duration.ofSeconds(10L));
+        verifyNoMoreInteractions(queueDao);
+    }
+
+    @Test
+    public void should_calculate_retry_delay_as_pick_query() {
+        Supplier<Duration> retryInterval = () -> Duration.ofSeconds(10L);
+        QueueShard queueShard = mock(QueueShard.class);
+
+        TaskLeaseHeartbeat geometric = new TaskLeaseHeartbeat(location, queueShard, LEASE_TIME,
+                TaskRetryType.GEOMETRIC_BACKOFF, retryInterval);
+        assertThat(geometric.calculateRetryDelay(1L), equalTo(Duration.ofSeconds(10L)));
+        assertThat(geometric.calculateRetryDelay(4L), equalTo(Duration.ofSeconds(80L)));
+
+        TaskLeaseHeartbeat arithmetic = new TaskLeaseHeartbeat(location, queueShard, LEASE_TIME,
+                TaskRetryType.ARITHMETIC_BACKOFF, retryInterval);
+        assertThat(arithmetic.calculateRetryDelay(1L), equalTo(Duration.ofSeconds(10L)));
+        assertThat(arithmetic.calculateRetryDelay(4L), equalTo(Duration.ofSeconds(70L)));
+
+        TaskLeaseHeartbeat linear = new TaskLeaseHeartbeat(location, queueShard, LEASE_TIME,
+                TaskRetryType.LINEAR_BACKOFF, retryInterval);
+        assertThat(linear.calculateRetryDelay(4L), equalTo(Duration.ofSeconds(10L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_accept_lease_time_shorter_than_second() {
+        new TaskLeaseHeartbeat(location, mock(QueueShard.class), Duration.ofMillis(500L),
+                TaskRetryType.LINEAR_BACKOFF, () -> Duration.ofMinutes(1L));
+    }
+
+    private static QueueShard mockQueueShard(PostgresQueueDao queueDao) {
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+        return queueShard;
+    }
+}
@@ -12,17 +12,25 @@ import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 import ru.yoomoney.tech.dbqueue.stub.FakeMillisTimeProvider;
-import ru.yoomoney.tech.dbqueue.stub.FakeTransactionTemplate;
 
+import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
@@ -39,13 +47,12 @@ public class TaskPickerTest {
         QueueShardId shardId = new QueueShardId("s1");
         QueueShard queueShard = mock(QueueShard.class);
         when(queueShard.getShardId()).thenReturn(shardId);
-        FakeTransactionTemplate transactionTemplate = spy(new FakeTransactionTemplate());
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
                 QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
                         .withNoTaskTimeout(Duration.ZERO).build()));
         QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(transactionTemplate);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
         TaskRecord taskRecord = TaskRecord.builder().build();
         when(pickTaskDao.pickTask(location)).thenReturn(taskRecord);
         when(queueShard.getShardId()).thenReturn(shardId);
@@ -57,7 +64,7 @@ public class TaskPickerTest {
         assertThat(pickedTask, equalTo(taskRecord));
 
         verify(millisTimeProvider, times(2)).getMillis();
-        verify(queueShard).getTransactionTemplate();
+        verify(queueShard).transact(any());
         verify(pickTaskDao).pickTask(location);
         verify(listener).picked(shardId, location, taskRecord, 2L);
     }
@@ -67,13 +74,12 @@ public class TaskPickerTest {
         QueueLocation location = QueueLocation.builder().withTableName("testTable")
                 .withQueueId(new QueueId("testQueue")).build();
         QueueShard queueShard = mock(QueueShard.class);
-        FakeTransactionTemplate transactionTemplate = spy(new FakeTransactionTemplate());
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
                 QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
                         .withNoTaskTimeout(Duration.ZERO).build()));
         QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(transactionTemplate);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
         when(pickTaskDao.pickTask(location)).thenReturn(null);
         TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
         FakeMillisTimeProvider millisTimeProvider = spy(new FakeMillisTimeProvider(Arrays.asList(3L, 5L)));
@@ -83,7 +89,7 @@ public class TaskPickerTest {
         assertThat(pickedTask, equalTo(null));
 
         verify(millisTimeProvider).getMillis();
-        verify(queueShard).getTransactionTemplate();
+        verify(queueShard).transact(any());
         verify(pickTaskDao).pickTask(location);
         verifyZeroInteractions(listener);
     }
@@ -93,13 +99,12 @@ public class TaskPickerTest {
         QueueLocation location = QueueLocation.builder().withTableName("testTable")
                 .withQueueId(new QueueId("testQueue")).build();
         QueueShard queueShard = mock(QueueShard.class);
-        FakeTransactionTemplate transactionTemplate = spy(new FakeTransactionTemplate());
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
                 QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
                         .withNoTaskTimeout(Duration.ZERO).build()));
         QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(transactionTemplate);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
         when(pickTaskDao.pickTask(location)).thenThrow(new IllegalStateException("fail"));
         TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
         FakeMillisTimeProvider millisTimeProvider = spy(new FakeMillisTimeProvider(Arrays.asList(3L, 5L)));
@@ -109,8 +114,177 @@ public class TaskPickerTest {
         assertThat(pickedTask, equalTo(null));
 
         verify(millisTimeProvider).getMillis();
-        verify(queueShard).getTransactionTemplate();
+        verify(queueShard).transact(any());
         verify(pickTaskDao).pickTask(location);
         verifyZeroInteractions(listener);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_successfully_pick_batch_of_tasks() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).withPickBatchSize(3).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        TaskRecord taskRecord1 = TaskRecord.builder().withId(1L).build();
+        TaskRecord taskRecord2 = TaskRecord.builder().withId(2L).build();
+        when(pickTaskDao.pickTasks(location, 3)).thenReturn(Arrays.asList(taskRecord1, taskRecord2));
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        FakeMillisTimeProvider millisTimeProvider = spy(new FakeMillisTimeProvider(Arrays.asList(3L, 5L)));
+
+        List<TaskRecord> pickedTasks = new TaskPicker(queueShard, listener, millisTimeProvider, pickTaskDao)
+                .pickTasks(queueConsumer);
+
+        assertThat(pickedTasks, equalTo(Arrays.asList(taskRecord1, taskRecord2)));
+
+        verify(millisTimeProvider, times(2)).getMillis();
+        verify(pickTaskDao).pickTasks(location, 3);
+        verifyNoMoreInteractions(pickTaskDao);
+        verify(listener).picked(shardId, location, taskRecord1, 2L);
+        verify(listener).picked(shardId, location, taskRecord2, 2L);
+    }
+
+    @Test
+    public void should_pick_single_task_when_batch_size_is_one() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        when(pickTaskDao.pickTask(location)).thenReturn(null);
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        FakeMillisTimeProvider millisTimeProvider = new FakeMillisTimeProvider(Arrays.asList(3L, 5L));
+
+        List<TaskRecord> pickedTasks = new TaskPicker(queueShard, listener, millisTimeProvider, pickTaskDao)
+                .pickTasks(queueConsumer);
+
+        assertThat(pickedTasks, equalTo(Collections.emptyList()));
+
+        verify(pickTaskDao).pickTask(location);
+        verifyNoMoreInteractions(pickTaskDao);
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void should_pick_tasks_of_queue_group() throws Exception {
+        QueueLocation location1 = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue1")).build();
+        QueueLocation location2 = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue2")).build();
+        QueueShardId shardId = new QueueShardId("s1");
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(shardId);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        TaskRecord taskRecord1 = TaskRecord.builder().withId(1L).build();
+        TaskRecord taskRecord2 = TaskRecord.builder().withId(2L).build();
+        Map<QueueLocation, List<TaskRecord>> taskRecords = new LinkedHashMap<>();
+        taskRecords.put(location1, Collections.singletonList(taskRecord1));
+        taskRecords.put(location2, Collections.singletonList(taskRecord2));
+        List<QueueLocation> locations = Arrays.asList(location1, location2);
+        when(pickTaskDao.pickGroupTasks(locations, 3)).thenReturn(taskRecords);
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        FakeMillisTimeProvider millisTimeProvider = new FakeMillisTimeProvider(Arrays.asList(3L, 5L));
+
+        Map<QueueLocation, List<TaskRecord>> pickedTasks = new TaskPicker(queueShard, listener,
+                millisTimeProvider, pickTaskDao).pickGroupTasks(locations, 3);
+
+        assertThat(pickedTasks, equalTo(taskRecords));
+        verify(pickTaskDao).pickGroupTasks(locations, 3);
+        verifyNoMoreInteractions(pickTaskDao);
+        verify(listener).picked(shardId, location1, taskRecord1, 2L);
+        verify(listener).picked(shardId, location2, taskRecord2, 2L);
+    }
+
+    @Test
+    public void should_pick_group_tasks_queue_by_queue_by_default() throws Exception {
+        QueueLocation location1 = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue1")).build();
+        QueueLocation location2 = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue2")).build();
+        QueueLocation location3 = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue3")).build();
+        TaskRecord taskRecord1 = TaskRecord.builder().withId(1L).build();
+        TaskRecord taskRecord2 = TaskRecord.builder().withId(2L).build();
+        List<QueueLocation> pickedLocations = new ArrayList<>();
+        QueuePickTaskDao pickTaskDao = new QueuePickTaskDao() {
+            @Override
+            public TaskRecord pickTask(@Nonnull QueueLocation location) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Nonnull
+            @Override
+            public List<TaskRecord> pickTasks(@Nonnull QueueLocation location, int maxBatch) {
+                assertThat(maxBatch, equalTo(2));
+                pickedLocations.add(location);
+                return location.equals(location2) ? Arrays.asList(taskRecord1, taskRecord2) : Collections.emptyList();
+            }
+
+            @Override
+            public Duration getNextTaskDelay(@Nonnull QueueLocation location) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        Map<QueueLocation, List<TaskRecord>> pickedTasks = pickTaskDao.pickGroupTasks(
+                Arrays.asList(location1, location2, location3), 2);
+
+        assertThat(pickedTasks, equalTo(Collections.singletonMap(location2, Arrays.asList(taskRecord1, taskRecord2))));
+        assertThat(pickedLocations, equalTo(Arrays.asList(location1, location2)));
+    }
+    @Test
+    public void should_not_pick_tasks_when_rate_limit_is_exceeded() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).withPickBatchSize(3).withRateLimit(2).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        TaskRateLimiter rateLimiter = new TaskRateLimiter(2, () -> 0L);
+        rateLimiter.tryAcquire(2);
+
+        List<TaskRecord> pickedTasks = new TaskPicker(queueShard, mock(TaskLifecycleListener.class),
+                new FakeMillisTimeProvider(Arrays.asList(3L, 5L)), pickTaskDao, rateLimiter)
+                .pickTasks(queueConsumer);
+
+        assertThat(pickedTasks, equalTo(Collections.emptyList()));
+        verifyZeroInteractions(queueShard, pickTaskDao);
+    }
+
+    @Test
+    public void should_pick_tasks_within_rate_limit_and_release_unused_permits() throws Exception {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO)
+                        .withNoTaskTimeout(Duration.ZERO).withPickBatchSize(5).withRateLimit(3).build()));
+        QueuePickTaskDao pickTaskDao = mock(QueuePickTaskDao.class);
+        TaskRecord taskRecord = TaskRecord.builder().withId(1L).build();
+        when(pickTaskDao.pickTasks(location, 3)).thenReturn(Collections.singletonList(taskRecord));
+        TaskRateLimiter rateLimiter = new TaskRateLimiter(3, () -> 0L);
+
+        List<TaskRecord> pickedTasks = new TaskPicker(queueShard, mock(TaskLifecycleListener.class),
+                new FakeMillisTimeProvider(Arrays.asList(3L, 5L)), pickTaskDao, rateLimiter)
+                .pickTasks(queueConsumer);
+
+        assertThat(pickedTasks, equalTo(Collections.singletonList(taskRecord)));
+        verify(pickTaskDao).pickTasks(location, 3);
+        assertThat(rateLimiter.tryAcquire(5), equalTo(2));
+    }
+}
@@ -1,6 +1,7 @@
 package ru.yoomoney.tech.dbqueue.internal.processing;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
 import ru.yoomoney.tech.dbqueue.api.Task;
@@ -25,6 +26,7 @@ import java.util.Collections;
 
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -60,7 +62,8 @@ public class TaskProcessorTest {
                 transformer, r -> queueResult));
 
 
-        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler).processTask(queueConsumer, taskRecord);
+        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler, null)
+                .processTask(queueConsumer, taskRecord);
 
         verify(listener).started(shardId, location, taskRecord);
         verify(millisTimeProvider, times(2)).getMillis();
@@ -100,11 +103,13 @@ public class TaskProcessorTest {
         }));
 
 
-        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler).processTask(queueConsumer, taskRecord);
+        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler, null)
+                .processTask(queueConsumer, taskRecord);
 
         verify(listener).started(shardId, location, taskRecord);
         verify(queueConsumer).execute(any());
         verify(listener).crashed(shardId, location, taskRecord, queueException);
+        verify(resultHandler).handleResult(taskRecord, TaskExecutionResult.fail());
         verify(listener).finished(shardId, location, taskRecord);
 
     }
@@ -132,7 +137,8 @@ public class TaskProcessorTest {
                 transformer, r -> queueResult));
 
 
-        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler).processTask(queueConsumer, taskRecord);
+        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler, null)
+                .processTask(queueConsumer, taskRecord);
 
         verify(listener).started(shardId, location, taskRecord);
         verify(queueConsumer).execute(any());
@@ -141,6 +147,52 @@ public class TaskProcessorTest {
         verify(listener).finished(shardId, location, taskRecord);
     }
 
+    @Test
+    public void should_extend_lease_while_task_is_processed() {
+        QueueLocation location = QueueLocation.builder().withTableName("testLocation")
+                .withQueueId(new QueueId("testQueue")).build();
+        TaskRecord taskRecord = TaskRecord.builder().withId(7L).withCreatedAt(ofSeconds(1)).withNextProcessAt(ofSeconds(5)).withPayload("testPayload").build();
+        TaskExecutionResult queueResult = TaskExecutionResult.finish();
+
+
+        QueueShard queueShard = mock(QueueShard.class);
+        when(queueShard.getShardId()).thenReturn(new QueueShardId("s1"));
+        TaskLifecycleListener listener = mock(TaskLifecycleListener.class);
+        MillisTimeProvider millisTimeProvider = mock(MillisTimeProvider.class);
+        TaskResultHandler resultHandler = mock(TaskResultHandler.class);
+        TaskLeaseHeartbeat taskLeaseHeartbeat = mock(TaskLeaseHeartbeat.class);
+        TaskPayloadTransformer<String> transformer = mock(TaskPayloadTransformer.class);
+        when(transformer.toObject(taskRecord.getPayload())).thenReturn(taskRecord.getPayload());
+        QueueConsumer<String> queueConsumer = spy(new FakeQueueConsumer(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO).build()),
+                transformer, r -> queueResult));
+
+
+        new TaskProcessor(queueShard, listener, millisTimeProvider, resultHandler, taskLeaseHeartbeat)
+                .processTask(queueConsumer, taskRecord);
+
+        InOrder inOrder = inOrder(taskLeaseHeartbeat, queueConsumer, resultHandler);
+        inOrder.verify(taskLeaseHeartbeat).acquire(7L);
+        inOrder.verify(queueConsumer).execute(any());
+        inOrder.verify(resultHandler).handleResult(taskRecord, queueResult);
+        inOrder.verify(taskLeaseHeartbeat).release(7L);
+    }
+
+    @Test
+    public void should_acquire_and_release_lease_of_picked_task() {
+        TaskRecord taskRecord = TaskRecord.builder().withId(7L).build();
+        TaskLeaseHeartbeat taskLeaseHeartbeat = mock(TaskLeaseHeartbeat.class);
+        TaskProcessor taskProcessor = new TaskProcessor(mock(QueueShard.class), mock(TaskLifecycleListener.class),
+                mock(MillisTimeProvider.class), mock(TaskResultHandler.class), taskLeaseHeartbeat);
+
+        taskProcessor.acquireLease(taskRecord);
+        taskProcessor.releaseLease(taskRecord);
+
+        InOrder inOrder = inOrder(taskLeaseHeartbeat);
+        inOrder.verify(taskLeaseHeartbeat).acquire(7L);
+        inOrder.verify(taskLeaseHeartbeat).release(7L);
+    }
+
 
     private ZonedDateTime ofSeconds(int seconds) {
         return ZonedDateTime.of(0, 1, 1, 0, 0, seconds, 0, ZoneId.systemDefault());
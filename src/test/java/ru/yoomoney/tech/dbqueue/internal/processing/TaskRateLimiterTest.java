@@ -0,0 +1,64 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @since 17.10.2026
+ */
+public class TaskRateLimiterTest {
+
+    @Test
+    public void should_give_permits_of_one_second_at_once() {
+        AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+        TaskRateLimiter rateLimiter = new TaskRateLimiter(10, nanoTime::get);
+
+        assertThat(rateLimiter.tryAcquire(3), equalTo(3));
+        assertThat(rateLimiter.tryAcquire(20), equalTo(7));
+        assertThat(rateLimiter.tryAcquire(1), equalTo(0));
+    }
+
+    @Test
+    public void should_refill_permits_with_time() {
+        AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+        TaskRateLimiter rateLimiter = new TaskRateLimiter(10, nanoTime::get);
+        assertThat(rateLimiter.tryAcquire(10), equalTo(10));
+
+        assertThat(rateLimiter.getWaitTime(), equalTo(Duration.ofMillis(100L)));
+        nanoTime.addAndGet(Duration.ofMillis(250L).toNanos());
+
+        assertThat(rateLimiter.getWaitTime(), equalTo(Duration.ZERO));
+        assertThat(rateLimiter.tryAcquire(10), equalTo(2));
+    }
+
+    @Test
+    public void should_not_accumulate_more_than_one_second_of_permits() {
+        AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+        TaskRateLimiter rateLimiter = new TaskRateLimiter(10, nanoTime::get);
+        nanoTime.addAndGet(Duration.ofSeconds(10L).toNanos());
+
+        assertThat(rateLimiter.tryAcquire(100), equalTo(10));
+    }
+
+    @Test
+    public void should_return_released_permits() {
+        AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+        TaskRateLimiter rateLimiter = new TaskRateLimiter(10, nanoTime::get);
+        assertThat(rateLimiter.tryAcquire(10), equalTo(10));
+
+        rateLimiter.release(4);
+
+        assertThat(rateLimiter.getWaitTime(), equalTo(Duration.ZERO));
+        assertThat(rateLimiter.tryAcquire(10), equalTo(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_non_positive_rate() {
+        new TaskRateLimiter(0, System::nanoTime);
+    }
+}
@@ -7,9 +7,10 @@ import ru.yoomoney.tech.dbqueue.config.QueueShard;
 import ru.yoomoney.tech.dbqueue.dao.PostgresQueueDao;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
-import ru.yoomoney.tech.dbqueue.stub.FakeTransactionTemplate;
+import ru.yoomoney.tech.dbqueue.settings.TaskRetryType;
 
 import java.time.Duration;
+import java.util.function.Supplier;
 
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
@@ -33,16 +34,16 @@ public class TaskResultHandlerTest {
         TaskRecord taskRecord = TaskRecord.builder().withId(taskId).build();
         QueueShard queueShard = mock(QueueShard.class);
         PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
         when(queueShard.getQueueDao()).thenReturn(queueDao);
 
         ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
 
         TaskExecutionResult result = TaskExecutionResult.reenqueue(reenqueueDelay);
 
-        new TaskResultHandler(location, queueShard, strategy).handleResult(taskRecord, result);
+        new TaskResultHandler(location, queueShard, strategy, null, 0, null, null).handleResult(taskRecord, result);
 
-        verify(queueShard).getTransactionTemplate();
+        verify(queueShard).transact(any());
         verify(queueDao).reenqueue(location, taskId, reenqueueDelay);
         verifyZeroInteractions(strategy);
     }
@@ -56,16 +57,16 @@ public class TaskResultHandlerTest {
         TaskRecord taskRecord = TaskRecord.builder().withId(taskId).build();
         PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
         QueueShard queueShard = mock(QueueShard.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
         when(queueShard.getQueueDao()).thenReturn(queueDao);
 
         ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
 
         TaskExecutionResult result = TaskExecutionResult.finish();
 
-        new TaskResultHandler(location, queueShard, strategy).handleResult(taskRecord, result);
+        new TaskResultHandler(location, queueShard, strategy, null, 0, null, null).handleResult(taskRecord, result);
 
-        verify(queueShard).getTransactionTemplate();
+        verify(queueShard).transact(any());
         verify(queueDao).deleteTask(location, taskId);
         verifyZeroInteractions(strategy);
     }
@@ -77,13 +78,13 @@ public class TaskResultHandlerTest {
 
         TaskRecord taskRecord = TaskRecord.builder().build();
         QueueShard queueShard = mock(QueueShard.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
 
         ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
 
         TaskExecutionResult result = TaskExecutionResult.fail();
 
-        new TaskResultHandler(location, queueShard, strategy).handleResult(taskRecord, result);
+        new TaskResultHandler(location, queueShard, strategy, null, 0, null, null).handleResult(taskRecord, result);
 
         verifyZeroInteractions(queueShard, strategy);
     }
@@ -101,7 +102,7 @@ public class TaskResultHandlerTest {
         PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
 
         QueueShard queueShard = mock(QueueShard.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
         when(queueShard.getQueueDao()).thenReturn(queueDao);
 
         ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
@@ -109,10 +110,100 @@ public class TaskResultHandlerTest {
 
         TaskExecutionResult result = TaskExecutionResult.reenqueue();
 
-        new TaskResultHandler(location, queueShard, strategy).handleResult(taskRecord, result);
+        new TaskResultHandler(location, queueShard, strategy, null, 0, null, null).handleResult(taskRecord, result);
 
-        verify(queueShard).getTransactionTemplate();
+        verify(queueShard).transact(any());
         verify(queueDao).reenqueue(location, taskId, Duration.ofSeconds(10L));
         verify(strategy).calculateDelay(taskRecord);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_add_finished_task_to_ack_buffer() {
+        long taskId = 5L;
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+
+        TaskRecord taskRecord = TaskRecord.builder().withId(taskId).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        TaskAckBuffer taskAckBuffer = mock(TaskAckBuffer.class);
+
+        ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
+
+        TaskExecutionResult result = TaskExecutionResult.finish();
+
+        new TaskResultHandler(location, queueShard, strategy, taskAckBuffer, 0, null, null)
+                .handleResult(taskRecord, result);
+
+        verify(taskAckBuffer).add(taskId);
+        verifyZeroInteractions(queueShard, strategy);
+    }
+
+    @Test
+    public void should_move_failed_task_to_dead_letter_queue_when_attempts_exhausted() {
+        long taskId = 5L;
+        QueueId deadLetterQueueId = new QueueId("testQueueDeadLetter");
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+
+        TaskRecord taskRecord = TaskRecord.builder().withId(taskId).withAttemptsCount(3L).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+
+        ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
+
+        TaskExecutionResult result = TaskExecutionResult.fail();
+
+        new TaskResultHandler(location, queueShard, strategy, null, 3, deadLetterQueueId, null)
+                .handleResult(taskRecord, result);
+
+        verify(queueShard).transact(any());
+        verify(queueDao).moveTask(location, taskId, deadLetterQueueId);
+        verifyZeroInteractions(strategy);
+    }
+
+    @Test
+    public void should_keep_failed_task_when_attempts_not_exhausted() {
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+
+        TaskRecord taskRecord = TaskRecord.builder().withAttemptsCount(2L).build();
+        QueueShard queueShard = mock(QueueShard.class);
+
+        ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
+
+        TaskExecutionResult result = TaskExecutionResult.fail();
+
+        new TaskResultHandler(location, queueShard, strategy, null, 3, new QueueId("testQueueDeadLetter"), null)
+                .handleResult(taskRecord, result);
+
+        verifyZeroInteractions(queueShard, strategy);
+    }
+
+    @Test
+    public void should_postpone_failed_task_with_lease() {
+        long taskId = 5L;
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+
+        TaskRecord taskRecord = TaskRecord.builder().withId(taskId).withAttemptsCount(3L).build();
+        QueueShard queueShard = mock(QueueShard.class);
+        PostgresQueueDao queueDao = mock(PostgresQueueDao.class);
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(queueShard.getQueueDao()).thenReturn(queueDao);
+
+        ReenqueueRetryStrategy strategy = mock(ReenqueueRetryStrategy.class);
+        TaskLeaseHeartbeat taskLeaseHeartbeat = new TaskLeaseHeartbeat(location, queueShard,
+                Duration.ofSeconds(30L), TaskRetryType.ARITHMETIC_BACKOFF, () -> Duration.ofMinutes(1L));
+
+        TaskExecutionResult result = TaskExecutionResult.fail();
+
+        new TaskResultHandler(location, queueShard, strategy, null, 0, null, taskLeaseHeartbeat)
+                .handleResult(taskRecord, result);
+
+        verify(queueShard).transact(any());
+        verify(queueDao).postponeTask(location, taskId, Duration.ofMinutes(5L));
+        verifyZeroInteractions(strategy);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.config.QueueShardId;
+import ru.yoomoney.tech.dbqueue.config.ThreadLifecycleListener;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @since 17.10.2026
+ */
+public class ThreadCountAutoscalerTest {
+
+    private static final QueueShardId SHARD_ID = new QueueShardId("s1");
+    private static final QueueLocation LOCATION = QueueLocation.builder().withTableName("table")
+            .withQueueId(new QueueId("queue")).build();
+
+    @Test
+    public void should_scale_up_when_almost_every_pick_returns_tasks() {
+        ThreadCountAutoscaler autoscaler = new ThreadCountAutoscaler(mock(ThreadLifecycleListener.class), 1, 5);
+
+        execute(autoscaler, 10, 9);
+        assertThat(autoscaler.getThreadCount(2), equalTo(4));
+        execute(autoscaler, 10, 10);
+        assertThat(autoscaler.getThreadCount(4), equalTo(5));
+    }
+
+    @Test
+    public void should_scale_down_when_most_of_picks_are_empty() {
+        ThreadCountAutoscaler autoscaler = new ThreadCountAutoscaler(mock(ThreadLifecycleListener.class), 2, 5);
+
+        execute(autoscaler, 10, 4);
+        assertThat(autoscaler.getThreadCount(4), equalTo(3));
+        assertThat(autoscaler.getThreadCount(3), equalTo(2));
+        assertThat(autoscaler.getThreadCount(2), equalTo(2));
+    }
+
+    @Test
+    public void should_keep_thread_count_under_moderate_load() {
+        ThreadCountAutoscaler autoscaler = new ThreadCountAutoscaler(mock(ThreadLifecycleListener.class), 1, 5);
+
+        execute(autoscaler, 10, 7);
+        assertThat(autoscaler.getThreadCount(3), equalTo(3));
+    }
+
+    @Test
+    public void should_not_scale_down_while_iterations_are_in_progress() {
+        ThreadCountAutoscaler autoscaler = new ThreadCountAutoscaler(mock(ThreadLifecycleListener.class), 1, 5);
+
+        autoscaler.started(SHARD_ID, LOCATION);
+        assertThat(autoscaler.getThreadCount(3), equalTo(3));
+        autoscaler.executed(SHARD_ID, LOCATION, true, 1L);
+        autoscaler.finished(SHARD_ID, LOCATION);
+        assertThat(autoscaler.getThreadCount(3), equalTo(5));
+        assertThat(autoscaler.getThreadCount(5), equalTo(4));
+    }
+
+    @Test
+    public void should_forget_statistics_on_reset() {
+        ThreadCountAutoscaler autoscaler = new ThreadCountAutoscaler(mock(ThreadLifecycleListener.class), 1, 5);
+
+        execute(autoscaler, 10, 10);
+        autoscaler.reset();
+        assertThat(autoscaler.getThreadCount(3), equalTo(2));
+    }
+
+    @Test
+    public void should_pass_events_to_delegate() {
+        ThreadLifecycleListener listener = mock(ThreadLifecycleListener.class);
+        ThreadCountAutoscaler autoscaler = new ThreadCountAutoscaler(listener, 1, 5);
+        RuntimeException exc = new RuntimeException("exc");
+
+        autoscaler.started(SHARD_ID, LOCATION);
+        autoscaler.executed(SHARD_ID, LOCATION, true, 42L);
+        autoscaler.crashed(SHARD_ID, LOCATION, exc);
+        autoscaler.finished(SHARD_ID, LOCATION);
+
+        verify(listener).started(SHARD_ID, LOCATION);
+        verify(listener).executed(SHARD_ID, LOCATION, true, 42L);
+        verify(listener).crashed(SHARD_ID, LOCATION, exc);
+        verify(listener).finished(SHARD_ID, LOCATION);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_with_invalid_range() {
+        new ThreadCountAutoscaler(mock(ThreadLifecycleListener.class), 3, 2);
+    }
+
+    private static void execute(ThreadCountAutoscaler autoscaler, int executedCount, int processedCount) {
+        for (int i = 0; i < executedCount; i++) {
+            autoscaler.executed(SHARD_ID, LOCATION, i < processedCount, 1L);
+        }
+    }
+}
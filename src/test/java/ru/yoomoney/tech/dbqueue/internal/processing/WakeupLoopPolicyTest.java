@@ -0,0 +1,65 @@
+package ru.yoomoney.tech.dbqueue.internal.processing;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @since 17.10.2026
+ */
+public class WakeupLoopPolicyTest {
+
+    @Test
+    public void should_interrupt_wait_on_wakeup() throws Exception {
+        LoopPolicy.WakeupLoopPolicy loopPolicy = new LoopPolicy.WakeupLoopPolicy();
+        CountDownLatch waitStarted = new CountDownLatch(1);
+        CountDownLatch waitFinished = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            waitStarted.countDown();
+            loopPolicy.doWait(Duration.ofHours(1L), LoopPolicy.WaitInterrupt.ALLOW);
+            waitFinished.countDown();
+        });
+        thread.start();
+        assertThat(waitStarted.await(5L, TimeUnit.SECONDS), equalTo(true));
+
+        while (!waitFinished.await(10L, TimeUnit.MILLISECONDS)) {
+            loopPolicy.doContinue();
+        }
+        thread.join(5000L);
+        assertThat(thread.isAlive(), equalTo(false));
+    }
+
+    @Test
+    public void should_run_only_after_unpause() throws Exception {
+        LoopPolicy.WakeupLoopPolicy loopPolicy = new LoopPolicy.WakeupLoopPolicy();
+        CountDownLatch executed = new CountDownLatch(1);
+        Thread thread = new Thread(() -> loopPolicy.doRun(() -> {
+            executed.countDown();
+            Thread.currentThread().interrupt();
+        }));
+        thread.start();
+
+        assertThat(executed.await(100L, TimeUnit.MILLISECONDS), equalTo(false));
+        assertThat(loopPolicy.isPaused(), equalTo(true));
+        loopPolicy.unpause();
+        assertThat(executed.await(5L, TimeUnit.SECONDS), equalTo(true));
+        thread.join(5000L);
+        assertThat(thread.isAlive(), equalTo(false));
+    }
+
+    @Test
+    public void should_stop_waiting_for_unpause_on_interrupt() throws Exception {
+        LoopPolicy.WakeupLoopPolicy loopPolicy = new LoopPolicy.WakeupLoopPolicy();
+        Thread thread = new Thread(() -> loopPolicy.doRun(() -> {
+        }));
+        thread.start();
+        thread.interrupt();
+        thread.join(5000L);
+        assertThat(thread.isAlive(), equalTo(false));
+    }
+}
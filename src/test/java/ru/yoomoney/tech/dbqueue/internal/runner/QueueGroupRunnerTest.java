@@ -0,0 +1,121 @@
+package ru.yoomoney.tech.dbqueue.internal.runner;
+
+import org.junit.Test;
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.internal.processing.QueueProcessingStatus;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskPicker;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskProcessor;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class QueueGroupRunnerTest {
+
+    private static final QueueLocation testLocation1 =
+            QueueLocation.builder().withTableName("queue_test")
+                    .withQueueId(new QueueId("test_queue1")).build();
+    private static final QueueLocation testLocation2 =
+            QueueLocation.builder().withTableName("queue_test")
+                    .withQueueId(new QueueId("test_queue2")).build();
+
+    @Test
+    public void should_dispatch_tasks_to_queues_of_group() {
+        QueueConsumer queueConsumer1 = createConsumer(testLocation1);
+        QueueConsumer queueConsumer2 = createConsumer(testLocation2);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord taskRecord1 = TaskRecord.builder().withId(1L).build();
+        TaskRecord taskRecord2 = TaskRecord.builder().withId(2L).build();
+        Map<QueueLocation, List<TaskRecord>> taskRecords = new LinkedHashMap<>();
+        taskRecords.put(testLocation2, Collections.singletonList(taskRecord2));
+        taskRecords.put(testLocation1, Collections.singletonList(taskRecord1));
+        List<QueueLocation> locations = Arrays.asList(testLocation1, testLocation2);
+        when(taskPicker.pickGroupTasks(locations, 5)).thenReturn(taskRecords);
+        TaskProcessor taskProcessor1 = mock(TaskProcessor.class);
+        TaskProcessor taskProcessor2 = mock(TaskProcessor.class);
+
+        QueueGroupRunner queueRunner = new QueueGroupRunner(taskPicker, Arrays.asList(
+                new QueueGroupRunner.Member(queueConsumer1, taskProcessor1, Runnable::run),
+                new QueueGroupRunner.Member(queueConsumer2, taskProcessor2, Runnable::run)), 5, 0);
+
+        assertThat(queueRunner.runQueue(mock(QueueConsumer.class)), equalTo(QueueProcessingStatus.PROCESSED));
+        verify(taskProcessor1).processTask(queueConsumer1, taskRecord1);
+        verify(taskProcessor2).processTask(queueConsumer2, taskRecord2);
+    }
+
+    @Test
+    public void should_skip_when_no_tasks_in_group() {
+        QueueConsumer queueConsumer1 = createConsumer(testLocation1);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        when(taskPicker.pickGroupTasks(Collections.singletonList(testLocation1), 1))
+                .thenReturn(Collections.emptyMap());
+        TaskProcessor taskProcessor1 = mock(TaskProcessor.class);
+
+        QueueGroupRunner queueRunner = new QueueGroupRunner(taskPicker, Collections.singletonList(
+                new QueueGroupRunner.Member(queueConsumer1, taskProcessor1, Runnable::run)), 1, 0);
+
+        assertThat(queueRunner.runQueue(mock(QueueConsumer.class)), equalTo(QueueProcessingStatus.SKIPPED));
+        verifyZeroInteractions(taskProcessor1);
+    }
+
+    @Test
+    public void should_pick_no_more_tasks_than_free_permits() {
+        QueueConsumer queueConsumer1 = createConsumer(testLocation1);
+        QueueConsumer queueConsumer2 = createConsumer(testLocation2);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord taskRecord1 = TaskRecord.builder().withId(1L).build();
+        TaskRecord taskRecord2 = TaskRecord.builder().withId(2L).build();
+        Map<QueueLocation, List<TaskRecord>> taskRecords = new LinkedHashMap<>();
+        taskRecords.put(testLocation1, Collections.singletonList(taskRecord1));
+        taskRecords.put(testLocation2, Collections.singletonList(taskRecord2));
+        List<QueueLocation> locations = Arrays.asList(testLocation1, testLocation2);
+        when(taskPicker.pickGroupTasks(locations, 3)).thenReturn(taskRecords);
+        when(taskPicker.pickGroupTasks(locations, 1)).thenReturn(Collections.emptyMap());
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+        List<Runnable> submittedTasks = new ArrayList<>();
+
+        QueueGroupRunner queueRunner = new QueueGroupRunner(taskPicker, Arrays.asList(
+                new QueueGroupRunner.Member(queueConsumer1, taskProcessor, submittedTasks::add),
+                new QueueGroupRunner.Member(queueConsumer2, taskProcessor, submittedTasks::add)), 3, 3);
+
+        assertThat(queueRunner.runQueue(mock(QueueConsumer.class)), equalTo(QueueProcessingStatus.PROCESSED));
+        assertThat(queueRunner.runQueue(mock(QueueConsumer.class)), equalTo(QueueProcessingStatus.SKIPPED));
+        assertThat(submittedTasks.size(), equalTo(2));
+        verify(taskPicker).pickGroupTasks(locations, 3);
+        verify(taskPicker).pickGroupTasks(locations, 1);
+        verify(taskProcessor).acquireLease(taskRecord1);
+        verify(taskProcessor).acquireLease(taskRecord2);
+        verifyNoMoreInteractions(taskProcessor);
+
+        submittedTasks.forEach(Runnable::run);
+        verify(taskProcessor).processTask(queueConsumer1, taskRecord1);
+        verify(taskProcessor).processTask(queueConsumer2, taskRecord2);
+    }
+
+    private static QueueConsumer createConsumer(QueueLocation location) {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO).build()));
+        return queueConsumer;
+    }
+}
@@ -3,8 +3,6 @@ package ru.yoomoney.tech.dbqueue.internal.runner;
 import example.StringQueueConsumer;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
-import org.springframework.jdbc.core.JdbcOperations;
-import org.springframework.transaction.support.TransactionOperations;
 import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
 import ru.yoomoney.tech.dbqueue.api.Task;
 import ru.yoomoney.tech.dbqueue.api.TaskExecutionResult;
@@ -13,6 +11,7 @@ import ru.yoomoney.tech.dbqueue.config.QueueShard;
 import ru.yoomoney.tech.dbqueue.config.QueueShardId;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
 import ru.yoomoney.tech.dbqueue.config.TaskLifecycleListener;
+import ru.yoomoney.tech.dbqueue.dao.Database;
 import ru.yoomoney.tech.dbqueue.settings.ProcessingMode;
 import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
@@ -66,8 +65,8 @@ public class QueueRunnerFactoryTest {
                 .withQueueId(new QueueId("testQueue")).build();
         QueueConsumer queueConsumer = new ConsumerWithExternalExecutor(new QueueConfig(location, settings), mock(Executor.class));
         QueueRunner queueRunner = QueueRunner.Factory.create(queueConsumer,
-                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class)),
-                mock(TaskLifecycleListener.class));
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(Database.class)),
+                mock(TaskLifecycleListener.class), null, null, null, null);
 
         assertThat(queueRunner, CoreMatchers.instanceOf(QueueRunnerInExternalExecutor.class));
     }
@@ -86,8 +85,8 @@ public class QueueRunnerFactoryTest {
             }
         };
         QueueRunner queueRunner = QueueRunner.Factory.create(queueConsumer,
-                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class)),
-                mock(TaskLifecycleListener.class));
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(Database.class)),
+                mock(TaskLifecycleListener.class), null, null, null, null);
 
         assertThat(queueRunner, CoreMatchers.instanceOf(QueueRunnerInExternalExecutor.class));
     }
@@ -102,8 +101,8 @@ public class QueueRunnerFactoryTest {
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location, settings));
 
         QueueRunner queueRunner = QueueRunner.Factory.create(queueConsumer,
-                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class)),
-                mock(TaskLifecycleListener.class));
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(Database.class)),
+                mock(TaskLifecycleListener.class), null, null, null, null);
 
         assertThat(queueRunner, CoreMatchers.instanceOf(QueueRunnerInSeparateTransactions.class));
     }
@@ -118,9 +117,25 @@ public class QueueRunnerFactoryTest {
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location, settings));
 
         QueueRunner queueRunner = QueueRunner.Factory.create(queueConsumer,
-                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(JdbcOperations.class), mock(TransactionOperations.class)),
-                mock(TaskLifecycleListener.class));
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(Database.class)),
+                mock(TaskLifecycleListener.class), null, null, null, null);
 
         assertThat(queueRunner, CoreMatchers.instanceOf(QueueRunnerInTransaction.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_return_worker_pool_runner() throws Exception {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        QueueSettings settings = QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.SINGLE_PICKER).build();
+        QueueLocation location = QueueLocation.builder().withTableName("testTable")
+                .withQueueId(new QueueId("testQueue")).build();
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(location, settings));
+
+        QueueRunner queueRunner = QueueRunner.Factory.create(queueConsumer,
+                new QueueShard(DatabaseDialect.POSTGRESQL, QueueTableSchema.builder().build(), new QueueShardId("s1"), mock(Database.class)),
+                mock(TaskLifecycleListener.class), null, mock(Executor.class), null, null);
+
+        assertThat(queueRunner, CoreMatchers.instanceOf(QueueRunnerInWorkerPool.class));
+    }
+}
@@ -14,6 +14,10 @@ import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -42,7 +46,7 @@ public class QueueRunnerInExternalExecutorTest {
         FakeExecutor executor = spy(new FakeExecutor());
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         TaskPicker taskPicker = mock(TaskPicker.class);
-        when(taskPicker.pickTask(queueConsumer)).thenReturn(null);
+        when(taskPicker.pickTasks(queueConsumer)).thenReturn(Collections.emptyList());
         TaskProcessor taskProcessor = mock(TaskProcessor.class);
 
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
@@ -52,7 +56,7 @@ public class QueueRunnerInExternalExecutorTest {
         assertThat(status, equalTo(QueueProcessingStatus.SKIPPED));
 
         verifyZeroInteractions(executor);
-        verify(taskPicker).pickTask(queueConsumer);
+        verify(taskPicker).pickTasks(queueConsumer);
         verifyZeroInteractions(taskProcessor);
     }
 
@@ -65,7 +69,7 @@ public class QueueRunnerInExternalExecutorTest {
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         TaskPicker taskPicker = mock(TaskPicker.class);
         TaskRecord taskRecord = TaskRecord.builder().build();
-        when(taskPicker.pickTask(queueConsumer)).thenReturn(taskRecord);
+        when(taskPicker.pickTasks(queueConsumer)).thenReturn(Collections.singletonList(taskRecord));
         TaskProcessor taskProcessor = mock(TaskProcessor.class);
 
 
@@ -76,10 +80,35 @@ public class QueueRunnerInExternalExecutorTest {
         assertThat(status, equalTo(QueueProcessingStatus.PROCESSED));
 
         verify(executor).execute(ArgumentMatchers.any());
-        verify(taskPicker).pickTask(queueConsumer);
+        verify(taskPicker).pickTasks(queueConsumer);
         verify(taskProcessor).processTask(queueConsumer, taskRecord);
     }
 
+    @Test
+    public void should_pick_no_more_tasks_than_free_in_flight_permits() throws Exception {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord taskRecord1 = TaskRecord.builder().withId(1L).build();
+        TaskRecord taskRecord2 = TaskRecord.builder().withId(2L).build();
+        TaskRecord taskRecord3 = TaskRecord.builder().withId(3L).build();
+        when(taskPicker.pickTasks(queueConsumer, 2)).thenReturn(Arrays.asList(taskRecord1, taskRecord2));
+        when(taskPicker.pickTasks(queueConsumer, 1)).thenReturn(Collections.singletonList(taskRecord3));
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+        List<Runnable> submittedTasks = new ArrayList<>();
+
+        QueueRunnerInExternalExecutor queueRunner = new QueueRunnerInExternalExecutor(taskPicker, taskProcessor,
+                submittedTasks::add, 2, 5);
+
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.PROCESSED));
+        submittedTasks.get(0).run();
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.PROCESSED));
+
+        assertThat(submittedTasks.size(), equalTo(3));
+        verify(taskPicker).pickTasks(queueConsumer, 2);
+        verify(taskPicker).pickTasks(queueConsumer, 1);
+        verify(taskProcessor).processTask(queueConsumer, taskRecord1);
+    }
+
     private static class FakeExecutor implements Executor {
 
         @Override
@@ -12,6 +12,7 @@ import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
 
 import java.time.Duration;
+import java.util.Collections;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
@@ -37,7 +38,7 @@ public class QueueRunnerInSeparateTransactionsTest {
 
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         TaskPicker taskPicker = mock(TaskPicker.class);
-        when(taskPicker.pickTask(queueConsumer)).thenReturn(null);
+        when(taskPicker.pickTasks(queueConsumer)).thenReturn(Collections.emptyList());
         TaskProcessor taskProcessor = mock(TaskProcessor.class);
 
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
@@ -46,7 +47,7 @@ public class QueueRunnerInSeparateTransactionsTest {
 
         assertThat(status, equalTo(QueueProcessingStatus.SKIPPED));
 
-        verify(taskPicker).pickTask(queueConsumer);
+        verify(taskPicker).pickTasks(queueConsumer);
         verifyZeroInteractions(taskProcessor);
     }
 
@@ -58,7 +59,7 @@ public class QueueRunnerInSeparateTransactionsTest {
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         TaskPicker taskPicker = mock(TaskPicker.class);
         TaskRecord taskRecord = TaskRecord.builder().build();
-        when(taskPicker.pickTask(queueConsumer)).thenReturn(taskRecord);
+        when(taskPicker.pickTasks(queueConsumer)).thenReturn(Collections.singletonList(taskRecord));
         TaskProcessor taskProcessor = mock(TaskProcessor.class);
 
 
@@ -68,7 +69,7 @@ public class QueueRunnerInSeparateTransactionsTest {
 
         assertThat(status, equalTo(QueueProcessingStatus.PROCESSED));
 
-        verify(taskPicker).pickTask(queueConsumer);
+        verify(taskPicker).pickTasks(queueConsumer);
         verify(taskProcessor).processTask(queueConsumer, taskRecord);
     }
 
@@ -11,12 +11,14 @@ import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
 import ru.yoomoney.tech.dbqueue.settings.QueueId;
 import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
 import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
-import ru.yoomoney.tech.dbqueue.stub.FakeTransactionTemplate;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.function.Supplier;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -39,10 +41,10 @@ public class QueueRunnerInTransactionTest {
 
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         TaskPicker taskPicker = mock(TaskPicker.class);
-        when(taskPicker.pickTask(queueConsumer)).thenReturn(null);
+        when(taskPicker.pickTasks(queueConsumer)).thenReturn(Collections.emptyList());
         TaskProcessor taskProcessor = mock(TaskProcessor.class);
         QueueShard queueShard = mock(QueueShard.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
 
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
                 QueueSettings.builder().withBetweenTaskTimeout(betweenTaskTimeout).withNoTaskTimeout(noTaskTimeout).build()));
@@ -50,8 +52,8 @@ public class QueueRunnerInTransactionTest {
 
         assertThat(status, equalTo(QueueProcessingStatus.SKIPPED));
 
-        verify(queueShard).getTransactionTemplate();
-        verify(taskPicker).pickTask(queueConsumer);
+        verify(queueShard).transact(any());
+        verify(taskPicker).pickTasks(queueConsumer);
         verifyZeroInteractions(taskProcessor);
     }
 
@@ -63,10 +65,10 @@ public class QueueRunnerInTransactionTest {
         QueueConsumer queueConsumer = mock(QueueConsumer.class);
         TaskPicker taskPicker = mock(TaskPicker.class);
         TaskRecord taskRecord = TaskRecord.builder().build();
-        when(taskPicker.pickTask(queueConsumer)).thenReturn(taskRecord);
+        when(taskPicker.pickTasks(queueConsumer)).thenReturn(Collections.singletonList(taskRecord));
         TaskProcessor taskProcessor = mock(TaskProcessor.class);
         QueueShard queueShard = mock(QueueShard.class);
-        when(queueShard.getTransactionTemplate()).thenReturn(new FakeTransactionTemplate());
+        when(queueShard.transact(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
 
 
         when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
@@ -75,8 +77,8 @@ public class QueueRunnerInTransactionTest {
 
         assertThat(queueProcessingStatus, equalTo(QueueProcessingStatus.PROCESSED));
 
-        verify(queueShard).getTransactionTemplate();
-        verify(taskPicker).pickTask(queueConsumer);
+        verify(queueShard).transact(any());
+        verify(taskPicker).pickTasks(queueConsumer);
         verify(taskProcessor).processTask(queueConsumer, taskRecord);
     }
 }
\ No newline at end of file
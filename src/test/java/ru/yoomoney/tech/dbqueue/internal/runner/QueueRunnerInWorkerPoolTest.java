@@ -0,0 +1,114 @@
+package ru.yoomoney.tech.dbqueue.internal.runner;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import ru.yoomoney.tech.dbqueue.api.QueueConsumer;
+import ru.yoomoney.tech.dbqueue.api.TaskRecord;
+import ru.yoomoney.tech.dbqueue.internal.processing.QueueProcessingStatus;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskPicker;
+import ru.yoomoney.tech.dbqueue.internal.processing.TaskProcessor;
+import ru.yoomoney.tech.dbqueue.settings.QueueConfig;
+import ru.yoomoney.tech.dbqueue.settings.QueueId;
+import ru.yoomoney.tech.dbqueue.settings.QueueLocation;
+import ru.yoomoney.tech.dbqueue.settings.QueueSettings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 17.10.2026
+ */
+public class QueueRunnerInWorkerPoolTest {
+
+    private static final QueueLocation testLocation1 =
+            QueueLocation.builder().withTableName("queue_test")
+                    .withQueueId(new QueueId("test_queue1")).build();
+
+    @Test
+    public void should_pick_no_more_tasks_than_free_workers() {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO).build()));
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord taskRecord1 = TaskRecord.builder().withId(1L).build();
+        TaskRecord taskRecord2 = TaskRecord.builder().withId(2L).build();
+        when(taskPicker.pickTasks(queueConsumer, 3)).thenReturn(Arrays.asList(taskRecord1, taskRecord2));
+        when(taskPicker.pickTasks(queueConsumer, 1)).thenReturn(Collections.emptyList());
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+        List<Runnable> submittedTasks = new ArrayList<>();
+
+        QueueRunnerInWorkerPool queueRunner = new QueueRunnerInWorkerPool(taskPicker, taskProcessor,
+                submittedTasks::add, 3);
+
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.PROCESSED));
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.SKIPPED));
+        assertThat(submittedTasks.size(), equalTo(2));
+        verify(taskPicker).pickTasks(queueConsumer, 3);
+        verify(taskPicker).pickTasks(queueConsumer, 1);
+        verify(taskProcessor).acquireLease(taskRecord1);
+        verify(taskProcessor).acquireLease(taskRecord2);
+        verifyNoMoreInteractions(taskProcessor);
+
+        submittedTasks.forEach(Runnable::run);
+        verify(taskProcessor).processTask(queueConsumer, taskRecord1);
+        verify(taskProcessor).processTask(queueConsumer, taskRecord2);
+
+        when(taskPicker.pickTasks(queueConsumer, 3)).thenReturn(Collections.emptyList());
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.SKIPPED));
+    }
+
+    @Test
+    public void should_release_lease_of_rejected_task() {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        when(queueConsumer.getQueueConfig()).thenReturn(new QueueConfig(testLocation1,
+                QueueSettings.builder().withBetweenTaskTimeout(Duration.ZERO).withNoTaskTimeout(Duration.ZERO).build()));
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord taskRecord = TaskRecord.builder().withId(1L).build();
+        when(taskPicker.pickTasks(queueConsumer, 1)).thenReturn(Collections.singletonList(taskRecord));
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+
+        QueueRunnerInWorkerPool queueRunner = new QueueRunnerInWorkerPool(taskPicker, taskProcessor,
+                command -> {
+                    throw new RejectedExecutionException("rejected");
+                }, 1);
+
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.PROCESSED));
+        InOrder inOrder = inOrder(taskProcessor);
+        inOrder.verify(taskProcessor).acquireLease(taskRecord);
+        inOrder.verify(taskProcessor).releaseLease(taskRecord);
+        verifyNoMoreInteractions(taskProcessor);
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.PROCESSED));
+    }
+
+    @Test
+    public void should_skip_when_interrupted_while_waiting_for_free_worker() {
+        QueueConsumer queueConsumer = mock(QueueConsumer.class);
+        TaskPicker taskPicker = mock(TaskPicker.class);
+        TaskRecord taskRecord = TaskRecord.builder().withId(1L).build();
+        when(taskPicker.pickTasks(queueConsumer, 1)).thenReturn(Collections.singletonList(taskRecord));
+        TaskProcessor taskProcessor = mock(TaskProcessor.class);
+
+        QueueRunnerInWorkerPool queueRunner = new QueueRunnerInWorkerPool(taskPicker, taskProcessor,
+                command -> {
+                }, 1);
+
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.PROCESSED));
+        Thread.currentThread().interrupt();
+        assertThat(queueRunner.runQueue(queueConsumer), equalTo(QueueProcessingStatus.SKIPPED));
+        assertThat(Thread.interrupted(), equalTo(true));
+        verify(taskPicker).pickTasks(queueConsumer, 1);
+    }
+
+}
@@ -91,6 +91,19 @@ public class QueueConfigsReaderTest {
                 "q.testQueue.retry-type=linear",
                 "q.testQueue.retry-interval=PT30S",
                 "q.testQueue.processing-mode=use-external-executor",
+                "q.testQueue.pick-batch-size=5",
+                "q.testQueue.ack-batch-size=50",
+                "q.testQueue.ack-flush-interval=PT0.5S",
+                "q.testQueue.max-in-flight=100",
+                "q.testQueue.adaptive-no-task-timeout=true",
+                "q.testQueue.min-thread-count=2",
+                "q.testQueue.max-thread-count=8",
+                "q.testQueue.autoscale-interval=PT30S",
+                "q.testQueue.initial-no-task-timeout=PT0.1S",
+                "q.testQueue.max-attempts=10",
+                "q.testQueue.dead-letter-queue=testQueueDeadLetter",
+                "q.testQueue.rate-limit=100",
+                "q.testQueue.lease-time=PT30S",
                 "q.testQueue.additional-settings.custom=val1"
         ));
         assertThat(configs, equalTo(Collections.singletonList(
@@ -103,6 +116,19 @@ public class QueueConfigsReaderTest {
                                 .withRetryType(TaskRetryType.LINEAR_BACKOFF)
                                 .withRetryInterval(Duration.ofSeconds(30))
                                 .withProcessingMode(ProcessingMode.USE_EXTERNAL_EXECUTOR)
+                                .withPickBatchSize(5)
+                                .withAckBatchSize(50)
+                                .withAckFlushInterval(Duration.ofMillis(500L))
+                                .withMaxInFlight(100)
+                                .withAdaptiveNoTaskTimeout(true)
+                                .withMinThreadCount(2)
+                                .withMaxThreadCount(8)
+                                .withAutoscaleInterval(Duration.ofSeconds(30L))
+                                .withInitialNoTaskTimeout(Duration.ofMillis(100L))
+                                .withMaxAttempts(10)
+                                .withDeadLetterQueueId(new QueueId("testQueueDeadLetter"))
+                                .withRateLimit(100)
+                                .withLeaseTime(Duration.ofSeconds(30L))
                                 .withAdditionalSettings(new LinkedHashMap<String, String>() {{
                                     put("custom", "val1");
                                 }})
@@ -187,6 +213,20 @@ public class QueueConfigsReaderTest {
         queueConfigsReader.parse(fileSystem.getValue().getPath("invalid"));
     }
 
+    @Test
+    public void should_forget_errors_of_previous_parse() throws Exception {
+        QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
+        try {
+            queueConfigsReader.parse(fileSystem.write("q.testQueue.threads=1"));
+        } catch (IllegalArgumentException ignored) {
+        }
+        Collection<QueueConfig> configs = queueConfigsReader.parse(fileSystem.write(
+                "q.testQueue.table=foo",
+                "q.testQueue.between-task-timeout=PT0.1S",
+                "q.testQueue.no-task-timeout=PT5S"));
+        assertThat(configs.size(), equalTo(1));
+    }
+
     @Test
     public void should_parse_retry_types() throws Exception {
         QueueConfigsReader queueConfigsReader = new QueueConfigsReader("q");
@@ -327,7 +367,12 @@ public class QueueConfigsReaderTest {
                 "q.testQueue3.table=foo",
                 "q.testQueue3.between-task-timeout=PT0S",
                 "q.testQueue3.no-task-timeout=PT0S",
-                "q.testQueue3.processing-mode=use-external-executor"
+                "q.testQueue3.processing-mode=use-external-executor",
+
+                "q.testQueue4.table=foo",
+                "q.testQueue4.between-task-timeout=PT0S",
+                "q.testQueue4.no-task-timeout=PT0S",
+                "q.testQueue4.processing-mode=single-picker"
         ));
         assertThat(configs.stream().collect(Collectors.toMap(
                 config -> config.getLocation().getQueueId().asString(),
@@ -336,6 +381,7 @@ public class QueueConfigsReaderTest {
                     put("testQueue1", ProcessingMode.SEPARATE_TRANSACTIONS);
                     put("testQueue2", ProcessingMode.WRAP_IN_TRANSACTION);
                     put("testQueue3", ProcessingMode.USE_EXTERNAL_EXECUTOR);
+                    put("testQueue4", ProcessingMode.SINGLE_PICKER);
                 }}));
     }
 
@@ -0,0 +1,72 @@
+package ru.yoomoney.tech.dbqueue.settings;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * @since 17.10.2026
+ */
+public class QueueConfigsWatcherTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_reload_changed_configs() throws Exception {
+        Path configPath = temporaryFolder.newFile("queue.properties").toPath();
+        write(configPath, "PT5S");
+        BlockingQueue<Collection<QueueConfig>> reloadedConfigs = new LinkedBlockingQueue<>();
+        QueueConfigsWatcher watcher = new QueueConfigsWatcher(new QueueConfigsReader("q"),
+                reloadedConfigs::add, configPath);
+        watcher.start();
+        try {
+            write(configPath, "invalid");
+            write(configPath, "PT10S");
+
+            Collection<QueueConfig> configs = reloadedConfigs.poll(10L, TimeUnit.SECONDS);
+            assertThat(configs.iterator().next().getSettings().getNoTaskTimeout(), equalTo(Duration.ofSeconds(10L)));
+        } finally {
+            watcher.shutdown();
+        }
+    }
+
+    @Test
+    public void should_keep_configs_when_changed_configs_are_invalid() throws Exception {
+        Path configPath = temporaryFolder.newFile("queue.properties").toPath();
+        write(configPath, "PT5S");
+        BlockingQueue<Collection<QueueConfig>> reloadedConfigs = new LinkedBlockingQueue<>();
+        QueueConfigsWatcher watcher = new QueueConfigsWatcher(new QueueConfigsReader("q"),
+                reloadedConfigs::add, configPath);
+        watcher.start();
+        try {
+            write(configPath, "invalid");
+            assertThat(reloadedConfigs.poll(1L, TimeUnit.SECONDS), equalTo(null));
+
+            write(configPath, "PT10S");
+            Collection<QueueConfig> configs = reloadedConfigs.poll(10L, TimeUnit.SECONDS);
+            assertThat(configs.iterator().next().getSettings().getNoTaskTimeout(), equalTo(Duration.ofSeconds(10L)));
+        } finally {
+            watcher.shutdown();
+        }
+    }
+
+    private static void write(Path path, String noTaskTimeout) throws Exception {
+        Files.write(path, Arrays.asList(
+                "q.testQueue.table=foo",
+                "q.testQueue.between-task-timeout=PT0.1S",
+                "q.testQueue.no-task-timeout=" + noTaskTimeout));
+    }
+}
@@ -3,6 +3,11 @@ package ru.yoomoney.tech.dbqueue.settings;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.Test;
 
+import java.time.Duration;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
 /**
  * @author Oleg Kandaurov
  * @since 10.08.2017
@@ -14,4 +19,117 @@ public class QueueSettingsTest {
         EqualsVerifier.forClass(QueueSettings.class).verify();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void should_use_thread_count_as_thread_count_range_by_default() {
+        QueueSettings settings = QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ZERO)
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withThreadCount(3)
+                .build();
+        assertThat(settings.getMinThreadCount(), equalTo(3));
+        assertThat(settings.getMaxThreadCount(), equalTo(3));
+        assertThat(settings.isThreadCountAutoscaled(), equalTo(false));
+    }
+
+    @Test
+    public void should_start_with_min_thread_count_by_default() {
+        QueueSettings settings = QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ZERO)
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withMinThreadCount(2)
+                .withMaxThreadCount(8)
+                .build();
+        assertThat(settings.getThreadCount(), equalTo(2));
+        assertThat(settings.isThreadCountAutoscaled(), equalTo(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_thread_count_out_of_range() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ZERO)
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withThreadCount(10)
+                .withMaxThreadCount(8)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_autoscaling_in_single_picker_mode() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ZERO)
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.SINGLE_PICKER)
+                .withMinThreadCount(1)
+                .withMaxThreadCount(8)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_negative_initial_no_task_timeout() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ofSeconds(1L))
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withInitialNoTaskTimeout(Duration.ofSeconds(-1L))
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_zero_ack_flush_interval() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ofSeconds(1L))
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withAckBatchSize(100)
+                .withAckFlushInterval(Duration.ZERO)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_negative_rate_limit() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ofSeconds(1L))
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withRateLimit(-1)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_max_attempts_without_dead_letter_queue() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ofSeconds(1L))
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withMaxAttempts(3)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_lease_time_in_transaction() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ofSeconds(1L))
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.WRAP_IN_TRANSACTION)
+                .withLeaseTime(Duration.ofSeconds(30L))
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_pick_batch_in_transaction() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ofSeconds(1L))
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withProcessingMode(ProcessingMode.WRAP_IN_TRANSACTION)
+                .withPickBatchSize(10)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_allow_lease_time_shorter_than_two_ack_flush_intervals() {
+        QueueSettings.builder()
+                .withNoTaskTimeout(Duration.ofSeconds(1L))
+                .withBetweenTaskTimeout(Duration.ZERO)
+                .withAckBatchSize(100)
+                .withAckFlushInterval(Duration.ofSeconds(5L))
+                .withLeaseTime(Duration.ofSeconds(10L))
+                .build();
+    }
+
+}
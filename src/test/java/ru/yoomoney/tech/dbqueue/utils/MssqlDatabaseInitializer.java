@@ -1,13 +1,11 @@
 package ru.yoomoney.tech.dbqueue.utils;
 
 import com.microsoft.sqlserver.jdbc.SQLServerDataSource;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DataSourceTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
-import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.MSSQLServerContainer;
 import org.testcontainers.utility.TestcontainersConfiguration;
 import ru.yoomoney.tech.dbqueue.config.QueueTableSchema;
+import ru.yoomoney.tech.dbqueue.dao.Database;
+import ru.yoomoney.tech.dbqueue.dao.spring.SpringJdbcBasedDatabase;
 
 import java.net.URI;
 import java.util.Collections;
@@ -32,6 +30,9 @@ public class MssqlDatabaseInitializer {
             .withAttemptField("at")
             .withReenqueueAttemptField("rat")
             .withTotalAttemptField("tat")
+            .withPriorityField("prio")
+            .withOrderingKeyField("okey")
+            .withDeduplicationKeyField("dkey")
             .withExtFields(Collections.singletonList("trace"))
             .build();
 
@@ -44,11 +45,16 @@ public class MssqlDatabaseInitializer {
             "  at    integer not null         default 0,\n" +
             "  rat   integer not null         default 0,\n" +
             "  tat   integer not null         default 0,\n" +
+            "  prio  integer not null         default 0,\n" +
+            "  okey  varchar(127),\n" +
+            "  dkey  varchar(127),\n" +
             "  trace text \n" +
             "  primary key (qid)\n" +
             ");" +
             "CREATE INDEX %s_name_time_desc_idx\n" +
-            "  ON %s (qn, pt, qid DESC);\n" +
+            "  ON %s (qn, prio DESC, pt, qid DESC);\n" +
+            "CREATE UNIQUE INDEX %1$s_dkey_idx\n" +
+            "  ON %1$s (qn, dkey) WHERE dkey IS NOT NULL;\n" +
             "\n";
 
     private static final String MS_DEFAULT_TABLE_DDL = "CREATE TABLE %s (\n" +
@@ -81,12 +87,11 @@ public class MssqlDatabaseInitializer {
             "  ON %s (queue_name, next_process_at, id DESC);\n" +
             "\n";
 
-    private static JdbcTemplate msJdbcTemplate;
-    private static TransactionTemplate msTransactionTemplate;
+    private static SpringJdbcBasedDatabase database;
 
 
     public static synchronized void initialize() {
-        if (msJdbcTemplate != null) {
+        if (database != null) {
             return;
         }
         SQLServerDataSource dataSource;
@@ -107,10 +112,7 @@ public class MssqlDatabaseInitializer {
         dataSource.setPortNumber(uri.getPort());
         dataSource.setUser(containerInstance.getUsername());
         dataSource.setPassword(containerInstance.getPassword());
-        msJdbcTemplate = new JdbcTemplate(dataSource);
-        msTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
-        msTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
-        msTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        database = new SpringJdbcBasedDatabase(dataSource);
 
         executeDdl("CREATE SEQUENCE tasks_seq START WITH 1");
         createTable(MS_DEFAULT_TABLE_DDL, DEFAULT_TABLE_NAME);
@@ -125,19 +127,12 @@ public class MssqlDatabaseInitializer {
 
     private static void executeDdl(String ddl) {
         initialize();
-        getTransactionTemplate().execute(status -> {
-            getJdbcTemplate().execute(ddl);
-            return new Object();
+        database.transact(() -> {
+            database.update(ddl);
         });
     }
 
-    public static JdbcTemplate getJdbcTemplate() {
-        initialize();
-        return msJdbcTemplate;
-    }
-
-    public static TransactionTemplate getTransactionTemplate() {
-        initialize();
-        return msTransactionTemplate;
+    public static Database getDatabase() {
+        return database;
     }
 }
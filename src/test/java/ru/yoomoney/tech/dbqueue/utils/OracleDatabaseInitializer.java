@@ -42,6 +42,9 @@ public class OracleDatabaseInitializer {
             .withAttemptField("att")
             .withReenqueueAttemptField("rat")
             .withTotalAttemptField("tat")
+            .withPriorityField("prio")
+            .withOrderingKeyField("okey")
+            .withDeduplicationKeyField("dkey")
             .withExtFields(Collections.singletonList("trace"))
             .build();
 
@@ -54,9 +57,15 @@ public class OracleDatabaseInitializer {
             "  att     NUMBER(38)                  DEFAULT 0,\n" +
             "  rat    NUMBER(38)                  DEFAULT 0,\n" +
             "  tat    NUMBER(38)                  DEFAULT 0,\n" +
+            "  prio   NUMBER(38)                  DEFAULT 0,\n" +
+            "  okey   VARCHAR2(127),\n" +
+            "  dkey   VARCHAR2(127),\n" +
             "  trace  VARCHAR2(512)                  DEFAULT 0\n" +
             ")";
 
+    private static final String ORA_CUSTOM_TABLE_DKEY_INDEX_DDL = "CREATE UNIQUE INDEX %1$s_dkey_idx\n" +
+            "  ON %1$s (CASE WHEN dkey IS NOT NULL THEN qn END, dkey)";
+
 
     private static final String ORA_DEFAULT_TABLE_DDL = "CREATE TABLE %s (\n" +
             "  id                NUMBER(38) NOT NULL PRIMARY KEY,\n" +
@@ -90,6 +99,7 @@ public class OracleDatabaseInitializer {
         executeDdl("CREATE SEQUENCE tasks_seq START WITH 1");
         createTable(ORA_DEFAULT_TABLE_DDL, DEFAULT_TABLE_NAME);
         createTable(ORA_CUSTOM_TABLE_DDL, CUSTOM_TABLE_NAME);
+        createTable(ORA_CUSTOM_TABLE_DKEY_INDEX_DDL, CUSTOM_TABLE_NAME);
     }
 
     private static OracleDataSource getDataSource(OracleContainer dbContainer, String userName) {
@@ -29,6 +29,9 @@ public class PostgresDatabaseInitializer {
             .withAttemptField("at")
             .withReenqueueAttemptField("rat")
             .withTotalAttemptField("tat")
+            .withPriorityField("prio")
+            .withOrderingKeyField("okey")
+            .withDeduplicationKeyField("dkey")
             .withExtFields(Collections.singletonList("trace"))
             .build();
 
@@ -41,10 +44,14 @@ public class PostgresDatabaseInitializer {
             "  at    INTEGER                  DEFAULT 0,\n" +
             "  rat   INTEGER                  DEFAULT 0,\n" +
             "  tat   INTEGER                  DEFAULT 0,\n" +
-            "  trace TEXT \n" +
+            "  prio  INTEGER                  DEFAULT 0,\n" +
+            "  okey  TEXT,\n" +
+            "  dkey  TEXT,\n" +
+            "  trace TEXT,\n" +
+            "  UNIQUE (qn, dkey)\n" +
             ");" +
             "CREATE INDEX %s_name_time_desc_idx\n" +
-            "  ON %s (qn, pt, qid DESC);\n" +
+            "  ON %s (qn, prio DESC, pt, qid DESC);\n" +
             "\n";
 
     private static final String PG_DEFAULT_TABLE_DDL = "CREATE TABLE %s (\n" +